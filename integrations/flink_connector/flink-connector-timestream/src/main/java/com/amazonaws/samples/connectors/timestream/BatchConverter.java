@@ -11,6 +11,9 @@ import java.util.List;
 public interface BatchConverter extends Serializable {
     /**
      * This method will convert multiple buffered records to single WriteRecordRequest to Timestream.
+     * Records of the request are expected to map one to one, and in order, to the buffered records, as the records
+     * rejected by Timestream are identified by their index in the request and retried or dropped as buffered.
+     * Otherwise, the request records, along with the common attributes of the request, are retried or dropped instead.
      */
     WriteRecordsRequest apply(List<Record> bufferedRecords);
 }
@@ -0,0 +1,127 @@
+package com.amazonaws.samples.connectors.timestream;
+
+import org.apache.flink.annotation.PublicEvolving;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.awssdk.services.timestreamwrite.model.WriteRecordsRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link BatchConverter} which moves the attributes shared by all buffered records - dimensions, measure name,
+ * measure value type, time unit and version - to the common attributes of the WriteRecordsRequest,
+ * and removes them from the individual records. This way they are sent once per request instead of once per record.
+ * If the records don't share any attribute, they are sent as they are, without being copied.
+ *
+ * Records of the request are kept in the order of the buffered records.
+ */
+@PublicEvolving
+public class CommonAttributesBatchConverter implements BatchConverter {
+    private static final long serialVersionUID = 2953015724184652331L;
+
+    private final String databaseName;
+    private final String tableName;
+
+    public CommonAttributesBatchConverter(final String databaseName, final String tableName) {
+        this.databaseName = Objects.requireNonNull(databaseName, "databaseName");
+        this.tableName = Objects.requireNonNull(tableName, "tableName");
+    }
+
+    @Override
+    public WriteRecordsRequest apply(final List<Record> bufferedRecords) {
+        final WriteRecordsRequest.Builder request = WriteRecordsRequest.builder()
+                .databaseName(databaseName)
+                .tableName(tableName);
+        if (bufferedRecords.size() < 2) {
+            return request.records(bufferedRecords).build();
+        }
+
+        final Record first = bufferedRecords.get(0);
+        String measureName = first.measureName();
+        String measureValueType = first.measureValueTypeAsString();
+        String timeUnit = first.timeUnitAsString();
+        Long version = first.version();
+        final Set<Dimension> dimensions = first.hasDimensions()
+                ? new LinkedHashSet<>(first.dimensions()) : new LinkedHashSet<>();
+        for (int i = 1; i < bufferedRecords.size(); i++) {
+            final Record record = bufferedRecords.get(i);
+            if (measureName != null && !measureName.equals(record.measureName())) {
+                measureName = null;
+            }
+            if (measureValueType != null && !measureValueType.equals(record.measureValueTypeAsString())) {
+                measureValueType = null;
+            }
+            if (timeUnit != null && !timeUnit.equals(record.timeUnitAsString())) {
+                timeUnit = null;
+            }
+            if (version != null && !version.equals(record.version())) {
+                version = null;
+            }
+            if (!dimensions.isEmpty()) {
+                if (record.hasDimensions()) {
+                    dimensions.retainAll(record.dimensions());
+                } else {
+                    dimensions.clear();
+                }
+            }
+            if (measureName == null && measureValueType == null && timeUnit == null && version == null
+                    && dimensions.isEmpty()) {
+                return request.records(bufferedRecords).build();
+            }
+        }
+
+        final Record.Builder commonAttributes = Record.builder()
+                .measureName(measureName)
+                .measureValueType(measureValueType)
+                .timeUnit(timeUnit)
+                .version(version);
+        if (!dimensions.isEmpty()) {
+            commonAttributes.dimensions(dimensions);
+        }
+
+        final List<Record> records = new ArrayList<>(bufferedRecords.size());
+        for (final Record record : bufferedRecords) {
+            records.add(stripCommonAttributes(record, measureName != null, measureValueType != null,
+                    timeUnit != null, version != null, dimensions));
+        }
+        return request
+                .commonAttributes(commonAttributes.build())
+                .records(records)
+                .build();
+    }
+
+    private static Record stripCommonAttributes(final Record record,
+                                                final boolean stripMeasureName,
+                                                final boolean stripMeasureValueType,
+                                                final boolean stripTimeUnit,
+                                                final boolean stripVersion,
+                                                final Set<Dimension> commonDimensions) {
+        final Record.Builder builder = record.toBuilder();
+        if (stripMeasureName) {
+            builder.measureName(null);
+        }
+        if (stripMeasureValueType) {
+            builder.measureValueType((String) null);
+        }
+        if (stripTimeUnit) {
+            builder.timeUnit((String) null);
+        }
+        if (stripVersion) {
+            builder.version(null);
+        }
+        if (!commonDimensions.isEmpty()) {
+            final List<Dimension> dimensions = new ArrayList<>(record.dimensions().size());
+            for (final Dimension dimension : record.dimensions()) {
+                if (!commonDimensions.contains(dimension)) {
+                    dimensions.add(dimension);
+                }
+            }
+            builder.dimensions(dimensions.isEmpty() ? null : dimensions);
+        }
+        return builder.build();
+    }
+}
@@ -33,6 +33,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeoutException;
@@ -49,6 +50,16 @@ public class DefaultWriteRequestFailureHandler implements WriteRequestFailureHan
     private boolean failProcessingOnErrorDefault;
     private boolean failProcessingOnValidationException;
     private boolean failProcessingOnRejectedRecordsException;
+    private boolean retryRejectedRecordsOnVersionConflict;
+    private boolean dropRejectedRecordsOutsideTimeRange;
+
+    enum RejectedRecordReason {
+        // record with the same dimensions, time and measure name, but a different value, exists with equal or higher version
+        VERSION_CONFLICT,
+        // record time is outside the memory store retention, or the magnetic store write window
+        OUTSIDE_TIME_RANGE,
+        OTHER
+    }
 
     @FunctionalInterface
     public interface ExceptionConsumer {
@@ -132,28 +143,75 @@ public class DefaultWriteRequestFailureHandler implements WriteRequestFailureHan
             LOG.info("\tRejected Record Common Attributes Data: -> {}", writeRecordsRequest.commonAttributes());
         }
 
-        final ArrayList<Record> rejectedOriginalRecords = new ArrayList<>(rejectedRecords.size());
+        final ArrayList<Record> retriedRecords = new ArrayList<>();
+        final ArrayList<Record> droppedRecords = new ArrayList<>();
+        final ArrayList<Record> failedRecords = new ArrayList<>();
         for (RejectedRecord rejectedRecord : rejectedRecords) {
             final int index = rejectedRecord.recordIndex();
             LOG.warn("\tRejected Record: -> {}", rejectedRecord);
 
-            final Record originalRecord = writeRecordsRequest.records().get(index);
-            rejectedOriginalRecords.add(originalRecord);
+            // request records may have their common attributes removed, so the buffered entries are reported
+            // when the batch converter kept them one to one, or else the request records with their common attributes
+            final Record originalRecord = records.size() == writeRecordsRequest.records().size()
+                    ? records.get(index)
+                    : TimestreamModelUtils.withCommonAttributes(writeRecordsRequest.records().get(index),
+                            writeRecordsRequest.commonAttributes());
 
             if (printFailedRequests) {
                 LOG.info("\tRejected Record Data: -> {}", originalRecord);
             }
             LOG.warn("\tRejected Record Reason: -> {}", rejectedRecord.reason());
+
+            switch (classifyRejectedRecord(rejectedRecord)) {
+                case VERSION_CONFLICT:
+                    if (retryRejectedRecordsOnVersionConflict) {
+                        // the existing record is overwritten only by a higher version
+                        retriedRecords.add(originalRecord.toBuilder()
+                                .version(rejectedRecord.existingVersion() + 1)
+                                .build());
+                    } else {
+                        failedRecords.add(originalRecord);
+                    }
+                    break;
+                case OUTSIDE_TIME_RANGE:
+                    if (dropRejectedRecordsOutsideTimeRange) {
+                        droppedRecords.add(originalRecord);
+                    } else {
+                        failedRecords.add(originalRecord);
+                    }
+                    break;
+                default:
+                    failedRecords.add(originalRecord);
+            }
         }
+        LOG.info("Rejected records: {} retried, {} dropped, {} failed.",
+                retriedRecords.size(), droppedRecords.size(), failedRecords.size());
 
-        if (failProcessingOnRejectedRecordsException) {
+        // without rejected record details, every record is considered failed
+        if (failProcessingOnRejectedRecordsException && (rejectedRecords.isEmpty() || !failedRecords.isEmpty())) {
             LOG.info("'failProcessingOnRejectedRecordsException' is {}, therefore failing without retry.", failProcessingOnRejectedRecordsException);
             fatalExceptionConsumer.accept(e); // fail, no retry
         } else {
-            LOG.info("'failProcessingOnRejectedRecordsException' is {}, therefore dropping records..", failProcessingOnRejectedRecordsException);
-            dropCompletionConsumer.accept(rejectedOriginalRecords); // mark rejected records as dropped
-            retryOrSuccessCompletionConsumer.accept(Collections.emptyList()); // notify request completion
+            if (!failedRecords.isEmpty()) {
+                LOG.info("'failProcessingOnRejectedRecordsException' is {}, therefore dropping records..", failProcessingOnRejectedRecordsException);
+            }
+            droppedRecords.addAll(failedRecords);
+            dropCompletionConsumer.accept(droppedRecords); // mark rejected records as dropped
+            retryOrSuccessCompletionConsumer.accept(retriedRecords); // retry records which can succeed, notify request completion
+        }
+    }
+
+    static RejectedRecordReason classifyRejectedRecord(final RejectedRecord rejectedRecord) {
+        if (rejectedRecord.existingVersion() != null) {
+            return RejectedRecordReason.VERSION_CONFLICT;
+        }
+        final String reason = rejectedRecord.reason() == null ? "" : rejectedRecord.reason().toLowerCase(Locale.ROOT);
+        if (reason.contains("outside")) {
+            // "The record timestamp is outside the time range [...] of the data ingestion window."
+            // or outside of the retention duration of the memory store
+            return RejectedRecordReason.OUTSIDE_TIME_RANGE;
         }
+        return RejectedRecordReason.OTHER;
     }
 
     void handleDefaultException(final List<Record> records,
@@ -189,6 +247,8 @@ public class DefaultWriteRequestFailureHandler implements WriteRequestFailureHan
         this.failProcessingOnErrorDefault = failureHandlerConfig.isFailProcessingOnErrorDefault();
         this.failProcessingOnValidationException = failureHandlerConfig.isFailProcessingOnValidationException();
         this.failProcessingOnRejectedRecordsException = failureHandlerConfig.isFailProcessingOnRejectedRecordsException();
+        this.retryRejectedRecordsOnVersionConflict = failureHandlerConfig.isRetryRejectedRecordsOnVersionConflict();
+        this.dropRejectedRecordsOutsideTimeRange = failureHandlerConfig.isDropRejectedRecordsOutsideTimeRange();
     }
 
     @Override
@@ -268,6 +328,8 @@ public class DefaultWriteRequestFailureHandler implements WriteRequestFailureHan
                 failProcessingOnErrorDefault == that.failProcessingOnErrorDefault &&
                 failProcessingOnValidationException == that.failProcessingOnValidationException &&
                 failProcessingOnRejectedRecordsException == that.failProcessingOnRejectedRecordsException &&
+                retryRejectedRecordsOnVersionConflict == that.retryRejectedRecordsOnVersionConflict &&
+                dropRejectedRecordsOutsideTimeRange == that.dropRejectedRecordsOutsideTimeRange &&
                 Objects.equals(fatalExceptionConsumer, that.fatalExceptionConsumer) &&
                 Objects.equals(exceptionTypeToExceptionHandleMethod, that.exceptionTypeToExceptionHandleMethod);
     }
@@ -278,6 +340,8 @@ public class DefaultWriteRequestFailureHandler implements WriteRequestFailureHan
                 failProcessingOnErrorDefault,
                 failProcessingOnValidationException,
                 failProcessingOnRejectedRecordsException,
+                retryRejectedRecordsOnVersionConflict,
+                dropRejectedRecordsOutsideTimeRange,
                 fatalExceptionConsumer,
                 exceptionTypeToExceptionHandleMethod);
     }
@@ -0,0 +1,30 @@
+package com.amazonaws.samples.connectors.timestream;
+
+import org.apache.flink.annotation.PublicEvolving;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+
+import java.util.List;
+
+/**
+ * Destination of the records dropped by the sink - e.g. rejected by Timestream, or failing validation,
+ * when the failure handler is configured not to fail the processing - so that they can be replayed later.
+ * Configured by {@link TimestreamSinkConfig.DroppedRecordSinkConfig}, and instantiated once per sink writer.
+ */
+@PublicEvolving
+public interface DroppedRecordSink {
+
+    void open(final TimestreamSinkConfig.DroppedRecordSinkConfig droppedRecordSinkConfig, final int subtaskId);
+
+    /**
+     * Accept records dropped by the sink. This method is invoked from the thread completing the write request,
+     * so it must not block - records which can't be accepted right away should be discarded.
+     *
+     * @param droppedRecords - records dropped by the sink, with all their attributes
+     */
+    void accept(final List<Record> droppedRecords);
+
+    /**
+     * Write the records accepted so far, and release the resources of the sink.
+     */
+    void close();
+}
@@ -0,0 +1,182 @@
+package com.amazonaws.samples.connectors.timestream;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@link DroppedRecordSink} writing dropped records to rolling files in a local directory, in {@link RecordBinaryFormat}.
+ * Records are written by a background thread, from a queue bounded by {@code maxBufferedRecords} - records dropped
+ * while the queue is full are discarded and logged. A file is complete once the next one is started, or the sink closed.
+ * Files can be read back with {@link #readRecords(Path, Consumer)}.
+ */
+@PublicEvolving
+public class LocalFileDroppedRecordSink implements DroppedRecordSink {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalFileDroppedRecordSink.class);
+
+    static final int FILE_MAGIC = 0x54534452;
+    static final String FILE_PREFIX = "dropped-records-";
+    static final String FILE_SUFFIX = ".bin";
+    private static final long POLL_TIMEOUT_MS = 1000;
+
+    private final AtomicLong discardedRecords = new AtomicLong();
+    private BlockingQueue<Record> bufferedRecords;
+    private Path directory;
+    private long maxFileSizeInBytes;
+    private int subtaskId;
+    private Thread writerThread;
+    private volatile boolean closed;
+
+    // accessed only by the writer thread
+    private DataOutputStream out;
+    private RecordBinaryFormat.Encoder encoder;
+    private int fileSequence;
+
+    @Override
+    public void open(final TimestreamSinkConfig.DroppedRecordSinkConfig droppedRecordSinkConfig, final int subtaskId) {
+        if (droppedRecordSinkConfig.getDirectory() == null) {
+            throw new IllegalArgumentException("'directory' of DroppedRecordSinkConfig is required by LocalFileDroppedRecordSink");
+        }
+        this.directory = Paths.get(droppedRecordSinkConfig.getDirectory());
+        this.maxFileSizeInBytes = droppedRecordSinkConfig.getMaxFileSizeInBytes();
+        this.bufferedRecords = new ArrayBlockingQueue<>(droppedRecordSinkConfig.getMaxBufferedRecords());
+        this.subtaskId = subtaskId;
+        this.writerThread = new Thread(this::writeBufferedRecords, "timestream-dropped-records-" + subtaskId);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        LOG.info("Writing dropped records to {}", directory);
+    }
+
+    @Override
+    public void accept(final List<Record> droppedRecords) {
+        int discarded = 0;
+        for (final Record record : droppedRecords) {
+            if (closed || !bufferedRecords.offer(record)) {
+                discarded++;
+            }
+        }
+        if (discarded > 0) {
+            LOG.warn("Dropped records can't be written to {} right now. Discarded {} dropped records, {} in total.",
+                    directory, discarded, discardedRecords.addAndGet(discarded));
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writerThread.interrupt();
+        }
+    }
+
+    private void writeBufferedRecords() {
+        final List<Record> records = new ArrayList<>();
+        try {
+            while (!closed || !bufferedRecords.isEmpty()) {
+                final Record record = bufferedRecords.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (record == null) {
+                    continue;
+                }
+                records.add(record);
+                bufferedRecords.drainTo(records);
+                writeRecords(records);
+                records.clear();
+            }
+        } catch (InterruptedException e) {
+            LOG.warn("Interrupted while writing dropped records to {}. {} buffered records are discarded.",
+                    directory, bufferedRecords.size());
+        } catch (IOException e) {
+            // further dropped records are discarded, the sink itself keeps processing
+            closed = true;
+            LOG.error("Writing dropped records to {} failed. {} records are discarded.",
+                    directory, records.size() + bufferedRecords.size(), e);
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void writeRecords(final List<Record> records) throws IOException {
+        for (final Record record : records) {
+            if (out == null) {
+                openFile();
+            }
+            encoder.write(record);
+            if (out.size() >= maxFileSizeInBytes) {
+                closeFile();
+            }
+        }
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    private void openFile() throws IOException {
+        Files.createDirectories(directory);
+        final Path file = directory.resolve(FILE_PREFIX + subtaskId + "-" + System.currentTimeMillis()
+                + "-" + fileSequence++ + FILE_SUFFIX);
+        out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+        out.writeInt(FILE_MAGIC);
+        encoder = new RecordBinaryFormat.Encoder(out);
+        LOG.debug("Started file of dropped records {}", file);
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                LOG.error("Closing file of dropped records in {} failed.", directory, e);
+            }
+            out = null;
+            encoder = null;
+        }
+    }
+
+    /**
+     * Reads back the records of a file written by this sink. A record partially written to the file,
+     * e.g. when the process was killed, is ignored.
+     *
+     * @param file     - file written by this sink
+     * @param consumer - consumer of the records of the file, in the order they were dropped
+     */
+    public static void readRecords(final Path file, final Consumer<Record> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a file of dropped records: " + file);
+            }
+            final RecordBinaryFormat.Decoder decoder = new RecordBinaryFormat.Decoder(in);
+            while (true) {
+                final Record record;
+                try {
+                    record = decoder.read();
+                } catch (EOFException e) {
+                    return;
+                }
+                consumer.accept(record);
+            }
+        }
+    }
+}
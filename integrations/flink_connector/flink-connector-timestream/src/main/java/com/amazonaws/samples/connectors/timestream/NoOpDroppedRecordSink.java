@@ -0,0 +1,23 @@
+package com.amazonaws.samples.connectors.timestream;
+
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+
+import java.util.List;
+
+/**
+ * Default {@link DroppedRecordSink}, discarding dropped records - they are only counted in the sink metrics.
+ */
+public class NoOpDroppedRecordSink implements DroppedRecordSink {
+
+    @Override
+    public void open(final TimestreamSinkConfig.DroppedRecordSinkConfig droppedRecordSinkConfig, final int subtaskId) {
+    }
+
+    @Override
+    public void accept(final List<Record> droppedRecords) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
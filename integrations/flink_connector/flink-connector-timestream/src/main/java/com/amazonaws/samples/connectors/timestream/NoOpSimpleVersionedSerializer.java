@@ -10,7 +10,11 @@ import java.io.IOException;
 /**
  * A {@link SimpleVersionedSerializer} that does not expect to do any serialising.
  * This class will throw an exception if any records are passed to it.
+ *
+ * @deprecated the sink stores its buffer in checkpoints with {@link TimestreamSinkWriterStateSerializer},
+ * which also reads the empty state written by this class.
  */
+@Deprecated
 public class NoOpSimpleVersionedSerializer implements SimpleVersionedSerializer<BufferedRequestState<Record>> {
     private static final int VERSION = 1;
 
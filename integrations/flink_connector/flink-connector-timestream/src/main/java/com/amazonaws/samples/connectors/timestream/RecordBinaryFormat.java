@@ -0,0 +1,227 @@
+package com.amazonaws.samples.connectors.timestream;
+
+import org.apache.flink.annotation.PublicEvolving;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValue;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format of Timestream Records, used to store records outside of Timestream -
+ * records buffered by the sink at checkpoint, or dropped records to be replayed later.
+ *
+ * Lengths and numbers are written as variable-length integers, and strings as UTF-8 bytes.
+ * Dimension and measure value names are dictionary-encoded: the first occurrence of a name in the stream
+ * is written in full, and later occurrences as its index. Therefore, records must be read back with
+ * a single {@link Decoder} in the order they were written with a single {@link Encoder}.
+ */
+@PublicEvolving
+public final class RecordBinaryFormat {
+    private static final int MEASURE_NAME = 1;
+    private static final int MEASURE_VALUE = 1 << 1;
+    private static final int MEASURE_VALUE_TYPE = 1 << 2;
+    private static final int TIME = 1 << 3;
+    private static final int TIME_UNIT = 1 << 4;
+    private static final int VERSION = 1 << 5;
+    private static final int DIMENSIONS = 1 << 6;
+    private static final int MEASURE_VALUES = 1 << 7;
+
+    private RecordBinaryFormat() {
+    }
+
+    public static final class Encoder {
+        private final DataOutput out;
+        private final Map<String, Integer> names = new HashMap<>();
+
+        public Encoder(final DataOutput out) {
+            this.out = out;
+        }
+
+        public void write(final Record record) throws IOException {
+            int fields = 0;
+            fields |= record.measureName() != null ? MEASURE_NAME : 0;
+            fields |= record.measureValue() != null ? MEASURE_VALUE : 0;
+            fields |= record.measureValueTypeAsString() != null ? MEASURE_VALUE_TYPE : 0;
+            fields |= record.time() != null ? TIME : 0;
+            fields |= record.timeUnitAsString() != null ? TIME_UNIT : 0;
+            fields |= record.version() != null ? VERSION : 0;
+            fields |= record.hasDimensions() ? DIMENSIONS : 0;
+            fields |= record.hasMeasureValues() ? MEASURE_VALUES : 0;
+            out.writeByte(fields);
+
+            if (record.measureName() != null) {
+                writeString(record.measureName());
+            }
+            if (record.measureValue() != null) {
+                writeString(record.measureValue());
+            }
+            if (record.measureValueTypeAsString() != null) {
+                writeString(record.measureValueTypeAsString());
+            }
+            if (record.time() != null) {
+                writeString(record.time());
+            }
+            if (record.timeUnitAsString() != null) {
+                writeString(record.timeUnitAsString());
+            }
+            if (record.version() != null) {
+                out.writeLong(record.version());
+            }
+            if (record.hasDimensions()) {
+                writeVarInt(record.dimensions().size());
+                for (final Dimension dimension : record.dimensions()) {
+                    writeName(dimension.name());
+                    writeNullableString(dimension.value());
+                    writeNullableString(dimension.dimensionValueTypeAsString());
+                }
+            }
+            if (record.hasMeasureValues()) {
+                writeVarInt(record.measureValues().size());
+                for (final MeasureValue measureValue : record.measureValues()) {
+                    writeName(measureValue.name());
+                    writeNullableString(measureValue.value());
+                    writeNullableString(measureValue.typeAsString());
+                }
+            }
+        }
+
+        private void writeName(final String name) throws IOException {
+            // 0 introduces a new name, otherwise index + 1 of a name written before
+            final Integer index = names.get(name);
+            if (index != null) {
+                writeVarInt(index + 1);
+            } else {
+                writeVarInt(0);
+                writeNullableString(name);
+                names.put(name, names.size());
+            }
+        }
+
+        private void writeNullableString(final String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+            } else {
+                final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(bytes.length + 1);
+                out.write(bytes);
+            }
+        }
+
+        private void writeString(final String value) throws IOException {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    public static final class Decoder {
+        private final DataInput in;
+        private final List<String> names = new ArrayList<>();
+
+        public Decoder(final DataInput in) {
+            this.in = in;
+        }
+
+        public Record read() throws IOException {
+            final int fields = in.readUnsignedByte();
+            final Record.Builder builder = Record.builder();
+            if ((fields & MEASURE_NAME) != 0) {
+                builder.measureName(readString());
+            }
+            if ((fields & MEASURE_VALUE) != 0) {
+                builder.measureValue(readString());
+            }
+            if ((fields & MEASURE_VALUE_TYPE) != 0) {
+                builder.measureValueType(readString());
+            }
+            if ((fields & TIME) != 0) {
+                builder.time(readString());
+            }
+            if ((fields & TIME_UNIT) != 0) {
+                builder.timeUnit(readString());
+            }
+            if ((fields & VERSION) != 0) {
+                builder.version(in.readLong());
+            }
+            if ((fields & DIMENSIONS) != 0) {
+                final int count = readVarInt();
+                final List<Dimension> dimensions = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    dimensions.add(Dimension.builder()
+                            .name(readName())
+                            .value(readNullableString())
+                            .dimensionValueType(readNullableString())
+                            .build());
+                }
+                builder.dimensions(dimensions);
+            }
+            if ((fields & MEASURE_VALUES) != 0) {
+                final int count = readVarInt();
+                final List<MeasureValue> measureValues = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    measureValues.add(MeasureValue.builder()
+                            .name(readName())
+                            .value(readNullableString())
+                            .type(readNullableString())
+                            .build());
+                }
+                builder.measureValues(measureValues);
+            }
+            return builder.build();
+        }
+
+        private String readName() throws IOException {
+            final int index = readVarInt();
+            if (index > 0) {
+                return names.get(index - 1);
+            }
+            final String name = readNullableString();
+            names.add(name);
+            return name;
+        }
+
+        private String readNullableString() throws IOException {
+            final int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            final byte[] bytes = new byte[length - 1];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private String readString() throws IOException {
+            final byte[] bytes = new byte[readVarInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
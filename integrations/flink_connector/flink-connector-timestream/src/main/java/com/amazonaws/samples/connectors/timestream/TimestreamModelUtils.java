@@ -10,6 +10,9 @@ import software.amazon.awssdk.services.timestreamwrite.model.MeasureValueType;
 import software.amazon.awssdk.services.timestreamwrite.model.Record;
 import software.amazon.awssdk.services.timestreamwrite.model.WriteRecordsRequest;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TimestreamModelUtils {
     private static final Logger LOG = LoggerFactory.getLogger(TimestreamModelUtils.class);
 
@@ -58,10 +61,10 @@ public class TimestreamModelUtils {
         if (record.hasDimensions()) {
             for (final Dimension dimension : record.dimensions()) {
                 if (dimension.name() != null) {
-                    bytesRecord += dimension.name().length();
+                    bytesRecord += sizeOfString(dimension.name());
                 }
                 if (dimension.value() != null) {
-                    bytesRecord += dimension.value().length();
+                    bytesRecord += sizeOfString(dimension.value());
                 }
             }
         }
@@ -113,4 +116,41 @@ public class TimestreamModelUtils {
         }
         return 0;
     }
+
+    /**
+     * Builds the record as written by Timestream from a record of a WriteRecordsRequest and the common attributes
+     * of the request: attributes set on the record take precedence, dimensions of both are kept.
+     */
+    public static Record withCommonAttributes(final Record record, final Record commonAttributes) {
+        if (commonAttributes == null) {
+            return record;
+        }
+        final Record.Builder builder = record.toBuilder();
+        if (record.measureName() == null) {
+            builder.measureName(commonAttributes.measureName());
+        }
+        if (record.measureValueTypeAsString() == null) {
+            builder.measureValueType(commonAttributes.measureValueTypeAsString());
+        }
+        if (record.measureValue() == null) {
+            builder.measureValue(commonAttributes.measureValue());
+        }
+        if (record.time() == null) {
+            builder.time(commonAttributes.time());
+        }
+        if (record.timeUnitAsString() == null) {
+            builder.timeUnit(commonAttributes.timeUnitAsString());
+        }
+        if (record.version() == null) {
+            builder.version(commonAttributes.version());
+        }
+        if (commonAttributes.hasDimensions() && !commonAttributes.dimensions().isEmpty()) {
+            final List<Dimension> dimensions = new ArrayList<>(commonAttributes.dimensions());
+            if (record.hasDimensions()) {
+                dimensions.addAll(record.dimensions());
+            }
+            builder.dimensions(dimensions);
+        }
+        return builder.build();
+    }
 }
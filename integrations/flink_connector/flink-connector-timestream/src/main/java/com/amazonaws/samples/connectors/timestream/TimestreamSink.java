@@ -19,12 +19,6 @@ public class TimestreamSink<InputT> extends AsyncSinkBase<InputT, Record> {
     private static final long serialVersionUID = 1L;
     private static final Logger LOG = LoggerFactory.getLogger(TimestreamSink.class);
 
-    // Timestream does not limit record/WriteRecordsRequest size in bytes - although there are limits
-    // on number of records/measures/dimensions outside of sink control.
-    // See: https://docs.aws.amazon.com/timestream/latest/developerguide/ts-limits.html
-    protected static final int MAX_BATCH_SIZE_IN_BYTES = Integer.MAX_VALUE;
-    protected static final int MAX_RECORD_SIZE_IN_BYTES = Integer.MAX_VALUE;
-
     private final BatchConverter batchConverter;
     private final TimestreamSinkConfig timestreamSinkConfig;
 
@@ -36,9 +30,9 @@ public class TimestreamSink<InputT> extends AsyncSinkBase<InputT, Record> {
                 timestreamSinkConfig.getMaxBatchSize(),
                 timestreamSinkConfig.getMaxInFlightRequests(),
                 timestreamSinkConfig.getMaxBufferedRequests(),
-                MAX_BATCH_SIZE_IN_BYTES,
+                timestreamSinkConfig.getMaxBatchSizeInBytes(),
                 timestreamSinkConfig.getMaxTimeInBufferMS(),
-                MAX_RECORD_SIZE_IN_BYTES);
+                timestreamSinkConfig.getMaxRecordSizeInBytes());
         this.batchConverter = batchConverter;
         this.timestreamSinkConfig = timestreamSinkConfig;
         LOG.debug("Initialized TimestreamSink class");
@@ -51,18 +45,19 @@ public class TimestreamSink<InputT> extends AsyncSinkBase<InputT, Record> {
 
     @Override
     public StatefulSinkWriter<InputT, BufferedRequestState<Record>> restoreWriter(InitContext context, Collection<BufferedRequestState<Record>> collection) throws IOException {
-        LOG.debug("Creating a new TimestreamSinkWriter...");
+        LOG.debug("Creating a new TimestreamSinkWriter from {} restored states...", collection.size());
         CloudWatchEmittedMetricGroupHelper.StaticEmitSinkMetricsToCloudWatch = timestreamSinkConfig.isEmitSinkMetricsToCloudWatch();
         return new TimestreamSinkWriter<>(
                 getElementConverter(),
                 batchConverter,
                 context,
-                timestreamSinkConfig
+                timestreamSinkConfig,
+                collection
         );
     }
 
     @Override
     public SimpleVersionedSerializer<BufferedRequestState<Record>> getWriterStateSerializer() {
-        return new NoOpSimpleVersionedSerializer();
+        return new TimestreamSinkWriterStateSerializer();
     }
 }
@@ -25,6 +25,21 @@ public class TimestreamSinkConfig implements Serializable {
     @Builder.Default
     private final long maxTimeInBufferMS = 15 * 1000;
 
+    /**
+     * Size of the buffered records, as metered by Timestream (see {@link TimestreamModelUtils#getRecordSizeInBytes}),
+     * at which the buffer is flushed, and up to which records are put in a single WriteRecordsRequest.
+     */
+    @Builder.Default
+    private final long maxBatchSizeInBytes = 4 * 1024 * 1024;
+
+    /**
+     * Size of a single record, as metered by Timestream, above which the record is refused by the sink.
+     * Timestream limits the number and size of the dimensions and measures of a record, so no valid record comes close
+     * to the default. Must not be greater than {@code maxBatchSizeInBytes}.
+     */
+    @Builder.Default
+    private final long maxRecordSizeInBytes = 1024 * 1024;
+
     /**
      * Emit sink metrics to Amazon CloudWatch, by adding them to "kinesisanalytics" group.
      * Unfortunately - due to mechanism how the metrics can be exposed in KDA and Flink - this
@@ -43,6 +58,9 @@ public class TimestreamSinkConfig implements Serializable {
     @Builder.Default
     private final FailureHandlerConfig failureHandlerConfig = FailureHandlerConfig.builder().build();
 
+    @Builder.Default
+    private final DroppedRecordSinkConfig droppedRecordSinkConfig = DroppedRecordSinkConfig.builder().build();
+
     @Builder.Default
     private final CredentialProviderType credentialsProviderType = CredentialProviderType.AUTO;
 
@@ -73,6 +91,22 @@ public class TimestreamSinkConfig implements Serializable {
         // Mainly designed to be used for test environment.
         private final boolean failProcessingOnValidationException = true;
 
+        @Builder.Default
+        // Split a batch failing with ValidationException in halves, and send them separately, until the invalid records
+        // are isolated. Only the batches of single invalid records are then handled as configured
+        // by failProcessingOnValidationException, instead of the whole batch.
+        private final boolean bisectOnValidationException = false;
+
+        @Builder.Default
+        // Retry records rejected because a record with the same dimensions, time and measure name, but a different value,
+        // already exists - with the version following the existing one, which overwrites the existing record.
+        private final boolean retryRejectedRecordsOnVersionConflict = false;
+
+        @Builder.Default
+        // Drop records rejected for their time being outside the memory store retention or the magnetic store write window,
+        // instead of handling them as configured by failProcessingOnRejectedRecordsException. They would never succeed.
+        private final boolean dropRejectedRecordsOutsideTimeRange = false;
+
         @Builder.Default
         // Throw exception on any other, non-retryable exception, like AccessDeniedException or ResourceNotFoundException.
         // This doesn't apply to two exceptions above.
@@ -80,6 +114,27 @@ public class TimestreamSinkConfig implements Serializable {
         private final boolean failProcessingOnErrorDefault = true;
     }
 
+    @Data
+    @Builder
+    public static class DroppedRecordSinkConfig implements Serializable {
+
+        @Builder.Default
+        private final String droppedRecordSinkClass = NoOpDroppedRecordSink.class.getCanonicalName();
+
+        @Builder.Default
+        // LocalFileDroppedRecordSink: directory the files of dropped records are written to.
+        private final String directory = null;
+
+        @Builder.Default
+        // LocalFileDroppedRecordSink: size of a file after which the next one is started.
+        private final long maxFileSizeInBytes = 64 * 1024 * 1024;
+
+        @Builder.Default
+        // Number of dropped records waiting to be written, above which further dropped records are discarded,
+        // so that dropping records never blocks the sink.
+        private final int maxBufferedRecords = 10 * 1000;
+    }
+
     @Data
     @Builder
     public static class CredentialConfig implements Serializable {
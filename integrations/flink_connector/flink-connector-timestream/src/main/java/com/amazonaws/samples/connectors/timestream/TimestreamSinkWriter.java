@@ -27,44 +27,58 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.timestreamwrite.TimestreamWriteAsyncClient;
 import software.amazon.awssdk.services.timestreamwrite.TimestreamWriteAsyncClientBuilder;
 import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.awssdk.services.timestreamwrite.model.ValidationException;
 import software.amazon.awssdk.services.timestreamwrite.model.WriteRecordsRequest;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 
-import static com.amazonaws.samples.connectors.timestream.TimestreamSink.MAX_BATCH_SIZE_IN_BYTES;
-import static com.amazonaws.samples.connectors.timestream.TimestreamSink.MAX_RECORD_SIZE_IN_BYTES;
-
 public class TimestreamSinkWriter<InputT> extends AsyncSinkWriter<InputT, Record> {
     private static final Logger LOG = LoggerFactory.getLogger(TimestreamSinkWriter.class);
 
     private final BatchConverter batchConverter;
     private final TimestreamWriteAsyncClient client;
     private final WriteRequestFailureHandler failureHandler;
+    private final DroppedRecordSink droppedRecordSink;
     private final MetricsCollector metricsCollector;
+    private final boolean bisectOnValidationException;
 
     public TimestreamSinkWriter(
             ElementConverter<InputT, Record> elementConverter,
             BatchConverter batchConverter,
             InitContext context,
             TimestreamSinkConfig timestreamSinkConfig) {
+        this(elementConverter, batchConverter, context, timestreamSinkConfig, Collections.emptyList());
+    }
+
+    public TimestreamSinkWriter(
+            ElementConverter<InputT, Record> elementConverter,
+            BatchConverter batchConverter,
+            InitContext context,
+            TimestreamSinkConfig timestreamSinkConfig,
+            Collection<BufferedRequestState<Record>> states) {
         super(elementConverter,
                 context,
                 timestreamSinkConfig.getMaxBatchSize(),
                 timestreamSinkConfig.getMaxInFlightRequests(),
                 timestreamSinkConfig.getMaxBufferedRequests(),
-                MAX_BATCH_SIZE_IN_BYTES,
+                timestreamSinkConfig.getMaxBatchSizeInBytes(),
                 timestreamSinkConfig.getMaxTimeInBufferMS(),
-                MAX_RECORD_SIZE_IN_BYTES);
+                timestreamSinkConfig.getMaxRecordSizeInBytes(),
+                states);
         this.batchConverter = batchConverter;
         this.client = openAsyncClient(timestreamSinkConfig);
         this.failureHandler = createFailureHandler(timestreamSinkConfig);
+        this.droppedRecordSink = createDroppedRecordSink(timestreamSinkConfig, context);
         this.metricsCollector = openMetricCollector(context);
+        this.bisectOnValidationException = timestreamSinkConfig.getFailureHandlerConfig().isBisectOnValidationException();
     }
 
     TimestreamSinkMetricGroup createTimestreamSinkMetricGroup(final InitContext context) {
@@ -83,6 +97,17 @@ public class TimestreamSinkWriter<InputT> extends AsyncSinkWriter<InputT, Record
         return instance;
     }
 
+    @SneakyThrows
+    protected DroppedRecordSink createDroppedRecordSink(TimestreamSinkConfig timestreamSinkConfig, InitContext context) {
+        final DroppedRecordSink instance = InstantiationUtil.instantiate(
+                timestreamSinkConfig.getDroppedRecordSinkConfig().getDroppedRecordSinkClass(),
+                DroppedRecordSink.class,
+                Thread.currentThread().getContextClassLoader()
+        );
+        instance.open(timestreamSinkConfig.getDroppedRecordSinkConfig(), context.getSubtaskId());
+        return instance;
+    }
+
     @VisibleForTesting
     protected MetricsCollector openMetricCollector(InitContext context) {
         return new MetricsCollector(createTimestreamSinkMetricGroup(context));
@@ -181,12 +206,17 @@ public class TimestreamSinkWriter<InputT> extends AsyncSinkWriter<InputT, Record
                 if (err instanceof Exception) {
                     final Exception exception = (Exception) err;
                     metricsCollector.collectExceptionMetrics(exception);
+                    if (bisectOnValidationException && exception instanceof ValidationException && requestEntries.size() > 1) {
+                        bisectRequestEntries(requestEntries, requestResult);
+                        return;
+                    }
                     Consumer<List<Record>> requestResultMetricsWrapped = (List<Record> records) -> {
                         metricsCollector.collectRetries(records);
                         requestResult.accept(records);
                     };
                     Consumer<List<Record>> droppedRecordsMetricsWrapped = (List<Record> records) -> {
                         metricsCollector.collectDropped(records, request);
+                        droppedRecordSink.accept(records);
                     };
                     failureHandler.onWriteError(requestEntries, request, exception,
                             requestResultMetricsWrapped, droppedRecordsMetricsWrapped);
@@ -201,6 +231,27 @@ public class TimestreamSinkWriter<InputT> extends AsyncSinkWriter<InputT, Record
         });
     }
 
+    /**
+     * Sends both halves of the request entries separately, so that valid records of a batch failing with
+     * ValidationException are written, and invalid ones are isolated - halving further until single records are left.
+     * The second half is sent once the first one is complete, so a bisection has a single request in flight, in place
+     * of the failed request: {@code requestResult} is completed only once, with the entries to retry of both halves.
+     * Sub-requests are sent from the completion thread of the previous one, within the in-flight request of the batch,
+     * but are not subject to the rate limiting of {@link AsyncSinkWriter}.
+     */
+    private void bisectRequestEntries(List<Record> requestEntries, Consumer<List<Record>> requestResult) {
+        LOG.warn("Validation of WriteRecordsRequest with {} records failed. Sending both halves separately.", requestEntries.size());
+        final int middle = requestEntries.size() / 2;
+        final List<Record> firstHalf = new ArrayList<>(requestEntries.subList(0, middle));
+        final List<Record> secondHalf = new ArrayList<>(requestEntries.subList(middle, requestEntries.size()));
+        submitRequestEntries(firstHalf, (List<Record> firstRetried) ->
+                submitRequestEntries(secondHalf, (List<Record> secondRetried) -> {
+                    final List<Record> retriedEntries = new ArrayList<>(firstRetried);
+                    retriedEntries.addAll(secondRetried);
+                    requestResult.accept(retriedEntries);
+                }));
+    }
+
     /**
      * This method allows the getting of the size of a {@code RequestEntryT} in bytes. The size in
      * this case is measured as the total bytes that is written to the destination as a result of
@@ -209,6 +260,9 @@ public class TimestreamSinkWriter<InputT> extends AsyncSinkWriter<InputT, Record
      *
      * @param requestEntry the requestEntry for which we want to know the size
      * @return the size of the requestEntry, as defined previously
+     *
+     * <p>The size is computed once, when the entry is added to the buffer, and kept along the entry
+     * by {@link AsyncSinkWriter} - including in the snapshotted buffer state.
      */
     @Override
     protected long getSizeInBytes(Record requestEntry) {
@@ -216,14 +270,8 @@ public class TimestreamSinkWriter<InputT> extends AsyncSinkWriter<InputT, Record
     }
 
     @Override
-    public List<BufferedRequestState<Record>> snapshotState(long checkpointId) {
-        // This sink does not participate in checkpointing, instead we flush the buffer
-        try {
-            flush(true);
-        } catch (InterruptedException e) {
-            throw new RuntimeException("Interrupted while flushing buffer during snapshotState", e);
-        }
-
-        return super.snapshotState(checkpointId);
+    public void close() {
+        droppedRecordSink.close();
+        super.close();
     }
 }
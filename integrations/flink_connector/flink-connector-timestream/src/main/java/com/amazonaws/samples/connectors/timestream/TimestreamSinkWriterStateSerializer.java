@@ -0,0 +1,69 @@
+package com.amazonaws.samples.connectors.timestream;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.connector.base.sink.writer.BufferedRequestState;
+import org.apache.flink.connector.base.sink.writer.RequestEntryWrapper;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializer of the records buffered by {@link TimestreamSinkWriter} at checkpoint, along with their size.
+ * Records are written in {@link RecordBinaryFormat}, so the dimension names shared by the buffered records
+ * are written once per checkpoint.
+ *
+ * Version 1 is the state of the sink flushing its buffer on checkpoint, which is always empty.
+ */
+@Internal
+public class TimestreamSinkWriterStateSerializer implements SimpleVersionedSerializer<BufferedRequestState<Record>> {
+    private static final int FLUSHED_STATE_VERSION = 1;
+    private static final int VERSION = 2;
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] serialize(BufferedRequestState<Record> state) throws IOException {
+        final List<RequestEntryWrapper<Record>> bufferedRequestEntries = state.getBufferedRequestEntries();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(bufferedRequestEntries.size());
+            final RecordBinaryFormat.Encoder encoder = new RecordBinaryFormat.Encoder(out);
+            for (RequestEntryWrapper<Record> bufferedRequestEntry : bufferedRequestEntries) {
+                out.writeLong(bufferedRequestEntry.getSize());
+                encoder.write(bufferedRequestEntry.getRequestEntry());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public BufferedRequestState<Record> deserialize(int version, byte[] serialized) throws IOException {
+        if (version == FLUSHED_STATE_VERSION && serialized.length == 0) {
+            return BufferedRequestState.emptyState();
+        }
+        if (version != VERSION) {
+            throw new IOException("Unsupported TimestreamSinkWriter state version: " + version);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(serialized))) {
+            final int count = in.readInt();
+            final List<RequestEntryWrapper<Record>> bufferedRequestEntries = new ArrayList<>(count);
+            final RecordBinaryFormat.Decoder decoder = new RecordBinaryFormat.Decoder(in);
+            for (int i = 0; i < count; i++) {
+                final long size = in.readLong();
+                bufferedRequestEntries.add(new RequestEntryWrapper<>(decoder.read(), size));
+            }
+            return new BufferedRequestState<>(bufferedRequestEntries);
+        }
+    }
+}
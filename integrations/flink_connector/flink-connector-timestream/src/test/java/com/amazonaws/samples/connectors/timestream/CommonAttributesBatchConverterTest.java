@@ -0,0 +1,101 @@
+package com.amazonaws.samples.connectors.timestream;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValueType;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.awssdk.services.timestreamwrite.model.TimeUnit;
+import software.amazon.awssdk.services.timestreamwrite.model.WriteRecordsRequest;
+
+public class CommonAttributesBatchConverterTest {
+    private final CommonAttributesBatchConverter batchConverter =
+            new CommonAttributesBatchConverter("database", "table");
+
+    private Record getRecord(String host, String measureName, long time) {
+        return Record.builder()
+                .dimensions(
+                        Dimension.builder().name("region").value("us-east-1").build(),
+                        Dimension.builder().name("host").value(host).build())
+                .measureName(measureName)
+                .measureValue(String.valueOf(time))
+                .measureValueType(MeasureValueType.DOUBLE)
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .time(String.valueOf(time))
+                .build();
+    }
+
+    @Test
+    public void testSharedAttributesMovedToCommonAttributes() {
+        List<Record> records = List.of(
+                getRecord("host1", "cpu", 1),
+                getRecord("host2", "cpu", 2));
+
+        WriteRecordsRequest request = batchConverter.apply(records);
+
+        Assertions.assertEquals("database", request.databaseName());
+        Assertions.assertEquals("table", request.tableName());
+        Record commonAttributes = request.commonAttributes();
+        Assertions.assertEquals("cpu", commonAttributes.measureName());
+        Assertions.assertEquals(MeasureValueType.DOUBLE, commonAttributes.measureValueType());
+        Assertions.assertEquals(TimeUnit.MILLISECONDS, commonAttributes.timeUnit());
+        Assertions.assertNull(commonAttributes.version());
+        Assertions.assertEquals(List.of(Dimension.builder().name("region").value("us-east-1").build()),
+                commonAttributes.dimensions());
+
+        Assertions.assertEquals(2, request.records().size());
+        for (int i = 0; i < records.size(); i++) {
+            Record record = request.records().get(i);
+            Assertions.assertNull(record.measureName());
+            Assertions.assertNull(record.measureValueType());
+            Assertions.assertNull(record.timeUnit());
+            Assertions.assertEquals(List.of(Dimension.builder().name("host").value("host" + (i + 1)).build()),
+                    record.dimensions());
+            Assertions.assertEquals(records.get(i).measureValue(), record.measureValue());
+            Assertions.assertEquals(records.get(i).time(), record.time());
+        }
+        Assertions.assertEquals(1, TimestreamModelUtils.countCommonAttributesDimensionsPerWriteRecordRequest(request));
+    }
+
+    @Test
+    public void testAllDimensionsShared() {
+        List<Record> records = List.of(
+                getRecord("host1", "cpu", 1),
+                getRecord("host1", "memory", 2));
+
+        WriteRecordsRequest request = batchConverter.apply(records);
+
+        Assertions.assertEquals(2, request.commonAttributes().dimensions().size());
+        Assertions.assertNull(request.commonAttributes().measureName());
+        for (int i = 0; i < records.size(); i++) {
+            Record record = request.records().get(i);
+            Assertions.assertFalse(record.hasDimensions());
+            Assertions.assertEquals(records.get(i).measureName(), record.measureName());
+        }
+    }
+
+    @Test
+    public void testNothingSharedKeepsRecords() {
+        List<Record> records = List.of(
+                Record.builder().measureName("cpu").time("1").build(),
+                Record.builder().measureName("memory").time("2").build());
+
+        WriteRecordsRequest request = batchConverter.apply(records);
+
+        Assertions.assertNull(request.commonAttributes());
+        Assertions.assertSame(records.get(0), request.records().get(0));
+        Assertions.assertSame(records.get(1), request.records().get(1));
+    }
+
+    @Test
+    public void testSingleRecordKept() {
+        List<Record> records = List.of(getRecord("host1", "cpu", 1));
+
+        WriteRecordsRequest request = batchConverter.apply(records);
+
+        Assertions.assertNull(request.commonAttributes());
+        Assertions.assertEquals(records, request.records());
+    }
+}
@@ -10,8 +10,10 @@ import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.core.exception.SdkInterruptedException;
 import software.amazon.awssdk.crt.http.HttpException;
 import software.amazon.awssdk.services.timestreamwrite.model.AccessDeniedException;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
 import software.amazon.awssdk.services.timestreamwrite.model.InternalServerException;
 import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.awssdk.services.timestreamwrite.model.RejectedRecord;
 import software.amazon.awssdk.services.timestreamwrite.model.RejectedRecordsException;
 import software.amazon.awssdk.services.timestreamwrite.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.timestreamwrite.model.ServiceQuotaExceededException;
@@ -22,6 +24,7 @@ import software.amazon.awssdk.services.timestreamwrite.model.WriteRecordsRequest
 import java.io.IOException;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -152,6 +155,80 @@ public class DefaultWriteRequestFailureHandlerTest {
         assertCount(3, 0, 3);
     }
 
+    @Test
+    public void testRejectedRecordsClassified() {
+        DefaultWriteRequestFailureHandler handler = new DefaultWriteRequestFailureHandler();
+        handler.open(incFail, TimestreamSinkConfig.FailureHandlerConfig.builder()
+                .failProcessingOnRejectedRecordsException(false)
+                .retryRejectedRecordsOnVersionConflict(true)
+                .dropRejectedRecordsOutsideTimeRange(true).build());
+        List<Record> records = List.of(
+                Record.builder().measureName("conflict").build(),
+                Record.builder().measureName("outside").build(),
+                Record.builder().measureName("other").build(),
+                Record.builder().measureName("written").build());
+        RejectedRecordsException exception = RejectedRecordsException.builder()
+                .rejectedRecords(
+                        RejectedRecord.builder().recordIndex(0).existingVersion(3L)
+                                .reason("A record with the same dimensions, time and measure name already exists.").build(),
+                        RejectedRecord.builder().recordIndex(1)
+                                .reason("The record timestamp is outside the time range of the data ingestion window.").build(),
+                        RejectedRecord.builder().recordIndex(2)
+                                .reason("Internal error, please try again.").build())
+                .build();
+        List<Record> retried = new ArrayList<>();
+        List<Record> dropped = new ArrayList<>();
+
+        handler.handleRejectedRecordsException(records, WriteRecordsRequest.builder().records(records).build(), exception,
+                retried::addAll, dropped::addAll);
+
+        Assertions.assertEquals(0, countFail);
+        Assertions.assertEquals(List.of(records.get(0).toBuilder().version(4L).build()), retried);
+        // other rejections are not retried, whatever their reason, so a record is never retried indefinitely
+        Assertions.assertEquals(List.of(records.get(1), records.get(2)), dropped);
+    }
+
+    @Test
+    public void testRejectedRequestRecordsReportedWithCommonAttributes() {
+        DefaultWriteRequestFailureHandler handler = new DefaultWriteRequestFailureHandler();
+        handler.open(incFail, TimestreamSinkConfig.FailureHandlerConfig.builder()
+                .dropRejectedRecordsOutsideTimeRange(true).build());
+        Dimension host = Dimension.builder().name("host").value("host-1").build();
+        Dimension region = Dimension.builder().name("region").value("us-east-1").build();
+        // a batch converter which does not keep the request records one to one with the buffered ones
+        List<Record> records = List.of(Record.builder().measureName("cpu").build());
+        WriteRecordsRequest request = WriteRecordsRequest.builder()
+                .commonAttributes(Record.builder().measureName("cpu").timeUnit("MILLISECONDS")
+                        .measureValueType("DOUBLE").dimensions(host).build())
+                .records(Record.builder().time("1000").measureValue("0.5").dimensions(region).build(),
+                        Record.builder().time("1001").measureValue("0.7").dimensions(region).build())
+                .build();
+        RejectedRecordsException exception = RejectedRecordsException.builder()
+                .rejectedRecords(RejectedRecord.builder().recordIndex(1)
+                        .reason("The record timestamp is outside the time range of the data ingestion window.").build())
+                .build();
+        List<Record> dropped = new ArrayList<>();
+
+        handler.handleRejectedRecordsException(records, request, exception, incSuccess, dropped::addAll);
+
+        Assertions.assertEquals(List.of(Record.builder().measureName("cpu").timeUnit("MILLISECONDS")
+                .measureValueType("DOUBLE").dimensions(host, region).time("1001").measureValue("0.7").build()), dropped);
+    }
+
+    @Test
+    public void testRejectedRecordsFailOnVersionConflictByDefault() {
+        DefaultWriteRequestFailureHandler handler = new DefaultWriteRequestFailureHandler();
+        handler.open(incFail, TimestreamSinkConfig.FailureHandlerConfig.builder()
+                .failProcessingOnRejectedRecordsException(true).build());
+        RejectedRecordsException exception = RejectedRecordsException.builder()
+                .rejectedRecords(
+                        RejectedRecord.builder().recordIndex(0).existingVersion(3L).build())
+                .build();
+
+        handler.handleRejectedRecordsException(fakeRecords, fakeRequest, exception, incSuccess, incDrop);
+        assertCount(0, 0, 1);
+    }
+
     @Test
     public void testIsRetryableExceptionCheck() {
         for (final Exception exc : retryableExceptionExamples) {
@@ -0,0 +1,107 @@
+package com.amazonaws.samples.connectors.timestream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValue;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValueType;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.awssdk.services.timestreamwrite.model.TimeUnit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class LocalFileDroppedRecordSinkTest {
+    @TempDir
+    Path directory;
+
+    private Record getRecordFromSeed(int seed) {
+        return Record.builder()
+                .dimensions(
+                        Dimension.builder().name("region").value("us-east-1").build(),
+                        Dimension.builder().name("host").value("host" + seed).build())
+                .measureValues(
+                        MeasureValue.builder()
+                                .name("cpu")
+                                .value(String.valueOf(seed))
+                                .type(MeasureValueType.DOUBLE)
+                                .build(),
+                        MeasureValue.builder()
+                                .name("status")
+                                .value("ünhealthy")
+                                .type(MeasureValueType.VARCHAR)
+                                .build())
+                .measureName("metrics")
+                .measureValueType(MeasureValueType.MULTI)
+                .time(String.valueOf(1000L + seed))
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .version((long) seed)
+                .build();
+    }
+
+    private LocalFileDroppedRecordSink openSink(long maxFileSizeInBytes) {
+        LocalFileDroppedRecordSink sink = new LocalFileDroppedRecordSink();
+        sink.open(TimestreamSinkConfig.DroppedRecordSinkConfig.builder()
+                .droppedRecordSinkClass(LocalFileDroppedRecordSink.class.getCanonicalName())
+                .directory(directory.toString())
+                .maxFileSizeInBytes(maxFileSizeInBytes)
+                .maxBufferedRecords(100)
+                .build(), 0);
+        return sink;
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testDroppedRecordsReadBack() throws Exception {
+        LocalFileDroppedRecordSink sink = openSink(64 * 1024 * 1024);
+        List<Record> droppedRecords = List.of(
+                getRecordFromSeed(0),
+                getRecordFromSeed(1),
+                Record.builder().measureName("single").measureValue("1.0").time("1000").build());
+        sink.accept(droppedRecords.subList(0, 2));
+        sink.accept(droppedRecords.subList(2, 3));
+        sink.close();
+
+        List<Path> files = listFiles();
+        Assertions.assertEquals(1, files.size());
+        List<Record> readRecords = new ArrayList<>();
+        LocalFileDroppedRecordSink.readRecords(files.get(0), readRecords::add);
+        Assertions.assertEquals(droppedRecords, readRecords);
+    }
+
+    @Test
+    public void testFilesRolled() throws Exception {
+        LocalFileDroppedRecordSink sink = openSink(1);
+        List<Record> droppedRecords = List.of(getRecordFromSeed(0), getRecordFromSeed(1));
+        sink.accept(droppedRecords);
+        sink.close();
+
+        List<Path> files = listFiles();
+        Assertions.assertEquals(2, files.size());
+        List<Record> readRecords = new ArrayList<>();
+        for (Path file : files) {
+            LocalFileDroppedRecordSink.readRecords(file, readRecords::add);
+        }
+        Assertions.assertEquals(droppedRecords, readRecords);
+    }
+
+    @Test
+    public void testRecordsDiscardedAfterClose() throws Exception {
+        LocalFileDroppedRecordSink sink = openSink(64 * 1024 * 1024);
+        sink.close();
+        sink.accept(List.of(getRecordFromSeed(0)));
+
+        Assertions.assertEquals(0, listFiles().size());
+    }
+}
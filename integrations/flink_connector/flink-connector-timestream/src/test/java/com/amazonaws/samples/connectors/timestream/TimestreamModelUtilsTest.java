@@ -79,6 +79,15 @@ public class TimestreamModelUtilsTest {
         Assertions.assertEquals(64, TimestreamModelUtils.getRecordSizeInBytes(defaultMultiMeasure));
     }
 
+    @Test
+    public void testGetRecordSizeInBytesDimensionsUtf8() {
+        Record record = defaultSingleMeasure.toBuilder()
+                .dimensions(Dimension.builder().name("città").value("Zürich").build())
+                .build();
+        // 29 (defaultSingleMeasure) + 6 (dimension name) + 7 (dimension value)
+        Assertions.assertEquals(42, TimestreamModelUtils.getRecordSizeInBytes(record));
+    }
+
     @Test
     public void countCommonAttributesDimensionsRecordRequestDefault() {
         WriteRecordsRequest request = WriteRecordsRequest.builder()
@@ -0,0 +1,88 @@
+package com.amazonaws.samples.connectors.timestream;
+
+import org.apache.flink.connector.base.sink.writer.BufferedRequestState;
+import org.apache.flink.connector.base.sink.writer.RequestEntryWrapper;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValue;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValueType;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.flink.connector.base.sink.writer.BufferedRequestState.emptyState;
+
+public class TimestreamSinkWriterStateSerializerTest {
+
+    private final TimestreamSinkWriterStateSerializer serializer = new TimestreamSinkWriterStateSerializer();
+
+    private Record getRecordFromSeed(int seed) {
+        return Record.builder()
+                .dimensions(
+                        Dimension.builder().name("region").value("us-east-1").build(),
+                        Dimension.builder().name("host").value("host" + seed).build())
+                .measureValues(
+                        MeasureValue.builder()
+                                .name("singleMeasure1")
+                                .value(String.valueOf(seed))
+                                .type(MeasureValueType.DOUBLE)
+                                .build(),
+                        MeasureValue.builder()
+                                .name("singleMeasure2")
+                                .value(String.valueOf(seed))
+                                .type(MeasureValueType.BIGINT)
+                                .build())
+                .measureName("multiMeasure")
+                .measureValueType(MeasureValueType.MULTI)
+                .time(String.valueOf(1000L + seed))
+                .build();
+    }
+
+    @Test
+    public void testSerializeRoundTrip() throws IOException {
+        List<RequestEntryWrapper<Record>> bufferedRequestEntries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Record record = getRecordFromSeed(i);
+            bufferedRequestEntries.add(new RequestEntryWrapper<>(record, TimestreamModelUtils.getRecordSizeInBytes(record)));
+        }
+        bufferedRequestEntries.add(new RequestEntryWrapper<>(Record.builder().build(), 0));
+
+        BufferedRequestState<Record> state = serializer.deserialize(serializer.getVersion(),
+                serializer.serialize(new BufferedRequestState<>(bufferedRequestEntries)));
+
+        Assertions.assertEquals(bufferedRequestEntries.size(), state.getBufferedRequestEntries().size());
+        for (int i = 0; i < bufferedRequestEntries.size(); i++) {
+            Assertions.assertEquals(bufferedRequestEntries.get(i).getRequestEntry(),
+                    state.getBufferedRequestEntries().get(i).getRequestEntry());
+            Assertions.assertEquals(bufferedRequestEntries.get(i).getSize(),
+                    state.getBufferedRequestEntries().get(i).getSize());
+        }
+    }
+
+    @Test
+    public void testSerializeEmptyState() throws IOException {
+        BufferedRequestState<Record> state = serializer.deserialize(serializer.getVersion(),
+                serializer.serialize(emptyState()));
+
+        Assertions.assertTrue(state.getBufferedRequestEntries().isEmpty());
+    }
+
+    @Test
+    public void testDeserializeFlushedState() throws IOException {
+        // state of the sink flushing its buffer on checkpoint
+        byte[] flushedState = new NoOpSimpleVersionedSerializer().serialize(emptyState());
+
+        BufferedRequestState<Record> state = serializer.deserialize(1, flushedState);
+
+        Assertions.assertTrue(state.getBufferedRequestEntries().isEmpty());
+    }
+
+    @Test
+    public void testDeserializeUnsupportedVersion() {
+        Assertions.assertThrows(IOException.class, () -> serializer.deserialize(3, new byte[] {0}));
+    }
+}
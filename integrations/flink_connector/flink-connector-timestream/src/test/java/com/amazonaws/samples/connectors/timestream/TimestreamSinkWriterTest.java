@@ -1,7 +1,9 @@
 package com.amazonaws.samples.connectors.timestream;
 
 import org.apache.flink.api.connector.sink2.Sink.InitContext;
+import org.apache.flink.connector.base.sink.writer.BufferedRequestState;
 import org.apache.flink.connector.base.sink.writer.ElementConverter;
+import org.apache.flink.connector.base.sink.writer.RequestEntryWrapper;
 import org.apache.flink.streaming.runtime.tasks.TestProcessingTimeService;
 
 import com.amazonaws.samples.connectors.timestream.metrics.MetricsCollector;
@@ -9,19 +11,23 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import software.amazon.awssdk.services.timestreamwrite.TimestreamWriteAsyncClient;
 import software.amazon.awssdk.services.timestreamwrite.model.MeasureValue;
 import software.amazon.awssdk.services.timestreamwrite.model.MeasureValueType;
 import software.amazon.awssdk.services.timestreamwrite.model.Record;
 import software.amazon.awssdk.services.timestreamwrite.model.ThrottlingException;
+import software.amazon.awssdk.services.timestreamwrite.model.ValidationException;
 import software.amazon.awssdk.services.timestreamwrite.model.WriteRecordsRequest;
 import software.amazon.awssdk.services.timestreamwrite.model.WriteRecordsResponse;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -221,8 +227,70 @@ public class TimestreamSinkWriterTest {
     }
 
     @Test
-    public void testFlushOnSnapshot() throws Exception {
-        mockNormalClient();
+    public void testBisectOnValidationException() throws Exception {
+        List<Record> recordsIngested = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            recordsIngested.add(getRecordFromSeed(i));
+        }
+        Record invalidRecord = recordsIngested.get(2);
+        Mockito.when(asyncClient.writeRecords(Mockito.any(WriteRecordsRequest.class)))
+                .thenAnswer(invocation -> {
+                    WriteRecordsRequest request = invocation.getArgument(0);
+                    return request.records().contains(invalidRecord)
+                            ? CompletableFuture.failedFuture(ValidationException.builder().build())
+                            : CompletableFuture.completedFuture(WriteRecordsResponse.builder().build());
+                });
+        sinkWriter = new TimestreamTestSinkWriter<>(
+                elementConverter, batchConverter, sinkInitContext, TimestreamSinkConfig
+                        .builder()
+                        .maxBatchSize(4)
+                        .maxInFlightRequests(1)
+                        .maxBufferedRequests(160)
+                        .writeClientConfig(TimestreamSinkConfig.WriteClientConfig
+                                .builder()
+                                .region("us-east-1")
+                                .build())
+                        .failureHandlerConfig(TimestreamSinkConfig.FailureHandlerConfig
+                                .builder()
+                                .bisectOnValidationException(true)
+                                .failProcessingOnValidationException(false)
+                                .build())
+                        .build()
+        );
+        for (Record record : recordsIngested) {
+            sinkWriter.write(record, null);
+        }
+        sinkWriter.flush(true);
+
+        // [0, 1, 2, 3] fails, [0, 1] succeeds, [2, 3] fails, [2] fails and is dropped, [3] succeeds
+        WriteRecordsRequest allRequest = batchConverter.apply(recordsIngested);
+        WriteRecordsRequest invalidHalfRequest = batchConverter.apply(recordsIngested.subList(2, 4));
+        WriteRecordsRequest invalidRequest = batchConverter.apply(List.of(invalidRecord));
+        for (WriteRecordsRequest request : List.of(allRequest, invalidHalfRequest, invalidRequest)) {
+            verify(asyncClient).writeRecords(request);
+            verify(metricsCollector).collectPreWriteMetrics(request);
+        }
+        for (WriteRecordsRequest request : List.of(
+                batchConverter.apply(recordsIngested.subList(0, 2)),
+                batchConverter.apply(recordsIngested.subList(3, 4)))) {
+            verify(asyncClient).writeRecords(request);
+            verify(metricsCollector).collectPreWriteMetrics(request);
+            verify(metricsCollector).collectSuccessMetrics(request);
+        }
+        // halves are sent one after the other
+        InOrder inOrder = Mockito.inOrder(asyncClient);
+        inOrder.verify(asyncClient).writeRecords(allRequest);
+        inOrder.verify(asyncClient).writeRecords(batchConverter.apply(recordsIngested.subList(0, 2)));
+        inOrder.verify(asyncClient).writeRecords(invalidHalfRequest);
+        inOrder.verify(asyncClient).writeRecords(invalidRequest);
+        inOrder.verify(asyncClient).writeRecords(batchConverter.apply(recordsIngested.subList(3, 4)));
+        verify(metricsCollector, Mockito.times(3)).collectExceptionMetrics(Mockito.any(ValidationException.class));
+        verify(metricsCollector).collectDropped(List.of(invalidRecord), invalidRequest);
+        verify(metricsCollector).collectRetries(Collections.emptyList());
+    }
+
+    @Test
+    public void testSnapshotWithoutFlush() throws Exception {
         sinkWriter = new TimestreamTestSinkWriter<>(
                 elementConverter, batchConverter, sinkInitContext, getTimestreamSinkConfig(80, 1, 160, 15000)
         );
@@ -232,11 +300,34 @@ public class TimestreamSinkWriterTest {
             sinkWriter.write(currentRecord, null);
             recordsIngested.add(currentRecord);
         }
-        WriteRecordsRequest request = batchConverter.apply(recordsIngested);
+
+        List<BufferedRequestState<Record>> states = sinkWriter.snapshotState(1);
+
         verify(asyncClient, never()).writeRecords(any(WriteRecordsRequest.class));
+        Assertions.assertEquals(1, states.size());
+        Assertions.assertEquals(recordsIngested, states.get(0).getBufferedRequestEntries().stream()
+                .map(RequestEntryWrapper::getRequestEntry)
+                .collect(Collectors.toList()));
+    }
 
-        sinkWriter.snapshotState(1);
+    @Test
+    public void testRestoredStateWritten() throws Exception {
+        mockNormalClient();
+        List<Record> recordsRestored = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            recordsRestored.add(getRecordFromSeed(i));
+        }
+        BufferedRequestState<Record> state = new BufferedRequestState<>(recordsRestored.stream()
+                .map(record -> new RequestEntryWrapper<>(record, TimestreamModelUtils.getRecordSizeInBytes(record)))
+                .collect(Collectors.toList()));
+        sinkWriter = new TimestreamTestSinkWriter<>(
+                elementConverter, batchConverter, sinkInitContext, getTimestreamSinkConfig(80, 1, 160, 15000),
+                List.of(state)
+        );
+
+        sinkWriter.flush(true);
 
+        WriteRecordsRequest request = batchConverter.apply(recordsRestored);
         verify(asyncClient).writeRecords(request);
         verify(metricsCollector).collectPreWriteMetrics(request);
         verify(metricsCollector).collectSuccessMetrics(request);
@@ -251,6 +342,15 @@ public class TimestreamSinkWriterTest {
            super(elementConverter, batchConverter, context, timestreamSinkConfig);
         }
 
+        public TimestreamTestSinkWriter(
+               ElementConverter<InputT, Record> elementConverter,
+               BatchConverter batchConverter,
+               InitContext context,
+               TimestreamSinkConfig timestreamSinkConfig,
+               Collection<BufferedRequestState<Record>> states) {
+           super(elementConverter, batchConverter, context, timestreamSinkConfig, states);
+        }
+
         @Override
         protected TimestreamWriteAsyncClient openAsyncClient(TimestreamSinkConfig timestreamSinkConfig) {
             return asyncClient;
@@ -19,7 +19,6 @@
 package com.amazonaws.samples.kinesis2timestream;
 
 import java.time.Duration;
-import java.util.List;
 import java.util.Properties;
 
 import com.amazonaws.samples.kinesis2timestream.kinesis.RoundRobinKinesisShardAssigner;
@@ -27,6 +26,7 @@ import com.amazonaws.samples.kinesis2timestream.model.MyHostBase;
 import com.amazonaws.samples.kinesis2timestream.model.TimestreamRecordConverter;
 import com.amazonaws.samples.kinesis2timestream.utils.ParameterToolUtils;
 import com.amazonaws.samples.kinesis2timestream.model.TimestreamRecordDeserializer;
+import com.amazonaws.samples.connectors.timestream.CommonAttributesBatchConverter;
 import com.amazonaws.samples.connectors.timestream.TimestreamSinkConfig;
 import com.amazonaws.samples.connectors.timestream.TimestreamSink;
 import org.apache.flink.api.java.utils.ParameterTool;
@@ -37,8 +37,6 @@ import org.apache.flink.streaming.connectors.kinesis.config.AWSConfigConstants;
 import org.apache.flink.streaming.connectors.kinesis.config.ConsumerConfigConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.services.timestreamwrite.model.Record;
-import software.amazon.awssdk.services.timestreamwrite.model.WriteRecordsRequest;
 
 /**
  * Skeleton for a Flink Streaming Job.
@@ -128,14 +126,7 @@ public class StreamingJob {
 
 		TimestreamSink<MyHostBase> sink = new TimestreamSink<>(
 				(recordObject, context) -> TimestreamRecordConverter.convert(recordObject),
-				(List<Record> records) -> {
-					LOG.debug("Preparing WriteRecordsRequest with {} records", records.size());
-					return WriteRecordsRequest.builder()
-							.databaseName(databaseName)
-							.tableName(tableName)
-							.records(records)
-							.build();
-				},
+				new CommonAttributesBatchConverter(databaseName, tableName),
 				TimestreamSinkConfig.builder()
 						.maxBatchSize(MAX_TIMESTREAM_RECORDS_IN_WRITERECORDREQUEST)
 						.maxBufferedRequests(100 * MAX_TIMESTREAM_RECORDS_IN_WRITERECORDREQUEST)
@@ -50,7 +50,9 @@ public class TimestreamSinkConnector extends SinkConnector {
         }
         final List<Map<String, String>> configs = new ArrayList<>();
         for (int i = 0; i < maxTasks; i++) {
-            configs.add(new ConcurrentHashMap<>(connectorConfig.originalsStrings()));
+            final Map<String, String> taskConfig = new ConcurrentHashMap<>(connectorConfig.originalsStrings());
+            taskConfig.put(TimestreamSinkConstants.TASK_ID, String.valueOf(i));
+            configs.add(taskConfig);
         }
         LOGGER.trace("Complete::TimestreamSinkConnector::taskConfigs");
         return configs;
@@ -103,11 +103,121 @@ public class TimestreamSinkConnectorConfig extends AbstractConfig {
                         TimestreamSinkConstants.DEFAULT_BATCHSIZE,
                         ConfigDef.Importance.LOW,
                         "The maximum number of records in a WriteRecords API request. Maxed at 100")
+                .define(TimestreamSinkConstants.MAX_INFLIGHT,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_MAX_INFLIGHT,
+                        ConfigDef.Importance.LOW,
+                        "The maximum number of WriteRecords API requests a task keeps in flight concurrently. Must be a positive number")
+                .define(TimestreamSinkConstants.BATCH_MAX_BYTES,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_BATCH_MAX_BYTES,
+                        ConfigDef.Importance.LOW,
+                        "The maximum estimated payload size in bytes of a WriteRecords API request. Must be a positive number")
+                .define(TimestreamSinkConstants.INFLUXDB_BATCH_SIZE,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_INFLUXDB_BATCH_SIZE,
+                        ConfigDef.Importance.LOW,
+                        "The maximum number of points in an InfluxDB write request. Must be a positive number")
+                .define(TimestreamSinkConstants.INFLUXDB_FLUSH_INTERVAL,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_INFLUXDB_FLUSH_INTERVAL,
+                        ConfigDef.Importance.LOW,
+                        "The time in milliseconds after which a partial batch of points is written to InfluxDB. Must be a positive number")
+                .define(TimestreamSinkConstants.INFLUXDB_BUFFER_LIMIT,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_INFLUXDB_BUFFER_LIMIT,
+                        ConfigDef.Importance.LOW,
+                        "The maximum number of points waiting to be written to InfluxDB per task before put() blocks. Must be a positive number")
+                .define(TimestreamSinkConstants.INFLUXDB_MAX_RETRIES,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_INFLUXDB_MAX_RETRIES,
+                        ConfigDef.Importance.LOW,
+                        "The number of times a failed batch of points is retried before it is rejected. Must not be negative")
+                .define(TimestreamSinkConstants.DLQ_BATCH_SIZE,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_DLQ_BATCH_SIZE,
+                        ConfigDef.Importance.LOW,
+                        "The maximum size in bytes of a batch of rejected records sent to the DLQ topic. Must not be negative")
+                .define(TimestreamSinkConstants.DLQ_LINGER_MS,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_DLQ_LINGER_MS,
+                        ConfigDef.Importance.LOW,
+                        "The time in milliseconds the DLQ producer waits for more rejected records to batch together. Must not be negative")
+                .define(TimestreamSinkConstants.DLQ_COMPRESSION_TYPE,
+                        ConfigDef.Type.STRING,
+                        TimestreamSinkConstants.DEFAULT_DLQ_COMPRESSION_TYPE,
+                        ConfigDef.Importance.LOW,
+                        "The compression type of the batches of rejected records sent to the DLQ topic: none, gzip, snappy, lz4 or zstd")
+                .define(TimestreamSinkConstants.SCHEMA_REFRESH_INTERVAL,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_SCHEMA_REFRESH_INTERVAL,
+                        ConfigDef.Importance.LOW,
+                        "The interval in milliseconds at which the schema definition is checked for changes, 0 to disable. Must not be negative")
+                .define(TimestreamSinkConstants.INGESTION_RETRY_BUDGET,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_INGESTION_RETRY_BUDGET,
+                        ConfigDef.Importance.LOW,
+                        "The time in milliseconds within which a WriteRecords batch that failed with a retryable error is sent again, 0 to not retry. Must not be negative")
+                .define(TimestreamSinkConstants.WRITER_LANES,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_WRITER_LANES,
+                        ConfigDef.Importance.LOW,
+                        "The number of lanes a task converts and sends the records on in parallel, records of a partition always going to the same lane. Must be a positive number")
+                .define(TimestreamSinkConstants.S3_ENDPOINT,
+                        ConfigDef.Type.STRING,
+                        "",
+                        ConfigDef.Importance.LOW,
+                        "The S3 endpoint to read the schema definition from with path-style requests, in URI format. The regional endpoint by default")
+                .define(TimestreamSinkConstants.INTERN_CACHE_BYTES,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_INTERN_CACHE_BYTES,
+                        ConfigDef.Importance.LOW,
+                        "The estimated size in bytes up to which the dimensions and measure names are interned, least recently used evicted first, 0 to not intern them. Must not be negative")
+                .define(TimestreamSinkConstants.SPILL_DIRECTORY,
+                        ConfigDef.Type.STRING,
+                        "",
+                        ConfigDef.Importance.LOW,
+                        "The local directory WriteRecords batches still failing past 'timestream.ingestion.retry.budget.ms' are spilled to, to be replayed once Timestream takes writes again. Not spilled by default")
+                .define(TimestreamSinkConstants.SPILL_BYTES,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_SPILL_BYTES,
+                        ConfigDef.Importance.LOW,
+                        "The size in bytes up to which WriteRecords batches are spilled to 'timestream.spill.directory' during an outage, the batches past it being kept in memory with their partitions paused. Must be a positive number")
+                .define(TimestreamSinkConstants.SPILL_REPLAY_RATE,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_SPILL_REPLAY_RATE,
+                        ConfigDef.Importance.LOW,
+                        "The number of spilled WriteRecords batches replayed per second once Timestream takes writes again. Must be a positive number")
+                .define(TimestreamSinkConstants.BACKPRESSURE_PARTITION_RECORDS,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_BACKPRESSURE_PARTITION_RECORDS,
+                        ConfigDef.Importance.LOW,
+                        "The number of records of a partition delivered to a task and not yet committable past which the partition is paused, until half of them are. Must be a positive number")
+                .define(TimestreamSinkConstants.BACKPRESSURE_TASK_RECORDS,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_BACKPRESSURE_TASK_RECORDS,
+                        ConfigDef.Importance.LOW,
+                        "The number of records delivered to a task and not yet committable past which its deepest partitions are paused, until half of them are. Must be a positive number")
+                .define(TimestreamSinkConstants.BACKPRESSURE_RETRY_MS,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_BACKPRESSURE_RETRY_MS,
+                        ConfigDef.Importance.LOW,
+                        "The time in milliseconds after which a task with paused partitions is called again to resume them. Must be a positive number")
+                .define(TimestreamSinkConstants.DEDUP_WINDOW_MS,
+                        ConfigDef.Type.INT,
+                        TimestreamSinkConstants.DEFAULT_DEDUP_WINDOW_MS,
+                        ConfigDef.Importance.LOW,
+                        "The time in milliseconds during which records redelivered to the tasks of the worker are skipped if they are already written, with 'timestream.record.versioning.mode' set to offset. 0 disables the skipping. Must not be a negative number")
                 .define(TimestreamSinkConstants.AUTO_VERSIONING,
                         ConfigDef.Type.BOOLEAN,
                         false,
                         ConfigDef.Importance.LOW,
                         "Enable if upserts are required. By default the version is set to 1    ")
+                .define(TimestreamSinkConstants.VERSIONING_MODE,
+                        ConfigDef.Type.STRING,
+                        TimestreamSinkConstants.DEFAULT_VERSIONING_MODE,
+                        ConfigDef.Importance.LOW,
+                        "How the version of the records is derived when 'timestream.record.versioning.auto' is enabled: wallclock for the time the record is converted, offset for its Kafka partition and offset, writing redelivered records as idempotent upserts and skipping the ones already written")
                 .define(TimestreamSinkConstants.SKIP_DIMENSION,
                         ConfigDef.Type.BOOLEAN,
                         true,
@@ -344,6 +454,19 @@ public class TimestreamSinkConnectorConfig extends AbstractConfig {
         }
     }
 
+    /**
+     * @return S3 endpoint override, in URI format, empty for the regional endpoint
+     */
+    public String getS3EndPoint() {
+        try {
+            return getString(TimestreamSinkConstants.S3_ENDPOINT);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.S3_ENDPOINT, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
     /**
      * @return Ingestion endpoint for Timestream, in URI format
      */
@@ -370,6 +493,287 @@ public class TimestreamSinkConnectorConfig extends AbstractConfig {
         }
     }
 
+    /**
+     * @return maximum number of WriteRecords API requests in flight per task.
+     */
+    public int getMaxInflightRequests() {
+        try {
+            return getInt(TimestreamSinkConstants.MAX_INFLIGHT);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.MAX_INFLIGHT, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return maximum estimated payload size in bytes of a WriteRecords API request.
+     */
+    public int getTimestreamBatchMaxBytes() {
+        try {
+            return getInt(TimestreamSinkConstants.BATCH_MAX_BYTES);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.BATCH_MAX_BYTES, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return maximum number of points in an InfluxDB write request.
+     */
+    public int getInfluxDBBatchSize() {
+        try {
+            return getInt(TimestreamSinkConstants.INFLUXDB_BATCH_SIZE);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.INFLUXDB_BATCH_SIZE, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return time in milliseconds after which a partial batch of points is written to InfluxDB.
+     */
+    public int getInfluxDBFlushInterval() {
+        try {
+            return getInt(TimestreamSinkConstants.INFLUXDB_FLUSH_INTERVAL);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.INFLUXDB_FLUSH_INTERVAL, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return maximum number of points waiting to be written to InfluxDB per task.
+     */
+    public int getInfluxDBBufferLimit() {
+        try {
+            return getInt(TimestreamSinkConstants.INFLUXDB_BUFFER_LIMIT);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.INFLUXDB_BUFFER_LIMIT, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return the number of times a failed batch of points is retried by the InfluxDB client
+     */
+    public int getInfluxDBMaxRetries() {
+        try {
+            return getInt(TimestreamSinkConstants.INFLUXDB_MAX_RETRIES);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.INFLUXDB_MAX_RETRIES, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return the maximum size in bytes of a batch of rejected records sent to the DLQ topic
+     */
+    public int getDLQBatchSize() {
+        try {
+            return getInt(TimestreamSinkConstants.DLQ_BATCH_SIZE);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.DLQ_BATCH_SIZE, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return the time in milliseconds the DLQ producer waits for more rejected records to batch together
+     */
+    public int getDLQLingerMs() {
+        try {
+            return getInt(TimestreamSinkConstants.DLQ_LINGER_MS);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.DLQ_LINGER_MS, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return how the version of the records is derived when auto versioning is enabled: wallclock or offset
+     */
+    public String getRecordVersioningMode() {
+        try {
+            return getString(TimestreamSinkConstants.VERSIONING_MODE);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.VERSIONING_MODE, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return true if auto versioning is enabled and the version of the records is derived from their partition and offset
+     */
+    public boolean isOffsetVersioning() {
+        return isTimestreamRecordAutoVersioning()
+                && TimestreamSinkConstants.VERSIONING_MODE_OFFSET.equals(getRecordVersioningMode());
+    }
+
+    /**
+     * @return the compression type of the batches of rejected records sent to the DLQ topic
+     */
+    public String getDLQCompressionType() {
+        try {
+            return getString(TimestreamSinkConstants.DLQ_COMPRESSION_TYPE);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.DLQ_COMPRESSION_TYPE, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return the interval in milliseconds at which the schema definition is checked for changes, 0 if disabled
+     */
+    public int getSchemaRefreshInterval() {
+        try {
+            return getInt(TimestreamSinkConstants.SCHEMA_REFRESH_INTERVAL);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.SCHEMA_REFRESH_INTERVAL, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return the time in milliseconds within which a batch that failed with a retryable error is sent again
+     */
+    public int getIngestionRetryBudget() {
+        try {
+            return getInt(TimestreamSinkConstants.INGESTION_RETRY_BUDGET);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.INGESTION_RETRY_BUDGET, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return the number of lanes a task converts and sends the records on in parallel
+     */
+    public int getWriterLanes() {
+        try {
+            return getInt(TimestreamSinkConstants.WRITER_LANES);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.WRITER_LANES, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return estimated size in bytes up to which the dimensions and measure names are interned
+     */
+    public int getInternCacheMaxBytes() {
+        try {
+            return getInt(TimestreamSinkConstants.INTERN_CACHE_BYTES);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.INTERN_CACHE_BYTES, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return directory WriteRecords batches are spilled to, empty if they are not spilled
+     */
+    public String getSpillDirectory() {
+        try {
+            return getString(TimestreamSinkConstants.SPILL_DIRECTORY);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.SPILL_DIRECTORY, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return size in bytes up to which WriteRecords batches are spilled to disk
+     */
+    public int getSpillMaxBytes() {
+        try {
+            return getInt(TimestreamSinkConstants.SPILL_BYTES);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.SPILL_BYTES, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return number of spilled WriteRecords batches replayed per second
+     */
+    public int getSpillReplayRate() {
+        try {
+            return getInt(TimestreamSinkConstants.SPILL_REPLAY_RATE);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.SPILL_REPLAY_RATE, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return number of records of a partition not yet committable past which the partition is paused
+     */
+    public int getBackpressurePartitionMaxRecords() {
+        try {
+            return getInt(TimestreamSinkConstants.BACKPRESSURE_PARTITION_RECORDS);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.BACKPRESSURE_PARTITION_RECORDS, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return number of records of the task not yet committable past which its deepest partitions are paused
+     */
+    public int getBackpressureTaskMaxRecords() {
+        try {
+            return getInt(TimestreamSinkConstants.BACKPRESSURE_TASK_RECORDS);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.BACKPRESSURE_TASK_RECORDS, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return time in milliseconds after which a task with paused partitions is called again
+     */
+    public int getBackpressureRetryMillis() {
+        try {
+            return getInt(TimestreamSinkConstants.BACKPRESSURE_RETRY_MS);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.BACKPRESSURE_RETRY_MS, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
+    /**
+     * @return time in milliseconds during which records already written are skipped when redelivered
+     */
+    public int getDedupWindowMillis() {
+        try {
+            return getInt(TimestreamSinkConstants.DEDUP_WINDOW_MS);
+        } catch (final ConfigException ex) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.UNKNOWN_CONFIG,
+                    TimestreamSinkConstants.DEDUP_WINDOW_MS, ex);
+            throw new TimestreamSinkConnectorException(error, ex);
+        }
+    }
+
     /**
      * @return if auto versioning is enabled or not
      */
@@ -25,6 +25,14 @@ public class TimestreamSinkConstants {
      * Constant: max tasks for the connector
      */
     public static final String TASKS_MAX = "tasks.max";
+    /**
+     * Constant: name of the connector
+     */
+    public static final String CONNECTOR_NAME = "name";
+    /**
+     * Constant: number of the task within the connector, set by the connector on each task configuration
+     */
+    public static final String TASK_ID = "timestream.task.id";
     /**
      * Constant:AWS region
      */
@@ -47,6 +55,10 @@ public class TimestreamSinkConstants {
      * Constant: S3 schema definition object key
      */
     public static final String SCHEMA_S3KEY = "timestream.schema.s3.key";
+    /**
+     * Constant: S3 endpoint override, in URI format
+     */
+    public static final String S3_ENDPOINT = "timestream.schema.s3.endpoint";
     /**
      * Constant: VPC endpoint for Timestream
      */
@@ -57,6 +69,18 @@ public class TimestreamSinkConstants {
      * Constant: specifies versioning of records required
      */
     public static final String AUTO_VERSIONING = "timestream.record.versioning.auto";
+    /**
+     * Constant: specifies how the version of the records is derived when versioning is enabled
+     */
+    public static final String VERSIONING_MODE = "timestream.record.versioning.mode";
+    /**
+     * Constant: versioning mode setting the version to the time the record is converted
+     */
+    public static final String VERSIONING_MODE_WALLCLOCK = "wallclock";
+    /**
+     * Constant: versioning mode deriving the version from the Kafka partition and offset of the record
+     */
+    public static final String VERSIONING_MODE_OFFSET = "offset";
     /**
      * Constant: specifies if empty dimension can be skipped
      */
@@ -84,6 +108,87 @@ public class TimestreamSinkConstants {
      * Non-positive value disables request timeout.
      */
     public static final String CON_TIMEOUT = "timestream.connections.timeoutseconds";
+    /**
+     * Constant: specifies maximum number of WriteRecords requests
+     * that are allowed to be in flight at a time per task.
+     */
+    public static final String MAX_INFLIGHT = "timestream.ingestion.max.inflight";
+    /**
+     * Constant: specifies maximum estimated payload size in bytes of a WriteRecords request
+     */
+    public static final String BATCH_MAX_BYTES = "timestream.record.batch.bytes.max";
+    /**
+     * Constant: specifies maximum number of points in an InfluxDB write request
+     */
+    public static final String INFLUXDB_BATCH_SIZE = "timestream.influxdb.batch.size";
+    /**
+     * Constant: specifies time in milliseconds after which a partial batch of points is written to InfluxDB
+     */
+    public static final String INFLUXDB_FLUSH_INTERVAL = "timestream.influxdb.flush.interval.ms";
+    /**
+     * Constant: specifies maximum number of points waiting to be written to InfluxDB per task
+     */
+    public static final String INFLUXDB_BUFFER_LIMIT = "timestream.influxdb.buffer.limit";
+    /**
+     * Constant: specifies the number of times a failed batch of points is retried by the InfluxDB client
+     */
+    public static final String INFLUXDB_MAX_RETRIES = "timestream.influxdb.max.retries";
+    /**
+     * Constant: specifies the maximum size in bytes of a batch of rejected records sent to the DLQ topic
+     */
+    public static final String DLQ_BATCH_SIZE = "timestream.dlq.batch.size";
+    /**
+     * Constant: specifies the time in milliseconds the DLQ producer waits for more rejected records to batch together
+     */
+    public static final String DLQ_LINGER_MS = "timestream.dlq.linger.ms";
+    /**
+     * Constant: specifies the compression type of the batches of rejected records sent to the DLQ topic
+     */
+    public static final String DLQ_COMPRESSION_TYPE = "timestream.dlq.compression.type";
+    /**
+     * Constant: specifies the interval in milliseconds at which the schema definition is checked for changes
+     */
+    public static final String SCHEMA_REFRESH_INTERVAL = "timestream.schema.refresh.interval.ms";
+    /**
+     * Constant: Time in milliseconds within which a WriteRecords batch that failed with a retryable error is sent again
+     */
+    public static final String INGESTION_RETRY_BUDGET = "timestream.ingestion.retry.budget.ms";
+    /**
+     * Constant: Number of lanes a task converts and sends the records on in parallel
+     */
+    public static final String WRITER_LANES = "timestream.writer.lanes";
+    /**
+     * Constant: Estimated size in bytes up to which the dimensions and measure names are interned
+     */
+    public static final String INTERN_CACHE_BYTES = "timestream.intern.cache.bytes.max";
+    /**
+     * Constant: Size in bytes up to which WriteRecords batches are spilled to disk
+     */
+    public static final String SPILL_BYTES = "timestream.spill.bytes.max";
+    /**
+     * Constant: Directory WriteRecords batches are spilled to during an outage
+     */
+    public static final String SPILL_DIRECTORY = "timestream.spill.directory";
+    /**
+     * Constant: Number of spilled WriteRecords batches replayed per second
+     */
+    public static final String SPILL_REPLAY_RATE = "timestream.spill.replay.rate";
+    /**
+     * Constant: Number of records of a partition not yet committable past which it is paused
+     */
+    public static final String BACKPRESSURE_PARTITION_RECORDS = "timestream.backpressure.partition.records.max";
+    /**
+     * Constant: Number of records of a task not yet committable past which its deepest partitions are paused
+     */
+    public static final String BACKPRESSURE_TASK_RECORDS = "timestream.backpressure.task.records.max";
+    /**
+     * Constant: Time in milliseconds after which a task with paused partitions is called again
+     */
+    public static final String BACKPRESSURE_RETRY_MS = "timestream.backpressure.retry.ms";
+    /**
+     * Constant: Time in milliseconds during which records already written are skipped when redelivered
+     */
+    public static final String DEDUP_WINDOW_MS = "timestream.record.dedup.window.ms";
 
     /**
      * Constant: Dead letter topic name
@@ -110,6 +215,86 @@ public class TimestreamSinkConstants {
      * Constant: default value for 'timestream.record.batch.size'
      */
     public static final int DEFAULT_BATCHSIZE = 100;
+    /**
+     * Constant: default value for 'timestream.ingestion.max.inflight'
+     */
+    public static final int DEFAULT_MAX_INFLIGHT = 10;
+    /**
+     * Constant: default value for 'timestream.record.batch.bytes.max'
+     */
+    public static final int DEFAULT_BATCH_MAX_BYTES = 1_048_576;
+    /**
+     * Constant: default value for 'timestream.influxdb.batch.size'
+     */
+    public static final int DEFAULT_INFLUXDB_BATCH_SIZE = 1000;
+    /**
+     * Constant: default value for 'timestream.influxdb.flush.interval.ms'
+     */
+    public static final int DEFAULT_INFLUXDB_FLUSH_INTERVAL = 1000;
+    /**
+     * Constant: default value for 'timestream.influxdb.buffer.limit'
+     */
+    public static final int DEFAULT_INFLUXDB_BUFFER_LIMIT = 10000;
+    /**
+     * Constant: default value for 'timestream.influxdb.max.retries'
+     */
+    public static final int DEFAULT_INFLUXDB_MAX_RETRIES = 5;
+    /**
+     * Constant: default value for 'timestream.dlq.batch.size'
+     */
+    public static final int DEFAULT_DLQ_BATCH_SIZE = 65536;
+    /**
+     * Constant: default value for 'timestream.dlq.linger.ms'
+     */
+    public static final int DEFAULT_DLQ_LINGER_MS = 20;
+    /**
+     * Constant: default value for 'timestream.record.versioning.mode'
+     */
+    public static final String DEFAULT_VERSIONING_MODE = VERSIONING_MODE_WALLCLOCK;
+    /**
+     * Constant: default value for 'timestream.dlq.compression.type'
+     */
+    public static final String DEFAULT_DLQ_COMPRESSION_TYPE = "lz4";
+    /**
+     * Constant: default value for 'timestream.schema.refresh.interval.ms'
+     */
+    public static final int DEFAULT_SCHEMA_REFRESH_INTERVAL = 60000;
+    /**
+     * Constant: default value for 'timestream.ingestion.retry.budget.ms'
+     */
+    public static final int DEFAULT_INGESTION_RETRY_BUDGET = 60000;
+    /**
+     * Constant: default value for 'timestream.writer.lanes'
+     */
+    public static final int DEFAULT_WRITER_LANES = 1;
+    /**
+     * Constant: default value for 'timestream.intern.cache.bytes.max'
+     */
+    public static final int DEFAULT_INTERN_CACHE_BYTES = 4194304;
+    /**
+     * Constant: default value for 'timestream.spill.bytes.max'
+     */
+    public static final int DEFAULT_SPILL_BYTES = 1073741824;
+    /**
+     * Constant: default value for 'timestream.spill.replay.rate'
+     */
+    public static final int DEFAULT_SPILL_REPLAY_RATE = 10;
+    /**
+     * Constant: default value for 'timestream.backpressure.partition.records.max'
+     */
+    public static final int DEFAULT_BACKPRESSURE_PARTITION_RECORDS = 100000;
+    /**
+     * Constant: default value for 'timestream.backpressure.task.records.max'
+     */
+    public static final int DEFAULT_BACKPRESSURE_TASK_RECORDS = 500000;
+    /**
+     * Constant: default value for 'timestream.backpressure.retry.ms'
+     */
+    public static final int DEFAULT_BACKPRESSURE_RETRY_MS = 1000;
+    /**
+     * Constant: default value for 'timestream.record.dedup.window.ms'
+     */
+    public static final int DEFAULT_DEDUP_WINDOW_MS = 300000;
 
     /**
      * Constant: default value for 'SASL_MECHANISM' of DLQ Publisher
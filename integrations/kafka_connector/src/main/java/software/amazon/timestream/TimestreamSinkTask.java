@@ -10,15 +10,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.timestream.exception.TimestreamSinkConnectorException;
 import software.amazon.timestream.schema.RejectedRecord;
+import software.amazon.timestream.utility.BackpressureController;
 import software.amazon.timestream.utility.DLQReporter;
+import software.amazon.timestream.utility.OffsetTracker;
+import software.amazon.timestream.utility.RecentWriteFilter;
 import software.amazon.timestream.utility.reader.TimestreamS3SchemaReader;
 import software.amazon.timestream.utility.reader.TimestreamSchemaReader;
+import software.amazon.timestream.utility.reader.TimestreamSchemaRefresher;
 import software.amazon.timestream.utility.AWSServiceClientFactory;
 import software.amazon.timestream.utility.TimestreamSinkConfigurationValidator;
+import software.amazon.timestream.utility.TimestreamSinkTaskMetrics;
 import software.amazon.timestream.utility.TimestreamWriter;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Class that writes to Timestream using @{@link TimestreamWriter}
@@ -41,11 +50,35 @@ public class TimestreamSinkTask extends SinkTask {
      * Kafka Publisher to DLQ topic
      */
     private DLQReporter dlqReporter;
+    /**
+     * Applies the changes of the schema definition, null if disabled
+     */
+    private TimestreamSchemaRefresher schemaRefresher;
+    /**
+     * Ingestion metrics of the task, exposed as JMX MBeans
+     */
+    private TimestreamSinkTaskMetrics metrics;
 
     /**
      * Offset tracker per partition
      */
-    private final ConcurrentHashMap<String, HashSet<Long>> recordOffsets = new ConcurrentHashMap<>();
+    private final OffsetTracker offsetTracker = new OffsetTracker();
+    /**
+     * Partitions paused while their records are deferred past the retry budget or they are over the backpressure budget
+     */
+    private final Set<TopicPartition> pausedPartitions = new HashSet<>();
+    /**
+     * Selects the partitions holding too many records not yet committable
+     */
+    private BackpressureController backpressureController;
+    /**
+     * Time in milliseconds after which the task is called again while partitions are paused
+     */
+    private long backpressureRetryMillis;
+    /**
+     * Skips the records redelivered that are already written, null unless versioned by offset
+     */
+    private RecentWriteFilter recentWriteFilter;
 
     @Override
     public String version() {
@@ -58,10 +91,26 @@ public class TimestreamSinkTask extends SinkTask {
             LOGGER.info("Begin::TimestreamSinkTask::start: configuration map [{}]", map);
             TimestreamSinkConfigurationValidator.validateInitialConfig(map);
             final TimestreamSinkConnectorConfig sinkConfig = new TimestreamSinkConnectorConfig(map);
-            clientFactory = new AWSServiceClientFactory(sinkConfig);
+            // clients are shared with the tasks of the worker of the same configuration
+            clientFactory = AWSServiceClientFactory.acquire(sinkConfig);
             TimestreamSinkConfigurationValidator.validateTimestreamSinkConnectorConfig(clientFactory, sinkConfig);
             final TimestreamSchemaReader schemaReader = new TimestreamS3SchemaReader(clientFactory, sinkConfig);
-            timeStreamWriter = new TimestreamWriter(schemaReader.getSchemaDefinition(), sinkConfig);
+            metrics = new TimestreamSinkTaskMetrics(String.valueOf(map.get(TimestreamSinkConstants.CONNECTOR_NAME)),
+                    map.getOrDefault(TimestreamSinkConstants.TASK_ID, "0"));
+            backpressureController = new BackpressureController(sinkConfig, offsetTracker);
+            if (sinkConfig.isOffsetVersioning() && sinkConfig.getDedupWindowMillis() > 0) {
+                recentWriteFilter = new RecentWriteFilter(String.valueOf(map.get(TimestreamSinkConstants.CONNECTOR_NAME)),
+                        sinkConfig.getDedupWindowMillis());
+            }
+            backpressureRetryMillis = sinkConfig.getBackpressureRetryMillis();
+            metrics.addPausedPartitionsGauge(pausedPartitions::size);
+            metrics.addClientGauges(clientFactory::getReferences, clientFactory::getLeasedConnections,
+                    clientFactory::getAvailableConnections, clientFactory::getPendingConnectionAcquires);
+            timeStreamWriter = new TimestreamWriter(schemaReader.getSchemaDefinition(), sinkConfig, offsetTracker, metrics);
+            if (sinkConfig.getSchemaRefreshInterval() > 0) {
+                schemaRefresher = new TimestreamSchemaRefresher(schemaReader, sinkConfig.getSchemaRefreshInterval(),
+                        timeStreamWriter::updateSchemaDefinition);
+            }
             instantiateDLQReporter(sinkConfig);
             LOGGER.info("Complete::TimestreamSinkTask::start");
         } catch (ConnectException e) {
@@ -73,17 +122,42 @@ public class TimestreamSinkTask extends SinkTask {
     @Override
     public void put(final Collection<SinkRecord> collection) {
 
+        final long start = System.nanoTime();
+        if (dlqReporter != null) {
+            dlqReporter.checkDelivery();
+        }
+        Collection<SinkRecord> records = collection;
         if (!collection.isEmpty()) {
             LOGGER.trace("TimestreamSinkTask::put Collection size {}", collection.size());
-            final ArrayList<SinkRecord> recordList = new ArrayList<>(collection);
-            for (final SinkRecord record : recordList) {
-                LOGGER.trace("Sink Record: {} ", record);
+            if (recentWriteFilter != null) {
+                records = skipWrittenRecords(collection);
             }
-            final List<RejectedRecord> rejectedRecords = timeStreamWriter.writeRecords(clientFactory, collection);
-            if (rejectedRecords != null && !rejectedRecords.isEmpty() && dlqReporter != null) {
-                dlqReporter.reportRejectedRecords(rejectedRecords);
+            for (final SinkRecord record : records) {
+                offsetTracker.register(record);
             }
         }
+        // called on empty collections too, to send the deferred batches of the paused partitions again
+        final List<RejectedRecord> rejectedRecords = timeStreamWriter.writeRecords(clientFactory, records);
+        if (rejectedRecords != null && !rejectedRecords.isEmpty()) {
+            metrics.recordRejected(rejectedRecords.size());
+            if (dlqReporter != null) {
+                // rejected records are acknowledged once the DLQ topic has them
+                dlqReporter.reportRejectedRecords(rejectedRecords, rejectedRecord -> {
+                    metrics.recordReported();
+                    timeStreamWriter.acknowledgeReported(rejectedRecord);
+                });
+            } else {
+                // rejected records are only logged when the DLQ is not enabled
+                timeStreamWriter.acknowledgeReported(rejectedRecords);
+            }
+        }
+        pausePartitions();
+        if (recentWriteFilter != null) {
+            recentWriteFilter.update(offsetTracker.getCommittableOffsets(context.assignment()));
+        }
+        if (!collection.isEmpty()) {
+            metrics.recordPut((System.nanoTime() - start) / 1_000_000);
+        }
     }
 
     @Override
@@ -94,34 +168,103 @@ public class TimestreamSinkTask extends SinkTask {
     @Override
     public void stop() {
         LOGGER.info("Complete::TimestreamSinkTask::stop");
+        if (schemaRefresher != null) {
+            schemaRefresher.close();
+        }
+        if (timeStreamWriter != null) {
+            timeStreamWriter.close();
+        }
         if (dlqReporter != null) {
             dlqReporter.getDlqPublisher().flush();
             dlqReporter.getDlqPublisher().close();
         }
-        clientFactory.getTimestreamClient().close();
-        clientFactory.getS3Client().close();
+        if (clientFactory != null) {
+            // closes the clients once no other task shares them
+            clientFactory.release();
+        }
+        if (metrics != null) {
+            metrics.close();
+        }
     }
 
     @Override
     public Map<TopicPartition, OffsetAndMetadata> preCommit(final Map<TopicPartition, OffsetAndMetadata> currentOffsets) {
         LOGGER.trace("Begin::TimestreamSinkTask::preCommit");
-        final Map<TopicPartition, OffsetAndMetadata> offsetsChange = new ConcurrentHashMap<>();
-        for (final Map.Entry<TopicPartition, OffsetAndMetadata> entry : currentOffsets.entrySet()) {
-            final TopicPartition topicPartition = entry.getKey();
-            if (recordOffsets.isEmpty()) {
-                offsetsChange.put(topicPartition, entry.getValue());
-            } else {
-                final HashSet<Long> offset = recordOffsets.get(String.valueOf(entry.getKey()));
-                final OffsetAndMetadata offsetMax = new OffsetAndMetadata(Collections.max(offset) + 1);
-                offsetsChange.put(topicPartition, offsetMax);
-                LOGGER.debug("DEBUG:TimestreamSinkTask::PreCommit:: Current Offset [{}] for partition [{}] ", entry.getValue(), topicPartition);
-                LOGGER.debug("DEBUG:TimestreamSinkTask::PreCommit:: Write record Offsets [{}] {} for partition [{}] ",
-                        offsetMax, Arrays.toString(offset.toArray()), topicPartition);
-            }
+        if (dlqReporter != null) {
+            dlqReporter.checkDelivery();
         }
+        final Map<TopicPartition, OffsetAndMetadata> offsetsChange = offsetTracker.getCommittableOffsets(currentOffsets.keySet());
+        LOGGER.debug("DEBUG:TimestreamSinkTask::PreCommit:: Current Offsets [{}], committable offsets [{}]", currentOffsets, offsetsChange);
         return offsetsChange;
     }
 
+    @Override
+    public void open(final Collection<TopicPartition> partitions) {
+        LOGGER.info("TimestreamSinkTask::open: partitions [{}]", partitions);
+        metrics.addPartitions(partitions, offsetTracker::getOffsetLag);
+    }
+
+    @Override
+    public void close(final Collection<TopicPartition> partitions) {
+        LOGGER.info("TimestreamSinkTask::close: partitions [{}]", partitions);
+        offsetTracker.remove(partitions);
+        if (metrics != null) {
+            metrics.removePartitions(partitions);
+        }
+        pausedPartitions.removeAll(partitions);
+        if (backpressureController != null) {
+            backpressureController.remove(partitions);
+        }
+        if (timeStreamWriter != null) {
+            timeStreamWriter.remove(partitions);
+        }
+    }
+
+    /**
+     * @param collection records delivered to the task
+     * @return the records that are not already written, as the records redelivered after a fail over
+     */
+    private Collection<SinkRecord> skipWrittenRecords(final Collection<SinkRecord> collection) {
+        final List<SinkRecord> records = new ArrayList<>(collection.size());
+        for (final SinkRecord record : collection) {
+            if (!recentWriteFilter.isWritten(record)) {
+                records.add(record);
+            }
+        }
+        if (records.size() < collection.size()) {
+            LOGGER.info("TimestreamSinkTask::skipWrittenRecords: skipped [{}] records already written", collection.size() - records.size());
+            metrics.recordDeduplicated(collection.size() - records.size());
+        }
+        return records;
+    }
+
+    /**
+     * Method to pause the partitions of the records deferred past the retry budget and the ones
+     * over the backpressure budget, and to resume the paused ones once their records are written.
+     * While partitions are paused, the task is called again within 'timestream.backpressure.retry.ms'
+     * even if no records are delivered, to send the deferred batches again and resume the partitions.
+     */
+    private void pausePartitions() {
+        final Set<TopicPartition> paused = timeStreamWriter.getDeferredPartitions();
+        paused.addAll(backpressureController.getOverBudgetPartitions(context.assignment()));
+        final Set<TopicPartition> resumed = new HashSet<>(pausedPartitions);
+        resumed.removeAll(paused);
+        paused.removeAll(pausedPartitions);
+        if (!paused.isEmpty()) {
+            LOGGER.warn("WARN::TimestreamSinkTask::pausePartitions: pausing partitions [{}]", paused);
+            context.pause(paused.toArray(new TopicPartition[0]));
+            pausedPartitions.addAll(paused);
+        }
+        if (!resumed.isEmpty()) {
+            LOGGER.info("TimestreamSinkTask::pausePartitions: resuming partitions [{}]", resumed);
+            context.resume(resumed.toArray(new TopicPartition[0]));
+            pausedPartitions.removeAll(resumed);
+        }
+        if (!pausedPartitions.isEmpty()) {
+            context.timeout(backpressureRetryMillis);
+        }
+    }
+
     /**
      * Method to check if DLQ is enabled and instantiate the producer accordingly
      * @param sinkConfig TimestreamSinkConnectorConfig
@@ -49,6 +49,10 @@ public class TimestreamSinkErrorCodes {
      * Error code: if value for 'timestream.ingestion.endpoint' is invalid
      */
     public static final String INVALID_ENDPOINT = "invalid.timestream.ingestion.endpoint";
+    /**
+     * Error code: if value for 'timestream.schema.s3.endpoint' is invalid
+     */
+    public static final String INVALID_S3_ENDPOINT = "invalid.timestream.schema.s3.endpoint";
     /**
      * Error code: if value for 'timestream.schema.s3.key' is invalid
      */
@@ -85,6 +89,90 @@ public class TimestreamSinkErrorCodes {
      * Error code: if value for 'timestream.connections.retries' is invalid
      */
     public static final String INVALID_CON_RETRY ="invalid.timestream.connections.retries";
+    /**
+     * Error code: if value for 'timestream.ingestion.max.inflight' is invalid
+     */
+    public static final String INVALID_MAX_INFLIGHT ="invalid.timestream.ingestion.max.inflight";
+    /**
+     * Error code: if value for 'timestream.record.batch.bytes.max' is invalid
+     */
+    public static final String INVALID_BATCH_MAX_BYTES ="invalid.timestream.record.batch.bytes.max";
+    /**
+     * Error code: if value for 'timestream.influxdb.batch.size' is invalid
+     */
+    public static final String INVALID_INFLUXDB_BATCH_SIZE ="invalid.timestream.influxdb.batch.size";
+    /**
+     * Error code: if value for 'timestream.influxdb.flush.interval.ms' is invalid
+     */
+    public static final String INVALID_INFLUXDB_FLUSH_INTERVAL ="invalid.timestream.influxdb.flush.interval.ms";
+    /**
+     * Error code: if value for 'timestream.influxdb.buffer.limit' is invalid
+     */
+    public static final String INVALID_INFLUXDB_BUFFER_LIMIT ="invalid.timestream.influxdb.buffer.limit";
+    /**
+     * Error code: if value for 'timestream.influxdb.max.retries' is invalid
+     */
+    public static final String INVALID_INFLUXDB_MAX_RETRIES ="invalid.timestream.influxdb.max.retries";
+    /**
+     * Error code: if value for 'timestream.dlq.batch.size' is invalid
+     */
+    public static final String INVALID_DLQ_BATCH_SIZE ="invalid.timestream.dlq.batch.size";
+    /**
+     * Error code: if value for 'timestream.dlq.linger.ms' is invalid
+     */
+    public static final String INVALID_DLQ_LINGER_MS ="invalid.timestream.dlq.linger.ms";
+    /**
+     * Error code: if value for 'timestream.record.versioning.mode' is invalid
+     */
+    public static final String INVALID_VERSIONING_MODE ="invalid.timestream.record.versioning.mode";
+    /**
+     * Error code: if value for 'timestream.dlq.compression.type' is invalid
+     */
+    public static final String INVALID_DLQ_COMPRESSION_TYPE ="invalid.timestream.dlq.compression.type";
+    /**
+     * Error code: if value for 'timestream.schema.refresh.interval.ms' is invalid
+     */
+    public static final String INVALID_SCHEMA_REFRESH_INTERVAL ="invalid.timestream.schema.refresh.interval.ms";
+    /**
+     * Error code: if value for 'timestream.ingestion.retry.budget.ms' is invalid
+     */
+    public static final String INVALID_INGESTION_RETRY_BUDGET ="invalid.timestream.ingestion.retry.budget.ms";
+    /**
+     * Error code: if value for 'timestream.writer.lanes' is invalid
+     */
+    public static final String INVALID_WRITER_LANES ="invalid.timestream.writer.lanes";
+    /**
+     * Error code: if value for 'timestream.intern.cache.bytes.max' is invalid
+     */
+    public static final String INVALID_INTERN_CACHE_BYTES ="invalid.timestream.intern.cache.bytes.max";
+    /**
+     * Error code: if value for 'timestream.spill.bytes.max' is invalid
+     */
+    public static final String INVALID_SPILL_BYTES ="invalid.timestream.spill.bytes.max";
+    /**
+     * Error code: if value for 'timestream.spill.replay.rate' is invalid
+     */
+    public static final String INVALID_SPILL_REPLAY_RATE ="invalid.timestream.spill.replay.rate";
+    /**
+     * Error code: if the spill directory cannot be used
+     */
+    public static final String SPILL_DIRECTORY_ERROR ="runtime.error.spill.directory";
+    /**
+     * Error code: if value for 'timestream.backpressure.partition.records.max' is invalid
+     */
+    public static final String INVALID_BACKPRESSURE_PARTITION_RECORDS ="invalid.timestream.backpressure.partition.records.max";
+    /**
+     * Error code: if value for 'timestream.backpressure.task.records.max' is invalid
+     */
+    public static final String INVALID_BACKPRESSURE_TASK_RECORDS ="invalid.timestream.backpressure.task.records.max";
+    /**
+     * Error code: if value for 'timestream.backpressure.retry.ms' is invalid
+     */
+    public static final String INVALID_BACKPRESSURE_RETRY_MS ="invalid.timestream.backpressure.retry.ms";
+    /**
+     * Error code: if value for 'timestream.record.dedup.window.ms' is invalid
+     */
+    public static final String INVALID_DEDUP_WINDOW_MS ="invalid.timestream.record.dedup.window.ms";
     /**
      * Error code: if supplied configuration is unknown
      */
@@ -120,6 +208,11 @@ public class TimestreamSinkErrorCodes {
      */
     public static final String INVALID_MEASURE_VALUE ="invalid.measure.value";
 
+    /**
+     * Error code: if the Kafka partition or offset of a record does not fit an offset derived version
+     */
+    public static final String INVALID_OFFSET_VERSION ="invalid.offset.version";
+
     /**
      * Error code: no target engine specified (InfluxDB or LiveAnalytics)
      */
@@ -0,0 +1,155 @@
+package software.amazon.timestream.schema;
+
+import org.apache.kafka.connect.sink.SinkRecord;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.timestream.utility.RecordColumns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Class that encapsulates the records of a single WriteRecords request:
+ * the attributes they share, sent once as common attributes, along with the rows of the
+ * {@link RecordColumns} the records are converted into and the dimension columns shared by all of them. The records as sent without the common attributes
+ * are built when the batch is first sent and kept for sending it again; the complete records are only built when reported.
+ * A batch read back from the spill store holds its request records as read, along with the Kafka coordinates of their sink records.
+ */
+public class RecordBatch {
+
+    /**
+     * Attributes shared by all the records of the batch
+     */
+    private final Record commonAttributes;
+    /**
+     * Columns the records of the batch are converted into
+     */
+    private final RecordColumns columns;
+    /**
+     * Rows of the records of the batch in the columns, in the order of the request records
+     */
+    private final int[] rows;
+    /**
+     * true for the dimension columns sent as common attributes, by dimension column; null for a batch read back
+     */
+    private final boolean[] commonDimensions;
+    /**
+     * Sink records of a batch read back from the spill store, holding only their Kafka coordinates; null otherwise
+     */
+    private final List<SinkRecord> sourceRecords;
+    /**
+     * Records to be sent in the request, without the common attributes; null until the batch is first sent
+     */
+    private List<Record> requestRecords;
+
+    /**
+     * @param commonAttributes attributes shared by all the records of the batch
+     * @param columns columns the records of the batch are converted into
+     * @param rows rows of the records of the batch in the columns
+     * @param commonDimensions true for the dimension columns sent as common attributes, by dimension column
+     */
+    public RecordBatch(final Record commonAttributes, final RecordColumns columns, final int[] rows, final boolean[] commonDimensions) {
+        this.commonAttributes = commonAttributes;
+        this.columns = columns;
+        this.rows = rows;
+        this.commonDimensions = commonDimensions;
+        this.sourceRecords = null;
+    }
+
+    /**
+     * @param commonAttributes attributes shared by all the records of the batch
+     * @param requestRecords records to be sent in the request, without the common attributes
+     * @param sourceRecords sink records the records are converted from, by the index of the request records
+     */
+    public RecordBatch(final Record commonAttributes, final List<Record> requestRecords, final List<SinkRecord> sourceRecords) {
+        this.commonAttributes = commonAttributes;
+        this.columns = null;
+        this.rows = null;
+        this.commonDimensions = null;
+        this.requestRecords = requestRecords;
+        this.sourceRecords = sourceRecords;
+    }
+
+    /**
+     * @return attributes shared by all the records of the batch
+     */
+    public Record getCommonAttributes() {
+        return commonAttributes;
+    }
+
+    /**
+     * @return records to be sent in the request, without the common attributes
+     */
+    public List<Record> getRequestRecords() {
+        if (requestRecords == null) {
+            final List<Record> records = new ArrayList<>(rows.length);
+            for (final int row : rows) {
+                records.add(columns.toRequestRecord(row, commonDimensions));
+            }
+            requestRecords = records;
+        }
+        return requestRecords;
+    }
+
+    /**
+     * @param index index of the record in the request
+     * @return the complete record
+     */
+    public Record getRecord(final int index) {
+        if (columns != null) {
+            return columns.toRecord(rows[index]);
+        }
+        final Record record = requestRecords.get(index);
+        final List<Dimension> dimensions = new ArrayList<>(commonAttributes.dimensions());
+        dimensions.addAll(record.dimensions());
+        return record.toBuilder()
+                .measureName(commonAttributes.measureName())
+                .dimensions(dimensions)
+                .timeUnit(commonAttributes.timeUnitAsString())
+                .measureValueType(commonAttributes.measureValueTypeAsString())
+                .build();
+    }
+
+    /**
+     * @param index index of the record in the request
+     * @return sink record the record is converted from
+     */
+    public SinkRecord getSourceRecord(final int index) {
+        return columns != null ? columns.getSourceRecord(rows[index]) : sourceRecords.get(index);
+    }
+
+    /**
+     * @param filter selects the sink records whose records are kept
+     * @return batch of the records that are kept, this batch if all of them are
+     */
+    public RecordBatch retain(final Predicate<SinkRecord> filter) {
+        if (columns == null) {
+            final List<Record> keptRecords = new ArrayList<>(sourceRecords.size());
+            final List<SinkRecord> keptSourceRecords = new ArrayList<>(sourceRecords.size());
+            for (int i = 0; i < sourceRecords.size(); i++) {
+                if (filter.test(sourceRecords.get(i))) {
+                    keptRecords.add(requestRecords.get(i));
+                    keptSourceRecords.add(sourceRecords.get(i));
+                }
+            }
+            return keptRecords.size() == sourceRecords.size() ? this : new RecordBatch(commonAttributes, keptRecords, keptSourceRecords);
+        }
+        final int[] kept = new int[rows.length];
+        int size = 0;
+        for (final int row : rows) {
+            if (filter.test(columns.getSourceRecord(row))) {
+                kept[size++] = row;
+            }
+        }
+        return size == rows.length ? this : new RecordBatch(commonAttributes, columns, Arrays.copyOf(kept, size), commonDimensions);
+    }
+
+    /**
+     * @return number of records in the batch
+     */
+    public int size() {
+        return rows != null ? rows.length : sourceRecords.size();
+    }
+}
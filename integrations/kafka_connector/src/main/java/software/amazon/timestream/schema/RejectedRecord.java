@@ -30,6 +30,11 @@ public class RejectedRecord {
      * rejection reason
      */
     private String reason;
+    /**
+     * Sink Record the rejected record is converted from, used for offset tracking
+     */
+    @ToString.Exclude
+    private SinkRecord sourceRecord;
     /**
      * @param rejectedRecord Record - rejected while ingesting to Timestream table
      * @param reason rejection reason
@@ -38,12 +43,23 @@ public class RejectedRecord {
         this.rejectedRecord = rejectedRecord;
         this.reason = reason;
     }
+    /**
+     * @param rejectedRecord Record - rejected while ingesting to Timestream table
+     * @param sourceRecord Sink Record the rejected record is converted from
+     * @param reason rejection reason
+     */
+    public RejectedRecord(final Record rejectedRecord, final SinkRecord sourceRecord, final String reason) {
+        this.rejectedRecord = rejectedRecord;
+        this.sourceRecord = sourceRecord;
+        this.reason = reason;
+    }
     /**
      * @param rejectedRecord Sink Record rejected while ingesting to Timestream table
      * @param reason rejection reason
      */
     public RejectedRecord(final SinkRecord rejectedRecord, final String reason) {
         this.rejectedSinkRecord = rejectedRecord;
+        this.sourceRecord = rejectedRecord;
         this.reason = reason;
     }
 }
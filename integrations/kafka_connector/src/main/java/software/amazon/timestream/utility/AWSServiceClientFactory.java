@@ -1,13 +1,25 @@
 package software.amazon.timestream.utility;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.RetryUtils;
+import software.amazon.awssdk.core.retry.conditions.RetryCondition;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.timestreamwrite.TimestreamWriteAsyncClient;
 import software.amazon.awssdk.services.timestreamwrite.TimestreamWriteClient;
 import software.amazon.timestream.TimestreamSinkConnectorConfig;
 import software.amazon.timestream.exception.TimestreamSinkConnectorError;
@@ -17,11 +29,20 @@ import software.amazon.timestream.exception.TimestreamSinkErrorCodes;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Class that instantiates AWS service client objects
  * such as objects of {@link S3Client},
- * {@link TimestreamWriteClient} and more that are required for the connector.
+ * {@link TimestreamWriteClient}, {@link TimestreamWriteAsyncClient}
+ * and more that are required for the connector.
+ * Factories obtained through {@link #acquire(TimestreamSinkConnectorConfig)} share their clients with the other tasks
+ * of the worker configured with the same region, endpoints and client settings: the S3 and Timestream clients
+ * share a single Apache HTTP client, and the ingestion client a single CRT HTTP client, hence a single connection pool each.
+ * The clients are closed once every task sharing them has called {@link #release()}.
  */
 @Getter
 public final class AWSServiceClientFactory {
@@ -30,6 +51,10 @@ public final class AWSServiceClientFactory {
      * Logger object
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(AWSServiceClientFactory.class);
+    /**
+     * Clients shared by the tasks of the worker, by their configuration
+     */
+    private static final Map<ClientKey, SharedClients> SHARED_CLIENTS = new HashMap<>();
     /**
      * Amazon S3 client object
      */
@@ -38,14 +63,31 @@ public final class AWSServiceClientFactory {
      * Amazon Timestream Write Client object
      */
     private final TimestreamWriteClient timestreamClient;
+    /**
+     * Amazon Timestream Write Async Client object, used for record ingestion
+     */
+    private final TimestreamWriteAsyncClient timestreamAsyncClient;
+    /**
+     * Clients of the factory along with their HTTP clients
+     */
+    @Getter(AccessLevel.NONE)
+    private final SharedClients clients;
+    /**
+     * Configuration the clients are shared by, null if they are not shared
+     */
+    @Getter(AccessLevel.NONE)
+    private final ClientKey key;
+    /**
+     * Whether the factory has released its clients
+     */
+    @Getter(AccessLevel.NONE)
+    private boolean released;
 
     /**
      * @param config Timestream SinkConnector Config values
      */
     public AWSServiceClientFactory(final TimestreamSinkConnectorConfig config) {
-        LOGGER.info("AWSServiceClientFactory::instantiate for region {}", config.getAWSRegion());
-        this.s3Client = S3Client.builder().region(config.getAWSRegion()).build();
-        this.timestreamClient = instantiateTimeStreamWriterClient(config);
+        this(config, (S3Client) null);
     }
 
     /**
@@ -54,23 +96,125 @@ public final class AWSServiceClientFactory {
      * @param s3Client - instantiated S3Client object
      */
     public AWSServiceClientFactory(final TimestreamSinkConnectorConfig config, final S3Client s3Client ) {
-        this.s3Client = s3Client;
-        this.timestreamClient = instantiateTimeStreamWriterClient(config);
+        this(new SharedClients(config, s3Client), null);
+    }
+
+    /**
+     * @param clients clients of the factory
+     * @param key configuration the clients are shared by, null if they are not shared
+     */
+    private AWSServiceClientFactory(final SharedClients clients, final ClientKey key) {
+        this.clients = clients;
+        this.key = key;
+        this.s3Client = clients.s3Client;
+        this.timestreamClient = clients.timestreamClient;
+        this.timestreamAsyncClient = clients.timestreamAsyncClient;
+    }
+
+    /**
+     * Method to get a factory of the clients shared by the tasks of the worker with the same configuration,
+     * instantiating them for the first task
+     *
+     * @param config Timestream SinkConnector Config values
+     * @return factory to be released once the task stops
+     */
+    public static AWSServiceClientFactory acquire(final TimestreamSinkConnectorConfig config) {
+        final ClientKey key = new ClientKey(config);
+        synchronized (SHARED_CLIENTS) {
+            SharedClients clients = SHARED_CLIENTS.get(key);
+            if (clients == null) {
+                clients = new SharedClients(config, null);
+                SHARED_CLIENTS.put(key, clients);
+            } else {
+                LOGGER.info("AWSServiceClientFactory::acquire: sharing the clients of region {} with [{}] tasks", config.getAWSRegion(), clients.references);
+            }
+            clients.references++;
+            return new AWSServiceClientFactory(clients, key);
+        }
+    }
+
+    /**
+     * Method to release the clients of the factory, closing them unless other tasks still share them
+     */
+    public void release() {
+        synchronized (SHARED_CLIENTS) {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (--clients.references > 0) {
+                return;
+            }
+            if (key != null) {
+                SHARED_CLIENTS.remove(key);
+            }
+        }
+        LOGGER.info("AWSServiceClientFactory::release: closing the clients");
+        clients.close();
+    }
+
+    /**
+     * @return number of tasks sharing the clients of the factory
+     */
+    public int getReferences() {
+        synchronized (SHARED_CLIENTS) {
+            return clients.references;
+        }
+    }
+
+    /**
+     * @return number of ingestion connections in use, as of the latest WriteRecords request
+     */
+    public int getLeasedConnections() {
+        return clients.connectionMetrics.leased;
+    }
+
+    /**
+     * @return number of ingestion connections that can be leased without opening a new one, as of the latest WriteRecords request
+     */
+    public int getAvailableConnections() {
+        return clients.connectionMetrics.available;
+    }
+
+    /**
+     * @return number of WriteRecords requests waiting for an ingestion connection, as of the latest one
+     */
+    public int getPendingConnectionAcquires() {
+        return clients.connectionMetrics.pending;
+    }
+
+    /**
+     * Method that instantiates an object of {@link S3Client}
+     * for the given configuration set in {@link TimestreamSinkConnectorConfig}
+     * @param config: configuration values
+     * @param httpClient: HTTP client shared with the Timestream client
+     * @return s3Client
+     */
+    private static S3Client instantiateS3Client(final TimestreamSinkConnectorConfig config, final SdkHttpClient httpClient) {
+        final S3ClientBuilder s3ClientBuilder = S3Client.builder().httpClient(httpClient).region(config.getAWSRegion());
+        final String endpoint = config.getS3EndPoint();
+        if (endpoint != null && !endpoint.isEmpty()) {
+            try {
+                s3ClientBuilder.endpointOverride(new URI(endpoint)).forcePathStyle(true);
+            } catch (URISyntaxException e) {
+                LOGGER.error("ERROR::AWSServiceClientFactory::instantiateS3Client::", e);
+                final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_S3_ENDPOINT, endpoint);
+                throw new TimestreamSinkConnectorException(error, e);
+            }
+        }
+        return s3ClientBuilder.build();
     }
 
     /**
      * Method that instantiates an object of {@link TimestreamWriteClient}
      * for the given configuration set in {@link TimestreamSinkConnectorConfig}
      * @param config: configuration values
+     * @param httpClient: HTTP client shared with the S3 client
      * @return timestreamWriteClient
      */
-    private TimestreamWriteClient instantiateTimeStreamWriterClient(final TimestreamSinkConnectorConfig config) {
+    private static TimestreamWriteClient instantiateTimeStreamWriterClient(final TimestreamSinkConnectorConfig config, final SdkHttpClient httpClient) {
         LOGGER.info("Begin::AWSServiceClientFactory::instantiateTimeStreamWriterClient");
         try {
-            final ApacheHttpClient.Builder httpClientBuilder = ApacheHttpClient.builder();
-
-            httpClientBuilder.maxConnections(config.getMaxConnections());
-
             final RetryPolicy.Builder retryPolicy = RetryPolicy.builder();
             retryPolicy.numRetries(config.getNumRetries());
 
@@ -79,7 +223,7 @@ public final class AWSServiceClientFactory {
             overrideConfig.retryPolicy(retryPolicy.build());
 
             return TimestreamWriteClient.builder()
-                    .httpClientBuilder(httpClientBuilder)
+                    .httpClient(httpClient)
                     .overrideConfiguration(overrideConfig.build())
                     .region(config.getAWSRegion()).endpointOverride(new URI(config.getTimestreamIngestionEndPoint()))
                     .build();
@@ -92,4 +236,188 @@ public final class AWSServiceClientFactory {
             throw new TimestreamSinkConnectorException(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Method that instantiates an object of {@link TimestreamWriteAsyncClient}
+     * for the given configuration set in {@link TimestreamSinkConnectorConfig}
+     * @param config: configuration values
+     * @param httpClient: HTTP client of the ingestion connections
+     * @param metricPublisher: gathers the metrics of the ingestion connections
+     * @return timestreamWriteAsyncClient
+     */
+    private static TimestreamWriteAsyncClient instantiateTimeStreamWriterAsyncClient(final TimestreamSinkConnectorConfig config,
+                                                                                    final SdkAsyncHttpClient httpClient,
+                                                                                    final MetricPublisher metricPublisher) {
+        LOGGER.info("Begin::AWSServiceClientFactory::instantiateTimeStreamWriterAsyncClient");
+        try {
+            // throttled requests are not retried by the client but paced by the IngestionRateController
+            final RetryCondition retryCondition = RetryCondition.defaultRetryCondition();
+            final RetryPolicy.Builder retryPolicy = RetryPolicy.builder();
+            retryPolicy.numRetries(config.getNumRetries());
+            retryPolicy.retryCondition(context ->
+                    !RetryUtils.isThrottlingException(context.exception()) && retryCondition.shouldRetry(context));
+
+            final ClientOverrideConfiguration.Builder overrideConfig = ClientOverrideConfiguration.builder();
+            overrideConfig.apiCallAttemptTimeout(Duration.ofSeconds(config.getMaxTimeoutSeconds()));
+            overrideConfig.retryPolicy(retryPolicy.build());
+            overrideConfig.addMetricPublisher(metricPublisher);
+
+            return TimestreamWriteAsyncClient.builder()
+                    .httpClient(httpClient)
+                    .overrideConfiguration(overrideConfig.build())
+                    .region(config.getAWSRegion()).endpointOverride(new URI(config.getTimestreamIngestionEndPoint()))
+                    .build();
+        } catch (URISyntaxException e) {
+            LOGGER.error("ERROR::AWSServiceClientFactory::instantiateTimeStreamWriterAsyncClient::", e);
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_ENDPOINT, config.getTimestreamIngestionEndPoint());
+            throw new TimestreamSinkConnectorException(error, e);
+        } catch (SdkException e) {
+            LOGGER.error("ERROR::AWSServiceClientFactory::instantiateTimeStreamWriterAsyncClient: while building Timestream client::", e);
+            throw new TimestreamSinkConnectorException(e);
+        }
+    }
+
+    /**
+     * Region, endpoints and client settings the clients are shared by.
+     * The credentials are left out: the connector config has no credential settings, the clients resolving them
+     * through the default provider chain from the environment, system properties and profile of the worker process,
+     * hence the same for every connector of the worker. A credential setting added to the config must be added here too.
+     */
+    private static final class ClientKey {
+        private final String region;
+        private final String s3Endpoint;
+        private final String ingestionEndpoint;
+        private final int maxConnections;
+        private final int numRetries;
+        private final int maxTimeoutSeconds;
+
+        private ClientKey(final TimestreamSinkConnectorConfig config) {
+            this.region = config.getAWSRegion().id();
+            this.s3Endpoint = config.getS3EndPoint();
+            this.ingestionEndpoint = config.getTimestreamIngestionEndPoint();
+            this.maxConnections = config.getMaxConnections();
+            this.numRetries = config.getNumRetries();
+            this.maxTimeoutSeconds = config.getMaxTimeoutSeconds();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ClientKey)) {
+                return false;
+            }
+            final ClientKey key = (ClientKey) other;
+            return maxConnections == key.maxConnections && numRetries == key.numRetries && maxTimeoutSeconds == key.maxTimeoutSeconds
+                    && region.equals(key.region) && Objects.equals(s3Endpoint, key.s3Endpoint)
+                    && Objects.equals(ingestionEndpoint, key.ingestionEndpoint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(region, s3Endpoint, ingestionEndpoint, maxConnections, numRetries, maxTimeoutSeconds);
+        }
+    }
+
+    /**
+     * Clients along with the HTTP clients they share and the number of tasks using them
+     */
+    private static final class SharedClients {
+        /**
+         * HTTP client of the S3 and Timestream clients
+         */
+        private final SdkHttpClient httpClient;
+        /**
+         * HTTP client of the Timestream ingestion client
+         */
+        private final SdkAsyncHttpClient asyncHttpClient;
+        /**
+         * metrics of the ingestion connections
+         */
+        private final ConnectionMetrics connectionMetrics = new ConnectionMetrics();
+        private final S3Client s3Client;
+        private final TimestreamWriteClient timestreamClient;
+        private final TimestreamWriteAsyncClient timestreamAsyncClient;
+        /**
+         * number of factories using the clients, guarded by the registry
+         */
+        private int references = 1;
+
+        /**
+         * @param config Timestream SinkConnector Config values
+         * @param s3Client instantiated S3Client object, null to instantiate it
+         */
+        private SharedClients(final TimestreamSinkConnectorConfig config, final S3Client s3Client) {
+            LOGGER.info("AWSServiceClientFactory::instantiate for region {}", config.getAWSRegion());
+            this.httpClient = ApacheHttpClient.builder()
+                    .maxConnections(config.getMaxConnections())
+                    .tcpKeepAlive(true)
+                    .build();
+            this.asyncHttpClient = AwsCrtAsyncHttpClient.builder()
+                    .maxConcurrency(config.getMaxConnections())
+                    .build();
+            this.s3Client = s3Client != null ? s3Client : instantiateS3Client(config, httpClient);
+            this.timestreamClient = instantiateTimeStreamWriterClient(config, httpClient);
+            this.timestreamAsyncClient = instantiateTimeStreamWriterAsyncClient(config, asyncHttpClient, connectionMetrics);
+        }
+
+        private void close() {
+            timestreamClient.close();
+            timestreamAsyncClient.close();
+            s3Client.close();
+            // HTTP clients passed to the builders are not closed along with the clients
+            httpClient.close();
+            asyncHttpClient.close();
+        }
+    }
+
+    /**
+     * Publisher keeping the connection pool metrics of the latest WriteRecords request
+     */
+    private static final class ConnectionMetrics implements MetricPublisher {
+        private volatile int leased;
+        private volatile int available;
+        private volatile int pending;
+
+        @Override
+        public void publish(final MetricCollection metricCollection) {
+            final Integer leasedConcurrency = getLatest(metricCollection, HttpMetric.LEASED_CONCURRENCY);
+            if (leasedConcurrency != null) {
+                leased = leasedConcurrency;
+            }
+            final Integer availableConcurrency = getLatest(metricCollection, HttpMetric.AVAILABLE_CONCURRENCY);
+            if (availableConcurrency != null) {
+                available = availableConcurrency;
+            }
+            final Integer pendingAcquires = getLatest(metricCollection, HttpMetric.PENDING_CONCURRENCY_ACQUIRES);
+            if (pendingAcquires != null) {
+                pending = pendingAcquires;
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        /**
+         * @param metricCollection metrics of an API call, the HTTP ones being in the collections of its attempts
+         * @param metric HTTP metric
+         * @return value of the metric in the latest attempt, null if it is not reported
+         */
+        private static Integer getLatest(final MetricCollection metricCollection, final SdkMetric<Integer> metric) {
+            Integer value = null;
+            final List<Integer> values = metricCollection.metricValues(metric);
+            if (!values.isEmpty()) {
+                value = values.get(values.size() - 1);
+            }
+            for (final MetricCollection child : metricCollection.children()) {
+                final Integer childValue = getLatest(child, metric);
+                if (childValue != null) {
+                    value = childValue;
+                }
+            }
+            return value;
+        }
+    }
+}
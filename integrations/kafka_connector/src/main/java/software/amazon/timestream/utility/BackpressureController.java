@@ -0,0 +1,109 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.common.TopicPartition;
+import software.amazon.timestream.TimestreamSinkConnectorConfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class that selects the partitions of the task to be paused for holding too many records
+ * delivered to the task and not yet committable, as reported by the {@link OffsetTracker}:
+ * a partition past 'timestream.backpressure.partition.records.max' is paused until half of them are committable.
+ * Past 'timestream.backpressure.task.records.max' across the partitions, the deepest ones are paused
+ * until the others hold half of it, and resumed once the task holds half of it.
+ * The other partitions are consumed meanwhile, hence a slow partition does not hold back the task.
+ */
+public class BackpressureController {
+
+    /**
+     * Offset tracker of the task
+     */
+    private final OffsetTracker offsetTracker;
+    /**
+     * Number of records of a partition not yet committable past which it is paused
+     */
+    private final long partitionMaxRecords;
+    /**
+     * Number of records of the task not yet committable past which its deepest partitions are paused
+     */
+    private final long taskMaxRecords;
+    /**
+     * Partitions paused for holding too many records themselves
+     */
+    private final Set<TopicPartition> partitionThrottled = new HashSet<>();
+    /**
+     * Partitions paused for the task holding too many records
+     */
+    private final Set<TopicPartition> taskThrottled = new HashSet<>();
+
+    /**
+     * @param config connector config
+     * @param offsetTracker offset tracker of the task
+     */
+    public BackpressureController(final TimestreamSinkConnectorConfig config, final OffsetTracker offsetTracker) {
+        this.offsetTracker = offsetTracker;
+        this.partitionMaxRecords = config.getBackpressurePartitionMaxRecords();
+        this.taskMaxRecords = config.getBackpressureTaskMaxRecords();
+    }
+
+    /**
+     * @param partitions partitions assigned to the task
+     * @return partitions to be paused for being over budget
+     */
+    public Set<TopicPartition> getOverBudgetPartitions(final Collection<TopicPartition> partitions) {
+        final Map<TopicPartition, Long> offsetLags = new HashMap<>();
+        long taskOffsetLag = 0;
+        for (final TopicPartition partition : partitions) {
+            final long offsetLag = offsetTracker.getOffsetLag(partition);
+            offsetLags.put(partition, offsetLag);
+            taskOffsetLag += offsetLag;
+            if (partitionThrottled.contains(partition) ? offsetLag > partitionMaxRecords / 2 : offsetLag > partitionMaxRecords) {
+                partitionThrottled.add(partition);
+            } else {
+                partitionThrottled.remove(partition);
+            }
+        }
+        partitionThrottled.retainAll(offsetLags.keySet());
+        taskThrottled.retainAll(offsetLags.keySet());
+        if (taskOffsetLag <= taskMaxRecords / 2) {
+            taskThrottled.clear();
+        } else if (taskOffsetLag > taskMaxRecords) {
+            // the deepest partitions are paused first, until the ones consumed hold half of the budget
+            final List<TopicPartition> consumed = new ArrayList<>();
+            long consumedOffsetLag = 0;
+            for (final Map.Entry<TopicPartition, Long> entry : offsetLags.entrySet()) {
+                if (!partitionThrottled.contains(entry.getKey()) && !taskThrottled.contains(entry.getKey())) {
+                    consumed.add(entry.getKey());
+                    consumedOffsetLag += entry.getValue();
+                }
+            }
+            consumed.sort((first, second) -> Long.compare(offsetLags.get(second), offsetLags.get(first)));
+            for (final TopicPartition partition : consumed) {
+                if (consumedOffsetLag <= taskMaxRecords / 2) {
+                    break;
+                }
+                taskThrottled.add(partition);
+                consumedOffsetLag -= offsetLags.get(partition);
+            }
+        }
+        final Set<TopicPartition> overBudget = new HashSet<>(partitionThrottled);
+        overBudget.addAll(taskThrottled);
+        return overBudget;
+    }
+
+    /**
+     * Method to discard the state of the partitions revoked from the task
+     *
+     * @param partitions partitions that are no longer assigned to the task
+     */
+    public void remove(final Collection<TopicPartition> partitions) {
+        partitionThrottled.removeAll(partitions);
+        taskThrottled.removeAll(partitions);
+    }
+}
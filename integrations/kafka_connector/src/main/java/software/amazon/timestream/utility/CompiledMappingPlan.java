@@ -0,0 +1,699 @@
+package software.amazon.timestream.utility;
+
+import com.influxdb.client.domain.WritePrecision;
+import com.influxdb.client.write.Point;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.timestreamwrite.model.DataModel;
+import software.amazon.awssdk.services.timestreamwrite.model.DimensionMapping;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValueType;
+import software.amazon.awssdk.services.timestreamwrite.model.MultiMeasureAttributeMapping;
+import software.amazon.awssdk.services.timestreamwrite.model.TimeUnit;
+import software.amazon.timestream.TimestreamSinkConnectorConfig;
+import software.amazon.timestream.TimestreamSinkConstants;
+import software.amazon.timestream.exception.TimestreamSinkConnectorError;
+import software.amazon.timestream.exception.TimestreamSinkConnectorException;
+import software.amazon.timestream.exception.TimestreamSinkErrorCodes;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Class that holds the Timestream table schema definition {@link DataModel}
+ * compiled once into flat arrays of source columns along with their
+ * pre-resolved target names and typed value converters,
+ * so that converting a sink record into a row of {@link RecordColumns} or an InfluxDB Point only runs through them.
+ * Sink record values are either a {@link Map} or a Kafka Connect {@link Struct}; the fields of a Struct
+ * are resolved once per Connect schema, and its typed values are converted without going through strings.
+ */
+public final class CompiledMappingPlan {
+
+    /**
+     * Logger object
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledMappingPlan.class);
+    /**
+     * Column index of the record time
+     */
+    private static final int TIME_INDEX = 0;
+    /**
+     * Column index of the measure name
+     */
+    private static final int MEASURE_NAME_INDEX = 1;
+    /**
+     * Number of low bits of an offset derived version holding the offset, the partition being held in the high bits
+     */
+    private static final int OFFSET_VERSION_BITS = 48;
+    /**
+     * Mask of the offset in an offset derived version
+     */
+    private static final long OFFSET_VERSION_MASK = (1L << OFFSET_VERSION_BITS) - 1;
+    /**
+     * Partitions from this one on overflow the sign bit of an offset derived version
+     */
+    private static final int MAX_OFFSET_VERSION_PARTITIONS = 1 << (Long.SIZE - 1 - OFFSET_VERSION_BITS);
+    /**
+     * Maximum number of Connect schemas whose struct layouts are kept
+     */
+    private static final int MAX_STRUCT_LAYOUTS = 64;
+    /**
+     * Source columns read from the sink record, by column index; null if not read
+     */
+    private final String[] sourceColumns;
+    /**
+     * Dimension columns in the order of the schema definition
+     */
+    private final DimensionColumn[] dimensionColumns;
+    /**
+     * Multi-measure attribute columns in the order of the schema definition
+     */
+    private final MeasureColumn[] measureColumns;
+    /**
+     * Multi-measure attribute names, by measure column
+     */
+    private final String[] measureNames;
+    /**
+     * Measure value types as given in the schema definition, by measure column
+     */
+    private final String[] measureTypes;
+    /**
+     * Measure value types, {@link MeasureValueType#UNKNOWN_TO_SDK_VERSION} for the unknown ones and null for the missing ones, by measure column
+     */
+    private final MeasureValueType[] measureValueTypes;
+    /**
+     * Source column of the record time
+     */
+    private final String timeColumn;
+    /**
+     * Time unit of the records sent to Timestream
+     */
+    private final String timeUnit;
+    /**
+     * true if the time column holds ISO-8601 date times to be converted to epoch milliseconds
+     */
+    private final boolean isDateTime;
+    /**
+     * InfluxDB write precision of the record time
+     */
+    private final WritePrecision writePrecision;
+    /**
+     * Source column of the measure name, null if the measure name is constant
+     */
+    private final String measureNameSourceColumn;
+    /**
+     * Constant measure name, used when no source column is given
+     */
+    private final String measureName;
+    /**
+     * Version will be added to record if enabled
+     */
+    private final boolean enableVersioning;
+    /**
+     * Version is derived from the Kafka partition and offset of the record if enabled, else from the time it is converted
+     */
+    private final boolean offsetVersioning;
+    /**
+     * Empty dimension value is skipped if enabled
+     */
+    private final boolean skipDimension;
+    /**
+     * Empty measure value is skipped if enabled
+     */
+    private final boolean skipMeasure;
+    /**
+     * time unit of the records sent to Timestream, that Date values of the time column are converted to
+     */
+    private final java.util.concurrent.TimeUnit dateTimeUnit;
+    /**
+     * Struct layout of the Connect schema last seen
+     */
+    private volatile StructLayout lastStructLayout;
+    /**
+     * Struct layouts of the Connect schemas seen most recently, guarded by itself.
+     * Schemas are compared by value, so that the converters creating a new instance of the same schema
+     * share a layout, and the least recently used ones are evicted beyond {@link #MAX_STRUCT_LAYOUTS}
+     */
+    private final Map<Schema, StructLayout> structLayouts = new LinkedHashMap<Schema, StructLayout>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Schema, StructLayout> eldest) {
+            return size() > MAX_STRUCT_LAYOUTS;
+        }
+    };
+
+    /**
+     * @param schemaDefinition table schema
+     * @param config connector config
+     */
+    private CompiledMappingPlan(final DataModel schemaDefinition, final TimestreamSinkConnectorConfig config) {
+        this.enableVersioning = config.isTimestreamRecordAutoVersioning();
+        this.offsetVersioning = config.isOffsetVersioning();
+        this.skipDimension = config.isSkipEmptyDimensions();
+        this.skipMeasure = config.isSkipEmptyMeasures();
+
+        final List<DimensionMapping> dimensionMappings = schemaDefinition.dimensionMappings() == null
+                ? Collections.emptyList() : schemaDefinition.dimensionMappings();
+        final List<MultiMeasureAttributeMapping> measureMappings = schemaDefinition.multiMeasureMappings() == null
+                || schemaDefinition.multiMeasureMappings().multiMeasureAttributeMappings() == null
+                ? Collections.emptyList() : schemaDefinition.multiMeasureMappings().multiMeasureAttributeMappings();
+        this.sourceColumns = new String[MEASURE_NAME_INDEX + 1 + dimensionMappings.size() + measureMappings.size()];
+        int index = MEASURE_NAME_INDEX + 1;
+        this.dimensionColumns = new DimensionColumn[dimensionMappings.size()];
+        for (int i = 0; i < dimensionColumns.length; i++) {
+            final DimensionMapping mapping = dimensionMappings.get(i);
+            sourceColumns[index] = mapping.sourceColumn();
+            dimensionColumns[i] = new DimensionColumn(index++, mapping.sourceColumn(), mapping.destinationColumn());
+        }
+
+        this.measureColumns = new MeasureColumn[measureMappings.size()];
+        this.measureNames = new String[measureColumns.length];
+        this.measureTypes = new String[measureColumns.length];
+        this.measureValueTypes = new MeasureValueType[measureColumns.length];
+        for (int i = 0; i < measureColumns.length; i++) {
+            final MultiMeasureAttributeMapping mapping = measureMappings.get(i);
+            final String type = mapping.measureValueTypeAsString();
+            final MeasureValueType valueType = MeasureValueType.fromValue(type);
+            sourceColumns[index] = mapping.sourceColumn();
+            measureColumns[i] = new MeasureColumn(index++, mapping.sourceColumn(), mapping.targetMultiMeasureAttributeName(),
+                    valueType, getConverter(valueType));
+            measureNames[i] = mapping.targetMultiMeasureAttributeName();
+            measureTypes[i] = type;
+            measureValueTypes[i] = valueType;
+        }
+
+        this.timeColumn = schemaDefinition.timeColumn();
+        this.isDateTime = TimestreamSinkConstants.TIMEUNIT_DATETIME.equals(schemaDefinition.timeUnitAsString());
+        this.timeUnit = isDateTime ? TimeUnit.MILLISECONDS.name() : schemaDefinition.timeUnitAsString();
+        this.writePrecision = getWritePrecision(TimeUnit.fromValue(timeUnit));
+        this.dateTimeUnit = getDateTimeUnit(writePrecision);
+        sourceColumns[TIME_INDEX] = timeColumn;
+
+        final String measureNameColumn = schemaDefinition.measureNameColumn();
+        if (measureNameColumn == null || measureNameColumn.isEmpty()) {
+            this.measureNameSourceColumn = null;
+            this.measureName = TimestreamSinkConstants.DEFAULT_MEASURE;
+        } else if (measureNameColumn.charAt(0) == '$') {
+            this.measureNameSourceColumn = measureNameColumn.substring(1);
+            this.measureName = null;
+            sourceColumns[MEASURE_NAME_INDEX] = measureNameSourceColumn;
+        } else {
+            this.measureNameSourceColumn = null;
+            this.measureName = measureNameColumn;
+        }
+    }
+
+    /**
+     * Method to compile the given schema definition into a mapping plan
+     *
+     * @param schemaDefinition table schema
+     * @param config connector config
+     * @return compiled mapping plan
+     */
+    public static CompiledMappingPlan compile(final DataModel schemaDefinition, final TimestreamSinkConnectorConfig config) {
+        final CompiledMappingPlan plan = new CompiledMappingPlan(schemaDefinition, config);
+        LOGGER.info("CompiledMappingPlan::compile: [{}] dimensions, [{}] measures, time unit [{}]",
+                plan.dimensionColumns.length, plan.measureColumns.length, plan.timeUnit);
+        return plan;
+    }
+
+    /**
+     * @param capacity number of sink records to be converted
+     * @param internCache interns the measure names and dimensions across the writes
+     * @return empty columns of the records of the schema definition, to be filled in by {@link #addRow(RecordColumns, SinkRecord)}
+     */
+    public RecordColumns newColumns(final int capacity, final InternCache internCache) {
+        return new RecordColumns(capacity, internCache, timeUnit, dimensionColumns.length, measureNames, measureTypes, measureValueTypes,
+                enableVersioning);
+    }
+
+    /**
+     * Method to convert the value of a sink record into a row of the given columns
+     *
+     * @param columns columns of the records being converted
+     * @param sinkRecord sink record, with a Map or Struct value
+     * @throws TimestreamSinkConnectorException if a dimension or a measure value is empty and is not allowed to be skipped,
+     * or the record does not fit an offset derived version
+     */
+    public void addRow(final RecordColumns columns, final SinkRecord sinkRecord) {
+        final Object record = sinkRecord.value();
+        final Object[] values = getColumnValues(record);
+        final int row = columns.size();
+        for (int i = 0; i < dimensionColumns.length; i++) {
+            final DimensionColumn column = dimensionColumns[i];
+            final Object value = getDimensionValue(values, column, record);
+            columns.setDimension(row, i, column.targetName, value == null ? null : String.valueOf(value));
+        }
+        for (int i = 0; i < measureColumns.length; i++) {
+            final Object value = getMeasureValue(values, measureColumns[i], record);
+            if (value == null) {
+                columns.skipMeasureValue(row, i);
+            } else {
+                setMeasureValue(columns, row, i, value);
+            }
+        }
+        columns.setMeasureName(row, getMeasureName(values));
+        setTime(columns, row, values[TIME_INDEX]);
+        if (enableVersioning) {
+            columns.setVersion(row, offsetVersioning ? getOffsetVersion(sinkRecord) : System.currentTimeMillis());
+        }
+        columns.addRow(sinkRecord);
+    }
+
+    /**
+     * @param sinkRecord sink record
+     * @return version of the record derived from its Kafka partition, in the high bits, and offset,
+     * hence the same for a redelivered record and increasing with the offset within a partition
+     * @throws TimestreamSinkConnectorException if the partition is not below 32768 or the offset not below 2^48,
+     * which would give a negative version or the one of another partition
+     */
+    static long getOffsetVersion(final SinkRecord sinkRecord) {
+        final int partition = sinkRecord.kafkaPartition();
+        final long offset = sinkRecord.kafkaOffset();
+        if (partition < 0 || partition >= MAX_OFFSET_VERSION_PARTITIONS || offset < 0 || offset > OFFSET_VERSION_MASK) {
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_OFFSET_VERSION,
+                    partition, offset);
+            throw new TimestreamSinkConnectorException(error);
+        }
+        return ((long) partition << OFFSET_VERSION_BITS) | offset;
+    }
+
+    /**
+     * Method to convert the value of a sink record into an InfluxDB Point,
+     * with the measure name as measurement, the dimensions as tags and the measures as typed fields
+     *
+     * @param record sink record value, as Map or Struct
+     * @return Point to be written to InfluxDB
+     * @throws TimestreamSinkConnectorException if a dimension or a measure value is empty and is not allowed to be skipped
+     * @throws NumberFormatException if a numeric measure or the time is not a number
+     */
+    public Point toPoint(final Object record) {
+        final Object[] values = getColumnValues(record);
+        final Point point = Point.measurement(getMeasureName(values)).time(getTimeValue(values[TIME_INDEX]), writePrecision);
+        for (final DimensionColumn column : dimensionColumns) {
+            final Object value = getDimensionValue(values, column, record);
+            if (value != null) {
+                point.addTag(column.targetName, String.valueOf(value));
+            }
+        }
+        for (final MeasureColumn column : measureColumns) {
+            final Object value = getMeasureValue(values, column, record);
+            if (value == null) {
+                continue;
+            }
+            switch (column.valueType == null ? MeasureValueType.VARCHAR : column.valueType) {
+                case BIGINT:
+                    point.addField(column.targetName, isIntegral(value) ? ((Number) value).longValue() : Long.parseLong(text(value)));
+                    break;
+                case DOUBLE:
+                    point.addField(column.targetName, value instanceof Double || isIntegral(value)
+                            ? ((Number) value).doubleValue() : Double.parseDouble(text(value)));
+                    break;
+                case BOOLEAN:
+                    point.addField(column.targetName, value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(text(value)));
+                    break;
+                case TIMESTAMP:
+                    // InfluxDB has no timestamp field type, written as epoch milliseconds
+                    point.addField(column.targetName, value instanceof Date
+                            ? ((Date) value).getTime() : ValueFormatter.parseEpochMillis(text(value)));
+                    break;
+                default:
+                    point.addField(column.targetName, text(value));
+                    break;
+            }
+        }
+        return point;
+    }
+
+    /**
+     * @return InfluxDB write precision of the records time
+     */
+    public WritePrecision getWritePrecision() {
+        return writePrecision;
+    }
+
+    /**
+     * Method to read the source columns of the sink record value
+     *
+     * @param record sink record value, as Map or Struct
+     * @return values of the source columns, by column index
+     */
+    private Object[] getColumnValues(final Object record) {
+        final Object[] values = new Object[sourceColumns.length];
+        if (record instanceof Struct) {
+            final Struct struct = (Struct) record;
+            final Field[] fields = getStructLayout(struct.schema()).fields;
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] != null) {
+                    values[i] = struct.get(fields[i]);
+                }
+            }
+        } else {
+            final Map<?, ?> map = (Map<?, ?>) record;
+            for (int i = 0; i < sourceColumns.length; i++) {
+                if (sourceColumns[i] != null) {
+                    values[i] = map.get(sourceColumns[i]);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Method to get the fields of the source columns for the given Connect schema,
+     * resolved on the first record of the schema
+     *
+     * @param schema Connect schema of a Struct
+     * @return struct layout of the schema
+     */
+    private StructLayout getStructLayout(final Schema schema) {
+        StructLayout layout = lastStructLayout;
+        if (layout == null || layout.schema != schema) {
+            synchronized (structLayouts) {
+                layout = structLayouts.computeIfAbsent(schema, this::resolveStructLayout);
+            }
+            if (layout.schema != schema) {
+                // an equal schema instance: checked by identity for the next records
+                layout = new StructLayout(schema, layout.fields);
+            }
+            lastStructLayout = layout;
+        }
+        return layout;
+    }
+
+    /**
+     * @param schema Connect schema of a Struct
+     * @return fields of the source columns in the schema, null for the ones it does not have
+     */
+    private StructLayout resolveStructLayout(final Schema schema) {
+        final Field[] fields = new Field[sourceColumns.length];
+        for (int i = 0; i < sourceColumns.length; i++) {
+            if (sourceColumns[i] != null) {
+                fields[i] = schema.field(sourceColumns[i]);
+            }
+        }
+        LOGGER.info("CompiledMappingPlan::resolveStructLayout: fields resolved for the schema [{}] version [{}]", schema.name(), schema.version());
+        return new StructLayout(schema, fields);
+    }
+
+    /**
+     * @param values values of the source columns
+     * @return the measure name
+     */
+    private String getMeasureName(final Object[] values) {
+        return measureNameSourceColumn == null ? measureName : String.valueOf(values[MEASURE_NAME_INDEX]);
+    }
+
+    /**
+     * Method to set the record time of a row, as a number unless it is given as text that is not a date time
+     *
+     * @param columns columns of the records being converted
+     * @param row row index
+     * @param value value of the time column
+     */
+    private void setTime(final RecordColumns columns, final int row, final Object value) {
+        if (value instanceof Date || isIntegral(value) && !isDateTime) {
+            columns.setTime(row, getTimeValue(value));
+            return;
+        }
+        final String timeVal = String.valueOf(value);
+        if (isDateTime) {
+            columns.setTime(row, ValueFormatter.parseEpochMillis(ValueFormatter.stripQuotes(timeVal)));
+        } else {
+            columns.setTime(row, timeVal);
+        }
+    }
+
+    /**
+     * @param value value of the time column
+     * @return the record time in the time unit of the records
+     * @throws NumberFormatException if the time is not a number
+     */
+    private long getTimeValue(final Object value) {
+        if (value instanceof Date) {
+            return dateTimeUnit.convert(((Date) value).getTime(), java.util.concurrent.TimeUnit.MILLISECONDS);
+        }
+        if (isIntegral(value) && !isDateTime) {
+            return ((Number) value).longValue();
+        }
+        final String timeVal = text(value);
+        return isDateTime ? ValueFormatter.parseEpochMillis(timeVal) : Long.parseLong(timeVal);
+    }
+
+    /**
+     * @param values values of the source columns
+     * @param column dimension column
+     * @param record sink record value, for logging
+     * @return value of the dimension, null if it is empty and allowed to be skipped
+     * @throws TimestreamSinkConnectorException if the value is empty and is not allowed to be skipped
+     */
+    private Object getDimensionValue(final Object[] values, final DimensionColumn column, final Object record) {
+        final Object value = values[column.index];
+        if (isEmpty(value)) {
+            if (skipDimension) {
+                LOGGER.debug("DEBUG::CompiledMappingPlan::getDimensionValue: Empty valued dimension [{}] is allowed to be skipped for the record [{}] ",
+                        column.sourceColumn, record);
+                return null;
+            }
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_DIMENSION_VALUE,
+                    column.sourceColumn);
+            throw new TimestreamSinkConnectorException(error);
+        }
+        return value;
+    }
+
+    /**
+     * @param values values of the source columns
+     * @param column multi-measure attribute column
+     * @param record sink record value, for logging
+     * @return value of the measure, null if it is empty and allowed to be skipped
+     * @throws TimestreamSinkConnectorException if the value is empty and is not allowed to be skipped
+     */
+    private Object getMeasureValue(final Object[] values, final MeasureColumn column, final Object record) {
+        final Object value = values[column.index];
+        if (isEmpty(value)) {
+            if (skipMeasure) {
+                LOGGER.debug("DEBUG::CompiledMappingPlan::getMeasureValue: Empty valued multi-measure [{}] is allowed to be skipped for the record [{}] ",
+                        column.sourceColumn, record);
+                return null;
+            }
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_MEASURE_VALUE,
+                    column.sourceColumn);
+            throw new TimestreamSinkConnectorException(error);
+        }
+        return value;
+    }
+
+    /**
+     * Method to set the measure value of a row for the measure value type;
+     * typed values are kept as primitives, the others are formatted through their text
+     *
+     * @param columns columns of the records being converted
+     * @param row row index
+     * @param index measure column index
+     * @param value value of the measure
+     */
+    private void setMeasureValue(final RecordColumns columns, final int row, final int index, final Object value) {
+        final MeasureColumn column = measureColumns[index];
+        if (column.valueType != null) {
+            switch (column.valueType) {
+                case DOUBLE:
+                    if (value instanceof Double || isIntegral(value)) {
+                        columns.setMeasureValue(row, index, ((Number) value).doubleValue());
+                        return;
+                    }
+                    break;
+                case BIGINT:
+                    if (isIntegral(value)) {
+                        columns.setMeasureValue(row, index, ((Number) value).longValue());
+                        return;
+                    }
+                    break;
+                case BOOLEAN:
+                    if (value instanceof Boolean) {
+                        columns.setMeasureValue(row, index, value.toString());
+                        return;
+                    }
+                    break;
+                case TIMESTAMP:
+                    if (value instanceof Date) {
+                        columns.setMeasureValue(row, index, ((Date) value).getTime());
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        columns.setMeasureValue(row, index, column.converter.apply(text(value)));
+    }
+
+    /**
+     * @param value value of a column in the sink record
+     * @return true if the value is of an integral number type
+     */
+    private static boolean isIntegral(final Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * @param value value of a column in the sink record
+     * @return text of the value without quotes
+     */
+    private static String text(final Object value) {
+        return ValueFormatter.stripQuotes(String.valueOf(value));
+    }
+
+    /**
+     * @param recordValue value of a column in the sink record
+     * @return true if the value is empty otherwise false
+     */
+    private static boolean isEmpty(final Object recordValue) {
+        return recordValue == null || recordValue.equals("") || recordValue.equals("\"\"");
+    }
+
+    /**
+     * Get the converter that formats the sink record value for the given target data type
+     *
+     * @param type target data type
+     * @return value converter
+     */
+    private static UnaryOperator<String> getConverter(final MeasureValueType type) {
+        if (type == null) {
+            return UnaryOperator.identity();
+        }
+        switch (type) {
+            case TIMESTAMP:
+                return ValueFormatter::formatEpochMillis;
+            case DOUBLE:
+                return ValueFormatter::formatDouble;
+            default:
+                return UnaryOperator.identity();
+        }
+    }
+
+    /**
+     * Get the InfluxDB write precision for the given Timestream time unit
+     *
+     * @param timeUnit Timestream time unit, milliseconds if not given
+     * @return write precision
+     */
+    private static WritePrecision getWritePrecision(final TimeUnit timeUnit) {
+        if (timeUnit == null) {
+            return WritePrecision.MS;
+        }
+        switch (timeUnit) {
+            case SECONDS:
+                return WritePrecision.S;
+            case MICROSECONDS:
+                return WritePrecision.US;
+            case NANOSECONDS:
+                return WritePrecision.NS;
+            default:
+                return WritePrecision.MS;
+        }
+    }
+
+    /**
+     * Get the time unit matching the given InfluxDB write precision
+     *
+     * @param writePrecision write precision of the records
+     * @return time unit of the records
+     */
+    private static java.util.concurrent.TimeUnit getDateTimeUnit(final WritePrecision writePrecision) {
+        switch (writePrecision) {
+            case S:
+                return java.util.concurrent.TimeUnit.SECONDS;
+            case US:
+                return java.util.concurrent.TimeUnit.MICROSECONDS;
+            case NS:
+                return java.util.concurrent.TimeUnit.NANOSECONDS;
+            default:
+                return java.util.concurrent.TimeUnit.MILLISECONDS;
+        }
+    }
+
+    /**
+     * Dimension source column along with its target dimension name
+     */
+    private static final class DimensionColumn {
+        /**
+         * column index in the values read from the sink record
+         */
+        private final int index;
+        /**
+         * column in the sink record
+         */
+        private final String sourceColumn;
+        /**
+         * dimension name in the Timestream table
+         */
+        private final String targetName;
+
+        private DimensionColumn(final int index, final String sourceColumn, final String targetName) {
+            this.index = index;
+            this.sourceColumn = sourceColumn;
+            this.targetName = targetName;
+        }
+    }
+
+    /**
+     * Multi-measure attribute source column along with its target name, type and converter
+     */
+    private static final class MeasureColumn {
+        /**
+         * column index in the values read from the sink record
+         */
+        private final int index;
+        /**
+         * column in the sink record
+         */
+        private final String sourceColumn;
+        /**
+         * multi-measure attribute name in the Timestream table
+         */
+        private final String targetName;
+        /**
+         * measure value type, null if it is unknown
+         */
+        private final MeasureValueType valueType;
+        /**
+         * formats the sink record value for the measure value type
+         */
+        private final UnaryOperator<String> converter;
+
+        private MeasureColumn(final int index, final String sourceColumn, final String targetName,
+                              final MeasureValueType valueType, final UnaryOperator<String> converter) {
+            this.index = index;
+            this.sourceColumn = sourceColumn;
+            this.targetName = targetName;
+            this.valueType = valueType;
+            this.converter = converter;
+        }
+    }
+
+    /**
+     * Fields of the source columns in a Connect schema, by column index
+     */
+    private static final class StructLayout {
+        /**
+         * Connect schema the fields are resolved in
+         */
+        private final Schema schema;
+        /**
+         * fields of the source columns, null for the ones the schema does not have
+         */
+        private final Field[] fields;
+
+        private StructLayout(final Schema schema, final Field[] fields) {
+            this.schema = schema;
+            this.fields = fields;
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package software.amazon.timestream.utility;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 import lombok.Getter;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.KafkaException;
@@ -13,20 +13,34 @@ import org.apache.kafka.common.config.SaslConfigs;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.internals.RecordHeader;
 import org.apache.kafka.common.security.auth.SecurityProtocol;
+import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.sink.ErrantRecordReporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValue;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
 import software.amazon.timestream.TimestreamSinkConnectorConfig;
 import software.amazon.timestream.TimestreamSinkConstants;
 import software.amazon.timestream.exception.TimestreamSinkConnectorException;
 import software.amazon.timestream.schema.RejectedRecord;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Class that publishes the rejected records to the configured dead letter queue.
+ * The rejected records are serialized into compact JSON and sent asynchronously,
+ * batched and compressed by the producer; a record is reported once the broker acknowledges it.
+ * A record the producer fails to send, once its own retries are exhausted, fails the task
+ * through {@link #checkDelivery()}, rather than holding back the offsets of its partition for good.
  */
 @Getter
 public class DLQReporter {
@@ -34,10 +48,6 @@ public class DLQReporter {
      * Logger object
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(DLQReporter.class);
-    /**
-     * JSON serializer/de-serializer
-     */
-    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
     /**
      * configured dead letter topic name
      */
@@ -51,7 +61,12 @@ public class DLQReporter {
     /**
      * Kafka client: DLQ Publisher
      */
-    private KafkaProducer<String, String> dlqPublisher;
+    private Producer<String, String> dlqPublisher;
+
+    /**
+     * First failure to publish a rejected record, thrown on the task thread by {@link #checkDelivery()}
+     */
+    private final AtomicReference<Exception> deliveryFailure = new AtomicReference<>();
 
     /**
      *
@@ -68,6 +83,17 @@ public class DLQReporter {
         }
     }
 
+    /**
+     * @param dlqTopicName dead letter topic name
+     * @param reporter errant record reporter of the task
+     * @param dlqPublisher producer of the dead letter topic
+     */
+    DLQReporter(final String dlqTopicName, final ErrantRecordReporter reporter, final Producer<String, String> dlqPublisher) {
+        this.dlqTopicName = dlqTopicName;
+        this.errantRecordReporter = reporter;
+        this.dlqPublisher = dlqPublisher;
+    }
+
     /**
      * Method to initiate DLQ Publisher configuration
      * @param config TimestreamSinkConnectorConfig
@@ -79,6 +105,10 @@ public class DLQReporter {
         dlqPubConfig.setProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, config.getString(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG));
         dlqPubConfig.setProperty(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, config.getString(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG));
         dlqPubConfig.setProperty(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, config.getString(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+        // batching and compression of the rejected records
+        dlqPubConfig.put(ProducerConfig.BATCH_SIZE_CONFIG, config.getDLQBatchSize());
+        dlqPubConfig.put(ProducerConfig.LINGER_MS_CONFIG, config.getDLQLingerMs());
+        dlqPubConfig.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, config.getDLQCompressionType());
         //Security: IAM Authentication based
         dlqPubConfig.setProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, SecurityProtocol.SASL_SSL.name);
         dlqPubConfig.put(SaslConfigs.SASL_MECHANISM, TimestreamSinkConstants.DEFAULT_SASL_MECHANISM );
@@ -88,27 +118,106 @@ public class DLQReporter {
         return dlqPubConfig;
     }
     /**
-     * Method to publish the rejected Timestream record to DLQ for further processing
+     * Method to publish the rejected Timestream record to DLQ for further processing.
+     * The records are sent without waiting for the broker; each record is handed to the
+     * given callback once it is acknowledged by the broker, or handed over to the errant record reporter.
+     * Records that could not be sent are not handed to the callback, hence their offsets are not committed;
+     * the failure is thrown by the next {@link #checkDelivery()}.
      *
      * @param rejectedRecords: Rejected Timestream records
+     * @param onReported callback for the records that are reported
      */
-    public void reportRejectedRecords(final List<RejectedRecord> rejectedRecords) {
+    public void reportRejectedRecords(final List<RejectedRecord> rejectedRecords, final Consumer<RejectedRecord> onReported) {
         LOGGER.trace("Begin::DLQPublisher::reportRejectedRecords");
         for (final RejectedRecord record : rejectedRecords) {
             try {
-                final String rejRecordTxt = GSON.toJson(record.toString());
-                LOGGER.trace("DLQPublisher: reportRejectedRecords: Record: [{}]", rejRecordTxt);
                 if (record.getRejectedRecord() != null && dlqPublisher != null) {
-                    final List<Header> headers = new ArrayList<>();
-                    headers.add(new RecordHeader("rejection-reason", record.getReason().getBytes()));
-                    dlqPublisher.send(new ProducerRecord<>(this.dlqTopicName, null, record.getRejectedRecord().time(), rejRecordTxt, headers));
-                } else if (record.getRejectedSinkRecord() != null) {
-                    errantRecordReporter.report(record.getRejectedSinkRecord(), new TimestreamSinkConnectorException(record.getReason()));
+                    final String rejRecordTxt = toJson(record);
+                    LOGGER.trace("DLQPublisher: reportRejectedRecords: Record: [{}]", rejRecordTxt);
+                    final List<Header> headers = new ArrayList<>(1);
+                    headers.add(new RecordHeader("rejection-reason", record.getReason().getBytes(StandardCharsets.UTF_8)));
+                    dlqPublisher.send(new ProducerRecord<>(this.dlqTopicName, null, record.getRejectedRecord().time(), rejRecordTxt, headers),
+                            (metadata, exception) -> {
+                                if (exception == null) {
+                                    onReported.accept(record);
+                                } else {
+                                    LOGGER.error("DLQPublisher::reportRejectedRecords: Error while publishing the rejected record: [{}] to DLQ: [{}]",
+                                            record, this.dlqTopicName, exception);
+                                    deliveryFailure.compareAndSet(null, exception);
+                                }
+                            });
+                } else {
+                    if (record.getRejectedSinkRecord() != null) {
+                        // the framework completes the errant record reports before committing the offsets
+                        errantRecordReporter.report(record.getRejectedSinkRecord(), new TimestreamSinkConnectorException(record.getReason()));
+                    }
+                    onReported.accept(record);
                 }
             } catch (RuntimeException re) {
                 LOGGER.error("DLQPublisher::reportRejectedRecords: Error while publishing the rejected record: [{}] to DLQ: [{}]",
                         record, this.dlqTopicName, re);
+                deliveryFailure.compareAndSet(null, re);
+            }
+        }
+    }
+
+    /**
+     * Method to fail the task once a rejected record could not be published, as the offset of the record
+     * is not committed; the records past the last committed offsets are delivered again once the task is restarted.
+     *
+     * @throws ConnectException if a rejected record could not be published since the task started
+     */
+    public void checkDelivery() {
+        final Exception failure = deliveryFailure.get();
+        if (failure != null) {
+            throw new ConnectException("Rejected records could not be published to the DLQ topic " + dlqTopicName, failure);
+        }
+    }
+
+    /**
+     * Method to serialize the rejected Timestream record into compact JSON,
+     * along with the reason and the Kafka coordinates of the sink record it is converted from
+     *
+     * @param record rejected Timestream record
+     * @return JSON text
+     */
+    private static String toJson(final RejectedRecord record) {
+        final StringWriter text = new StringWriter(256);
+        try (JsonWriter json = new JsonWriter(text)) {
+            json.beginObject();
+            json.name("reason").value(record.getReason());
+            if (record.getSourceRecord() != null) {
+                json.name("topic").value(record.getSourceRecord().topic());
+                json.name("partition").value(record.getSourceRecord().kafkaPartition());
+                json.name("offset").value(record.getSourceRecord().kafkaOffset());
+            }
+            final Record rejected = record.getRejectedRecord();
+            json.name("record").beginObject();
+            json.name("measureName").value(rejected.measureName());
+            json.name("time").value(rejected.time());
+            json.name("timeUnit").value(rejected.timeUnitAsString());
+            json.name("dimensions").beginObject();
+            for (final Dimension dimension : rejected.dimensions()) {
+                json.name(dimension.name()).value(dimension.value());
+            }
+            json.endObject();
+            if (rejected.measureValue() != null) {
+                json.name("measureValue").value(rejected.measureValue());
+                json.name("measureValueType").value(rejected.measureValueTypeAsString());
+            }
+            json.name("measureValues").beginObject();
+            for (final MeasureValue measureValue : rejected.measureValues()) {
+                json.name(measureValue.name()).value(measureValue.value());
+            }
+            json.endObject();
+            if (rejected.version() != null) {
+                json.name("version").value(rejected.version());
             }
+            json.endObject();
+            json.endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return text.toString();
     }
 }
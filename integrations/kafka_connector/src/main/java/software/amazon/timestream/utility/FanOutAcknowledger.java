@@ -0,0 +1,144 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Class that joins the acknowledgements of the ingestion targets a record is fanned out to:
+ * the record is acknowledged to the {@link OffsetTracker} once every target has
+ * either written it or rejected it and the rejection is reported.
+ * Records that are not fanned out, i.e. when a single target is enabled or the record
+ * is rejected before being handed to the targets, are acknowledged straight away.
+ * Records spilled to disk are read back as new sink records of the same Kafka coordinates,
+ * hence they are then looked up by their partition and offset.
+ * Records of a revoked partition that are still pending are discarded: the targets acknowledging them late
+ * are ignored, so that they do not acknowledge the offsets of the partition once it is assigned back.
+ */
+public class FanOutAcknowledger {
+
+    /**
+     * Offset tracker of the task
+     */
+    private final OffsetTracker offsetTracker;
+    /**
+     * Number of targets the records are fanned out to
+     */
+    private final int targets;
+    /**
+     * Number of targets yet to acknowledge, per record fanned out
+     */
+    private final Map<SinkRecord, int[]> pendingTargets = new IdentityHashMap<>();
+    /**
+     * Number of targets yet to acknowledge, per offset of the records spilled to disk by their partition
+     */
+    private final Map<TopicPartition, Map<Long, int[]>> spilledTargets = new HashMap<>();
+    /**
+     * Number of targets yet to acknowledge, per record of the revoked partitions discarded while pending
+     */
+    private final Map<SinkRecord, int[]> discardedTargets = new IdentityHashMap<>();
+
+    /**
+     * @param offsetTracker offset tracker of the task
+     * @param targets number of targets the records are fanned out to
+     */
+    public FanOutAcknowledger(final OffsetTracker offsetTracker, final int targets) {
+        this.offsetTracker = offsetTracker;
+        this.targets = targets;
+    }
+
+    /**
+     * Method to register the records handed to every target,
+     * before any of the targets can acknowledge them
+     *
+     * @param sinkRecords records fanned out to the targets
+     */
+    public synchronized void fanOut(final Collection<SinkRecord> sinkRecords) {
+        if (targets < 2) {
+            return;
+        }
+        for (final SinkRecord sinkRecord : sinkRecords) {
+            pendingTargets.put(sinkRecord, new int[]{targets});
+        }
+    }
+
+    /**
+     * Method to acknowledge a record on behalf of a single target
+     *
+     * @param sinkRecord record written or rejected by the target
+     */
+    public void acknowledge(final SinkRecord sinkRecord) {
+        if (targets > 1) {
+            synchronized (this) {
+                int[] pending = pendingTargets.get(sinkRecord);
+                if (pending != null) {
+                    if (--pending[0] > 0) {
+                        return;
+                    }
+                    pendingTargets.remove(sinkRecord);
+                } else if (!discardedTargets.isEmpty() && discardedTargets.containsKey(sinkRecord)) {
+                    if (--discardedTargets.get(sinkRecord)[0] == 0) {
+                        discardedTargets.remove(sinkRecord);
+                    }
+                    return;
+                } else if (!spilledTargets.isEmpty()) {
+                    final TopicPartition topicPartition = new TopicPartition(sinkRecord.topic(), sinkRecord.kafkaPartition());
+                    final Map<Long, int[]> offsets = spilledTargets.get(topicPartition);
+                    pending = offsets == null ? null : offsets.get(sinkRecord.kafkaOffset());
+                    if (pending != null && --pending[0] > 0) {
+                        return;
+                    }
+                    if (offsets != null) {
+                        offsets.remove(sinkRecord.kafkaOffset());
+                        if (offsets.isEmpty()) {
+                            spilledTargets.remove(topicPartition);
+                        }
+                    }
+                }
+            }
+        }
+        offsetTracker.acknowledge(sinkRecord);
+    }
+
+    /**
+     * Method to look up the given records by their partition and offset from now on,
+     * as they are spilled to disk and acknowledged once read back
+     *
+     * @param sinkRecords records spilled to disk
+     */
+    public synchronized void spill(final Collection<SinkRecord> sinkRecords) {
+        if (targets < 2) {
+            return;
+        }
+        for (final SinkRecord sinkRecord : sinkRecords) {
+            final int[] pending = pendingTargets.remove(sinkRecord);
+            if (pending != null) {
+                spilledTargets.computeIfAbsent(new TopicPartition(sinkRecord.topic(), sinkRecord.kafkaPartition()), tp -> new HashMap<>())
+                        .put(sinkRecord.kafkaOffset(), pending);
+            }
+        }
+    }
+
+    /**
+     * Method to discard the records of the partitions revoked from the task
+     *
+     * @param partitions partitions that are no longer assigned to the task
+     */
+    public synchronized void remove(final Collection<TopicPartition> partitions) {
+        final Iterator<Map.Entry<SinkRecord, int[]>> iterator = pendingTargets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<SinkRecord, int[]> entry = iterator.next();
+            final SinkRecord sinkRecord = entry.getKey();
+            if (partitions.contains(new TopicPartition(sinkRecord.topic(), sinkRecord.kafkaPartition()))) {
+                discardedTargets.put(sinkRecord, entry.getValue());
+                iterator.remove();
+            }
+        }
+        spilledTargets.keySet().removeAll(partitions);
+    }
+}
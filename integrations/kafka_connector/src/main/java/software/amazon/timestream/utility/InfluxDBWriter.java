@@ -0,0 +1,290 @@
+package software.amazon.timestream.utility;
+
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.InfluxDBClientFactory;
+import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteOptions;
+import com.influxdb.client.write.events.BackpressureEvent;
+import com.influxdb.client.write.events.WriteErrorEvent;
+import com.influxdb.client.write.events.WriteSuccessEvent;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.timestream.TimestreamSinkConnectorConfig;
+import software.amazon.timestream.exception.TimestreamSinkConnectorException;
+import software.amazon.timestream.schema.RejectedRecord;
+
+import java.time.DateTimeException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that writes the sink records to Timestream for InfluxDB through the
+ * non-blocking, batching {@link WriteApi} of the InfluxDB client.
+ * The records are converted straight to line protocol by the {@link CompiledMappingPlan} of the write.
+ * Points are tracked until the client reports the batch carrying them as written;
+ * as the client writes its batches in order, points left behind by a later written batch,
+ * or not written within the client retry time, are returned as rejected records on a later write.
+ */
+public class InfluxDBWriter {
+
+    /**
+     * Logger object
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(InfluxDBWriter.class);
+    /**
+     * rejection reason of the points the client could not write
+     */
+    private static final String NOT_WRITTEN = "Point could not be written to InfluxDB";
+    /**
+     * InfluxDB bucket
+     */
+    private final String bucket;
+    /**
+     * InfluxDB organization
+     */
+    private final String org;
+    /**
+     * Acknowledges the points written, joined with the other ingestion target
+     */
+    private final FanOutAcknowledger acknowledger;
+    /**
+     * Ingestion metrics of the task
+     */
+    private final TimestreamSinkTaskMetrics metrics;
+    /**
+     * Maximum number of points waiting to be written
+     */
+    private final int bufferLimit;
+    /**
+     * Time in milliseconds after which a point that is not reported as written is rejected
+     */
+    private final long expiryMillis;
+    /**
+     * Flush interval of the client, in milliseconds
+     */
+    private final int flushInterval;
+    /**
+     * InfluxDB client
+     */
+    private final InfluxDBClient client;
+    /**
+     * Non-blocking, batching write API of the client
+     */
+    private final WriteApi writeApi;
+    /**
+     * Points waiting to be written, in the order they are written
+     */
+    private final ArrayDeque<PendingPoint> pendingPoints = new ArrayDeque<>();
+    /**
+     * Points waiting to be written, by their line protocol
+     */
+    private final Map<String, ArrayDeque<PendingPoint>> pendingLines = new HashMap<>();
+    /**
+     * Records of the points that could not be written, to be returned on the next write
+     */
+    private final List<RejectedRecord> failedRecords = new ArrayList<>();
+    /**
+     * Sequence number of the next point written
+     */
+    private long nextSequence;
+
+    /**
+     * @param config connector config
+     * @param acknowledger acknowledges the points written, joined with the other ingestion target
+     * @param metrics ingestion metrics of the task
+     */
+    public InfluxDBWriter(final TimestreamSinkConnectorConfig config, final FanOutAcknowledger acknowledger,
+                          final TimestreamSinkTaskMetrics metrics) {
+        this.bucket = config.getInfluxDBBucket();
+        this.org = config.getInfluxDBOrg();
+        this.acknowledger = acknowledger;
+        this.metrics = metrics;
+        this.bufferLimit = config.getInfluxDBBufferLimit();
+        this.flushInterval = config.getInfluxDBFlushInterval();
+        this.expiryMillis = (long) flushInterval + WriteOptions.DEFAULT_MAX_RETRY_TIME;
+        this.client = InfluxDBClientFactory.create(config.getInfluxDBUrl(), config.getInfluxDBToken().toCharArray(), org, bucket);
+        this.writeApi = client.makeWriteApi(WriteOptions.builder()
+                .batchSize(config.getInfluxDBBatchSize())
+                .flushInterval(flushInterval)
+                .bufferLimit(bufferLimit)
+                .maxRetries(config.getInfluxDBMaxRetries())
+                .build());
+        writeApi.listenEvents(WriteSuccessEvent.class, this::onWriteSuccess);
+        writeApi.listenEvents(WriteErrorEvent.class, event -> {
+            metrics.recordInfluxDBWriteError();
+            LOGGER.error("ERROR::InfluxDBWriter:: write to bucket [{}] failed", bucket, event.getThrowable());
+        });
+        writeApi.listenEvents(BackpressureEvent.class, event ->
+                LOGGER.warn("WARN::InfluxDBWriter:: backpressure applied, reason [{}]", event.getReason()));
+        LOGGER.info("INFO::InfluxDBWriter:: influxDB write API created: [{}] [{}] [{}]", config.getInfluxDBUrl(), bucket, org);
+    }
+
+    /**
+     * Method to hand over the given records to the InfluxDB client without waiting for them to be written;
+     * blocks while 'timestream.influxdb.buffer.limit' points are already waiting.
+     *
+     * @param mappingPlan schema definition compiled for converting the sink records
+     * @param sinkRecords records to be written
+     * @return records that could not be converted, along with the ones that could not be written since the previous call
+     */
+    public List<RejectedRecord> write(final CompiledMappingPlan mappingPlan, final Collection<SinkRecord> sinkRecords) {
+        final List<RejectedRecord> rejectedRecords = new ArrayList<>();
+        final List<String> lines = new ArrayList<>(sinkRecords.size());
+        final List<SinkRecord> sourceRecords = new ArrayList<>(sinkRecords.size());
+        for (final SinkRecord sinkRecord : sinkRecords) {
+            try {
+                final String line = mappingPlan.toPoint(sinkRecord.value()).toLineProtocol();
+                if (line.isEmpty()) {
+                    rejectedRecords.add(new RejectedRecord(sinkRecord, "Point has no fields to be written to InfluxDB"));
+                    continue;
+                }
+                lines.add(line);
+                sourceRecords.add(sinkRecord);
+            } catch (TimestreamSinkConnectorException | NumberFormatException | DateTimeException e) {
+                LOGGER.error("ERROR::InfluxDBWriter::write: {}", e.getMessage());
+                rejectedRecords.add(new RejectedRecord(sinkRecord, e.getMessage()));
+            }
+        }
+        if (!lines.isEmpty()) {
+            synchronized (this) {
+                awaitCapacity(lines.size());
+                for (int i = 0; i < lines.size(); i++) {
+                    final PendingPoint point = new PendingPoint(nextSequence++, lines.get(i), sourceRecords.get(i));
+                    pendingPoints.addLast(point);
+                    pendingLines.computeIfAbsent(point.line, line -> new ArrayDeque<>(1)).addLast(point);
+                }
+            }
+            writeApi.writeRecords(bucket, org, mappingPlan.getWritePrecision(), lines);
+            LOGGER.debug("DEBUG::InfluxDBWriter::write: [{}] points handed over", lines.size());
+        }
+        synchronized (this) {
+            expirePendingPoints(System.currentTimeMillis());
+            rejectedRecords.addAll(failedRecords);
+            failedRecords.clear();
+        }
+        return rejectedRecords;
+    }
+
+    /**
+     * Method to write the buffered points and release the client
+     */
+    public void close() {
+        writeApi.close();
+        client.close();
+    }
+
+    /**
+     * Method to wait until the given number of points can be added without going past the buffer limit
+     *
+     * @param count number of points to be added
+     */
+    private void awaitCapacity(final int count) {
+        while (!pendingPoints.isEmpty() && pendingPoints.size() + count > bufferLimit) {
+            writeApi.flush();
+            try {
+                wait(flushInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimestreamSinkConnectorException("Interrupted while waiting for the InfluxDB write buffer");
+            }
+            expirePendingPoints(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Method to acknowledge the points of a written batch, and to reject the points
+     * that are written before them but are not reported as written
+     *
+     * @param event write success event carrying the line protocol of the batch
+     */
+    private synchronized void onWriteSuccess(final WriteSuccessEvent event) {
+        long firstSequence = Long.MAX_VALUE;
+        long firstCreatedAt = Long.MAX_VALUE;
+        int written = 0;
+        for (final String line : event.getLineProtocol().split("\n")) {
+            final ArrayDeque<PendingPoint> points = pendingLines.get(line);
+            if (points == null) {
+                continue;
+            }
+            final PendingPoint point = points.pollFirst();
+            if (points.isEmpty()) {
+                pendingLines.remove(line);
+            }
+            point.written = true;
+            firstSequence = Math.min(firstSequence, point.sequence);
+            firstCreatedAt = Math.min(firstCreatedAt, point.createdAt);
+            acknowledger.acknowledge(point.sourceRecord);
+            written++;
+        }
+        metrics.recordPointsWritten(written);
+        if (written > 0) {
+            metrics.recordInfluxDBWrite(System.currentTimeMillis() - firstCreatedAt);
+        }
+        while (!pendingPoints.isEmpty()) {
+            final PendingPoint head = pendingPoints.peekFirst();
+            if (!head.written && (firstSequence == Long.MAX_VALUE || head.sequence > firstSequence)) {
+                break;
+            }
+            pendingPoints.pollFirst();
+            if (!head.written) {
+                reject(head);
+            }
+        }
+        notifyAll();
+    }
+
+    /**
+     * Method to reject the points that are not reported as written within the expiry time
+     *
+     * @param now current time in milliseconds
+     */
+    private void expirePendingPoints(final long now) {
+        while (!pendingPoints.isEmpty()) {
+            final PendingPoint head = pendingPoints.peekFirst();
+            if (!head.written && now - head.createdAt < expiryMillis) {
+                break;
+            }
+            pendingPoints.pollFirst();
+            if (!head.written) {
+                reject(head);
+            }
+        }
+    }
+
+    /**
+     * @param point point that could not be written
+     */
+    private void reject(final PendingPoint point) {
+        final ArrayDeque<PendingPoint> points = pendingLines.get(point.line);
+        if (points != null) {
+            points.remove(point);
+            if (points.isEmpty()) {
+                pendingLines.remove(point.line);
+            }
+        }
+        LOGGER.error("ERROR::InfluxDBWriter:: point could not be written: [{}]", point.line);
+        failedRecords.add(new RejectedRecord(point.sourceRecord, NOT_WRITTEN));
+    }
+
+    /**
+     * Point handed over to the client along with the sink record it is converted from
+     */
+    private static final class PendingPoint {
+        private final long sequence;
+        private final String line;
+        private final SinkRecord sourceRecord;
+        private final long createdAt = System.currentTimeMillis();
+        private boolean written;
+
+        private PendingPoint(final long sequence, final String line, final SinkRecord sourceRecord) {
+            this.sequence = sequence;
+            this.line = line;
+            this.sourceRecord = sourceRecord;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package software.amazon.timestream.utility;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.retry.RetryUtils;
+import software.amazon.timestream.exception.TimestreamSinkConnectorException;
+
+/**
+ * Class that paces the WriteRecords requests of a task with additive increase, multiplicative decrease (AIMD):
+ * the number of requests allowed in flight is halved when Timestream throttles a request,
+ * and sending holds off for a backoff that doubles while the throttling goes on;
+ * every request written raises the limit by a fraction, so that it grows by one per round of requests,
+ * up to 'timestream.ingestion.max.inflight'.
+ * Requests failing with any other retryable error hold off sending for the same backoff, without cutting the limit,
+ * so that the requests sent again after a server or network error are spaced out.
+ */
+public class IngestionRateController {
+
+    /**
+     * Logger object
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(IngestionRateController.class);
+    /**
+     * Factor the concurrency limit is multiplied by on throttling
+     */
+    private static final double DECREASE_FACTOR = 0.5;
+    /**
+     * Backoff in milliseconds after the first throttled or failed request
+     */
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    /**
+     * Maximum backoff in milliseconds while the throttling or the failures go on
+     */
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+    /**
+     * Maximum number of requests in flight
+     */
+    private final int maxConcurrency;
+    /**
+     * Current number of requests allowed in flight
+     */
+    private double concurrencyLimit;
+    /**
+     * Number of requests in flight
+     */
+    private int inflight;
+    /**
+     * Current backoff in milliseconds, 0 when not throttled or failing
+     */
+    private long backoffMillis;
+    /**
+     * Time in milliseconds before which no request is sent
+     */
+    private long resumeAt;
+
+    /**
+     * @param maxConcurrency maximum number of requests in flight
+     */
+    public IngestionRateController(final int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        this.concurrencyLimit = maxConcurrency;
+    }
+
+    /**
+     * Method to wait until a request can be sent: while the concurrency limit is reached or
+     * the backoff after a throttled or failed request is not over
+     */
+    public synchronized void acquire() {
+        try {
+            long now = System.currentTimeMillis();
+            while (inflight >= (int) concurrencyLimit || now < resumeAt) {
+                if (now < resumeAt) {
+                    wait(resumeAt - now);
+                } else {
+                    wait();
+                }
+                now = System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimestreamSinkConnectorException("Interrupted while waiting for an in-flight WriteRecords request slot");
+        }
+        inflight++;
+    }
+
+    /**
+     * Method to release the slot of a complete request and adjust the rate to its outcome
+     *
+     * @param throwable failure of the request, null if it is written
+     */
+    public synchronized void release(final Throwable throwable) {
+        inflight--;
+        if (throwable == null) {
+            onWritten();
+        } else if (isThrottling(throwable)) {
+            onThrottled();
+        } else if (isRetryable(throwable)) {
+            onFailed();
+        }
+        notifyAll();
+    }
+
+    /**
+     * @return number of requests in flight
+     */
+    public synchronized int getInflight() {
+        return inflight;
+    }
+
+    /**
+     * @return current number of requests allowed in flight
+     */
+    public synchronized int getConcurrencyLimit() {
+        return (int) concurrencyLimit;
+    }
+
+    /**
+     * @param throwable failure of a request
+     * @return true if Timestream throttled the request
+     */
+    public static boolean isThrottling(final Throwable throwable) {
+        return throwable instanceof SdkException && RetryUtils.isThrottlingException((SdkException) throwable);
+    }
+
+    /**
+     * @param throwable failure of a request
+     * @return true if the request may succeed when sent again: on throttling, server and client side errors
+     */
+    public static boolean isRetryable(final Throwable throwable) {
+        if (throwable instanceof SdkServiceException) {
+            final SdkServiceException serviceException = (SdkServiceException) throwable;
+            return serviceException.isThrottlingException() || serviceException.statusCode() >= 500 || serviceException.retryable();
+        }
+        return throwable instanceof SdkClientException;
+    }
+
+    /**
+     * Method to raise the concurrency limit by one per round of requests written
+     */
+    private void onWritten() {
+        backoffMillis = 0;
+        if (concurrencyLimit < maxConcurrency) {
+            concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+        }
+    }
+
+    /**
+     * Method to halve the concurrency limit and back off; the requests throttled
+     * during the backoff are already accounted for, so the limit is cut once per backoff
+     */
+    private void onThrottled() {
+        final long now = System.currentTimeMillis();
+        if (now < resumeAt) {
+            return;
+        }
+        concurrencyLimit = Math.max(1, concurrencyLimit * DECREASE_FACTOR);
+        backOff(now);
+        LOGGER.warn("WARN::IngestionRateController:: throttled, concurrency limit [{}], backing off for [{}] ms",
+                (int) concurrencyLimit, backoffMillis);
+    }
+
+    /**
+     * Method to back off after a retryable failure other than throttling, keeping the concurrency limit;
+     * the requests failing during the backoff are already accounted for
+     */
+    private void onFailed() {
+        final long now = System.currentTimeMillis();
+        if (now < resumeAt) {
+            return;
+        }
+        backOff(now);
+        LOGGER.warn("WARN::IngestionRateController:: request failed, backing off for [{}] ms", backoffMillis);
+    }
+
+    /**
+     * Method to hold off sending for a backoff doubling on each consecutive call, up to {@link #MAX_BACKOFF_MILLIS}
+     *
+     * @param now current time in milliseconds
+     */
+    private void backOff(final long now) {
+        backoffMillis = backoffMillis == 0 ? MIN_BACKOFF_MILLIS : Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+        resumeAt = now + backoffMillis;
+    }
+}
@@ -0,0 +1,171 @@
+package software.amazon.timestream.utility;
+
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Class that interns the dimensions and the measure names of the records across the writes of a task:
+ * the topics draw them from a few thousand distinct values, which are then built once as shared immutable
+ * {@link Dimension} and String instances instead of on every write. Entries are evicted least recently used first
+ * once their estimated size exceeds 'timestream.intern.cache.bytes.max'; with 0, nothing is interned.
+ * The cache is shared by the lanes of the task and only looked up on the first occurrence of a value in a write,
+ * the dictionaries of the {@link RecordColumns} serving the rest.
+ */
+public class InternCache {
+
+    /**
+     * Estimated heap size of an entry apart from the characters of its name and value
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+    /**
+     * Maximum estimated size of the entries, 0 if nothing is interned
+     */
+    private final long maxBytes;
+    /**
+     * Ingestion metrics of the task
+     */
+    private final TimestreamSinkTaskMetrics metrics;
+    /**
+     * Interned dimensions and measure names by their name and value, least recently used first
+     */
+    private final Map<Key, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Estimated size of the entries
+     */
+    private long bytes;
+
+    /**
+     * @param maxBytes maximum estimated size of the entries, 0 to not intern
+     * @param metrics ingestion metrics of the task, counting the hits and misses
+     */
+    public InternCache(final long maxBytes, final TimestreamSinkTaskMetrics metrics) {
+        this.maxBytes = maxBytes;
+        this.metrics = metrics;
+        metrics.addInternCacheGauges(this::size, this::getBytes);
+    }
+
+    /**
+     * @param name dimension name
+     * @param value dimension value
+     * @return the shared dimension of the given name and value
+     */
+    public Dimension getDimension(final String name, final String value) {
+        if (maxBytes == 0) {
+            return Dimension.builder().name(name).value(value).build();
+        }
+        final Key key = new Key(name, value);
+        synchronized (this) {
+            final Object dimension = lookup(key);
+            if (dimension != null) {
+                return (Dimension) dimension;
+            }
+            return (Dimension) intern(key, Dimension.builder().name(name).value(value).build());
+        }
+    }
+
+    /**
+     * @param measureName measure name of a record
+     * @return the shared measure name equal to the given one
+     */
+    public String getMeasureName(final String measureName) {
+        if (maxBytes == 0) {
+            return measureName;
+        }
+        final Key key = new Key(null, measureName);
+        synchronized (this) {
+            final Object interned = lookup(key);
+            return interned != null ? (String) interned : (String) intern(key, measureName);
+        }
+    }
+
+    /**
+     * @return number of interned dimensions and measure names
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return estimated size of the interned dimensions and measure names
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @param key name and value
+     * @return the interned entry, null if there is none
+     */
+    private Object lookup(final Key key) {
+        final Object entry = entries.get(key);
+        if (entry != null) {
+            metrics.recordInternCacheHit();
+        } else {
+            metrics.recordInternCacheMiss();
+        }
+        return entry;
+    }
+
+    /**
+     * Method to add the given entry, evicting the least recently used ones past the maximum size
+     *
+     * @param key name and value
+     * @param entry dimension or measure name to be interned
+     * @return the entry
+     */
+    private Object intern(final Key key, final Object entry) {
+        entries.put(key, entry);
+        bytes += key.bytes;
+        final Iterator<Key> iterator = entries.keySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            final Key eldest = iterator.next();
+            if (eldest != key) {
+                bytes -= eldest.bytes;
+                iterator.remove();
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Name and value of an interned entry, the name being null for a measure name
+     */
+    private static final class Key {
+        private final String name;
+        private final String value;
+        private final int hash;
+        /**
+         * estimated heap size of the entry
+         */
+        private final int bytes;
+
+        private Key(final String name, final String value) {
+            this.name = name;
+            this.value = value;
+            this.hash = 31 * Objects.hashCode(name) + value.hashCode();
+            // two bytes a character, the key and the entry sharing the name and value strings
+            this.bytes = ENTRY_OVERHEAD_BYTES + 2 * ((name == null ? 0 : name.length()) + value.length());
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) other;
+            return hash == key.hash && value.equals(key.value) && Objects.equals(name, key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
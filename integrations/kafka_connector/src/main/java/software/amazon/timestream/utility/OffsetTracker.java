@@ -0,0 +1,190 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class that tracks, per Kafka topic partition, the offsets of the records
+ * delivered to the task and the ones that are acknowledged, i.e.
+ * written to the ingestion target or sent to the dead letter queue.
+ * Only the offsets that are delivered but not yet acknowledged are retained
+ * as primitives; the committable offset is read in constant time.
+ */
+public class OffsetTracker {
+
+    /**
+     * Logger object
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffsetTracker.class);
+    /**
+     * Offset state per partition
+     */
+    private final Map<TopicPartition, PartitionOffsets> partitionOffsets = new ConcurrentHashMap<>();
+
+    /**
+     * Method to register the offset of a record delivered to the task
+     *
+     * @param sinkRecord Incoming record from the source Kafka topic
+     */
+    public void register(final SinkRecord sinkRecord) {
+        partitionOffsets.computeIfAbsent(topicPartition(sinkRecord), tp -> new PartitionOffsets())
+                .register(sinkRecord.kafkaOffset());
+    }
+
+    /**
+     * Method to acknowledge the offset of a record that is written or sent to the dead letter queue
+     *
+     * @param sinkRecord Incoming record from the source Kafka topic
+     */
+    public void acknowledge(final SinkRecord sinkRecord) {
+        final PartitionOffsets offsets = partitionOffsets.get(topicPartition(sinkRecord));
+        if (offsets != null) {
+            offsets.acknowledge(sinkRecord.kafkaOffset());
+        }
+    }
+
+    /**
+     * Method to get the offsets that are safe to commit for the given partitions.
+     * Partitions with no records delivered since they were assigned are left out.
+     *
+     * @param partitions partitions assigned to the task
+     * @return offsets to be committed per partition
+     */
+    public Map<TopicPartition, OffsetAndMetadata> getCommittableOffsets(final Collection<TopicPartition> partitions) {
+        final Map<TopicPartition, OffsetAndMetadata> committable = new HashMap<>();
+        for (final TopicPartition topicPartition : partitions) {
+            final PartitionOffsets offsets = partitionOffsets.get(topicPartition);
+            if (offsets != null) {
+                final long offset = offsets.getCommittableOffset();
+                if (offset >= 0) {
+                    committable.put(topicPartition, new OffsetAndMetadata(offset));
+                }
+            }
+        }
+        LOGGER.trace("OffsetTracker::getCommittableOffsets: [{}]", committable);
+        return committable;
+    }
+
+    /**
+     * @param topicPartition partition assigned to the task
+     * @return number of offsets delivered to the task past the committable offset of the partition
+     */
+    public long getOffsetLag(final TopicPartition topicPartition) {
+        final PartitionOffsets offsets = partitionOffsets.get(topicPartition);
+        return offsets == null ? 0 : offsets.getOffsetLag();
+    }
+
+    /**
+     * Method to discard the offset state of the partitions revoked from the task
+     *
+     * @param partitions partitions that are no longer assigned to the task
+     */
+    public void remove(final Collection<TopicPartition> partitions) {
+        for (final TopicPartition topicPartition : partitions) {
+            partitionOffsets.remove(topicPartition);
+        }
+    }
+
+    /**
+     * @param sinkRecord Incoming record from the source Kafka topic
+     * @return topic partition of the record
+     */
+    private static TopicPartition topicPartition(final SinkRecord sinkRecord) {
+        return new TopicPartition(sinkRecord.topic(), sinkRecord.kafkaPartition());
+    }
+
+    /**
+     * Offsets of a single partition: the offsets delivered and not yet acknowledged
+     * are kept in ascending order between head and tail; the lowest of them,
+     * or one past the highest offset delivered when none is pending, is the watermark.
+     */
+    private static final class PartitionOffsets {
+        /**
+         * initial capacity of the pending offsets
+         */
+        private static final int INITIAL_CAPACITY = 64;
+        /**
+         * offsets delivered to the task, in ascending order
+         */
+        private long[] pending = new long[INITIAL_CAPACITY];
+        /**
+         * acknowledged flags of the pending offsets
+         */
+        private boolean[] acknowledged = new boolean[INITIAL_CAPACITY];
+        /**
+         * index of the lowest pending offset
+         */
+        private int head;
+        /**
+         * index past the highest pending offset
+         */
+        private int tail;
+        /**
+         * one past the highest offset delivered, -1 until the first delivery
+         */
+        private long nextOffset = -1;
+
+        private synchronized void register(final long offset) {
+            if (offset < nextOffset) {
+                // redelivered record, it is already being tracked
+                return;
+            }
+            if (tail == pending.length) {
+                ensureCapacity();
+            }
+            pending[tail] = offset;
+            acknowledged[tail] = false;
+            tail++;
+            nextOffset = offset + 1;
+        }
+
+        private synchronized void acknowledge(final long offset) {
+            final int index = Arrays.binarySearch(pending, head, tail, offset);
+            if (index < 0) {
+                return;
+            }
+            acknowledged[index] = true;
+            while (head < tail && acknowledged[head]) {
+                head++;
+            }
+            if (head == tail) {
+                head = 0;
+                tail = 0;
+            }
+        }
+
+        private synchronized long getCommittableOffset() {
+            return head < tail ? pending[head] : nextOffset;
+        }
+
+        private synchronized long getOffsetLag() {
+            return head < tail ? nextOffset - pending[head] : 0;
+        }
+
+        private void ensureCapacity() {
+            final int size = tail - head;
+            if (head > 0 && size < pending.length / 2) {
+                System.arraycopy(pending, head, pending, 0, size);
+                System.arraycopy(acknowledged, head, acknowledged, 0, size);
+            } else {
+                final long[] grownPending = new long[pending.length * 2];
+                final boolean[] grownAcknowledged = new boolean[pending.length * 2];
+                System.arraycopy(pending, head, grownPending, 0, size);
+                System.arraycopy(acknowledged, head, grownAcknowledged, 0, size);
+                pending = grownPending;
+                acknowledged = grownAcknowledged;
+            }
+            head = 0;
+            tail = size;
+        }
+    }
+}
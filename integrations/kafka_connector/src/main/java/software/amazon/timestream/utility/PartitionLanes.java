@@ -0,0 +1,69 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class that assigns the Kafka topic partitions of a task to its writer lanes, so that the records
+ * of a partition stay in order on a single lane. A partition is assigned to the lane with the fewest partitions
+ * on its first record, and keeps it until it is removed; the lanes are therefore balanced by partition count,
+ * regardless of how the partitions hash.
+ * Not thread safe, used by the task thread only.
+ */
+public class PartitionLanes {
+
+    /**
+     * Lane of each partition, assigned on its first record
+     */
+    private final Map<TopicPartition, Integer> partitionLanes = new HashMap<>();
+    /**
+     * Number of partitions assigned to each lane
+     */
+    private final int[] partitionCounts;
+
+    /**
+     * @param laneCount number of lanes
+     */
+    public PartitionLanes(final int laneCount) {
+        this.partitionCounts = new int[laneCount];
+    }
+
+    /**
+     * @param partition topic partition of a record
+     * @return lane of the partition, assigned if it has none yet
+     */
+    public int getLane(final TopicPartition partition) {
+        return partitionLanes.computeIfAbsent(partition, tp -> assign());
+    }
+
+    /**
+     * Method to release the lanes of the partitions that are no longer assigned to the task
+     *
+     * @param partitions partitions revoked from the task
+     */
+    public void remove(final Collection<TopicPartition> partitions) {
+        for (final TopicPartition partition : partitions) {
+            final Integer lane = partitionLanes.remove(partition);
+            if (lane != null) {
+                partitionCounts[lane]--;
+            }
+        }
+    }
+
+    /**
+     * @return the lane with the fewest partitions, the partition being assigned to it
+     */
+    private int assign() {
+        int lane = 0;
+        for (int i = 1; i < partitionCounts.length; i++) {
+            if (partitionCounts[i] < partitionCounts[lane]) {
+                lane = i;
+            }
+        }
+        partitionCounts[lane]++;
+        return lane;
+    }
+}
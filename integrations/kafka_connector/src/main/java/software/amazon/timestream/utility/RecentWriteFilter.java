@@ -0,0 +1,85 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class that skips the records redelivered to the tasks of a connector that are already written,
+ * e.g. after a task fails over or a rebalance before their offsets are committed, so they are not sent again.
+ * The offsets up to which the records of each partition are written or reported are kept for the whole worker,
+ * hence a partition moving between the tasks of the connector on the same worker keeps its offsets.
+ * Only records redelivered within 'timestream.record.dedup.window.ms' of the last write of the partition are skipped,
+ * so that offsets deliberately reset to ingest the records again are not skipped later on.
+ * With offset versioning, the records that are not skipped are written again as idempotent upserts.
+ */
+public class RecentWriteFilter {
+
+    /**
+     * Written offsets of the partitions per connector name, shared by the tasks of the worker
+     */
+    private static final Map<String, Map<TopicPartition, WrittenOffset>> WRITTEN_OFFSETS = new ConcurrentHashMap<>();
+    /**
+     * Written offsets of the partitions of the connector
+     */
+    private final Map<TopicPartition, WrittenOffset> writtenOffsets;
+    /**
+     * Time in milliseconds after the last write of a partition during which its written records are skipped
+     */
+    private final long windowMillis;
+
+    /**
+     * @param connectorName name of the connector of the task
+     * @param windowMillis time in milliseconds after the last write of a partition during which its written records are skipped
+     */
+    public RecentWriteFilter(final String connectorName, final long windowMillis) {
+        this.writtenOffsets = WRITTEN_OFFSETS.computeIfAbsent(connectorName, name -> new ConcurrentHashMap<>());
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @param sinkRecord record delivered to the task
+     * @return true if the record is already written or reported
+     */
+    public boolean isWritten(final SinkRecord sinkRecord) {
+        final WrittenOffset writtenOffset = writtenOffsets.get(new TopicPartition(sinkRecord.topic(), sinkRecord.kafkaPartition()));
+        return writtenOffset != null && sinkRecord.kafkaOffset() < writtenOffset.offset
+                && System.currentTimeMillis() - writtenOffset.writtenAt <= windowMillis;
+    }
+
+    /**
+     * Method to record the offsets up to which the records of the given partitions are written or reported
+     *
+     * @param committableOffsets offsets safe to commit per partition, as returned by the {@link OffsetTracker}
+     */
+    public void update(final Map<TopicPartition, OffsetAndMetadata> committableOffsets) {
+        final long now = System.currentTimeMillis();
+        for (final Map.Entry<TopicPartition, OffsetAndMetadata> entry : committableOffsets.entrySet()) {
+            final long offset = entry.getValue().offset();
+            writtenOffsets.compute(entry.getKey(), (partition, writtenOffset) ->
+                    writtenOffset != null && writtenOffset.offset == offset ? writtenOffset : new WrittenOffset(offset, now));
+        }
+    }
+
+    /**
+     * Offset up to which the records of a partition are written, along with the time it last moved
+     */
+    private static final class WrittenOffset {
+        /**
+         * offset of the first record not yet written
+         */
+        private final long offset;
+        /**
+         * time in milliseconds the offset moved to
+         */
+        private final long writtenAt;
+
+        private WrittenOffset(final long offset, final long writtenAt) {
+            this.offset = offset;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
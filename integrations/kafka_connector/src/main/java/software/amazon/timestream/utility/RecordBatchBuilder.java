@@ -0,0 +1,250 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.timestream.TimestreamSinkConnectorConfig;
+import software.amazon.timestream.TimestreamSinkConstants;
+import software.amazon.timestream.schema.RecordBatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that cuts the converted records into WriteRecords batches.
+ * Records sharing the measure name and dimension names are batched together, whatever their dimension values,
+ * so that records of many series still fill up batches. The measure name, and the dimension values shared by every
+ * record of a batch, compared by their codes in the {@link RecordColumns}, are sent once as the common attributes
+ * of the request; the other dimensions are sent along each record.
+ * A batch is closed when it reaches 'timestream.record.batch.size' records
+ * or when the next record would take its estimated payload past 'timestream.record.batch.bytes.max'.
+ */
+public class RecordBatchBuilder {
+
+    /**
+     * Logger object
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecordBatchBuilder.class);
+    /**
+     * Estimated serialized size of a record apart from its values
+     */
+    private static final int RECORD_OVERHEAD_BYTES = 32;
+    /**
+     * Estimated serialized size of a dimension or measure value apart from its name, value and type
+     */
+    private static final int ATTRIBUTE_OVERHEAD_BYTES = 32;
+    /**
+     * Estimated serialized size of a request apart from its records and common attributes
+     */
+    private static final int REQUEST_OVERHEAD_BYTES = 256;
+    /**
+     * Maximum number of records in a batch
+     */
+    private final int maxRecords;
+    /**
+     * Maximum estimated payload size of a batch
+     */
+    private final int maxBytes;
+
+    /**
+     * @param config connector config
+     */
+    public RecordBatchBuilder(final TimestreamSinkConnectorConfig config) {
+        final int batchSize = config.getTimestreamBatchSize();
+        this.maxRecords = batchSize > 0 ? batchSize : TimestreamSinkConstants.DEFAULT_BATCHSIZE;
+        this.maxBytes = config.getTimestreamBatchMaxBytes();
+    }
+
+    /**
+     * Method to cut the rows of the given columns into batches
+     *
+     * @param columns columns the sink records are converted into
+     * @return batches in the order they are filled up
+     */
+    public List<RecordBatch> build(final RecordColumns columns) {
+        final List<RecordBatch> batches = new ArrayList<>(columns.size() / maxRecords + 1);
+        final Map<GroupKey, OpenBatch> openBatches = new LinkedHashMap<>();
+        // looked up with the row being batched, a key is only created for the first row of a group
+        final GroupKey probe = new GroupKey(columns);
+        for (int row = 0; row < columns.size(); row++) {
+            probe.set(row);
+            final int recordBytes = estimateSize(columns, row);
+            final OpenBatch openBatch = openBatches.get(probe);
+            if (openBatch != null) {
+                final int batchGrowth = openBatch.estimateGrowth(row, recordBytes);
+                if (openBatch.size < maxRecords && openBatch.bytes + batchGrowth <= maxBytes) {
+                    openBatch.add(row, batchGrowth);
+                    continue;
+                }
+                batches.add(openBatch.close());
+            }
+            final OpenBatch nextBatch = new OpenBatch(columns, row, maxRecords);
+            nextBatch.add(row, recordBytes);
+            if (openBatch != null) {
+                // the key of the group is kept, only the batch is replaced
+                openBatches.put(probe, nextBatch);
+            } else {
+                openBatches.put(new GroupKey(columns).set(row), nextBatch);
+            }
+        }
+        for (final OpenBatch openBatch : openBatches.values()) {
+            batches.add(openBatch.close());
+        }
+        LOGGER.debug("DEBUG::RecordBatchBuilder::build: [{}] records in [{}] batches of [{}] record groups",
+                columns.size(), batches.size(), openBatches.size());
+        return batches;
+    }
+
+    /**
+     * @param columns columns the sink records are converted into
+     * @param row row of the record
+     * @return estimated serialized size of the record as sent in the request, without its dimensions
+     */
+    private static int estimateSize(final RecordColumns columns, final int row) {
+        int size = RECORD_OVERHEAD_BYTES + columns.getTimeLength(row);
+        for (int i = 0; i < columns.getMeasureCount(); i++) {
+            if (columns.hasMeasureValue(row, i)) {
+                size += ATTRIBUTE_OVERHEAD_BYTES + columns.getMeasureValueLength(row, i);
+            }
+        }
+        if (columns.isVersioned()) {
+            size += Long.BYTES;
+        }
+        return size;
+    }
+
+    /**
+     * @param commonAttributes common attributes of a request
+     * @return estimated serialized size of the common attributes along with the rest of the request
+     */
+    private static int estimateRequestSize(final Record commonAttributes) {
+        int size = REQUEST_OVERHEAD_BYTES + RECORD_OVERHEAD_BYTES
+                + length(commonAttributes.measureName()) + length(commonAttributes.timeUnitAsString())
+                + length(commonAttributes.measureValueTypeAsString());
+        for (final Dimension dimension : commonAttributes.dimensions()) {
+            size += ATTRIBUTE_OVERHEAD_BYTES + length(dimension.name()) + length(dimension.value());
+        }
+        return size;
+    }
+
+    /**
+     * @return length in UTF-8 bytes of the given value, 0 if null
+     */
+    private static int length(final String value) {
+        return value == null ? 0 : Utils.utf8Length(value);
+    }
+
+    /**
+     * Row identifying the records that are batched together: the records with the same measure name and dimension names
+     */
+    private static final class GroupKey {
+        private final RecordColumns columns;
+        private int row;
+        private int hash;
+
+        private GroupKey(final RecordColumns columns) {
+            this.columns = columns;
+        }
+
+        private GroupKey set(final int row) {
+            this.row = row;
+            this.hash = columns.groupHash(row);
+            return this;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof GroupKey)) {
+                return false;
+            }
+            final GroupKey key = (GroupKey) other;
+            return hash == key.hash && columns.isSameGroup(row, key.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Batch of a record group that is being filled up, along with the dimension columns all of its records share
+     */
+    private static final class OpenBatch {
+        private final RecordColumns columns;
+        /**
+         * row of the first record of the batch, the dimensions shared by the batch being the ones of this row
+         */
+        private final int firstRow;
+        /**
+         * true for the dimension columns whose value is the same for all the records of the batch, by dimension column
+         */
+        private final boolean[] commonDimensions;
+        private final int[] rows;
+        private int size;
+        /**
+         * estimated payload size of the batch
+         */
+        private int bytes;
+
+        private OpenBatch(final RecordColumns columns, final int firstRow, final int capacity) {
+            this.columns = columns;
+            this.firstRow = firstRow;
+            this.commonDimensions = new boolean[columns.getDimensionCount()];
+            for (int i = 0; i < commonDimensions.length; i++) {
+                commonDimensions[i] = columns.hasDimension(firstRow, i);
+            }
+            this.rows = new int[capacity];
+            this.bytes = estimateRequestSize(columns.toCommonAttributes(firstRow, commonDimensions));
+        }
+
+        /**
+         * @param row row of the record to be added
+         * @param recordBytes estimated serialized size of the record without its dimensions
+         * @return estimated growth of the payload size of the batch with the record, including the dimensions
+         * that are no longer shared, hence sent along each record of the batch instead of once
+         */
+        private int estimateGrowth(final int row, final int recordBytes) {
+            int growth = recordBytes;
+            for (int i = 0; i < commonDimensions.length; i++) {
+                if (commonDimensions[i] && columns.isSameDimension(firstRow, row, i)) {
+                    continue;
+                }
+                if (commonDimensions[i]) {
+                    growth += (size - 1) * (ATTRIBUTE_OVERHEAD_BYTES + columns.getDimensionLength(firstRow, i));
+                }
+                if (columns.hasDimension(row, i)) {
+                    growth += ATTRIBUTE_OVERHEAD_BYTES + columns.getDimensionLength(row, i);
+                }
+            }
+            return growth;
+        }
+
+        /**
+         * @param row row of the record
+         * @param growth estimated growth of the payload size of the batch with the record
+         */
+        private void add(final int row, final int growth) {
+            if (size > 0) {
+                for (int i = 0; i < commonDimensions.length; i++) {
+                    commonDimensions[i] = commonDimensions[i] && columns.isSameDimension(firstRow, row, i);
+                }
+            }
+            rows[size++] = row;
+            bytes += growth;
+        }
+
+        private RecordBatch close() {
+            return new RecordBatch(columns.toCommonAttributes(firstRow, commonDimensions), columns,
+                    Arrays.copyOf(rows, size), commonDimensions);
+        }
+    }
+}
@@ -0,0 +1,577 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.common.utils.Utils;
+import org.apache.kafka.connect.sink.SinkRecord;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValue;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValueType;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that holds the sink records of a write converted column by column, as filled in by the {@link CompiledMappingPlan}:
+ * the time, version and typed measure values in primitive arrays, and the measure name and dimensions
+ * as codes into dictionaries of their distinct values, each dimension value taken once from the {@link InternCache}
+ * as a shared {@link Dimension}.
+ * The Timestream Records are only built when their batch is sent, by {@link #toRequestRecord(int, boolean[])}
+ * along with the common attributes of the batch by {@link #toCommonAttributes(int, boolean[])}.
+ * A row is only added once all of its columns are set, so that a sink record failing conversion leaves no row behind.
+ */
+public final class RecordColumns {
+
+    /**
+     * Code of a dimension skipped for being empty
+     */
+    private static final int SKIPPED = -1;
+    /**
+     * Maximum length of a double formatted by {@link Double#toString(double)} without an exponent
+     */
+    private static final int MAX_DOUBLE_LENGTH = 24;
+    /**
+     * Time unit of the records
+     */
+    private final String timeUnit;
+    /**
+     * Multi-measure attribute names, by measure column
+     */
+    private final String[] measureNames;
+    /**
+     * Measure value types as given in the schema definition, by measure column
+     */
+    private final String[] measureTypes;
+    /**
+     * Sink records of the rows, by row
+     */
+    private final List<SinkRecord> sourceRecords;
+    /**
+     * Record time in the time unit of the records, by row
+     */
+    private final long[] times;
+    /**
+     * Record time as given, for the rows whose time is not a number; allocated on the first one
+     */
+    private String[] timeTexts;
+    /**
+     * Record version, by row; null if the records are not versioned
+     */
+    private final long[] versions;
+    /**
+     * Measure name codes into the measure name dictionary, by row
+     */
+    private final int[] measureNameCodes;
+    /**
+     * Interns the measure names and dimensions across the writes
+     */
+    private final InternCache internCache;
+    /**
+     * Distinct measure names
+     */
+    private final Dictionary<String> measureNameDictionary = new Dictionary<>();
+    /**
+     * Dimension value codes into the dictionary of the dimension column, by dimension column and row
+     */
+    private final int[][] dimensionCodes;
+    /**
+     * Distinct dimensions, by dimension column
+     */
+    private final List<Dictionary<Dimension>> dimensionDictionaries;
+    /**
+     * Values of the DOUBLE measure columns, by measure column and row; null for the other columns
+     */
+    private final double[][] doubleValues;
+    /**
+     * Values of the BIGINT and TIMESTAMP measure columns, by measure column and row; null for the other columns
+     */
+    private final long[][] longValues;
+    /**
+     * Formatted values, by measure column and row; used for the columns of the other types and the values
+     * that are not typed natively, allocated on the first one of the column
+     */
+    private final String[][] textValues;
+    /**
+     * true if the measure value is set, by measure column and row; false if it is skipped for being empty
+     */
+    private final boolean[][] presentValues;
+
+    /**
+     * @param capacity number of sink records to be converted
+     * @param internCache interns the measure names and dimensions across the writes
+     * @param timeUnit time unit of the records
+     * @param dimensionCount number of dimension columns
+     * @param measureNames multi-measure attribute names, by measure column
+     * @param measureTypes measure value types as given in the schema definition, by measure column
+     * @param measureValueTypes measure value types, {@link MeasureValueType#UNKNOWN_TO_SDK_VERSION} for the unknown ones
+     * and null for the missing ones, by measure column
+     * @param versioned true if the records carry a version
+     */
+    RecordColumns(final int capacity, final InternCache internCache, final String timeUnit, final int dimensionCount,
+                  final String[] measureNames, final String[] measureTypes, final MeasureValueType[] measureValueTypes,
+                  final boolean versioned) {
+        this.internCache = internCache;
+        this.timeUnit = timeUnit;
+        this.measureNames = measureNames;
+        this.measureTypes = measureTypes;
+        this.sourceRecords = new ArrayList<>(capacity);
+        this.times = new long[capacity];
+        this.versions = versioned ? new long[capacity] : null;
+        this.measureNameCodes = new int[capacity];
+        this.dimensionCodes = new int[dimensionCount][capacity];
+        this.dimensionDictionaries = new ArrayList<>(dimensionCount);
+        for (int i = 0; i < dimensionCount; i++) {
+            dimensionDictionaries.add(new Dictionary<>());
+        }
+        this.doubleValues = new double[measureNames.length][];
+        this.longValues = new long[measureNames.length][];
+        this.textValues = new String[measureNames.length][];
+        this.presentValues = new boolean[measureNames.length][capacity];
+        for (int i = 0; i < measureNames.length; i++) {
+            if (measureValueTypes[i] == MeasureValueType.DOUBLE) {
+                doubleValues[i] = new double[capacity];
+            } else if (measureValueTypes[i] == MeasureValueType.BIGINT || measureValueTypes[i] == MeasureValueType.TIMESTAMP) {
+                longValues[i] = new long[capacity];
+            }
+        }
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int size() {
+        return sourceRecords.size();
+    }
+
+    /**
+     * @return sink records of the rows, by row
+     */
+    public List<SinkRecord> getSourceRecords() {
+        return sourceRecords;
+    }
+
+    /**
+     * @param row row index
+     * @return sink record of the row
+     */
+    public SinkRecord getSourceRecord(final int row) {
+        return sourceRecords.get(row);
+    }
+
+    /**
+     * @return number of multi-measure attribute columns
+     */
+    public int getMeasureCount() {
+        return measureNames.length;
+    }
+
+    /**
+     * @return true if the records carry a version
+     */
+    public boolean isVersioned() {
+        return versions != null;
+    }
+
+    /**
+     * @return number of dimension columns
+     */
+    public int getDimensionCount() {
+        return dimensionCodes.length;
+    }
+
+    /**
+     * @param row row index
+     * @return hash of the measure name and the names of the dimensions of the row
+     */
+    public int groupHash(final int row) {
+        int hash = measureNameCodes[row];
+        for (final int[] codes : dimensionCodes) {
+            hash = 31 * hash + (codes[row] == SKIPPED ? 0 : 1);
+        }
+        return hash;
+    }
+
+    /**
+     * @param row row index
+     * @param other index of another row
+     * @return true if both rows have the same measure name and dimension names, whatever the dimension values
+     */
+    public boolean isSameGroup(final int row, final int other) {
+        if (measureNameCodes[row] != measureNameCodes[other]) {
+            return false;
+        }
+        for (final int[] codes : dimensionCodes) {
+            if ((codes[row] == SKIPPED) != (codes[other] == SKIPPED)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param row row index
+     * @param column dimension column
+     * @return true if the dimension of the row is set, false if it is skipped for being empty
+     */
+    public boolean hasDimension(final int row, final int column) {
+        return dimensionCodes[column][row] != SKIPPED;
+    }
+
+    /**
+     * @param row row index
+     * @param other index of another row
+     * @param column dimension column
+     * @return true if the dimension is set to the same value on both rows
+     */
+    public boolean isSameDimension(final int row, final int other, final int column) {
+        return dimensionCodes[column][row] != SKIPPED && dimensionCodes[column][row] == dimensionCodes[column][other];
+    }
+
+    /**
+     * @param row row index
+     * @param commonDimensions true for the dimension columns shared by all the rows of the batch, by dimension column
+     * @return the attributes the rows of the batch share, to be sent once as the common attributes of a request
+     */
+    public Record toCommonAttributes(final int row, final boolean[] commonDimensions) {
+        return Record.builder()
+                .measureName(measureNameDictionary.get(measureNameCodes[row]))
+                .dimensions(getDimensions(row, commonDimensions, true))
+                .timeUnit(timeUnit)
+                .measureValueType(MeasureValueType.MULTI)
+                .build();
+    }
+
+    /**
+     * @param row row index
+     * @param commonDimensions true for the dimension columns shared by all the rows of the batch, by dimension column
+     * @return the record of the row with only the attributes that are not shared within its batch
+     */
+    public Record toRequestRecord(final int row, final boolean[] commonDimensions) {
+        final Record.Builder record = Record.builder()
+                .time(getTime(row))
+                .measureValues(getMeasureValues(row))
+                .version(versions == null ? null : versions[row]);
+        final List<Dimension> dimensions = getDimensions(row, commonDimensions, false);
+        if (!dimensions.isEmpty()) {
+            record.dimensions(dimensions);
+        }
+        return record.build();
+    }
+
+    /**
+     * @param row row index
+     * @return the complete record of the row
+     */
+    public Record toRecord(final int row) {
+        return Record.builder()
+                .measureName(measureNameDictionary.get(measureNameCodes[row]))
+                .dimensions(getDimensions(row))
+                .time(getTime(row))
+                .timeUnit(timeUnit)
+                .measureValues(getMeasureValues(row))
+                .measureValueType(MeasureValueType.MULTI)
+                .version(versions == null ? null : versions[row])
+                .build();
+    }
+
+    /**
+     * @param row row index
+     * @param column dimension column
+     * @return length in UTF-8 bytes of the name and value of the dimension as sent, 0 if it is skipped
+     */
+    public int getDimensionLength(final int row, final int column) {
+        final int code = dimensionCodes[column][row];
+        if (code == SKIPPED) {
+            return 0;
+        }
+        final Dimension dimension = dimensionDictionaries.get(column).get(code);
+        return Utils.utf8Length(dimension.name()) + Utils.utf8Length(dimension.value());
+    }
+
+    /**
+     * @param row row index
+     * @return length in UTF-8 bytes of the record time of the row as sent
+     */
+    public int getTimeLength(final int row) {
+        return timeTexts != null && timeTexts[row] != null ? Utils.utf8Length(timeTexts[row]) : length(times[row]);
+    }
+
+    /**
+     * @param row row index
+     * @param column measure column
+     * @return true if the measure value of the row is set, false if it is skipped for being empty
+     */
+    public boolean hasMeasureValue(final int row, final int column) {
+        return presentValues[column][row];
+    }
+
+    /**
+     * @param row row index
+     * @param column measure column
+     * @return length in UTF-8 bytes of the name, value and type of the measure value as sent,
+     * the value estimated for the doubles
+     */
+    public int getMeasureValueLength(final int row, final int column) {
+        final int length = Utils.utf8Length(measureNames[column])
+                + (measureTypes[column] == null ? 0 : Utils.utf8Length(measureTypes[column]));
+        if (textValues[column] != null && textValues[column][row] != null) {
+            return length + Utils.utf8Length(textValues[column][row]);
+        }
+        return length + (doubleValues[column] != null ? length(doubleValues[column][row]) : length(longValues[column][row]));
+    }
+
+    /**
+     * @param row row index
+     * @param time record time in the time unit of the records
+     */
+    void setTime(final int row, final long time) {
+        times[row] = time;
+        if (timeTexts != null) {
+            timeTexts[row] = null;
+        }
+    }
+
+    /**
+     * @param row row index
+     * @param time record time as given, when it is not a number
+     */
+    void setTime(final int row, final String time) {
+        if (timeTexts == null) {
+            timeTexts = new String[times.length];
+        }
+        timeTexts[row] = time;
+    }
+
+    /**
+     * @param row row index
+     * @param version record version
+     */
+    void setVersion(final int row, final long version) {
+        versions[row] = version;
+    }
+
+    /**
+     * @param row row index
+     * @param measureName measure name of the row
+     */
+    void setMeasureName(final int row, final String measureName) {
+        int code = measureNameDictionary.find(measureName);
+        if (code == SKIPPED) {
+            code = measureNameDictionary.code(measureName, internCache.getMeasureName(measureName));
+        }
+        measureNameCodes[row] = code;
+    }
+
+    /**
+     * @param row row index
+     * @param column dimension column
+     * @param name dimension name
+     * @param value dimension value, null if it is skipped for being empty
+     */
+    void setDimension(final int row, final int column, final String name, final String value) {
+        if (value == null) {
+            dimensionCodes[column][row] = SKIPPED;
+            return;
+        }
+        final Dictionary<Dimension> dictionary = dimensionDictionaries.get(column);
+        int code = dictionary.find(value);
+        if (code == SKIPPED) {
+            code = dictionary.code(value, internCache.getDimension(name, value));
+        }
+        dimensionCodes[column][row] = code;
+    }
+
+    /**
+     * @param row row index
+     * @param column DOUBLE measure column
+     * @param value measure value
+     */
+    void setMeasureValue(final int row, final int column, final double value) {
+        doubleValues[column][row] = value;
+        setPresent(row, column);
+    }
+
+    /**
+     * @param row row index
+     * @param column BIGINT or TIMESTAMP measure column
+     * @param value measure value
+     */
+    void setMeasureValue(final int row, final int column, final long value) {
+        longValues[column][row] = value;
+        setPresent(row, column);
+    }
+
+    /**
+     * @param row row index
+     * @param column measure column
+     * @param value formatted measure value
+     */
+    void setMeasureValue(final int row, final int column, final String value) {
+        if (textValues[column] == null) {
+            textValues[column] = new String[times.length];
+        }
+        textValues[column][row] = value;
+        presentValues[column][row] = true;
+    }
+
+    /**
+     * @param row row index
+     * @param column measure column whose value is skipped for being empty
+     */
+    void skipMeasureValue(final int row, final int column) {
+        presentValues[column][row] = false;
+    }
+
+    /**
+     * Method to add the row of the given sink record, once all of its columns are set
+     *
+     * @param sinkRecord sink record the row is converted from
+     */
+    void addRow(final SinkRecord sinkRecord) {
+        sourceRecords.add(sinkRecord);
+    }
+
+    /**
+     * @param row row index
+     * @param column measure column
+     */
+    private void setPresent(final int row, final int column) {
+        presentValues[column][row] = true;
+        if (textValues[column] != null) {
+            textValues[column][row] = null;
+        }
+    }
+
+    /**
+     * @param row row index
+     * @return the shared dimensions of the row, without the skipped ones
+     */
+    private List<Dimension> getDimensions(final int row) {
+        return getDimensions(row, null, false);
+    }
+
+    /**
+     * @param row row index
+     * @param commonDimensions true for the dimension columns shared by all the rows of the batch, by dimension column;
+     * null for none of them
+     * @param common true for the dimensions of the common columns, false for the others
+     * @return the shared dimensions of the row in the selected columns, without the skipped ones
+     */
+    private List<Dimension> getDimensions(final int row, final boolean[] commonDimensions, final boolean common) {
+        final List<Dimension> dimensions = new ArrayList<>(dimensionCodes.length);
+        for (int i = 0; i < dimensionCodes.length; i++) {
+            final int code = dimensionCodes[i][row];
+            if (code != SKIPPED && (commonDimensions != null && commonDimensions[i]) == common) {
+                dimensions.add(dimensionDictionaries.get(i).get(code));
+            }
+        }
+        return dimensions;
+    }
+
+    /**
+     * @param row row index
+     * @return the measure values of the row, without the skipped ones
+     */
+    private List<MeasureValue> getMeasureValues(final int row) {
+        final List<MeasureValue> measureValues = new ArrayList<>(measureNames.length);
+        for (int i = 0; i < measureNames.length; i++) {
+            if (presentValues[i][row]) {
+                measureValues.add(MeasureValue.builder().name(measureNames[i]).value(getMeasureValue(row, i))
+                        .type(measureTypes[i]).build());
+            }
+        }
+        return measureValues;
+    }
+
+    /**
+     * @param row row index
+     * @param column measure column
+     * @return the measure value formatted for its type
+     */
+    private String getMeasureValue(final int row, final int column) {
+        if (textValues[column] != null && textValues[column][row] != null) {
+            return textValues[column][row];
+        }
+        return doubleValues[column] != null ? ValueFormatter.formatDouble(doubleValues[column][row]) : Long.toString(longValues[column][row]);
+    }
+
+    /**
+     * @param row row index
+     * @return the record time of the row as sent
+     */
+    private String getTime(final int row) {
+        return timeTexts != null && timeTexts[row] != null ? timeTexts[row] : Long.toString(times[row]);
+    }
+
+    /**
+     * @return number of characters of the given value formatted by {@link ValueFormatter#formatDouble(double)},
+     * estimated for the values {@link Double#toString(double)} writes out without an exponent
+     */
+    private static int length(final double value) {
+        final double magnitude = Math.abs(value);
+        if (magnitude == 0 || magnitude >= 1e-3 && magnitude < 1e7 || Double.isNaN(value) || Double.isInfinite(value)) {
+            return MAX_DOUBLE_LENGTH;
+        }
+        return ValueFormatter.formatDouble(value).length();
+    }
+
+    /**
+     * @return number of characters of the given value formatted by {@link Long#toString(long)}
+     */
+    private static int length(final long value) {
+        int length = value < 0 ? 2 : 1;
+        for (long rest = Math.abs(value / 10); rest > 0; rest /= 10) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Distinct values of a column along with their codes, the code of a value being its index
+     *
+     * @param <T> type of the values
+     */
+    private static final class Dictionary<T> {
+        /**
+         * codes of the values, by their text
+         */
+        private final Map<String, Integer> codes = new HashMap<>();
+        /**
+         * values, by code
+         */
+        private final List<T> values = new ArrayList<>();
+
+        /**
+         * @param text text of a value
+         * @return code of the value, {@link #SKIPPED} if it is not in the dictionary
+         */
+        private int find(final String text) {
+            final Integer code = codes.get(text);
+            return code == null ? SKIPPED : code;
+        }
+
+        /**
+         * @param text text of a value
+         * @param value value to be added if it is not in the dictionary
+         * @return code of the value
+         */
+        private int code(final String text, final T value) {
+            final Integer code = codes.get(text);
+            if (code != null) {
+                return code;
+            }
+            values.add(value);
+            codes.put(text, values.size() - 1);
+            return values.size() - 1;
+        }
+
+        /**
+         * @param code code of a value
+         * @return the value
+         */
+        private T get(final int code) {
+            return values.get(code);
+        }
+    }
+}
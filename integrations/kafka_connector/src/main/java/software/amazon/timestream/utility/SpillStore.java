@@ -0,0 +1,409 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValue;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.timestream.exception.TimestreamSinkConnectorError;
+import software.amazon.timestream.exception.TimestreamSinkConnectorException;
+import software.amazon.timestream.exception.TimestreamSinkErrorCodes;
+import software.amazon.timestream.schema.RecordBatch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Class that spills the WriteRecords batches still failing past the retry budget to append-only segment files
+ * in 'timestream.spill.directory', up to 'timestream.spill.bytes.max', to be replayed in order once Timestream
+ * takes writes again. Each batch is written as a length-prefixed entry of its common attributes, its records as sent
+ * and the Kafka coordinates of their sink records; segments are deleted once every batch in them is replayed.
+ * The segments are not synced to disk: the offsets of the spilled records are not committed until they are replayed,
+ * so Kafka delivers them again should the task stop beforehand. For the same reason, segments left over
+ * by a previous run of the task are deleted when the store is opened.
+ */
+public class SpillStore implements Closeable {
+
+    /**
+     * Logger object
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillStore.class);
+    /**
+     * File name suffix of the segments
+     */
+    private static final String SEGMENT_SUFFIX = ".spill";
+    /**
+     * Size in bytes past which the segment being appended to is rolled over
+     */
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+    /**
+     * Size in bytes of the length prefixing each entry
+     */
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    /**
+     * Directory of the segments
+     */
+    private final Path directory;
+    /**
+     * Maximum size in bytes of the batches spilled and not yet replayed
+     */
+    private final long maxBytes;
+    /**
+     * Segments in the order they are written, the last one being appended to
+     */
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    /**
+     * Size in bytes of the batches spilled and not yet replayed
+     */
+    private long bytes;
+    /**
+     * Sequence number of the next batch spilled
+     */
+    private long nextSequence;
+    /**
+     * Number of the next segment created
+     */
+    private long nextSegmentNumber;
+    /**
+     * Oldest batch not yet replayed, read from the first segment; null until read
+     */
+    private SpilledBatch head;
+
+    /**
+     * @param directory directory of the segments, created if it does not exist
+     * @param maxBytes maximum size in bytes of the batches spilled and not yet replayed
+     */
+    public SpillStore(final Path directory, final long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+                for (final Path leftover : leftovers) {
+                    LOGGER.info("INFO::SpillStore: deleting the segment [{}] left over by a previous run", leftover);
+                    Files.delete(leftover);
+                }
+            }
+        } catch (IOException e) {
+            throw new TimestreamSinkConnectorException(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.SPILL_DIRECTORY_ERROR,
+                    directory, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Method to spill the given batch after the ones already spilled
+     *
+     * @param batch batch failing past the retry budget
+     * @return true if the batch is spilled, false if the store is full or the batch cannot be written
+     */
+    public synchronized boolean append(final RecordBatch batch) {
+        final byte[] entry;
+        try {
+            entry = serialize(nextSequence, batch);
+        } catch (IOException e) {
+            // writing to a byte array does not fail
+            throw new IllegalStateException(e);
+        }
+        final int entryBytes = LENGTH_BYTES + entry.length;
+        if (bytes + entryBytes > maxBytes) {
+            return false;
+        }
+        try {
+            Segment segment = segments.peekLast();
+            if (segment == null || segment.size >= SEGMENT_BYTES) {
+                segment = new Segment(directory.resolve(String.format("%020d%s", nextSegmentNumber++, SEGMENT_SUFFIX)));
+                segments.addLast(segment);
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate(entryBytes);
+            buffer.putInt(entry.length).put(entry);
+            // cast for the Buffer method, as ByteBuffer overrides it from Java 9 on
+            ((Buffer) buffer).flip();
+            while (buffer.hasRemaining()) {
+                segment.channel.write(buffer, segment.size + buffer.position());
+            }
+            segment.size += entryBytes;
+        } catch (IOException e) {
+            LOGGER.error("ERROR::SpillStore::append: unable to spill a batch of [{}] records to [{}]", batch.size(), directory, e);
+            return false;
+        }
+        bytes += entryBytes;
+        nextSequence++;
+        return true;
+    }
+
+    /**
+     * @return the oldest batch not yet replayed, null if there is none
+     */
+    public synchronized SpilledBatch peek() {
+        if (head == null && !segments.isEmpty()) {
+            final Segment segment = segments.peekFirst();
+            try {
+                final ByteBuffer length = read(segment, segment.readPosition, LENGTH_BYTES);
+                final ByteBuffer entry = read(segment, segment.readPosition + LENGTH_BYTES, length.getInt());
+                head = deserialize(entry.array(), LENGTH_BYTES + entry.capacity());
+            } catch (IOException e) {
+                throw new TimestreamSinkConnectorException(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.SPILL_DIRECTORY_ERROR,
+                        segment.path, e.getMessage()), e);
+            }
+        }
+        return head;
+    }
+
+    /**
+     * Method to discard the oldest batch once it is replayed, deleting its segment if every batch in it is
+     */
+    public synchronized void remove() {
+        final SpilledBatch replayed = peek();
+        if (replayed == null) {
+            return;
+        }
+        head = null;
+        bytes -= replayed.bytes;
+        final Segment segment = segments.peekFirst();
+        segment.readPosition += replayed.bytes;
+        if (segment.readPosition >= segment.size) {
+            segments.pollFirst();
+            segment.delete();
+        }
+    }
+
+    /**
+     * @return true if every spilled batch is replayed
+     */
+    public synchronized boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    /**
+     * @return size in bytes of the batches spilled and not yet replayed
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return sequence number the next batch spilled is given
+     */
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Method to delete the segments; the batches not yet replayed are delivered again by Kafka
+     */
+    @Override
+    public synchronized void close() {
+        while (!segments.isEmpty()) {
+            segments.pollFirst().delete();
+        }
+        head = null;
+        bytes = 0;
+    }
+
+    /**
+     * @param segment segment to read from
+     * @param position position in the segment
+     * @param length number of bytes to read
+     * @return buffer of the bytes read, ready to be read
+     * @throws IOException if the segment cannot be read or ends before the given length
+     */
+    private static ByteBuffer read(final Segment segment, final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (segment.channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the segment " + segment.path);
+            }
+        }
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+
+    /**
+     * @param sequence sequence number of the batch
+     * @param batch batch to be spilled
+     * @return the entry of the batch, without its length
+     * @throws IOException never, the entry being written to a byte array
+     */
+    private static byte[] serialize(final long sequence, final RecordBatch batch) throws IOException {
+        final ByteArrayOutputStream entry = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(entry);
+        out.writeLong(sequence);
+        final Record commonAttributes = batch.getCommonAttributes();
+        writeString(out, commonAttributes.measureName());
+        writeString(out, commonAttributes.timeUnitAsString());
+        writeString(out, commonAttributes.measureValueTypeAsString());
+        out.writeInt(commonAttributes.dimensions().size());
+        for (final Dimension dimension : commonAttributes.dimensions()) {
+            writeString(out, dimension.name());
+            writeString(out, dimension.value());
+        }
+        final List<Record> records = batch.getRequestRecords();
+        out.writeInt(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            final Record record = records.get(i);
+            writeString(out, record.time());
+            out.writeBoolean(record.version() != null);
+            if (record.version() != null) {
+                out.writeLong(record.version());
+            }
+            out.writeInt(record.dimensions().size());
+            for (final Dimension dimension : record.dimensions()) {
+                writeString(out, dimension.name());
+                writeString(out, dimension.value());
+            }
+            out.writeInt(record.measureValues().size());
+            for (final MeasureValue measureValue : record.measureValues()) {
+                writeString(out, measureValue.name());
+                writeString(out, measureValue.value());
+                writeString(out, measureValue.typeAsString());
+            }
+            final SinkRecord sinkRecord = batch.getSourceRecord(i);
+            out.writeUTF(sinkRecord.topic());
+            out.writeInt(sinkRecord.kafkaPartition());
+            out.writeLong(sinkRecord.kafkaOffset());
+        }
+        out.flush();
+        return entry.toByteArray();
+    }
+
+    /**
+     * @param entry entry of a spilled batch, without its length
+     * @param bytes size in bytes of the entry along with its length
+     * @return the spilled batch, its sink records holding only their Kafka coordinates
+     * @throws IOException if the entry is truncated
+     */
+    private static SpilledBatch deserialize(final byte[] entry, final int bytes) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry));
+        final long sequence = in.readLong();
+        final Record.Builder commonAttributes = Record.builder()
+                .measureName(readString(in))
+                .timeUnit(readString(in))
+                .measureValueType(readString(in));
+        final int dimensionCount = in.readInt();
+        final List<Dimension> dimensions = new ArrayList<>(dimensionCount);
+        for (int i = 0; i < dimensionCount; i++) {
+            dimensions.add(Dimension.builder().name(readString(in)).value(readString(in)).build());
+        }
+        commonAttributes.dimensions(dimensions);
+        final int recordCount = in.readInt();
+        final List<Record> records = new ArrayList<>(recordCount);
+        final List<SinkRecord> sourceRecords = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            final Record.Builder record = Record.builder().time(readString(in));
+            if (in.readBoolean()) {
+                record.version(in.readLong());
+            }
+            final int recordDimensionCount = in.readInt();
+            if (recordDimensionCount > 0) {
+                final List<Dimension> recordDimensions = new ArrayList<>(recordDimensionCount);
+                for (int j = 0; j < recordDimensionCount; j++) {
+                    recordDimensions.add(Dimension.builder().name(readString(in)).value(readString(in)).build());
+                }
+                record.dimensions(recordDimensions);
+            }
+            final int measureValueCount = in.readInt();
+            final List<MeasureValue> measureValues = new ArrayList<>(measureValueCount);
+            for (int j = 0; j < measureValueCount; j++) {
+                measureValues.add(MeasureValue.builder().name(readString(in)).value(readString(in)).type(readString(in)).build());
+            }
+            records.add(record.measureValues(measureValues).build());
+            sourceRecords.add(new SinkRecord(in.readUTF(), in.readInt(), null, null, null, null, in.readLong()));
+        }
+        return new SpilledBatch(sequence, new RecordBatch(commonAttributes.build(), records, sourceRecords), bytes);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Batch read back from the store, along with its sequence number
+     */
+    public static final class SpilledBatch {
+        /**
+         * sequence number of the batch, in the order the batches are spilled
+         */
+        private final long sequence;
+        /**
+         * records of the batch along with their common attributes
+         */
+        private final RecordBatch batch;
+        /**
+         * size in bytes of the entry of the batch
+         */
+        private final int bytes;
+
+        private SpilledBatch(final long sequence, final RecordBatch batch, final int bytes) {
+            this.sequence = sequence;
+            this.batch = batch;
+            this.bytes = bytes;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public RecordBatch getBatch() {
+            return batch;
+        }
+    }
+
+    /**
+     * Segment file along with the position the batches are read from
+     */
+    private static final class Segment {
+        /**
+         * path of the segment file
+         */
+        private final Path path;
+        /**
+         * channel the batches are appended with and read back from
+         */
+        private final FileChannel channel;
+        /**
+         * size in bytes of the batches appended
+         */
+        private long size;
+        /**
+         * position of the oldest batch not yet replayed
+         */
+        private long readPosition;
+
+        private Segment(final Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        private void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                LOGGER.warn("WARN::SpillStore: unable to delete the segment [{}]", path, e);
+            }
+        }
+    }
+}
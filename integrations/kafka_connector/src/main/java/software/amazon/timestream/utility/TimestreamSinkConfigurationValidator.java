@@ -2,6 +2,8 @@ package software.amazon.timestream.utility;
 
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.sink.SinkConnector;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.slf4j.Logger;
@@ -107,6 +109,26 @@ public final class TimestreamSinkConfigurationValidator {
         validateTimestreamWriteBatchSize(config);
         validateTimestreamMaxConnections(config);
         validateTimestreamConnectionsRetry(config);
+        validateTimestreamMaxInflight(config);
+        validateTimestreamBatchMaxBytes(config);
+        validateInfluxDBBatchSize(config);
+        validateInfluxDBFlushInterval(config);
+        validateInfluxDBBufferLimit(config);
+        validateInfluxDBMaxRetries(config);
+        validateDLQBatchSize(config);
+        validateDLQLingerMs(config);
+        validateDLQCompressionType(config);
+        validateRecordVersioningMode(config);
+        validateSchemaRefreshInterval(config);
+        validateIngestionRetryBudget(config);
+        validateWriterLanes(config);
+        validateInternCacheMaxBytes(config);
+        validateSpillMaxBytes(config);
+        validateSpillReplayRate(config);
+        validateBackpressurePartitionMaxRecords(config);
+        validateBackpressureTaskMaxRecords(config);
+        validateBackpressureRetryMillis(config);
+        validateDedupWindowMillis(config);
         validateDLQConfigurations(config);
     }
 
@@ -174,6 +196,267 @@ public final class TimestreamSinkConfigurationValidator {
         }
     }
 
+    /**
+     * Method to validate if the given maximum in-flight WriteRecords requests is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateTimestreamMaxInflight(final TimestreamSinkConnectorConfig config) {
+        final int maxInflight = config.getMaxInflightRequests();
+        if (maxInflight < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_MAX_INFLIGHT,
+                    TimestreamSinkConstants.MAX_INFLIGHT));
+        }
+    }
+
+    /**
+     * Method to validate if the given maximum payload size of a WriteRecords request is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateTimestreamBatchMaxBytes(final TimestreamSinkConnectorConfig config) {
+        final int maxBytes = config.getTimestreamBatchMaxBytes();
+        if (maxBytes < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_BATCH_MAX_BYTES,
+                    TimestreamSinkConstants.BATCH_MAX_BYTES));
+        }
+    }
+
+    /**
+     * Method to validate if the given InfluxDB batch size is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateInfluxDBBatchSize(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getInfluxDBBatchSize();
+        if (value < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_INFLUXDB_BATCH_SIZE,
+                    TimestreamSinkConstants.INFLUXDB_BATCH_SIZE));
+        }
+    }
+
+    /**
+     * Method to validate if the given InfluxDB flush interval is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateInfluxDBFlushInterval(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getInfluxDBFlushInterval();
+        if (value < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_INFLUXDB_FLUSH_INTERVAL,
+                    TimestreamSinkConstants.INFLUXDB_FLUSH_INTERVAL));
+        }
+    }
+
+    /**
+     * Method to validate if the given InfluxDB buffer limit is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateInfluxDBBufferLimit(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getInfluxDBBufferLimit();
+        if (value < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_INFLUXDB_BUFFER_LIMIT,
+                    TimestreamSinkConstants.INFLUXDB_BUFFER_LIMIT));
+        }
+    }
+
+    /**
+     * Method to validate if the given number of InfluxDB write retries is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateInfluxDBMaxRetries(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getInfluxDBMaxRetries();
+        if (value < 0) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_INFLUXDB_MAX_RETRIES,
+                    TimestreamSinkConstants.INFLUXDB_MAX_RETRIES));
+        }
+    }
+
+    /**
+     * Method to validate if the given DLQ batch size is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateDLQBatchSize(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getDLQBatchSize();
+        if (value < 0) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_DLQ_BATCH_SIZE,
+                    TimestreamSinkConstants.DLQ_BATCH_SIZE));
+        }
+    }
+
+    /**
+     * Method to validate if the given DLQ linger time is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateDLQLingerMs(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getDLQLingerMs();
+        if (value < 0) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_DLQ_LINGER_MS,
+                    TimestreamSinkConstants.DLQ_LINGER_MS));
+        }
+    }
+
+    /**
+     * Method to validate if the given DLQ compression type is known to the Kafka producer
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateDLQCompressionType(final TimestreamSinkConnectorConfig config) {
+        try {
+            CompressionType.forName(config.getDLQCompressionType());
+        } catch (IllegalArgumentException e) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_DLQ_COMPRESSION_TYPE,
+                    TimestreamSinkConstants.DLQ_COMPRESSION_TYPE));
+        }
+    }
+
+    /**
+     * Method to validate if the given versioning mode is known
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateRecordVersioningMode(final TimestreamSinkConnectorConfig config) {
+        final String mode = config.getRecordVersioningMode();
+        if (!TimestreamSinkConstants.VERSIONING_MODE_WALLCLOCK.equals(mode) && !TimestreamSinkConstants.VERSIONING_MODE_OFFSET.equals(mode)) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_VERSIONING_MODE,
+                    TimestreamSinkConstants.VERSIONING_MODE));
+        }
+    }
+
+    /**
+     * Method to validate if the given schema refresh interval is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateSchemaRefreshInterval(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getSchemaRefreshInterval();
+        if (value < 0) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_SCHEMA_REFRESH_INTERVAL,
+                    TimestreamSinkConstants.SCHEMA_REFRESH_INTERVAL));
+        }
+    }
+
+    /**
+     * Method to validate if the given ingestion retry budget is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateIngestionRetryBudget(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getIngestionRetryBudget();
+        if (value < 0) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_INGESTION_RETRY_BUDGET,
+                    TimestreamSinkConstants.INGESTION_RETRY_BUDGET));
+        }
+    }
+
+    /**
+     * Method to validate if the given number of writer lanes is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateWriterLanes(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getWriterLanes();
+        if (value < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_WRITER_LANES,
+                    TimestreamSinkConstants.WRITER_LANES));
+        }
+    }
+
+    /**
+     * Method to validate if the given intern cache size is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateInternCacheMaxBytes(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getInternCacheMaxBytes();
+        if (value < 0) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_INTERN_CACHE_BYTES,
+                    TimestreamSinkConstants.INTERN_CACHE_BYTES));
+        }
+    }
+
+    /**
+     * Method to validate if the given spill size is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateSpillMaxBytes(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getSpillMaxBytes();
+        if (value < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_SPILL_BYTES,
+                    TimestreamSinkConstants.SPILL_BYTES));
+        }
+    }
+
+    /**
+     * Method to validate if the given spill replay rate is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateSpillReplayRate(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getSpillReplayRate();
+        if (value < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_SPILL_REPLAY_RATE,
+                    TimestreamSinkConstants.SPILL_REPLAY_RATE));
+        }
+    }
+
+    /**
+     * Method to validate if the given partition backpressure budget is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateBackpressurePartitionMaxRecords(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getBackpressurePartitionMaxRecords();
+        if (value < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_BACKPRESSURE_PARTITION_RECORDS,
+                    TimestreamSinkConstants.BACKPRESSURE_PARTITION_RECORDS));
+        }
+    }
+
+    /**
+     * Method to validate if the given task backpressure budget is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateBackpressureTaskMaxRecords(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getBackpressureTaskMaxRecords();
+        if (value < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_BACKPRESSURE_TASK_RECORDS,
+                    TimestreamSinkConstants.BACKPRESSURE_TASK_RECORDS));
+        }
+    }
+
+    /**
+     * Method to validate if the given backpressure retry time is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateBackpressureRetryMillis(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getBackpressureRetryMillis();
+        if (value < 1) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_BACKPRESSURE_RETRY_MS,
+                    TimestreamSinkConstants.BACKPRESSURE_RETRY_MS));
+        }
+    }
+
+    /**
+     * Method to validate if the given dedup window is valid
+     *
+     * @param config {@link TimestreamSinkConnectorConfig}
+     */
+    private static void validateDedupWindowMillis(final TimestreamSinkConnectorConfig config) {
+        final int value = config.getDedupWindowMillis();
+        if (value < 0) {
+            validationErrors.add(new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_DEDUP_WINDOW_MS,
+                    TimestreamSinkConstants.DEDUP_WINDOW_MS));
+        }
+    }
+
     /**
      * Method to validate if the required configuration exists
      *
@@ -195,10 +478,10 @@ public final class TimestreamSinkConfigurationValidator {
      * @return true, if the sink record is of valid type; otherwise false
      */
     public static boolean isSinkRecordValidType(final SinkRecord record) {
-        final boolean isValid = record.value() instanceof Map<?, ?>;
+        final boolean isValid = record.value() instanceof Map<?, ?> || record.value() instanceof Struct;
         if (!isValid) {
             LOGGER.error("ERROR::TimestreamSinkConfigurationValidator::isSinkRecordValidType: " +
-                    "Unable to convert the sink record, Check if you have configured the JsonConvertor in the worker configuration {}", record.value());
+                    "Unable to convert the sink record, Check if you have configured the JsonConvertor or a schema-aware converter (such as the AvroConverter) in the worker configuration {}", record.value());
         }
         return isValid;
     }
@@ -0,0 +1,451 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.KafkaMetricsContext;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.MetricsReporter;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.utils.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.timestream.TimestreamSinkConstants;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Class that measures the ingestion of a task and exposes the measurements as JMX MBeans, through
+ * the metrics library of the Kafka clients, under
+ * 'kafka.connect.timestream:type=sink-task-metrics,connector=[name],task=[id]' and
+ * 'kafka.connect.timestream:type=sink-task-partition-metrics,connector=[name],task=[id],topic=[topic],partition=[partition]'.
+ * Sensors are thread safe, hence measurements are recorded from the task thread
+ * as well as from the threads completing the requests.
+ */
+public class TimestreamSinkTaskMetrics implements AutoCloseable {
+
+    /**
+     * Logger object
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamSinkTaskMetrics.class);
+    /**
+     * JMX domain of the metrics
+     */
+    private static final String JMX_DOMAIN = "kafka.connect.timestream";
+    /**
+     * Metric group of the task
+     */
+    private static final String TASK_GROUP = "sink-task-metrics";
+    /**
+     * Metric group of the partitions of the task
+     */
+    private static final String PARTITION_GROUP = "sink-task-partition-metrics";
+    /**
+     * Size in bytes of the histograms behind the percentiles
+     */
+    private static final int HISTOGRAM_BYTES = 4096;
+    /**
+     * Upper bound of the WriteRecords latency histogram, in milliseconds
+     */
+    private static final double MAX_LATENCY_MILLIS = 30_000;
+    /**
+     * Kafka metrics registry of the task
+     */
+    private final Metrics metrics;
+    /**
+     * Tags identifying the task
+     */
+    private final Map<String, String> taskTags;
+    /**
+     * Sink records converted to Timestream for LiveAnalytics records
+     */
+    private final Sensor recordsConverted;
+    /**
+     * Records written to Timestream for LiveAnalytics
+     */
+    private final Sensor recordsWritten;
+    /**
+     * Records rejected by the conversion or by the ingestion targets
+     */
+    private final Sensor recordsRejected;
+    /**
+     * Rejected records sent to the DLQ topic
+     */
+    private final Sensor recordsReported;
+    /**
+     * Points written to Timestream for InfluxDB
+     */
+    private final Sensor pointsWritten;
+    /**
+     * Dimensions and measure names found in the intern cache
+     */
+    private final Sensor internCacheHits;
+    /**
+     * Dimensions and measure names not found in the intern cache
+     */
+    private final Sensor internCacheMisses;
+    /**
+     * Records redelivered and skipped as already written
+     */
+    private final Sensor recordsDeduplicated;
+    /**
+     * Records spilled to disk past the retry budget
+     */
+    private final Sensor recordsSpilled;
+    /**
+     * Spilled records replayed to Timestream for LiveAnalytics
+     */
+    private final Sensor recordsReplayed;
+    /**
+     * Number of records per WriteRecords request
+     */
+    private final Sensor batchSize;
+    /**
+     * Time in milliseconds of the WriteRecords requests
+     */
+    private final Sensor writeLatency;
+    /**
+     * WriteRecords requests failing with an error other than rejected records
+     */
+    private final Sensor writeErrors;
+    /**
+     * Time in milliseconds from handing a batch of points over to the InfluxDB client to the client writing it
+     */
+    private final Sensor influxDBWriteLatency;
+    /**
+     * Batches of points the InfluxDB client failed to write
+     */
+    private final Sensor influxDBWriteErrors;
+    /**
+     * Time in nanoseconds to convert a sink record
+     */
+    private final Sensor conversionTime;
+    /**
+     * Time in milliseconds of the puts
+     */
+    private final Sensor putTime;
+
+    /**
+     * @param connectorName name of the connector
+     * @param taskId number of the task within the connector
+     */
+    public TimestreamSinkTaskMetrics(final String connectorName, final String taskId) {
+        this.taskTags = new LinkedHashMap<>();
+        taskTags.put("connector", connectorName);
+        taskTags.put("task", taskId);
+        // the tags of the config keep the MBeans of the registry itself apart between the tasks of a worker
+        final MetricsReporter jmxReporter = new JmxReporter();
+        this.metrics = new Metrics(new MetricConfig().tags(taskTags), Collections.singletonList(jmxReporter), Time.SYSTEM,
+                new KafkaMetricsContext(JMX_DOMAIN));
+
+        recordsConverted = countSensor("records-converted", "sink records converted to Timestream for LiveAnalytics records");
+        recordsWritten = countSensor("records-written", "records written to Timestream for LiveAnalytics");
+        recordsRejected = countSensor("records-rejected", "records rejected by the conversion or by the ingestion targets");
+        recordsReported = countSensor("records-dlq", "rejected records sent to the DLQ topic");
+        pointsWritten = countSensor("influxdb-points-written", "points written to Timestream for InfluxDB");
+        internCacheHits = countSensor("intern-cache-hit", "dimensions and measure names found in the intern cache");
+        internCacheMisses = countSensor("intern-cache-miss", "dimensions and measure names not found in the intern cache");
+        recordsDeduplicated = countSensor("records-deduplicated", "records redelivered and skipped as already written");
+        recordsSpilled = countSensor("records-spilled", "records spilled to disk past the retry budget");
+        recordsReplayed = countSensor("records-replayed", "spilled records replayed to Timestream for LiveAnalytics");
+        writeErrors = countSensor("write-errors", "WriteRecords requests failing with an error other than rejected records");
+        influxDBWriteErrors = countSensor("influxdb-write-errors", "batches of points the InfluxDB client failed to write");
+
+        batchSize = metrics.sensor("batch-size");
+        batchSize.add(taskMetric("batch-size-avg", "average number of records in a WriteRecords request"), new Avg());
+        batchSize.add(taskMetric("batch-size-max", "maximum number of records in a WriteRecords request"), new Max());
+        batchSize.add(new Percentiles(HISTOGRAM_BYTES, TimestreamSinkConstants.DEFAULT_BATCHSIZE, Percentiles.BucketSizing.CONSTANT,
+                percentile("batch-size-p50", 50, "median number of records in a WriteRecords request"),
+                percentile("batch-size-p95", 95, "95th percentile of the number of records in a WriteRecords request"),
+                percentile("batch-size-p99", 99, "99th percentile of the number of records in a WriteRecords request")));
+
+        writeLatency = metrics.sensor("write-latency");
+        writeLatency.add(taskMetric("write-latency-avg", "average time in milliseconds of a WriteRecords request"), new Avg());
+        writeLatency.add(taskMetric("write-latency-max", "maximum time in milliseconds of a WriteRecords request"), new Max());
+        writeLatency.add(new Percentiles(HISTOGRAM_BYTES, MAX_LATENCY_MILLIS, Percentiles.BucketSizing.LINEAR,
+                percentile("write-latency-p50", 50, "median time in milliseconds of a WriteRecords request"),
+                percentile("write-latency-p95", 95, "95th percentile of the time in milliseconds of a WriteRecords request"),
+                percentile("write-latency-p99", 99, "99th percentile of the time in milliseconds of a WriteRecords request")));
+
+        influxDBWriteLatency = metrics.sensor("influxdb-write-latency");
+        influxDBWriteLatency.add(taskMetric("influxdb-write-latency-avg",
+                "average time in milliseconds from handing points over to the InfluxDB client to the client writing them"), new Avg());
+        influxDBWriteLatency.add(taskMetric("influxdb-write-latency-max",
+                "maximum time in milliseconds from handing points over to the InfluxDB client to the client writing them"), new Max());
+        influxDBWriteLatency.add(new Percentiles(HISTOGRAM_BYTES, MAX_LATENCY_MILLIS, Percentiles.BucketSizing.LINEAR,
+                percentile("influxdb-write-latency-p50", 50, "median time in milliseconds to write points to InfluxDB"),
+                percentile("influxdb-write-latency-p95", 95, "95th percentile of the time in milliseconds to write points to InfluxDB"),
+                percentile("influxdb-write-latency-p99", 99, "99th percentile of the time in milliseconds to write points to InfluxDB")));
+
+        conversionTime = metrics.sensor("conversion-time");
+        conversionTime.add(taskMetric("conversion-time-per-record-avg", "average time in nanoseconds to convert a sink record"), new Avg());
+        conversionTime.add(taskMetric("conversion-time-per-record-max", "maximum average time in nanoseconds to convert a sink record within a put"), new Max());
+
+        putTime = metrics.sensor("put-time");
+        putTime.add(taskMetric("put-time-avg", "average time in milliseconds of a put"), new Avg());
+        putTime.add(taskMetric("put-time-max", "maximum time in milliseconds of a put"), new Max());
+        LOGGER.info("TimestreamSinkTaskMetrics:: metrics registered under [{}:type={},{}]", JMX_DOMAIN, TASK_GROUP, taskTags);
+    }
+
+    /**
+     * @param count number of sink records converted
+     * @param elapsedNanos time in nanoseconds to convert them
+     */
+    public void recordConverted(final int count, final long elapsedNanos) {
+        if (count > 0) {
+            recordsConverted.record(count);
+            conversionTime.record((double) elapsedNanos / count);
+        }
+    }
+
+    /**
+     * @param count number of records written to Timestream for LiveAnalytics
+     */
+    public void recordWritten(final int count) {
+        recordsWritten.record(count);
+    }
+
+    /**
+     * @param count number of points written to Timestream for InfluxDB
+     */
+    public void recordPointsWritten(final int count) {
+        pointsWritten.record(count);
+    }
+
+    /**
+     * @param count number of records rejected
+     */
+    public void recordRejected(final int count) {
+        recordsRejected.record(count);
+    }
+
+    /**
+     * Method to count a rejected record sent to the DLQ topic
+     */
+    public void recordReported() {
+        recordsReported.record();
+    }
+
+    /**
+     * Method to count a dimension or measure name found in the intern cache
+     */
+    public void recordInternCacheHit() {
+        internCacheHits.record();
+    }
+
+    /**
+     * Method to count a dimension or measure name not found in the intern cache
+     */
+    public void recordInternCacheMiss() {
+        internCacheMisses.record();
+    }
+
+    /**
+     * @param count number of records redelivered and skipped as already written
+     */
+    public void recordDeduplicated(final int count) {
+        recordsDeduplicated.record(count);
+    }
+
+    /**
+     * @param count number of records spilled to disk
+     */
+    public void recordSpilled(final int count) {
+        recordsSpilled.record(count);
+    }
+
+    /**
+     * @param count number of spilled records replayed
+     */
+    public void recordReplayed(final int count) {
+        recordsReplayed.record(count);
+    }
+
+    /**
+     * @param size number of records of a WriteRecords request
+     * @param latencyMillis time in milliseconds of the request
+     */
+    public void recordBatch(final int size, final long latencyMillis) {
+        batchSize.record(size);
+        writeLatency.record(latencyMillis);
+    }
+
+    /**
+     * Method to count a WriteRecords request failing with an error other than rejected records
+     */
+    public void recordWriteError() {
+        writeErrors.record();
+    }
+
+    /**
+     * @param latencyMillis time in milliseconds from handing the oldest point of a batch over to the InfluxDB client
+     * to the client writing the batch
+     */
+    public void recordInfluxDBWrite(final long latencyMillis) {
+        influxDBWriteLatency.record(latencyMillis);
+    }
+
+    /**
+     * Method to count a batch of points the InfluxDB client failed to write
+     */
+    public void recordInfluxDBWriteError() {
+        influxDBWriteErrors.record();
+    }
+
+    /**
+     * @param elapsedMillis time in milliseconds of a put
+     */
+    public void recordPut(final long elapsedMillis) {
+        putTime.record(elapsedMillis);
+    }
+
+    /**
+     * Method to expose the requests in flight and the number of requests allowed in flight
+     *
+     * @param inflight supplies the number of WriteRecords requests in flight
+     * @param concurrencyLimit supplies the number of WriteRecords requests allowed in flight
+     */
+    public void addInflightGauges(final IntSupplier inflight, final IntSupplier concurrencyLimit) {
+        metrics.addMetric(taskMetric("inflight-requests", "number of WriteRecords requests in flight"),
+                (Gauge<Integer>) (config, now) -> inflight.getAsInt());
+        metrics.addMetric(taskMetric("inflight-limit", "number of WriteRecords requests allowed in flight"),
+                (Gauge<Integer>) (config, now) -> concurrencyLimit.getAsInt());
+    }
+
+    /**
+     * Method to expose the size of the intern cache
+     *
+     * @param entries supplies the number of interned dimensions and measure names
+     * @param bytes supplies the estimated size in bytes of the interned dimensions and measure names
+     */
+    public void addInternCacheGauges(final IntSupplier entries, final LongSupplier bytes) {
+        metrics.addMetric(taskMetric("intern-cache-entries", "number of interned dimensions and measure names"),
+                (Gauge<Integer>) (config, now) -> entries.getAsInt());
+        metrics.addMetric(taskMetric("intern-cache-bytes", "estimated size in bytes of the interned dimensions and measure names"),
+                (Gauge<Long>) (config, now) -> bytes.getAsLong());
+    }
+
+    /**
+     * Method to expose the size of the spilled batches
+     *
+     * @param bytes supplies the size in bytes of the batches spilled and not yet replayed
+     */
+    public void addSpillGauge(final LongSupplier bytes) {
+        metrics.addMetric(taskMetric("spill-bytes", "size in bytes of the batches spilled and not yet replayed"),
+                (Gauge<Long>) (config, now) -> bytes.getAsLong());
+    }
+
+    /**
+     * Method to expose the partitions paused by the task
+     *
+     * @param pausedPartitions supplies the number of partitions paused for their deferred records or for backpressure
+     */
+    public void addPausedPartitionsGauge(final IntSupplier pausedPartitions) {
+        metrics.addMetric(taskMetric("paused-partitions", "number of partitions paused for their deferred records or for backpressure"),
+                (Gauge<Integer>) (config, now) -> pausedPartitions.getAsInt());
+    }
+
+    /**
+     * Method to expose the AWS clients shared by the tasks of the worker along with their ingestion connections
+     *
+     * @param references supplies the number of tasks sharing the AWS clients of the task
+     * @param leased supplies the number of ingestion connections in use
+     * @param available supplies the number of ingestion connections that can be leased without opening a new one
+     * @param pending supplies the number of WriteRecords requests waiting for an ingestion connection
+     */
+    public void addClientGauges(final IntSupplier references, final IntSupplier leased, final IntSupplier available, final IntSupplier pending) {
+        metrics.addMetric(taskMetric("client-references", "number of tasks sharing the AWS clients of the task"),
+                (Gauge<Integer>) (config, now) -> references.getAsInt());
+        metrics.addMetric(taskMetric("connections-leased", "number of ingestion connections in use, shared by the tasks of the AWS clients"),
+                (Gauge<Integer>) (config, now) -> leased.getAsInt());
+        metrics.addMetric(taskMetric("connections-available", "number of ingestion connections that can be leased without opening a new one"),
+                (Gauge<Integer>) (config, now) -> available.getAsInt());
+        metrics.addMetric(taskMetric("connection-acquires-pending", "number of WriteRecords requests waiting for an ingestion connection"),
+                (Gauge<Integer>) (config, now) -> pending.getAsInt());
+    }
+
+    /**
+     * Method to expose the offset lag of the partitions assigned to the task
+     *
+     * @param partitions partitions assigned to the task
+     * @param offsetLag supplies the number of offsets delivered past the committable offset of a partition
+     */
+    public void addPartitions(final Collection<TopicPartition> partitions, final ToLongFunction<TopicPartition> offsetLag) {
+        for (final TopicPartition partition : partitions) {
+            final MetricName name = partitionMetric(partition);
+            if (metrics.metric(name) == null) {
+                metrics.addMetric(name, (Gauge<Long>) (config, now) -> offsetLag.applyAsLong(partition));
+            }
+        }
+    }
+
+    /**
+     * Method to remove the metrics of the partitions revoked from the task
+     *
+     * @param partitions partitions that are no longer assigned to the task
+     */
+    public void removePartitions(final Collection<TopicPartition> partitions) {
+        for (final TopicPartition partition : partitions) {
+            metrics.removeMetric(partitionMetric(partition));
+        }
+    }
+
+    /**
+     * Method to unregister the MBeans of the task
+     */
+    @Override
+    public void close() {
+        metrics.close();
+    }
+
+    /**
+     * @param name metric name prefix
+     * @param description what is counted
+     * @return sensor with the total and the per second rate of the count
+     */
+    private Sensor countSensor(final String name, final String description) {
+        final Sensor sensor = metrics.sensor(name);
+        sensor.add(taskMetric(name + "-total", "total number of " + description), new CumulativeSum());
+        sensor.add(taskMetric(name + "-rate", "number of " + description + " per second"), new Rate());
+        return sensor;
+    }
+
+    /**
+     * @return name of a percentile of the task
+     */
+    private Percentile percentile(final String name, final double percentile, final String description) {
+        return new Percentile(taskMetric(name, description), percentile);
+    }
+
+    /**
+     * @return name of a metric of the task
+     */
+    private MetricName taskMetric(final String name, final String description) {
+        return metrics.metricName(name, TASK_GROUP, description, taskTags);
+    }
+
+    /**
+     * @return name of the offset lag metric of the partition
+     */
+    private MetricName partitionMetric(final TopicPartition partition) {
+        final Map<String, String> tags = new LinkedHashMap<>(taskTags);
+        tags.put("topic", partition.topic());
+        tags.put("partition", String.valueOf(partition.partition()));
+        return metrics.metricName("offset-lag", PARTITION_GROUP,
+                "number of offsets delivered to the task that are not yet committable", tags);
+    }
+}
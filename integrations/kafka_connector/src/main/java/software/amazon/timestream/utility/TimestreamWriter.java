@@ -1,10 +1,11 @@
 package software.amazon.timestream.utility;
 
-import com.influxdb.client.WriteApiBlocking;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.timestreamwrite.TimestreamWriteAsyncClient;
 import software.amazon.awssdk.services.timestreamwrite.model.Record;
 import software.amazon.awssdk.services.timestreamwrite.model.*;
 import software.amazon.timestream.TimestreamSinkConnectorConfig;
@@ -12,21 +13,24 @@ import software.amazon.timestream.TimestreamSinkConstants;
 import software.amazon.timestream.exception.TimestreamSinkConnectorError;
 import software.amazon.timestream.exception.TimestreamSinkConnectorException;
 import software.amazon.timestream.exception.TimestreamSinkErrorCodes;
+import software.amazon.timestream.schema.RecordBatch;
 import software.amazon.timestream.schema.RejectedRecord;
 
-import java.time.Instant;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-
-// Influx:
-import com.influxdb.annotations.Column;
-import com.influxdb.annotations.Measurement;
-import com.influxdb.client.InfluxDBClient;
-import com.influxdb.client.InfluxDBClientFactory;
-import com.influxdb.client.WriteApi;
-import com.influxdb.client.domain.WritePrecision;
-import com.influxdb.client.write.Point;
-import com.influxdb.query.FluxTable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class that receives the non-empty Kafka messages as {@link SinkRecord}
@@ -47,39 +51,88 @@ public class TimestreamWriter {
      */
     private final String tableName;
     /**
-     * Version will be added to record if enabled
+     * Acknowledges the records that are written, once every ingestion target they are fanned out to is done with them
+     */
+    private final FanOutAcknowledger acknowledger;
+    /**
+     * Connector config
+     */
+    private final TimestreamSinkConnectorConfig config;
+    /**
+     * Timestream table schema definition compiled for converting the sink records,
+     * swapped by {@link #updateSchemaDefinition(DataModel)} and read once per write
+     */
+    private volatile CompiledMappingPlan mappingPlan;
+    /**
+     * Cuts the converted records into WriteRecords batches
      */
-    private final boolean enableVersioning;
+    private final RecordBatchBuilder batchBuilder;
     /**
-     * Empty dimension value is skipped if enabled
+     * Paces the WriteRecords requests in flight, backing off when Timestream throttles them
      */
-    private final boolean skipDimension;
+    private final IngestionRateController rateController;
     /**
-     * Empty measure value is skipped if enabled
+     * Time in milliseconds within which a batch that failed with a retryable error is sent again
      */
-    private final boolean skipMeasure;
+    private final long retryBudgetMillis;
     /**
-     * Offset tracker per partition
+     * Batches still failing with a retryable error past the retry budget, sent again on the next write
      */
-    private final Map<String, Set<Long>> recordOffsets = new ConcurrentHashMap<>();
+    private final List<RecordBatch> deferredBatches = new ArrayList<>();
     /**
-     * Offset tracker set
+     * Ingestion metrics of the task
      */
-    private final Set<Long> recordOffsetsList = new HashSet<>();
+    private final TimestreamSinkTaskMetrics metrics;
     /**
-     * Timestream table schema definition
+     * Interns the measure names and dimensions of the records across the writes
      */
-    private final DataModel schemaDefinition;
+    private final InternCache internCache;
+    /**
+     * Number of lanes the records are converted and sent on
+     */
+    private final int laneCount;
+    /**
+     * Threads of the lanes, null if the records are converted and sent on the calling thread
+     */
+    private final ExecutorService lanePool;
+    /**
+     * Lanes of the partitions written to
+     */
+    private final PartitionLanes partitionLanes;
+    /**
+     * Batches failing past the retry budget spilled to disk, null if 'timestream.spill.directory' is not set
+     */
+    private final SpillStore spillStore;
+    /**
+     * Thread replaying the spilled batches, null if they are not spilled
+     */
+    private final ScheduledExecutorService spillDrainer;
+    /**
+     * Timestream Write Async Client the spilled batches are replayed with, the one of the latest write
+     */
+    private volatile TimestreamWriteAsyncClient replayClient;
+    /**
+     * Records rejected while replayed, returned by the next write to be reported
+     */
+    private final Queue<RejectedRecord> replayRejectedRecords = new ConcurrentLinkedQueue<>();
+    /**
+     * Sequence number of the next batch spilled when each partition was revoked from the task;
+     * records of the partition spilled before are dropped on replay
+     */
+    private final Map<TopicPartition, Long> spillRevocations = new ConcurrentHashMap<>();
 
     //// INFLUXDB
     private final Boolean liveAnalyticsEnabled;
     private final Boolean influxDBEnabled;
-    private final String influxDBBucket;
-    private final String influxDBUrl;
-    private final String influxDBToken;
-    private final String influxDBOrg;
-    private static InfluxDBClient influxDBClient = null;
-    private static WriteApiBlocking influxWriteApi = null;
+    /**
+     * InfluxDB writer stage, null if InfluxDB is not enabled
+     */
+    private final InfluxDBWriter influxDBWriter;
+    /**
+     * Thread handing the records over to InfluxDB while the batches are sent to LiveAnalytics,
+     * null unless both targets are enabled
+     */
+    private final ExecutorService influxDBExecutor;
 
     ////////////////////////
 
@@ -87,480 +140,741 @@ public class TimestreamWriter {
      *
      * @param schemaDefinition table schema
      * @param config connector config
+     * @param offsetTracker offset tracker of the task
+     * @param metrics ingestion metrics of the task
      */
-    public TimestreamWriter(final DataModel schemaDefinition, final TimestreamSinkConnectorConfig config) {
+    public TimestreamWriter(final DataModel schemaDefinition, final TimestreamSinkConnectorConfig config, final OffsetTracker offsetTracker,
+                            final TimestreamSinkTaskMetrics metrics) {
 
         this.databaseName = config.getDatabaseName();
         this.tableName = config.getTableName();
-        this.enableVersioning = config.isTimestreamRecordAutoVersioning();
-        this.skipDimension = config.isSkipEmptyDimensions();
-        this.skipMeasure = config.isSkipEmptyMeasures();
-        this.schemaDefinition = schemaDefinition;
+        this.config = config;
+        this.mappingPlan = CompiledMappingPlan.compile(schemaDefinition, config);
+        this.batchBuilder = new RecordBatchBuilder(config);
+        this.rateController = new IngestionRateController(config.getMaxInflightRequests());
+        this.retryBudgetMillis = config.getIngestionRetryBudget();
+        this.metrics = metrics;
+        metrics.addInflightGauges(rateController::getInflight, rateController::getConcurrencyLimit);
+        this.internCache = new InternCache(config.getInternCacheMaxBytes(), metrics);
+        this.laneCount = config.getWriterLanes();
+        this.partitionLanes = new PartitionLanes(laneCount);
+        this.lanePool = laneCount > 1 ? Executors.newFixedThreadPool(laneCount, new ThreadFactory() {
+            private final AtomicInteger laneNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "timestream-writer-lane-" + laneNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }) : null;
+        if (config.getSpillDirectory().isEmpty()) {
+            this.spillStore = null;
+            this.spillDrainer = null;
+        } else {
+            final Map<String, String> originals = config.originalsStrings();
+            this.spillStore = new SpillStore(Paths.get(config.getSpillDirectory(), originals.get(TimestreamSinkConstants.CONNECTOR_NAME)
+                    + "-" + originals.getOrDefault(TimestreamSinkConstants.TASK_ID, "0")), config.getSpillMaxBytes());
+            metrics.addSpillGauge(spillStore::getBytes);
+            this.spillDrainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "timestream-spill-drainer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long replayIntervalMillis = Math.max(1, 1000 / config.getSpillReplayRate());
+            spillDrainer.scheduleWithFixedDelay(this::replaySpilledBatch, replayIntervalMillis, replayIntervalMillis, TimeUnit.MILLISECONDS);
+        }
 
         // InfluxDB
         this.liveAnalyticsEnabled = config.isLiveAnalyticsEnabled();
         this.influxDBEnabled = config.isInfluxDBEnabled();
-        this.influxDBBucket = config.getInfluxDBBucket();
-        this.influxDBUrl = config.getInfluxDBUrl();
-        this.influxDBToken = config.getInfluxDBToken();
-        this.influxDBOrg = config.getInfluxDBOrg();
+        this.acknowledger = new FanOutAcknowledger(offsetTracker,
+                (this.liveAnalyticsEnabled ? 1 : 0) + (this.influxDBEnabled ? 1 : 0));
 
         if (!this.influxDBEnabled && !this.liveAnalyticsEnabled) {
             LOGGER.error("ERROR::TimeStreamWriter:: initialization failed on : [{}]", TimestreamSinkErrorCodes.NO_INGESTION_TARGET);
 
         }
 
-        if (this.influxDBEnabled) {
-            this.influxDBClient = getInfluxDBClient(
-                    this.influxDBUrl, this.influxDBToken, this.influxDBBucket, this.influxDBOrg
-            );
-            if (this.influxDBClient != null) {
-                LOGGER.info("INFO::TimeStreamWriter:: influxDB client successfull connected: [{}] [{}] [{}]",
-                        this.influxDBUrl, this.influxDBBucket, influxDBOrg
-                );
-                this.influxWriteApi = getInfluxDBWriteApi(this.influxDBClient);
-                if (this.influxWriteApi == null) {
-                    LOGGER.error("ERROR::TimeStreamWriter:: influxDB writer API successfull connected: [{}] [{}] [{}]",
-                            this.influxDBUrl, this.influxDBBucket, influxDBOrg
-                    );
-                }
-                else {
-                    LOGGER.info("INFO::TimeStreamWriter:: influxDB writer API successfull connected: [{}] [{}] [{}]",
-                            this.influxDBUrl, this.influxDBBucket, influxDBOrg
-                    );
-                }
-            }
-            else {
-                LOGGER.error("ERROR::TimeStreamWriter:: getInfluxDBClient failed on : [{}]", this.influxDBUrl);
-            }
-        }
+        this.influxDBWriter = this.influxDBEnabled ? new InfluxDBWriter(config, acknowledger, metrics) : null;
+        this.influxDBExecutor = this.influxDBEnabled && this.liveAnalyticsEnabled ? Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "timestream-influxdb-writer");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
 
         /////////////////////////
     }
 
     /**
      * Writes incoming sinkRecords as Records in Timestream table in batches
-     * @link TimestreamSinkConstants.DEFAULT_BATCHSIZE
+     * cut by the {@link RecordBatchBuilder}, and as Points in InfluxDB when enabled.
+     * When both targets are enabled, the records are fanned out to both at once:
+     * once converted, the points are handed to the {@link InfluxDBWriter}, bounded by 'timestream.influxdb.buffer.limit',
+     * on a thread of their own while the batches are sent through {@link TimestreamWriteAsyncClient} keeping up to
+     * 'timestream.ingestion.max.inflight' requests in flight, so that neither target holds the other back;
+     * this method returns once every batch is complete and every point is handed over.
+     * With 'timestream.writer.lanes' above 1, the records are converted and sent on that many lanes in parallel,
+     * each partition on a single lane; their offsets are committed once every lane has written them.
+     * Batches failing with a retryable error are sent again, paced by the {@link IngestionRateController},
+     * until 'timestream.ingestion.retry.budget.ms' is spent; the ones still failing are deferred to the next write,
+     * and their partitions are returned by {@link #getDeferredPartitions()} to be paused meanwhile.
+     * With 'timestream.spill.directory' set, such batches are rather spilled to the {@link SpillStore}, up to
+     * 'timestream.spill.bytes.max', and replayed in the background at 'timestream.spill.replay.rate' batches per second,
+     * their partitions being consumed meanwhile; records rejected on replay are returned by the next write.
+     * Records are acknowledged through the {@link FanOutAcknowledger} once every target has written them;
+     * the rejected records are returned to be acknowledged by {@link #acknowledgeReported(List)} once they are reported.
      * @param sinkRecords List of incoming records from the source Kafka topic
      */
     public List<RejectedRecord> writeRecords(final AWSServiceClientFactory clientFactory, final Collection<SinkRecord> sinkRecords) {
         LOGGER.trace("Begin::TimeStreamWriter::writeRecords");
         final List<RejectedRecord> rejectedRecords = new ArrayList<>();
-        final List<Record> records = getTimestreamRecordsFromSinkRecords(sinkRecords, rejectedRecords);
-        if (!records.isEmpty()) {
-            final int batchSize = records.size() / TimestreamSinkConstants.DEFAULT_BATCHSIZE + 1;
-            List<Record> batchRecords = null;
-            for (int currentBatch = 0; currentBatch < batchSize; currentBatch ++) {
-                if (!this.influxDBEnabled && !this.liveAnalyticsEnabled) {
-                    // no target specified, cannot write, send records to DLQ
-                    batchRecords = getBatchRecords(records, currentBatch);
-                    for (Record record : batchRecords) {
-                        RejectedRecord rejectedRecord = new RejectedRecord(record,TimestreamSinkErrorCodes.NO_INGESTION_TARGET);
-                        rejectedRecords.add(rejectedRecord);
-                    }
-                    LOGGER.error("ERROR::TimeStreamWriter::writeRecords: Records have been rejected in the batch [{}] , due to [{}]", currentBatch, TimestreamSinkErrorCodes.NO_INGESTION_TARGET);
-                }
-                else {
-                    try {
-                        batchRecords = getBatchRecords(records, currentBatch);
-                        if (batchRecords != null && !batchRecords.isEmpty()) {
-                            if (this.liveAnalyticsEnabled) {
-
-                                final WriteRecordsRequest writeRequest = WriteRecordsRequest.builder()
-                                        .databaseName(databaseName)
-                                        .tableName(tableName)
-                                        .records(batchRecords)
-                                        .build();
-                                final WriteRecordsResponse writeResponse = clientFactory.getTimestreamClient().writeRecords(writeRequest);
-                                LOGGER.debug("DEBUG::TimeStreamWriter::writeRecords: batch size [{}], status [{}] ", batchRecords.size(), writeResponse.sdkHttpResponse().statusCode());
-                            } else {
-                                LOGGER.debug("DEBUG::TimeStreamWriter::writeRecords: LiveAnalytics disabled");
-                            }
-                            if (this.influxDBEnabled && influxWriteApi != null) {
-                                LOGGER.info("INFO::TimeStreamWriter::writeRecords: InfluxDB writing {} records", batchRecords.size());
-
-                                final ArrayList<Point> pointList = convertLiveAnalyticsRecord(batchRecords);
-                                // enhance here
-                                influxWriteApi.writePoints(pointList);
-
-                                /* // writing one record at time only
-                                convertAndWriteLiveAnalyticsRecord(batchRecords);
-                                */
-                            } else {
-                                LOGGER.debug("DEBUG::TimeStreamWriter::writeRecords: InfluxDB disabled");
-                            }
-                        } else {
-                            LOGGER.debug("DEBUG::TimeStreamWriter::writeRecords: Batch ingestion is complete for the records of size [{}] ", records.size());
-                        }
-                    } catch (RejectedRecordsException e) {
-                        LOGGER.error("ERROR::TimeStreamWriter::writeRecords: Few records have been rejected in the batch [{}] , due to [{}]", currentBatch, e.getLocalizedMessage());
-                        if (e.hasRejectedRecords()) {
-                            rejectedRecords.addAll(getRejectedTimestreamRecords(e.rejectedRecords(), batchRecords));
-                        }
-                    } catch (SdkException e) {
-                        LOGGER.error("ERROR::TimeStreamWriter::writeRecords", e);
-                    }
-                }
+        for (RejectedRecord rejectedRecord = replayRejectedRecords.poll(); rejectedRecord != null; rejectedRecord = replayRejectedRecords.poll()) {
+            rejectedRecords.add(rejectedRecord);
+        }
+        final List<SinkRecord> validRecords = getValidSinkRecords(sinkRecords, rejectedRecords);
+        if (validRecords.isEmpty() && deferredBatches.isEmpty()) {
+            return rejectedRecords;
+        }
+        if (!this.influxDBEnabled && !this.liveAnalyticsEnabled) {
+            // no target specified, cannot write, send records to DLQ
+            for (final SinkRecord sinkRecord : validRecords) {
+                rejectedRecords.add(new RejectedRecord(sinkRecord, TimestreamSinkErrorCodes.NO_INGESTION_TARGET));
             }
+            LOGGER.error("ERROR::TimeStreamWriter::writeRecords: [{}] records have been rejected, due to [{}]", validRecords.size(), TimestreamSinkErrorCodes.NO_INGESTION_TARGET);
+            return rejectedRecords;
+        }
+        final long start = System.nanoTime();
+        // the schema definition stays the same for the whole write
+        final CompiledMappingPlan plan = this.mappingPlan;
+        final TimestreamWriteAsyncClient asyncClient = clientFactory.getTimestreamAsyncClient();
+        replayClient = asyncClient;
+        final List<InflightBatch> inflightBatches = new ArrayList<>();
+        final List<CompletableFuture<List<RejectedRecord>>> influxDBWrites = new ArrayList<>();
+        if (this.liveAnalyticsEnabled) {
+            final List<Lane> lanes = lanePool == null
+                    ? Collections.singletonList(writeLane(plan, asyncClient, validRecords))
+                    : writeLanes(plan, asyncClient, validRecords);
+            for (final Lane lane : lanes) {
+                inflightBatches.addAll(lane.inflightBatches);
+                rejectedRecords.addAll(lane.rejectedRecords);
+                influxDBWrites.add(lane.influxDBWrite);
+            }
+            // deferred batches are sent once more, and deferred again if they still fail;
+            // their partitions are paused, hence they are not overtaken by later records
+            final List<RecordBatch> batches = new ArrayList<>(deferredBatches);
+            deferredBatches.clear();
+            for (final RecordBatch batch : batches) {
+                inflightBatches.add(submitBatch(asyncClient, inflightBatches.size(), batch, System.currentTimeMillis()));
+            }
+        } else {
+            LOGGER.debug("DEBUG::TimeStreamWriter::writeRecords: LiveAnalytics disabled");
+            influxDBWrites.add(writeInfluxDB(plan, validRecords));
+        }
+        if (!inflightBatches.isEmpty()) {
+            rejectedRecords.addAll(awaitInflightBatches(asyncClient, inflightBatches));
+            LOGGER.debug("DEBUG::TimeStreamWriter::writeRecords: LiveAnalytics wrote [{}] batches in [{}] ms",
+                    inflightBatches.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+        if (influxDBWriter != null) {
+            for (final CompletableFuture<List<RejectedRecord>> influxDBWrite : influxDBWrites) {
+                rejectedRecords.addAll(join(influxDBWrite));
+            }
+            LOGGER.debug("DEBUG::TimeStreamWriter::writeRecords: InfluxDB handed the records over in [{}] ms",
+                    (System.nanoTime() - start) / 1_000_000);
+        } else {
+            LOGGER.debug("DEBUG::TimeStreamWriter::writeRecords: InfluxDB disabled");
         }
         return rejectedRecords;
     }
 
     /**
-     * @param sinkRecord Incoming record from the source Kafka topic
-     * @param columnName Timestream column name to be validated
-     * @return true if the value in context is empty otherwise false
+     * Method to acknowledge the rejected records once they are reported,
+     * on behalf of the ingestion target that rejected them
+     *
+     * @param rejectedRecords records returned by {@link #writeRecords(AWSServiceClientFactory, Collection)}
      */
-    private boolean isSinkRecordValueEmpty(final SinkRecord sinkRecord, final String columnName) {
-        final Map record = (Map) sinkRecord.value();
-        final Object recordValue = record.get(columnName);
-        return recordValue == null || recordValue.equals("") || recordValue.equals("\"\"");
+    public void acknowledgeReported(final List<RejectedRecord> rejectedRecords) {
+        for (final RejectedRecord rejectedRecord : rejectedRecords) {
+            acknowledgeReported(rejectedRecord);
+        }
     }
 
     /**
-     * Get the formatted value for the given target data type
-     * @return formatted string value
-     */
-    private String getFormattedValue(final String targetDatatype, final String sinkRecordValue) {
-        String formatted;
-        switch (MeasureValueType.valueOf(targetDatatype)) {
-            case TIMESTAMP:
-                final Date timestamp = Date.from(Instant.parse(sinkRecordValue));
-                formatted = String.valueOf(timestamp.getTime());
-                break;
-            case DOUBLE:
-                formatted = String.format("%.10f", Double.parseDouble(sinkRecordValue));
-                break;
-            default:
-                formatted = sinkRecordValue;
-                break;
-        }
-        return formatted;
+     * Method to acknowledge a rejected record once it is reported,
+     * on behalf of the ingestion target that rejected it
+     *
+     * @param rejectedRecord record returned by {@link #writeRecords(AWSServiceClientFactory, Collection)}
+     */
+    public void acknowledgeReported(final RejectedRecord rejectedRecord) {
+        if (rejectedRecord.getSourceRecord() != null) {
+            acknowledger.acknowledge(rejectedRecord.getSourceRecord());
+        }
     }
 
     /**
-     * Method to get the list of Timestream MeasureValues
-     * whole record would be skipped if skipEmptyMeasures is set to false
+     * @return partitions of the records in the batches deferred past the retry budget
+     */
+    public Set<TopicPartition> getDeferredPartitions() {
+        final Set<TopicPartition> partitions = new HashSet<>();
+        for (final RecordBatch batch : deferredBatches) {
+            for (int i = 0; i < batch.size(); i++) {
+                final SinkRecord sinkRecord = batch.getSourceRecord(i);
+                partitions.add(new TopicPartition(sinkRecord.topic(), sinkRecord.kafkaPartition()));
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Method to discard the records fanned out, deferred and spilled for the partitions revoked from the task
      *
-     * @param sinkRecord Incoming record from the source Kafka topic
-     * @return List of MeasureValues
-     */
-    private List<MeasureValue> getMultiMeasureValuesAsList(final SinkRecord sinkRecord) {
-
-        final List<MeasureValue> measureValueList = new ArrayList<>();
-        final Map record = (Map) sinkRecord.value();
-        for (final MultiMeasureAttributeMapping mapping : schemaDefinition.multiMeasureMappings().multiMeasureAttributeMappings()) {
-            if (isSinkRecordValueEmpty(sinkRecord, mapping.sourceColumn())) {
-                if (skipMeasure) {
-                    LOGGER.debug("DEBUG::getMultiMeasureValuesAsList: Empty valued multi-measure [{}] is allowed to be skipped for the record [{}] ",
-                            mapping.sourceColumn(),
-                            sinkRecord);
-                    continue;
-                } else {
-                    final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_MEASURE_VALUE, mapping.sourceColumn());
-                    throw new TimestreamSinkConnectorException(error);
+     * @param partitions partitions that are no longer assigned to the task
+     */
+    public void remove(final Collection<TopicPartition> partitions) {
+        acknowledger.remove(partitions);
+        partitionLanes.remove(partitions);
+        if (spillStore != null) {
+            final long nextSequence = spillStore.getNextSequence();
+            for (final TopicPartition partition : partitions) {
+                spillRevocations.put(partition, nextSequence);
+            }
+        }
+        final ListIterator<RecordBatch> iterator = deferredBatches.listIterator();
+        while (iterator.hasNext()) {
+            final RecordBatch batch = iterator.next().retain(sinkRecord ->
+                    !partitions.contains(new TopicPartition(sinkRecord.topic(), sinkRecord.kafkaPartition())));
+            if (batch.size() == 0) {
+                iterator.remove();
+            } else {
+                iterator.set(batch);
+            }
+        }
+    }
+
+    /**
+     * Method to compile the given schema definition and apply it from the next write on.
+     * The schema definition is compiled on the calling thread, off the write path.
+     *
+     * @param schemaDefinition changed table schema
+     */
+    public void updateSchemaDefinition(final DataModel schemaDefinition) {
+        this.mappingPlan = CompiledMappingPlan.compile(schemaDefinition, config);
+    }
+
+    /**
+     * Method to write the records buffered for InfluxDB, release the InfluxDB client, stop the lanes
+     * and discard the spilled batches, which are delivered again by Kafka as their offsets are not committed
+     */
+    public void close() {
+        if (influxDBExecutor != null) {
+            influxDBExecutor.shutdownNow();
+        }
+        if (influxDBWriter != null) {
+            influxDBWriter.close();
+        }
+        if (lanePool != null) {
+            lanePool.shutdownNow();
+        }
+        if (spillDrainer != null) {
+            spillDrainer.shutdownNow();
+            spillStore.close();
+        }
+    }
+
+    /**
+     * Method to convert the given records and send their batches on a single lane
+     *
+     * @param plan schema definition compiled for the write
+     * @param asyncClient Timestream Write Async Client object
+     * @param sinkRecords records of the lane
+     * @return the records converted and rejected on the lane, along with its batches in flight
+     */
+    private Lane writeLane(final CompiledMappingPlan plan, final TimestreamWriteAsyncClient asyncClient, final List<SinkRecord> sinkRecords) {
+        final List<RejectedRecord> failedRecords = new ArrayList<>();
+        final long conversionStart = System.nanoTime();
+        final RecordColumns columns = getRecordColumnsFromSinkRecords(plan, sinkRecords, failedRecords);
+        metrics.recordConverted(columns.size(), System.nanoTime() - conversionStart);
+        final Lane lane = new Lane(columns.getSourceRecords(), failedRecords);
+        // records rejected by the conversion are already reported, the others are handed to every target
+        acknowledger.fanOut(lane.sourceRecords);
+        // handed to InfluxDB before any batch waits on the rate controller
+        lane.influxDBWrite = writeInfluxDB(plan, lane.sourceRecords);
+        final long retryDeadline = System.currentTimeMillis() + retryBudgetMillis;
+        for (final RecordBatch batch : batchBuilder.build(columns)) {
+            lane.inflightBatches.add(submitBatch(asyncClient, lane.inflightBatches.size(), batch, retryDeadline));
+        }
+        return lane;
+    }
+
+    /**
+     * Method to spread the given records over the lanes by their partition, keeping the records of a partition
+     * in order on the same lane, and to convert and send them on the lanes in parallel.
+     * Partitions are assigned to the lanes by {@link PartitionLanes}.
+     * If a lane fails, the batches in flight on the other lanes are awaited before the failure is thrown;
+     * their records are not acknowledged, hence delivered again.
+     *
+     * @param plan schema definition compiled for the write
+     * @param asyncClient Timestream Write Async Client object
+     * @param sinkRecords records of the write
+     * @return the records converted and rejected per lane, along with the batches in flight
+     */
+    private List<Lane> writeLanes(final CompiledMappingPlan plan, final TimestreamWriteAsyncClient asyncClient, final List<SinkRecord> sinkRecords) {
+        final List<List<SinkRecord>> laneRecords = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            laneRecords.add(new ArrayList<>(sinkRecords.size() / laneCount + 1));
+        }
+        for (final SinkRecord sinkRecord : sinkRecords) {
+            laneRecords.get(partitionLanes.getLane(new TopicPartition(sinkRecord.topic(), sinkRecord.kafkaPartition()))).add(sinkRecord);
+        }
+        final List<Future<Lane>> pendingLanes = new ArrayList<>(laneCount);
+        for (final List<SinkRecord> records : laneRecords) {
+            if (!records.isEmpty()) {
+                pendingLanes.add(lanePool.submit(() -> writeLane(plan, asyncClient, records)));
+            }
+        }
+        final List<Lane> lanes = new ArrayList<>(pendingLanes.size());
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (final Future<Lane> pendingLane : pendingLanes) {
+            while (true) {
+                try {
+                    lanes.add(pendingLane.get());
+                    break;
+                } catch (InterruptedException e) {
+                    // the lane is awaited anyway, as its batches are in flight
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    LOGGER.error("ERROR::TimeStreamWriter::writeLanes", e.getCause());
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                    break;
                 }
             }
-            measureValueList.add(getMeasureValue(record, mapping));
         }
-        return measureValueList;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure == null && !interrupted) {
+            return lanes;
+        }
+        awaitCompletion(lanes);
+        if (failure == null) {
+            throw new TimestreamSinkConnectorException("Interrupted while waiting for the writer lanes");
+        }
+        // lanes throw no checked exceptions
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw (RuntimeException) failure;
+    }
+
+    /**
+     * Method to wait for the batches in flight and the InfluxDB hand-over of the given lanes to complete,
+     * whatever their outcome, leaving their records unacknowledged
+     *
+     * @param lanes lanes of a failed write
+     */
+    private static void awaitCompletion(final List<Lane> lanes) {
+        for (final Lane lane : lanes) {
+            for (final InflightBatch inflightBatch : lane.inflightBatches) {
+                inflightBatch.response.handle((writeResponse, throwable) -> null).join();
+            }
+            lane.influxDBWrite.handle((rejectedRecords, throwable) -> null).join();
+        }
     }
 
     /**
-     * Method to get the measure value from the sink record for the given mapping
-     * @param record - sink record as map
-     * @param mapping - multi-measure mapping definition
-     * @return
+     * Method to hand the given records over to InfluxDB, on the InfluxDB thread when LiveAnalytics is enabled too
+     *
+     * @param plan schema definition compiled for the write
+     * @param sinkRecords records converted for LiveAnalytics, or all the valid records when it is disabled
+     * @return the records InfluxDB rejected, none if it is disabled
      */
-    private MeasureValue getMeasureValue(final Map record, final MultiMeasureAttributeMapping mapping){
-        final String sinkRecordValue = String.valueOf(record.get(mapping.sourceColumn())).replace("\"", "");
-        return MeasureValue.builder().name(mapping.targetMultiMeasureAttributeName())
-                .value(getFormattedValue(mapping.measureValueTypeAsString(), sinkRecordValue)).type(mapping.measureValueTypeAsString()).build();
+    private CompletableFuture<List<RejectedRecord>> writeInfluxDB(final CompiledMappingPlan plan, final List<SinkRecord> sinkRecords) {
+        if (influxDBWriter == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        if (influxDBExecutor == null) {
+            return CompletableFuture.completedFuture(influxDBWriter.write(plan, sinkRecords));
+        }
+        return CompletableFuture.supplyAsync(() -> influxDBWriter.write(plan, sinkRecords), influxDBExecutor);
     }
 
     /**
-     * Gets list of Timestream Dimensions from the source record
-     * Note: If the source record does not contain a value for a dimension
-     * @param sinkRecord Incoming record from the source Kafka topic
-     * @return List of Dimensions to be included in Timestream table record
-     */
-    private List<Dimension> getDimensionsAsList(final SinkRecord sinkRecord) {
-        final List<Dimension> dimensions = new ArrayList<>();
-        final Map record = (Map) sinkRecord.value();
-        for (final DimensionMapping dimensionMapping : schemaDefinition.dimensionMappings()) {
-            if (isSinkRecordValueEmpty(sinkRecord, dimensionMapping.sourceColumn())) {
-                if (skipDimension) {
-                    LOGGER.debug("DEBUG::getDimensionsAsList: Empty valued dimension [{}] is allowed to be skipped for the record [{}] ",
-                            dimensionMapping.sourceColumn(), sinkRecord);
-                    continue;
+     * @param influxDBWrite records handed over to InfluxDB
+     * @return the records InfluxDB rejected
+     */
+    private static List<RejectedRecord> join(final CompletableFuture<List<RejectedRecord>> influxDBWrite) {
+        try {
+            return influxDBWrite.join();
+        } catch (CompletionException e) {
+            // the InfluxDB writer throws no checked exceptions
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        } catch (CancellationException e) {
+            throw new TimestreamSinkConnectorException("InfluxDB writer stopped while handing the records over");
+        }
+    }
+
+    /**
+     * Method to send the given batch to Timestream asynchronously,
+     * blocking while the {@link IngestionRateController} holds off the requests
+     *
+     * @param asyncClient Timestream Write Async Client object
+     * @param batchNumber batch number within the current write
+     * @param batch records of the batch along with their common attributes
+     * @param retryDeadline time in milliseconds until which the batch is sent again on a retryable error
+     * @return the batch along with its pending WriteRecords response
+     */
+    private InflightBatch submitBatch(final TimestreamWriteAsyncClient asyncClient, final int batchNumber,
+                                      final RecordBatch batch, final long retryDeadline) {
+        final WriteRecordsRequest writeRequest = WriteRecordsRequest.builder()
+                .databaseName(databaseName)
+                .tableName(tableName)
+                .commonAttributes(batch.getCommonAttributes())
+                .records(batch.getRequestRecords())
+                .build();
+        rateController.acquire();
+        final long sentAt = System.nanoTime();
+        CompletableFuture<WriteRecordsResponse> response;
+        try {
+            response = asyncClient.writeRecords(writeRequest);
+        } catch (RuntimeException e) {
+            // failures before sending are handled along with the ones of the response, releasing the slot acquired
+            response = new CompletableFuture<>();
+            response.completeExceptionally(e);
+        }
+        response = response.whenComplete((writeResponse, throwable) -> {
+            final Throwable cause = throwable == null ? null : getCause(throwable);
+            rateController.release(cause);
+            metrics.recordBatch(batch.size(), (System.nanoTime() - sentAt) / 1_000_000);
+            if (cause != null && !(cause instanceof RejectedRecordsException)) {
+                metrics.recordWriteError();
+            }
+        });
+        return new InflightBatch(batchNumber, batch, retryDeadline, response);
+    }
+
+    /**
+     * Method to wait for all the in-flight batches to complete and gather the rejected records.
+     * Batches failing with a retryable error are sent again, after the backoff of the {@link IngestionRateController},
+     * until their retry deadline, then spilled to disk or else deferred to the next write; records of a batch failing
+     * with any other SDK error are rejected. Batches failing otherwise are spilled or deferred right away.
+     *
+     * @param asyncClient Timestream Write Async Client object
+     * @param inflightBatches batches sent to Timestream
+     * @return List of {@link RejectedRecord} across all the batches
+     */
+    private List<RejectedRecord> awaitInflightBatches(final TimestreamWriteAsyncClient asyncClient, final List<InflightBatch> inflightBatches) {
+        final List<RejectedRecord> rejectedRecords = new ArrayList<>();
+        final Deque<InflightBatch> pendingBatches = new ArrayDeque<>(inflightBatches);
+        while (!pendingBatches.isEmpty()) {
+            final InflightBatch inflightBatch = pendingBatches.pollFirst();
+            final RecordBatch batch = inflightBatch.batch;
+            try {
+                final WriteRecordsResponse writeResponse = inflightBatch.response.join();
+                LOGGER.debug("DEBUG::TimeStreamWriter::writeRecords: batch size [{}], status [{}] ", batch.size(), writeResponse.sdkHttpResponse().statusCode());
+                acknowledge(batch);
+                metrics.recordWritten(batch.size());
+            } catch (CompletionException | CancellationException e) {
+                final Throwable cause = getCause(e);
+                if (cause instanceof RejectedRecordsException) {
+                    final RejectedRecordsException re = (RejectedRecordsException) cause;
+                    LOGGER.error("ERROR::TimeStreamWriter::writeRecords: Few records have been rejected in the batch [{}] , due to [{}]", inflightBatch.batchNumber, re.getLocalizedMessage());
+                    if (re.hasRejectedRecords()) {
+                        final List<RejectedRecord> batchRejectedRecords = getRejectedTimestreamRecords(re.rejectedRecords(), batch);
+                        rejectedRecords.addAll(batchRejectedRecords);
+                        acknowledgeWritten(batch, batchRejectedRecords);
+                        metrics.recordWritten(batch.size() - batchRejectedRecords.size());
+                    }
+                } else if (IngestionRateController.isRetryable(cause)) {
+                    if (System.currentTimeMillis() < inflightBatch.retryDeadline) {
+                        // sent once the backoff of the rate controller after the failure is over
+                        LOGGER.warn("WARN::TimeStreamWriter::writeRecords: batch [{}] failed, sending it again, due to [{}]", inflightBatch.batchNumber, cause.getMessage());
+                        pendingBatches.addLast(submitBatch(asyncClient, inflightBatch.batchNumber, batch, inflightBatch.retryDeadline));
+                    } else {
+                        spillOrDefer(inflightBatch, "failed past the retry budget", cause);
+                    }
+                } else if (cause instanceof SdkException) {
+                    LOGGER.error("ERROR::TimeStreamWriter::writeRecords: batch [{}] has been rejected", inflightBatch.batchNumber, cause);
+                    for (int i = 0; i < batch.size(); i++) {
+                        rejectedRecords.add(new RejectedRecord(batch.getRecord(i), batch.getSourceRecord(i), cause.getMessage()));
+                    }
                 } else {
-                    final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_DIMENSION_VALUE,
-                            dimensionMapping.sourceColumn());
-                    throw new TimestreamSinkConnectorException(error);
+                    // not known to be caused by the records, hence kept rather than rejected
+                    spillOrDefer(inflightBatch, "failed", cause);
                 }
             }
-            final String dimensionValue = String.valueOf(record.get(dimensionMapping.sourceColumn()));
-            dimensions.add(Dimension.builder().name(dimensionMapping.destinationColumn()).value(dimensionValue).build());
         }
-        return dimensions;
+        return rejectedRecords;
     }
 
     /**
-     * Gets TimestreamRecord for given list of dimensions and measureValueList
+     * Method to spill the given batch to disk or else defer it to the next write
      *
-     * @param sinkRecord    Incoming record from the source Kafka topic
-     * @param dimensions    Dimensions to be included in a Timestream record
-     * @param measureValues MeasureValues to be included in a Timestream record
-     * @return Record to be ingested to a Timestream table
-     */
-    private Record getTimestreamRecord(final SinkRecord sinkRecord, final List<Dimension> dimensions, final List<MeasureValue> measureValues) {
-
-        final Map record = (Map) sinkRecord.value();
-        final String timeVal = String.valueOf(record.get(schemaDefinition.timeColumn()));
-
-        // Handle timestamps which are not in EPOCH Format.
-        final String timeUnit = TimestreamSinkConstants.TIMEUNIT_DATETIME.equals(schemaDefinition.timeUnitAsString()) ? TimeUnit.MILLISECONDS.name() : schemaDefinition.timeUnitAsString();
-        final String timeValue = TimestreamSinkConstants.TIMEUNIT_DATETIME.equals(schemaDefinition.timeUnitAsString()) ?
-                String.valueOf(Date.from(Instant.parse(timeVal.replace("\"", ""))).getTime()) : timeVal;
-        final String measureColumnName = getMeasureName(record);
-        final Record.Builder recordBuilder = Record
-                .builder()
-                .measureName(measureColumnName)
-                .dimensions(dimensions)
-                .time(timeValue)
-                .timeUnit(timeUnit)
-                .measureValues(measureValues)
-                .measureValueType(MeasureValueType.MULTI);
-        if (enableVersioning) {
-            recordBuilder.version(System.currentTimeMillis());
-        }
-        return recordBuilder.build();
+     * @param inflightBatch batch failing to be written
+     * @param failure description of the failure, for logging
+     * @param cause failure of the batch
+     */
+    private void spillOrDefer(final InflightBatch inflightBatch, final String failure, final Throwable cause) {
+        if (spill(inflightBatch.batch)) {
+            LOGGER.error("ERROR::TimeStreamWriter::writeRecords: batch [{}] {}, spilled to disk, due to [{}]", inflightBatch.batchNumber, failure, cause.getMessage(), cause);
+        } else {
+            LOGGER.error("ERROR::TimeStreamWriter::writeRecords: batch [{}] {}, deferred to the next write, due to [{}]", inflightBatch.batchNumber, failure, cause.getMessage(), cause);
+            deferredBatches.add(inflightBatch.batch);
+        }
     }
 
     /**
-     * @param record sink record as Map
-     * @return the measure name
+     * Method to spill the given batch to disk, its records then being acknowledged once replayed
+     *
+     * @param batch batch failing past the retry budget
+     * @return true if the batch is spilled, false if spilling is not enabled or the spill store is full
      */
-    private String getMeasureName (final Map record) {
-        final boolean isMeasureGiven = schemaDefinition.measureNameColumn() != null && !schemaDefinition.measureNameColumn().isEmpty();
-        return isMeasureGiven ?
-                schemaDefinition.measureNameColumn().charAt(0) == '$'
-                    ? String.valueOf(record.get(schemaDefinition.measureNameColumn().substring(1)))
-                    : schemaDefinition.measureNameColumn() : TimestreamSinkConstants.DEFAULT_MEASURE;
+    private boolean spill(final RecordBatch batch) {
+        if (spillStore == null) {
+            return false;
+        }
+        final List<SinkRecord> sinkRecords = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            sinkRecords.add(batch.getSourceRecord(i));
+        }
+        // handed over before appending, as the batch may be replayed right away
+        acknowledger.spill(sinkRecords);
+        if (!spillStore.append(batch)) {
+            return false;
+        }
+        metrics.recordSpilled(batch.size());
+        return true;
     }
 
     /**
-     * Method to convert valid SinkRecord to Timestream Record
-     *
-     * @param sinkRecords List of SinkRecords from the Kafka topic
-     * @return list of converted Timestream table records
-     * @see SinkRecord
-     * @see Record
+     * Method to replay the oldest spilled batch, run by the spill drainer. The batch is kept in the store
+     * to be replayed again on any failure but a non-retryable SDK error, which rejects its records;
+     * records of the partitions revoked since it was spilled are dropped.
      */
-    private List<Record> getTimestreamRecordsFromSinkRecords(final Collection<SinkRecord> sinkRecords, final List<RejectedRecord> failedRecords) {
+    private void replaySpilledBatch() {
+        final TimestreamWriteAsyncClient asyncClient = replayClient;
+        if (asyncClient == null) {
+            return;
+        }
+        try {
+            final SpillStore.SpilledBatch spilledBatch = spillStore.peek();
+            if (spilledBatch == null) {
+                return;
+            }
+            final RecordBatch batch = spilledBatch.getBatch().retain(sinkRecord -> {
+                final Long revokedAt = spillRevocations.get(new TopicPartition(sinkRecord.topic(), sinkRecord.kafkaPartition()));
+                return revokedAt == null || spilledBatch.getSequence() >= revokedAt;
+            });
+            if (batch.size() > 0) {
+                final InflightBatch inflightBatch = submitBatch(asyncClient, 0, batch, 0);
+                try {
+                    inflightBatch.response.join();
+                    acknowledge(batch);
+                    metrics.recordWritten(batch.size());
+                    metrics.recordReplayed(batch.size());
+                } catch (CompletionException | CancellationException e) {
+                    final Throwable cause = getCause(e);
+                    if (cause instanceof RejectedRecordsException) {
+                        final RejectedRecordsException re = (RejectedRecordsException) cause;
+                        LOGGER.error("ERROR::TimeStreamWriter::replaySpilledBatch: Few records have been rejected in the spilled batch [{}], due to [{}]", spilledBatch.getSequence(), re.getLocalizedMessage());
+                        if (re.hasRejectedRecords()) {
+                            final List<RejectedRecord> batchRejectedRecords = getRejectedTimestreamRecords(re.rejectedRecords(), batch);
+                            replayRejectedRecords.addAll(batchRejectedRecords);
+                            acknowledgeWritten(batch, batchRejectedRecords);
+                            metrics.recordWritten(batch.size() - batchRejectedRecords.size());
+                            metrics.recordReplayed(batch.size() - batchRejectedRecords.size());
+                        }
+                    } else if (cause instanceof SdkException && !IngestionRateController.isRetryable(cause)) {
+                        LOGGER.error("ERROR::TimeStreamWriter::replaySpilledBatch: spilled batch [{}] has been rejected", spilledBatch.getSequence(), cause);
+                        for (int i = 0; i < batch.size(); i++) {
+                            replayRejectedRecords.add(new RejectedRecord(batch.getRecord(i), batch.getSourceRecord(i), cause.getMessage()));
+                        }
+                    } else {
+                        // kept at the head of the store, replayed on the next run of the drainer
+                        LOGGER.warn("WARN::TimeStreamWriter::replaySpilledBatch: spilled batch [{}] failed, replaying it again, due to [{}]", spilledBatch.getSequence(), cause.getMessage(), cause);
+                        return;
+                    }
+                }
+            }
+            spillStore.remove();
+        } catch (RuntimeException e) {
+            // the drainer stops on an uncaught exception, the batch is replayed again on the next run
+            LOGGER.error("ERROR::TimeStreamWriter::replaySpilledBatch: unable to replay the spilled batches", e);
+        }
+    }
 
-        LOGGER.trace("Begin::TimeStreamWriter::getTimestreamRecordsFromSinkRecords");
-        final List<Record> records = new ArrayList<>();
+    /**
+     * @param throwable failure of a WriteRecords request
+     * @return the failure without the wrapping of the completion stage
+     */
+    private static Throwable getCause(final Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
 
+    /**
+     * Method to get the SinkRecords of valid type
+     *
+     * @param sinkRecords List of SinkRecords from the Kafka topic
+     * @param failedRecords filled with the SinkRecords that are not of valid type
+     * @return list of SinkRecords of valid type
+     */
+    private List<SinkRecord> getValidSinkRecords(final Collection<SinkRecord> sinkRecords, final List<RejectedRecord> failedRecords) {
+        final List<SinkRecord> validRecords = new ArrayList<>(sinkRecords.size());
         for (final SinkRecord sinkRecord : sinkRecords) {
-            LOGGER.trace("TimeStreamWriter::getTimestreamRecordsFromSinkRecords {} , {}", sinkRecord.value().getClass().getName(), sinkRecord.value());
             if (!TimestreamSinkConfigurationValidator.isSinkRecordValidType(sinkRecord)) {
                 final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_SINK_RECORD,
                         sinkRecord);
                 failedRecords.add(new RejectedRecord(sinkRecord,error.getErrorCode()));
                 continue;
             }
-            recordOffsetDetails(sinkRecord);
-            final List<Dimension> dimensions;
-            try {
-                dimensions = getDimensionsAsList(sinkRecord);
-            } catch(TimestreamSinkConnectorException te) {
-                LOGGER.error("ERROR::getDimensionsAsList: {}", te.getMessage());
-                failedRecords.add(new RejectedRecord(sinkRecord,te.getMessage()));
-                continue;
-            }
+            validRecords.add(sinkRecord);
+        }
+        return validRecords;
+    }
+
+    /**
+     * Method to convert valid SinkRecords into the columns of Timestream records, in one pass;
+     * the Timestream records are built from the columns when their batch is sent
+     *
+     * @param plan schema definition compiled for the write
+     * @param sinkRecords List of SinkRecords from the Kafka topic
+     * @param failedRecords filled with the SinkRecords that could not be converted
+     * @return columns of the converted records, along with the SinkRecord each row originates from
+     * @see SinkRecord
+     * @see RecordColumns
+     */
+    private RecordColumns getRecordColumnsFromSinkRecords(final CompiledMappingPlan plan, final Collection<SinkRecord> sinkRecords,
+                                                          final List<RejectedRecord> failedRecords) {
 
-            final List<MeasureValue> measureValueList;
+        LOGGER.trace("Begin::TimeStreamWriter::getRecordColumnsFromSinkRecords");
+        final RecordColumns columns = plan.newColumns(sinkRecords.size(), internCache);
+
+        for (final SinkRecord sinkRecord : sinkRecords) {
             try {
-                measureValueList = getMultiMeasureValuesAsList(sinkRecord);
+                plan.addRow(columns, sinkRecord);
             } catch(TimestreamSinkConnectorException te) {
-                LOGGER.error("ERROR::getMultiMeasureValuesAsList: {}", te.getMessage());
+                LOGGER.error("ERROR::TimeStreamWriter::getRecordColumnsFromSinkRecords: {}", te.getMessage());
                 failedRecords.add(new RejectedRecord(sinkRecord,te.getMessage()));
-                continue;
             }
-            records.add(getTimestreamRecord(sinkRecord, dimensions, measureValueList));
         }
-        LOGGER.trace("Complete::TimeStreamWriter::getTimestreamRecordsFromSinkRecords: BEFORE INGESTION: " +
-                "Record's size: {}, FailedRecords Size: {}", records.size(), failedRecords.size());
-        return records;
+        LOGGER.trace("Complete::TimeStreamWriter::getRecordColumnsFromSinkRecords: BEFORE INGESTION: " +
+                "Record's size: {}, FailedRecords Size: {}", columns.size(), failedRecords.size());
+        return columns;
     }
 
     /**
      * Method to get the rejected records while ingesting into Timestream table
      *
      * @param rejectedRecords records that are rejected while ingestion
-     * @param allRecords all records that are attempted for ingestion
+     * @param batch batch of the records that are attempted for ingestion
      * @return List of {@link RejectedRecord}
      */
-    private List<RejectedRecord> getRejectedTimestreamRecords(final List<software.amazon.awssdk.services.timestreamwrite.model.RejectedRecord> rejectedRecords, final List<Record> allRecords) {
+    private List<RejectedRecord> getRejectedTimestreamRecords(final List<software.amazon.awssdk.services.timestreamwrite.model.RejectedRecord> rejectedRecords,
+                                                              final RecordBatch batch) {
         final List<RejectedRecord> rejectedTSRecords = new ArrayList<>(rejectedRecords.size());
         for (final software.amazon.awssdk.services.timestreamwrite.model.RejectedRecord rejectedRecord : rejectedRecords) {
-            final Record record = allRecords.get(rejectedRecord.recordIndex());
+            final Record record = batch.getRecord(rejectedRecord.recordIndex());
             LOGGER.error("ERROR::TimeStreamWriter::getRejectedTimestreamRecords: Rejected record Index: [{}], reason: [{}] and the record is [{}]",
                     rejectedRecord.recordIndex(), rejectedRecord.reason(), record);
-            rejectedTSRecords.add(new RejectedRecord(record, rejectedRecord.reason()));
+            rejectedTSRecords.add(new RejectedRecord(record, batch.getSourceRecord(rejectedRecord.recordIndex()), rejectedRecord.reason()));
         }
         return rejectedTSRecords;
     }
 
 
     /**
-     * Method to record the offset per Kafka topic partition
+     * Method to acknowledge the records of the given batch as written
      *
-     * @param sinkRecord Incoming record from the source Kafka topic
+     * @param batch batch that is written to the ingestion target
      */
-    private void recordOffsetDetails(final SinkRecord sinkRecord) {
-
-        final String topicName = sinkRecord.topic();
-        final long offset = sinkRecord.kafkaOffset();
-        final String partition = topicName + "-" + sinkRecord.kafkaPartition();
-        if (recordOffsets.containsKey(partition)) {
-            final Set<Long> recordOffset = recordOffsets.get(partition);
-            recordOffset.add(offset);
-            recordOffsets.put(partition, recordOffset);
-        } else {
-            recordOffsetsList.add(offset);
-            recordOffsets.put(partition, recordOffsetsList);
+    private void acknowledge(final RecordBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            acknowledger.acknowledge(batch.getSourceRecord(i));
         }
     }
 
     /**
-     * Method to get records for the given batch number
-     * @see TimestreamSinkConstants
+     * Method to acknowledge the records of a partially rejected batch,
+     * except the rejected ones that are acknowledged once they are reported
      *
-     * @param allRecords - all the records to be ingested to Timestream table
-     * @param currentBatch - current batch number
-     * @return batch records
-     */
-    private List<Record> getBatchRecords(final List<Record> allRecords, final int currentBatch) {
-
-        List<Record> batch = null;
-        if (allRecords != null) {
-            final int total = allRecords.size();
-            LOGGER.trace("Begin::TimeStreamWriter::getBatchRecords: allRecords Size [{}]", total);
-            final int fromIndex = currentBatch * TimestreamSinkConstants.DEFAULT_BATCHSIZE;
-            int toIndex = fromIndex + TimestreamSinkConstants.DEFAULT_BATCHSIZE;
-            if (fromIndex <= total) {
-                if (toIndex > total) {
-                    toIndex = total;
-                }
-                try {
-                    batch = allRecords.subList(fromIndex, toIndex);
-                    LOGGER.trace("Complete::TimeStreamWriter::getBatchRecords: batch Size [{}]", batch.size());
-                } catch (IndexOutOfBoundsException ie) {
-                    LOGGER.error("ERROR::TimeStreamWriter::getBatchRecords: all records Size: [{}], from: [{}], to: [{}]", allRecords.size(), fromIndex, toIndex);
-                }
-            }
+     * @param batch partially rejected batch
+     * @param batchRejectedRecords records of the batch that are rejected
+     */
+    private void acknowledgeWritten(final RecordBatch batch, final List<RejectedRecord> batchRejectedRecords) {
+        final Set<SinkRecord> rejected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final RejectedRecord rejectedRecord : batchRejectedRecords) {
+            rejected.add(rejectedRecord.getSourceRecord());
         }
-        return batch;
-    }
-
-    // InfluxDB enhancements
-
-    public static InfluxDBClient getInfluxDBClient(String url, String token, String bucket, String org) {
-        if (influxDBClient != null) return influxDBClient;
-
-        InfluxDBClient client = InfluxDBClientFactory.create(
-                url,
-                token.toCharArray(), org, bucket);
-
-        influxDBClient = client;
-
-        return influxDBClient;
-    }
-
-    public static WriteApiBlocking getInfluxDBWriteApi(InfluxDBClient client) {
-        if (influxWriteApi==null) {
-            WriteApiBlocking writeApi = influxDBClient.getWriteApiBlocking();
-            influxWriteApi = writeApi;
+        for (int i = 0; i < batch.size(); i++) {
+            final SinkRecord sinkRecord = batch.getSourceRecord(i);
+            if (!rejected.contains(sinkRecord)) {
+                acknowledger.acknowledge(sinkRecord);
+            }
         }
-        return influxWriteApi;
     }
 
-    private ArrayList<Point> convertLiveAnalyticsRecord(List<Record> recordList){
-        ArrayList<Point> pointList = new ArrayList<Point>();
-        for (final Record record : recordList) {
-            // LOGGER.trace("Sink Record: {} ", record);
-
-            List<Dimension> dimensions = record.dimensions();
-            List<MeasureValue> measureValues = record.measureValues();
-            String measureName = record.measureName();
-            Long time = Long.parseLong(record.time());
-
-            Point point = Point
-                    .measurement(measureName)
-                            .time(time, WritePrecision.MS);
-
-            for (Dimension dimension : dimensions) {
-                String key = dimension.name();
-                String value = dimension.value();
-                point = point.addTag(key, value);
-            }
-
-            for (MeasureValue measureValue : measureValues) {
-                String key = measureValue.name();
-                String value = measureValue.value();
-                MeasureValueType type = measureValue.type();
-
-                switch (type) {
-                    case TIMESTAMP: // not existent in InfluxDB, use Long for now
-                    case BIGINT:
-                        Long value_l = Long.parseLong(value);
-                        point = point.addField(key, value_l);
-                        break;
-                    case DOUBLE:
-                        Double value_d = Double.parseDouble(value);
-                        point = point.addField(key,value_d);
-                        break;
-                    case BOOLEAN:
-                        Boolean valued_b = Boolean.parseBoolean(value);
-                        point = point.addField(key, valued_b);
-                    case VARCHAR:
-                        point = point.addField(key, value);
-                        break;
-                }
-            }
-
-            /* // STATIC from InfluxDB example code
-            Point point = Point
-                    .measurement("mem")
-                    .addTag("host", "host1")
-                    .addField("used_percent", 23.43234543)
-                    .time(1714180752000L, WritePrecision.MS);
-            // replace above with data from SinkRecord
-            */
-
-            LOGGER.info("Complete::TimeStreamWriter::convertLiveAnalyticsRecord: line protocol [{}]", point.toLineProtocol());
-
-            pointList.add(point);
+    /**
+     * Records converted and rejected on a lane, along with the batches it sent
+     */
+    private static final class Lane {
+        /**
+         * sink records converted on the lane
+         */
+        private final List<SinkRecord> sourceRecords;
+        /**
+         * sink records the lane could not convert
+         */
+        private final List<RejectedRecord> rejectedRecords;
+        /**
+         * batches the lane sent
+         */
+        private final List<InflightBatch> inflightBatches = new ArrayList<>();
+        /**
+         * records of the lane handed over to InfluxDB
+         */
+        private CompletableFuture<List<RejectedRecord>> influxDBWrite;
+
+        private Lane(final List<SinkRecord> sourceRecords, final List<RejectedRecord> rejectedRecords) {
+            this.sourceRecords = sourceRecords;
+            this.rejectedRecords = rejectedRecords;
         }
-        return pointList;
     }
 
-    private void convertAndWriteLiveAnalyticsRecord(List<Record> recordList){
-        for (final Record record : recordList) {
-            // LOGGER.trace("Sink Record: {} ", record);
-            Point point = Point
-                    .measurement("mem")
-                    .addTag("host", "host1")
-                    .addField("used_percent", 23.43234543)
-                    .time(1714180752000L, WritePrecision.MS);
-            // replace above with data from SinkRecord
-            WriteApiBlocking writeApi = influxDBClient.getWriteApiBlocking();
-            writeApi.writePoint(influxDBBucket, influxDBOrg, point);
+    /**
+     * WriteRecords request in flight along with the records it carries
+     */
+    private static final class InflightBatch {
+        /**
+         * batch number within the current write
+         */
+        private final int batchNumber;
+        /**
+         * records of the batch
+         */
+        private final RecordBatch batch;
+        /**
+         * time in milliseconds until which the batch is sent again on a retryable error
+         */
+        private final long retryDeadline;
+        /**
+         * pending WriteRecords response
+         */
+        private final CompletableFuture<WriteRecordsResponse> response;
+
+        private InflightBatch(final int batchNumber, final RecordBatch batch, final long retryDeadline,
+                              final CompletableFuture<WriteRecordsResponse> response) {
+            this.batchNumber = batchNumber;
+            this.batch = batch;
+            this.retryDeadline = retryDeadline;
+            this.response = response;
         }
     }
-
-    //////////////////
-
-}
\ No newline at end of file
+}
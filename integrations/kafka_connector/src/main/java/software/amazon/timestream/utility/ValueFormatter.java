@@ -0,0 +1,215 @@
+package software.amazon.timestream.utility;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Class that has methods for formatting the sink record values
+ * as Timestream measure values and record times,
+ * allocating no more than the resulting string on the common paths
+ */
+public final class ValueFormatter {
+
+    /**
+     * Milliseconds in a day
+     */
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    /**
+     * Days from 0000-03-01 to 1970-01-01
+     */
+    private static final long DAYS_0000_TO_1970 = 719_468L;
+    /**
+     * Length of the shortest date time handled by the fast path: yyyy-MM-ddTHH:mm:ssZ
+     */
+    private static final int MIN_DATETIME_LENGTH = 20;
+
+    /**
+     * private constructor
+     */
+    private ValueFormatter() {
+
+    }
+
+    /**
+     * Method to remove the double quotes from the given value;
+     * the value itself is returned when it has none
+     *
+     * @param value sink record value
+     * @return value without double quotes
+     */
+    public static String stripQuotes(final String value) {
+        return value.indexOf('"') < 0 ? value : value.replace("\"", "");
+    }
+
+    /**
+     * Method to format the given value as DOUBLE measure value.
+     * A plain decimal number such as -12.5 is returned as is; any other form
+     * that parses as a double, such as 1.0E-5 or 2d, is written out in plain
+     * decimal notation without trailing zeros, e.g. 0.00001 and 2
+     *
+     * @param value sink record value
+     * @return formatted double value
+     * @throws NumberFormatException if the value is not a finite number
+     */
+    public static String formatDouble(final String value) {
+        if (isPlainDecimal(value)) {
+            return value;
+        }
+        return BigDecimal.valueOf(Double.parseDouble(value)).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Method to format the given double as DOUBLE measure value, in plain decimal notation:
+     * as {@link Double#toString(double)} for the values it writes out plainly, e.g. 0.5 and 1500000.0,
+     * otherwise without the exponent and trailing zeros, e.g. 0.00001 for 1.0E-5
+     *
+     * @param value sink record value
+     * @return formatted double value
+     */
+    public static String formatDouble(final double value) {
+        final String formatted = Double.toString(value);
+        if (formatted.indexOf('E') < 0) {
+            return formatted;
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * @param value sink record value
+     * @return true if the value is an optional minus sign followed by digits,
+     * optionally followed by a decimal point and digits, otherwise false
+     */
+    private static boolean isPlainDecimal(final String value) {
+        final int length = value.length();
+        int i = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        final int integerStart = i;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+        }
+        if (i == integerStart) {
+            return false;
+        }
+        if (i == length) {
+            return true;
+        }
+        if (value.charAt(i) != '.') {
+            return false;
+        }
+        final int fractionStart = ++i;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+        }
+        return i == length && i > fractionStart;
+    }
+
+    /**
+     * @return true if the character is an ASCII digit otherwise false
+     */
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Method to format the given ISO-8601 date time as epoch milliseconds
+     *
+     * @param value date time such as 2023-08-21T10:15:30.123Z
+     * @return epoch milliseconds as string
+     * @throws java.time.format.DateTimeParseException if the value is not a valid date time
+     */
+    public static String formatEpochMillis(final String value) {
+        return Long.toString(parseEpochMillis(value));
+    }
+
+    /**
+     * Method to parse the given ISO-8601 date time into epoch milliseconds.
+     * UTC date times with four digit years are parsed in place;
+     * any other form is left to {@link Instant#parse(CharSequence)}.
+     *
+     * @param value date time such as 2023-08-21T10:15:30.123Z
+     * @return epoch milliseconds, fraction of the millisecond truncated
+     * @throws java.time.format.DateTimeParseException if the value is not a valid date time
+     */
+    public static long parseEpochMillis(final String value) {
+        final int length = value.length();
+        if (length < MIN_DATETIME_LENGTH || value.charAt(length - 1) != 'Z'
+                || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T'
+                || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return Instant.parse(value).toEpochMilli();
+        }
+        final int year = digits(value, 0, 4);
+        final int month = digits(value, 5, 2);
+        final int day = digits(value, 8, 2);
+        final int hour = digits(value, 11, 2);
+        final int minute = digits(value, 14, 2);
+        final int second = digits(value, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Instant.parse(value).toEpochMilli();
+        }
+        int millis = 0;
+        if (length > MIN_DATETIME_LENGTH) {
+            // fraction: '.' followed by 1 to 9 digits
+            final int fractionDigits = length - MIN_DATETIME_LENGTH - 1;
+            if (value.charAt(19) != '.' || fractionDigits < 1 || fractionDigits > 9
+                    || digits(value, 20, fractionDigits) < 0) {
+                return Instant.parse(value).toEpochMilli();
+            }
+            millis = digits(value, 20, Math.min(fractionDigits, 3));
+            for (int i = fractionDigits; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+        final long secondOfDay = hour * 3600L + minute * 60L + second;
+        return epochDay(year, month, day) * MILLIS_PER_DAY + secondOfDay * 1000L + millis;
+    }
+
+    /**
+     * @param value string to be read
+     * @param from index of the first digit
+     * @param count number of digits
+     * @return the digits as a number, -1 if any of the characters is not a digit
+     */
+    private static int digits(final String value, final int from, final int count) {
+        int result = 0;
+        for (int i = from; i < from + count; i++) {
+            final char c = value.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * @return number of days in the given month
+     */
+    private static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                final boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Method to get the days since 1970-01-01 of the given non-negative proleptic Gregorian date
+     *
+     * @return epoch day
+     */
+    private static long epochDay(final int year, final int month, final int day) {
+        final long y = month <= 2 ? year - 1 : year;
+        final long era = (y >= 0 ? y : y - 399) / 400;
+        final long yearOfEra = y - era * 400;
+        final long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - DAYS_0000_TO_1970;
+    }
+}
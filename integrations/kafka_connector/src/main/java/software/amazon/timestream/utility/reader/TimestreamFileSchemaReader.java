@@ -0,0 +1,115 @@
+package software.amazon.timestream.utility.reader;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.timestreamwrite.model.DataModel;
+import software.amazon.timestream.exception.TimestreamSinkConnectorError;
+import software.amazon.timestream.exception.TimestreamSinkConnectorException;
+import software.amazon.timestream.exception.TimestreamSinkErrorCodes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Timestream Table schema definition reader from a local file, for tests and local runs.
+ * The schema version is the last modified time of the file, so that an edited file is picked up as a changed schema.
+ */
+public class TimestreamFileSchemaReader implements TimestreamSchemaReader {
+
+    /**
+     * Logger object
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamFileSchemaReader.class);
+    /**
+     * GSON object for JSON marshaling/unmarshalling
+     */
+    private static final Gson GSON = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE).create();
+    /**
+     * Path of the schema definition file
+     */
+    private final Path schemaFile;
+    /**
+     * Last modified time of the schema definition last returned, null until the first one
+     */
+    private volatile String schemaVersion;
+
+    /**
+     * @param schemaFile path of the schema definition file
+     */
+    public TimestreamFileSchemaReader(final Path schemaFile) {
+        this.schemaFile = schemaFile;
+    }
+
+    /**
+     * Method to get the Timestream schema definition from the file
+     * @return root
+     */
+    @Override
+    public DataModel getSchemaDefinition() {
+        LOGGER.info("Begin::TimestreamFileSchemaReader::getSchemaDefinition: [{}]", schemaFile);
+        final String version = getLastModified();
+        final DataModel schemaDefinition = readSchemaDefinition();
+        schemaVersion = version;
+        return schemaDefinition;
+    }
+
+    /**
+     * Method to get the Timestream schema definition from the file, if it is modified
+     * since the one last returned
+     * @return the changed schema definition, null if it has not changed
+     */
+    @Override
+    public DataModel getChangedSchemaDefinition() {
+        if (getLastModified().equals(schemaVersion)) {
+            return null;
+        }
+        return getSchemaDefinition();
+    }
+
+    /**
+     * @return last modified time of the file of the schema definition last returned
+     */
+    @Override
+    public String getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    /**
+     * @return last modified time of the file
+     */
+    private String getLastModified() {
+        try {
+            return Files.getLastModifiedTime(schemaFile).toString();
+        } catch (IOException e) {
+            throw invalidSchema(e);
+        }
+    }
+
+    /**
+     * @return schema definition read from the file
+     */
+    private DataModel readSchemaDefinition() {
+        try {
+            return GSON.fromJson(new String(Files.readAllBytes(schemaFile), StandardCharsets.UTF_8), DataModel.class);
+        } catch (IOException | JsonSyntaxException e) {
+            throw invalidSchema(e);
+        }
+    }
+
+    /**
+     * @param cause error while reading the file
+     * @return exception for the invalid schema definition file
+     */
+    private TimestreamSinkConnectorException invalidSchema(final Exception cause) {
+        LOGGER.error("ERROR::TimestreamFileSchemaReader::getSchemaDefinition", cause);
+        final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_SCHEMA,
+                schemaFile.toUri());
+        return new TimestreamSinkConnectorException(error, cause);
+    }
+}
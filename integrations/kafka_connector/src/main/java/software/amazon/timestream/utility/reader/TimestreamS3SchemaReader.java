@@ -16,8 +16,13 @@ import software.amazon.timestream.exception.*;
 import software.amazon.timestream.utility.AWSServiceClientFactory;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 /**
- * Timestream Table schema definition reader from an S3 bucket
+ * Timestream Table schema definition reader from an S3 bucket.
+ * The schema definitions are cached per S3 object for the tasks of the worker:
+ * the object is checked again only when the cached one is older than 'timestream.schema.refresh.interval.ms'
+ * (always, when it is 0), and then with a conditional GET on its ETag, so that an unchanged object is not transferred.
  */
 public class TimestreamS3SchemaReader implements TimestreamSchemaReader{
 
@@ -25,10 +30,18 @@ public class TimestreamS3SchemaReader implements TimestreamSchemaReader{
      * Logger object
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamS3SchemaReader.class);
+    /**
+     * HTTP status code of a conditional GET on an unchanged object
+     */
+    private static final int NOT_MODIFIED = 304;
     /**
      * GSON object for JSON marshaling/unmarshalling
      */
     private static final Gson GSON = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE).create();
+    /**
+     * Schema definitions cached for the tasks of the worker, by S3 bucket and key
+     */
+    private static final Map<String, CachedSchema> SCHEMA_CACHE = new ConcurrentHashMap<>();
     /**
      * Connector configuration values
      */
@@ -38,6 +51,14 @@ public class TimestreamS3SchemaReader implements TimestreamSchemaReader{
      * Connector configuration values
      */
     private final AWSServiceClientFactory clientFactory;
+    /**
+     * Cache key of the S3 object
+     */
+    private final String cacheKey;
+    /**
+     * ETag of the schema definition last returned, null until the first one
+     */
+    private volatile String schemaVersion;
 
     /**
      * @param config        : Timestream Sink connector configuration
@@ -46,6 +67,7 @@ public class TimestreamS3SchemaReader implements TimestreamSchemaReader{
     public TimestreamS3SchemaReader (final AWSServiceClientFactory clientFactory, final TimestreamSinkConnectorConfig config)  {
         this.connectorConfig = config;
         this.clientFactory = clientFactory;
+        this.cacheKey = config.getSchemaS3BucketName() + "/" + config.getSchmeaS3ObjectPath();
     }
 
 
@@ -57,43 +79,109 @@ public class TimestreamS3SchemaReader implements TimestreamSchemaReader{
     @Override
     public DataModel getSchemaDefinition() {
         LOGGER.info("Begin::TimestreamSchemaReader::getSchemaDefinition");
-        DataModel schemaDef;
-        try {
-            final String jsonString = getS3ObjectAsString();
-            schemaDef = GSON.fromJson(jsonString, DataModel.class);
-            return schemaDef;
-        } catch (JsonSyntaxException je) {
-            LOGGER.error("ERROR::TimestreamSchemaReader::getSchemaDefinition", je);
-            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_SCHEMA,
-                    this.connectorConfig.getSchmeaS3ObjectPath());
-            throw new TimestreamSinkConnectorException(error, je);
+        final CachedSchema cachedSchema = getCachedSchema();
+        schemaVersion = cachedSchema.eTag;
+        return cachedSchema.schemaDefinition;
+    }
+
+    /**
+     * Method to get the Timestream schema definition from the supplied S3 object, if it has changed
+     * since the one last returned
+     * @return the changed schema definition, null if it has not changed
+     */
+    @Override
+    public DataModel getChangedSchemaDefinition() {
+        final CachedSchema cachedSchema = getCachedSchema();
+        if (cachedSchema.eTag != null && cachedSchema.eTag.equals(schemaVersion)) {
+            return null;
+        }
+        LOGGER.info("TimestreamSchemaReader::getChangedSchemaDefinition: schema version changed from [{}] to [{}]", schemaVersion, cachedSchema.eTag);
+        schemaVersion = cachedSchema.eTag;
+        return cachedSchema.schemaDefinition;
+    }
+
+    /**
+     * @return ETag of the S3 object of the schema definition last returned
+     */
+    @Override
+    public String getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    /**
+     * Method to get the cached schema definition of the S3 object,
+     * refreshing it if it is older than the refresh interval.
+     * The S3 object is fetched outside of the cache, so that a slow GET does not hold the lock of the cache entry;
+     * tasks refreshing it at the same time may each fetch it, and the one checked last is kept.
+     * @return cached schema definition
+     */
+    private CachedSchema getCachedSchema() {
+        final long now = System.currentTimeMillis();
+        final long refreshInterval = connectorConfig.getSchemaRefreshInterval();
+        final CachedSchema cachedSchema = SCHEMA_CACHE.get(cacheKey);
+        if (cachedSchema != null && refreshInterval > 0 && now - cachedSchema.fetchedAt < refreshInterval) {
+            return cachedSchema;
         }
+        final CachedSchema fetchedSchema = getS3Object(cachedSchema, now);
+        return SCHEMA_CACHE.merge(cacheKey, fetchedSchema,
+                (current, fetched) -> current.fetchedAt > fetched.fetchedAt ? current : fetched);
     }
 
     /**
      * Method to get the Timestream table schema definition for the given S3 object
-     * @throws TimestreamSinkConnectorException if the S3 object does not exist
+     * @param cachedSchema schema definition cached, null if none
+     * @param now current time in milliseconds
+     * @throws TimestreamSinkConnectorException if the S3 object does not exist or the schema definition is not valid
      * @see TimestreamSinkConnectorConfig
-     * @return S3 object's byte as UTF-8 formatted string.
+     * @return the cached schema definition if the S3 object has not changed, the new one otherwise
      */
-    private String getS3ObjectAsString() {
-        LOGGER.info("Begin::TimestreamSchemaReader::getS3ObjectAsString");
+    private CachedSchema getS3Object(final CachedSchema cachedSchema, final long now) {
+        LOGGER.info("Begin::TimestreamSchemaReader::getS3Object");
         final GetObjectRequest objectRequest = GetObjectRequest
                 .builder()
                 .key(this.connectorConfig.getSchmeaS3ObjectPath())
                 .bucket(this.connectorConfig.getSchemaS3BucketName())
+                .ifNoneMatch(cachedSchema == null ? null : cachedSchema.eTag)
                 .build();
-        final ResponseBytes<GetObjectResponse> objectBytes = clientFactory.getS3Client().getObjectAsBytes(objectRequest);
+        final ResponseBytes<GetObjectResponse> objectBytes;
         try {
-            final String definition =  new String(objectBytes.asByteArray(), StandardCharsets.UTF_8);
-            LOGGER.info("TimestreamSchemaReader::getS3ObjectAsString: Successfully read the schema config from s3: {} {}", this.connectorConfig.getSchemaS3BucketName(), this.connectorConfig.getSchmeaS3ObjectPath());
-            return definition;
+            objectBytes = clientFactory.getS3Client().getObjectAsBytes(objectRequest);
         } catch (S3Exception e) {
-            LOGGER.error("ERROR::TimestreamSchemaReader::getS3ObjectAsString", e);
+            if (cachedSchema != null && e.statusCode() == NOT_MODIFIED) {
+                LOGGER.debug("DEBUG::TimestreamSchemaReader::getS3Object: schema version [{}] not modified", cachedSchema.eTag);
+                return new CachedSchema(cachedSchema.eTag, cachedSchema.schemaDefinition, now);
+            }
+            LOGGER.error("ERROR::TimestreamSchemaReader::getS3Object", e);
             final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_S3KEY,
                     this.connectorConfig.getAWSRegion(), this.connectorConfig.getSchemaS3BucketName(),
                     this.connectorConfig.getSchmeaS3ObjectPath());
             throw new TimestreamSinkConnectorException(error, e);
         }
+        final String definition = new String(objectBytes.asByteArray(), StandardCharsets.UTF_8);
+        LOGGER.info("TimestreamSchemaReader::getS3Object: Successfully read the schema config version [{}] from s3: {} {}",
+                objectBytes.response().eTag(), this.connectorConfig.getSchemaS3BucketName(), this.connectorConfig.getSchmeaS3ObjectPath());
+        try {
+            return new CachedSchema(objectBytes.response().eTag(), GSON.fromJson(definition, DataModel.class), now);
+        } catch (JsonSyntaxException je) {
+            LOGGER.error("ERROR::TimestreamSchemaReader::getS3Object", je);
+            final TimestreamSinkConnectorError error = new TimestreamSinkConnectorError(TimestreamSinkErrorCodes.INVALID_SCHEMA,
+                    this.connectorConfig.getSchmeaS3ObjectPath());
+            throw new TimestreamSinkConnectorException(error, je);
+        }
+    }
+
+    /**
+     * Schema definition along with the ETag of its S3 object and the time it is checked at
+     */
+    private static final class CachedSchema {
+        private final String eTag;
+        private final DataModel schemaDefinition;
+        private final long fetchedAt;
+
+        private CachedSchema(final String eTag, final DataModel schemaDefinition, final long fetchedAt) {
+            this.eTag = eTag;
+            this.schemaDefinition = schemaDefinition;
+            this.fetchedAt = fetchedAt;
+        }
     }
 }
\ No newline at end of file
@@ -11,4 +11,14 @@ public interface TimestreamSchemaReader {
      * gets schema definition
      */
     DataModel getSchemaDefinition();
-}
+
+    /**
+     * gets schema definition if it has changed since the one last returned, null otherwise
+     */
+    DataModel getChangedSchemaDefinition();
+
+    /**
+     * gets version of the schema definition last returned
+     */
+    String getSchemaVersion();
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package software.amazon.timestream.utility.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.timestreamwrite.model.DataModel;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Class that checks the schema definition for changes at a fixed interval, on a thread of its own,
+ * and hands the changed schema definition over to be applied between writes.
+ */
+public class TimestreamSchemaRefresher implements AutoCloseable {
+
+    /**
+     * Logger object
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimestreamSchemaRefresher.class);
+    /**
+     * Schema definition reader
+     */
+    private final TimestreamSchemaReader schemaReader;
+    /**
+     * Applies the changed schema definition
+     */
+    private final Consumer<DataModel> onChange;
+    /**
+     * Runs the schema checks
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * @param schemaReader schema definition reader
+     * @param intervalMillis interval in milliseconds between the schema checks
+     * @param onChange applies the changed schema definition
+     */
+    public TimestreamSchemaRefresher(final TimestreamSchemaReader schemaReader, final long intervalMillis,
+                                     final Consumer<DataModel> onChange) {
+        this.schemaReader = schemaReader;
+        this.onChange = onChange;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "timestream-schema-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("TimestreamSchemaRefresher: checking the schema version [{}] every [{}] ms", schemaReader.getSchemaVersion(), intervalMillis);
+    }
+
+    /**
+     * Method to apply the schema definition if it has changed; the current one is kept on any error
+     */
+    private void refresh() {
+        try {
+            final DataModel schemaDefinition = schemaReader.getChangedSchemaDefinition();
+            if (schemaDefinition != null) {
+                onChange.accept(schemaDefinition);
+                LOGGER.info("TimestreamSchemaRefresher::refresh: schema version [{}] applied", schemaReader.getSchemaVersion());
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("ERROR::TimestreamSchemaRefresher::refresh: keeping the current schema definition", e);
+        }
+    }
+
+    /**
+     * Method to stop checking the schema definition
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
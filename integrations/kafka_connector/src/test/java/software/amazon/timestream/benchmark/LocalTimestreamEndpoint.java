@@ -0,0 +1,279 @@
+package software.amazon.timestream.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Timestream Write endpoint, along with the S3 object of the schema definition,
+ * to run the connector offline through 'timestream.ingestion.endpoint' and 'timestream.schema.s3.endpoint'.
+ * WriteRecords requests are answered after the configured latency, and a share of them is throttled
+ * or has a share of its records rejected; DescribeEndpoints, DescribeDatabase and DescribeTable always succeed.
+ */
+public final class LocalTimestreamEndpoint implements AutoCloseable {
+
+    /**
+     * X-Amz-Target prefix of the Timestream Write operations
+     */
+    private static final String TARGET_PREFIX = "Timestream_20181101.";
+    /**
+     * Error type prefix of the Timestream Write exceptions
+     */
+    private static final String ERROR_PREFIX = "com.amazonaws.timestream.v20181101#";
+    /**
+     * Content type of the Timestream Write responses
+     */
+    private static final String JSON_CONTENT_TYPE = "application/x-amz-json-1.0";
+
+    private final long latencyMillis;
+    private final double throttleRate;
+    private final double rejectRate;
+    private final String bucket;
+    private final String schemaKey;
+    private final byte[] schemaDefinition;
+    private final String schemaETag;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong writeRequests = new AtomicLong();
+    private final AtomicLong throttledRequests = new AtomicLong();
+    private final AtomicLong recordsIngested = new AtomicLong();
+    private final AtomicLong recordsRejected = new AtomicLong();
+
+    /**
+     * @param latencyMillis time in milliseconds each WriteRecords request takes
+     * @param throttleRate share of the WriteRecords requests answered with a ThrottlingException
+     * @param rejectRate share of the records of a request answered with a RejectedRecordsException
+     * @param bucket S3 bucket of the schema definition
+     * @param schemaKey S3 key of the schema definition
+     * @param schemaDefinition schema definition JSON served as the S3 object
+     * @throws IOException if the server cannot be bound to a local port
+     */
+    public LocalTimestreamEndpoint(final long latencyMillis, final double throttleRate, final double rejectRate,
+                                   final String bucket, final String schemaKey, final String schemaDefinition) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.throttleRate = throttleRate;
+        this.rejectRate = rejectRate;
+        this.bucket = bucket;
+        this.schemaKey = schemaKey;
+        this.schemaDefinition = schemaDefinition.getBytes(StandardCharsets.UTF_8);
+        this.schemaETag = '"' + md5Hex(this.schemaDefinition) + '"';
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "local-timestream-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @return URI of the endpoint, for 'timestream.ingestion.endpoint' and 'timestream.schema.s3.endpoint'
+     */
+    public String getEndpoint() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getWriteRequests() {
+        return writeRequests.get();
+    }
+
+    public long getThrottledRequests() {
+        return throttledRequests.get();
+    }
+
+    public long getRecordsIngested() {
+        return recordsIngested.get();
+    }
+
+    public long getRecordsRejected() {
+        return recordsRejected.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            final String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+            if (target != null && target.startsWith(TARGET_PREFIX)) {
+                handleTimestream(exchange, target.substring(TARGET_PREFIX.length()));
+            } else {
+                handleS3(exchange);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleTimestream(final HttpExchange exchange, final String operation) throws IOException {
+        final JsonObject request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = JsonParser.parseReader(new InputStreamReader(body, StandardCharsets.UTF_8)).getAsJsonObject();
+        }
+        final JsonObject response = new JsonObject();
+        switch (operation) {
+            case "WriteRecords":
+                writeRecords(exchange, request);
+                return;
+            case "DescribeEndpoints":
+                final JsonObject endpoint = new JsonObject();
+                endpoint.addProperty("Address", "localhost:" + server.getAddress().getPort());
+                endpoint.addProperty("CachePeriodInMinutes", 1440);
+                final JsonArray endpoints = new JsonArray();
+                endpoints.add(endpoint);
+                response.add("Endpoints", endpoints);
+                break;
+            case "DescribeDatabase":
+                final JsonObject database = new JsonObject();
+                database.addProperty("DatabaseName", request.get("DatabaseName").getAsString());
+                database.addProperty("Arn", "arn:aws:timestream:local:000000000000:database/" + request.get("DatabaseName").getAsString());
+                response.add("Database", database);
+                break;
+            case "DescribeTable":
+                final JsonObject table = new JsonObject();
+                table.addProperty("DatabaseName", request.get("DatabaseName").getAsString());
+                table.addProperty("TableName", request.get("TableName").getAsString());
+                table.addProperty("TableStatus", "ACTIVE");
+                table.addProperty("Arn", "arn:aws:timestream:local:000000000000:database/" + request.get("DatabaseName").getAsString()
+                        + "/table/" + request.get("TableName").getAsString());
+                final JsonObject schema = new JsonObject();
+                schema.add("CompositePartitionKey", new JsonArray());
+                table.add("Schema", schema);
+                response.add("Table", table);
+                break;
+            default:
+                sendError(exchange, 400, "ValidationException", "Unsupported operation " + operation, null);
+                return;
+        }
+        sendJson(exchange, 200, response);
+    }
+
+    private void writeRecords(final HttpExchange exchange, final JsonObject request) throws IOException {
+        writeRequests.incrementAndGet();
+        sleep(latencyMillis);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (throttleRate > 0 && random.nextDouble() < throttleRate) {
+            throttledRequests.incrementAndGet();
+            sendError(exchange, 400, "ThrottlingException", "Rate exceeded", null);
+            return;
+        }
+        final int records = request.getAsJsonArray("Records").size();
+        final JsonArray rejectedRecords = new JsonArray();
+        if (rejectRate > 0) {
+            for (int i = 0; i < records; i++) {
+                if (random.nextDouble() < rejectRate) {
+                    final JsonObject rejectedRecord = new JsonObject();
+                    rejectedRecord.addProperty("RecordIndex", i);
+                    rejectedRecord.addProperty("Reason", "The record timestamp is outside the time range of the data ingestion window.");
+                    rejectedRecords.add(rejectedRecord);
+                }
+            }
+        }
+        if (rejectedRecords.size() > 0) {
+            // the records of a request with rejected records are not ingested
+            recordsRejected.addAndGet(rejectedRecords.size());
+            sendError(exchange, 419, "RejectedRecordsException", "One or more records have been rejected.", rejectedRecords);
+            return;
+        }
+        recordsIngested.addAndGet(records);
+        final JsonObject ingested = new JsonObject();
+        ingested.addProperty("Total", records);
+        ingested.addProperty("MemoryStore", records);
+        ingested.addProperty("MagneticStore", 0);
+        final JsonObject response = new JsonObject();
+        response.add("RecordsIngested", ingested);
+        sendJson(exchange, 200, response);
+    }
+
+    private void handleS3(final HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath();
+        final boolean isBucket = path.equals("/" + bucket) || path.equals("/" + bucket + "/");
+        final boolean isSchema = path.equals("/" + bucket + "/" + schemaKey);
+        if (!isBucket && !isSchema) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        exchange.getResponseHeaders().add("x-amz-request-id", "local");
+        if (isBucket) {
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.getResponseHeaders().add("ETag", schemaETag);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (schemaETag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+        } else if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(schemaDefinition.length));
+            exchange.sendResponseHeaders(200, -1);
+        } else {
+            exchange.sendResponseHeaders(200, schemaDefinition.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(schemaDefinition);
+            }
+        }
+    }
+
+    private static void sendError(final HttpExchange exchange, final int status, final String type, final String message,
+                                  final JsonArray rejectedRecords) throws IOException {
+        final JsonObject error = new JsonObject();
+        error.addProperty("__type", ERROR_PREFIX + type);
+        error.addProperty("Message", message);
+        if (rejectedRecords != null) {
+            error.add("RejectedRecords", rejectedRecords);
+        }
+        exchange.getResponseHeaders().add("x-amzn-ErrorType", type);
+        sendJson(exchange, status, error);
+    }
+
+    private static void sendJson(final HttpExchange exchange, final int status, final JsonObject json) throws IOException {
+        final byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", JSON_CONTENT_TYPE);
+        exchange.getResponseHeaders().add("x-amzn-RequestId", "local");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(final long millis) {
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static String md5Hex(final byte[] bytes) {
+        try {
+            final StringBuilder hex = new StringBuilder();
+            for (final byte b : MessageDigest.getInstance("MD5").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package software.amazon.timestream.benchmark;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.apache.kafka.connect.sink.SinkTaskContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.timestream.TimestreamSinkConstants;
+import software.amazon.timestream.TimestreamSinkTask;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of {@link TimestreamSinkTask#put} against the {@link LocalTimestreamEndpoint},
+ * with synthetic multi-measure records of 2000 hosts in 8 regions spread over 4 partitions.
+ * 'recordsPerSecond' reports the throughput in records per second and 'putLatency' the percentiles of a put;
+ * run with the GC profiler for the allocation rate:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main \
+ *     -Dexec.args="TimestreamSinkTaskBenchmark -prof gc -p throttleRate=0,0.05"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TimestreamSinkTaskBenchmark {
+
+    private static final int RECORDS_PER_PUT = 1000;
+    private static final int PARTITIONS = 4;
+    private static final String TOPIC = "benchmark";
+    private static final String BUCKET = "benchmark-bucket";
+    private static final String SCHEMA_KEY = "benchmark_schema.json";
+    private static final String SCHEMA_DEFINITION = "{"
+            + "\"TimeColumn\":\"time\",\"TimeUnit\":\"MILLISECONDS\","
+            + "\"DimensionMappings\":["
+            + "{\"SourceColumn\":\"host\",\"DestinationColumn\":\"host\"},"
+            + "{\"SourceColumn\":\"region\",\"DestinationColumn\":\"region\"}],"
+            + "\"MultiMeasureMappings\":{\"TargetMultiMeasureName\":\"metrics\",\"MultiMeasureAttributeMappings\":["
+            + "{\"SourceColumn\":\"cpu\",\"TargetMultiMeasureAttributeName\":\"cpu\",\"MeasureValueType\":\"DOUBLE\"},"
+            + "{\"SourceColumn\":\"memory\",\"TargetMultiMeasureAttributeName\":\"memory\",\"MeasureValueType\":\"BIGINT\"}]},"
+            + "\"MeasureNameColumn\":\"metrics\"}";
+
+    @Param({"20"})
+    private long latencyMillis;
+    @Param({"0"})
+    private double throttleRate;
+    @Param({"0"})
+    private double rejectRate;
+    @Param({"10"})
+    private int maxInflight;
+    @Param({"1"})
+    private int writerLanes;
+
+    private LocalTimestreamEndpoint endpoint;
+    private TimestreamSinkTask task;
+    private final List<Map<String, Object>> values = new ArrayList<>(RECORDS_PER_PUT);
+    private final long[] nextOffsets = new long[PARTITIONS];
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty("aws.accessKeyId", "local");
+        System.setProperty("aws.secretAccessKey", "local");
+        endpoint = new LocalTimestreamEndpoint(latencyMillis, throttleRate, rejectRate, BUCKET, SCHEMA_KEY, SCHEMA_DEFINITION);
+
+        final Map<String, String> config = new HashMap<>();
+        config.put(TimestreamSinkConstants.CONNECTOR_CLASS, TimestreamSinkConstants.CLASS_FQDN);
+        config.put(TimestreamSinkConstants.CONNECTOR_NAME, "benchmark");
+        config.put(TimestreamSinkConstants.TASKS_MAX, "1");
+        config.put("topics", TOPIC);
+        config.put(TimestreamSinkConstants.AWS_REGION, "us-east-1");
+        config.put(TimestreamSinkConstants.S3_BUCKET, BUCKET);
+        config.put(TimestreamSinkConstants.SCHEMA_S3KEY, SCHEMA_KEY);
+        config.put(TimestreamSinkConstants.S3_ENDPOINT, endpoint.getEndpoint());
+        config.put(TimestreamSinkConstants.DATABASE_NAME, "benchmark");
+        config.put(TimestreamSinkConstants.TABLE_NAME, "benchmark");
+        config.put(TimestreamSinkConstants.VPC_ENDPOINT, endpoint.getEndpoint());
+        config.put(TimestreamSinkConstants.LIVE_ANALYTICS_ENABLE, "true");
+        config.put(TimestreamSinkConstants.MAX_INFLIGHT, String.valueOf(maxInflight));
+        config.put(TimestreamSinkConstants.WRITER_LANES, String.valueOf(writerLanes));
+        config.put(TimestreamSinkConstants.SCHEMA_REFRESH_INTERVAL, "0");
+
+        task = new TimestreamSinkTask();
+        task.initialize(new BenchmarkTaskContext(config));
+        task.start(config);
+        final Set<TopicPartition> partitions = new HashSet<>();
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            partitions.add(new TopicPartition(TOPIC, partition));
+        }
+        task.open(partitions);
+
+        for (int i = 0; i < RECORDS_PER_PUT; i++) {
+            final Map<String, Object> value = new HashMap<>();
+            value.put("host", "host-" + (i % 2000));
+            value.put("region", "region-" + (i % 8));
+            value.put("cpu", (i % 100) + 0.5);
+            value.put("memory", 1024L * i);
+            values.add(value);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        task.stop();
+        endpoint.close();
+        System.out.printf("%nWriteRecords requests [%d], throttled [%d], records ingested [%d], rejected [%d]%n",
+                endpoint.getWriteRequests(), endpoint.getThrottledRequests(), endpoint.getRecordsIngested(), endpoint.getRecordsRejected());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(RECORDS_PER_PUT)
+    public void recordsPerSecond() {
+        put();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void putLatency() {
+        put();
+    }
+
+    /**
+     * Puts the next records of every partition and commits their offsets, as the Connect worker does
+     */
+    private void put() {
+        final long time = System.currentTimeMillis();
+        final List<SinkRecord> records = new ArrayList<>(RECORDS_PER_PUT);
+        for (int i = 0; i < RECORDS_PER_PUT; i++) {
+            final Map<String, Object> value = values.get(i);
+            value.put("time", time);
+            final int partition = i % PARTITIONS;
+            records.add(new SinkRecord(TOPIC, partition, null, null, null, value, nextOffsets[partition]++));
+        }
+        task.put(records);
+        task.preCommit(Collections.emptyMap());
+    }
+
+    /**
+     * Task context of a single task with no DLQ
+     */
+    private static final class BenchmarkTaskContext implements SinkTaskContext {
+        private final Map<String, String> configs;
+
+        private BenchmarkTaskContext(final Map<String, String> configs) {
+            this.configs = configs;
+        }
+
+        @Override
+        public Map<String, String> configs() {
+            return configs;
+        }
+
+        @Override
+        public void offset(final Map<TopicPartition, Long> offsets) {
+        }
+
+        @Override
+        public void offset(final TopicPartition topicPartition, final long offset) {
+        }
+
+        @Override
+        public void timeout(final long timeoutMs) {
+        }
+
+        @Override
+        public Set<TopicPartition> assignment() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public void pause(final TopicPartition... partitions) {
+        }
+
+        @Override
+        public void resume(final TopicPartition... partitions) {
+        }
+
+        @Override
+        public void requestCommit() {
+        }
+    }
+}
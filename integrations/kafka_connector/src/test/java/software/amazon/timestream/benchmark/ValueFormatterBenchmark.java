@@ -0,0 +1,59 @@
+package software.amazon.timestream.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.timestream.utility.ValueFormatter;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of formatting the values of a sink record with a DATETIME time column,
+ * a TIMESTAMP measure, two DOUBLE measures and a VARCHAR measure.
+ * Run with the GC profiler to compare the allocation per record:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main \
+ *     -Dexec.args="ValueFormatterBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueFormatterBenchmark {
+
+    private final String time = "2023-08-21T10:15:30.123Z";
+    private final String timestamp = "2023-08-21T10:15:29Z";
+    private final String price = "1234.5678";
+    private final String discount = "0.15";
+    private final String product = "\"headphones\"";
+
+    @Benchmark
+    public void legacyFormatting(final Blackhole blackhole) {
+        blackhole.consume(String.valueOf(Date.from(Instant.parse(time.replace("\"", ""))).getTime()));
+        blackhole.consume(String.valueOf(Date.from(Instant.parse(timestamp.replace("\"", ""))).getTime()));
+        blackhole.consume(String.format("%.10f", Double.parseDouble(price.replace("\"", ""))));
+        blackhole.consume(String.format("%.10f", Double.parseDouble(discount.replace("\"", ""))));
+        blackhole.consume(product.replace("\"", ""));
+    }
+
+    @Benchmark
+    public void valueFormatter(final Blackhole blackhole) {
+        blackhole.consume(ValueFormatter.formatEpochMillis(ValueFormatter.stripQuotes(time)));
+        blackhole.consume(ValueFormatter.formatEpochMillis(ValueFormatter.stripQuotes(timestamp)));
+        blackhole.consume(ValueFormatter.formatDouble(ValueFormatter.stripQuotes(price)));
+        blackhole.consume(ValueFormatter.formatDouble(ValueFormatter.stripQuotes(discount)));
+        blackhole.consume(ValueFormatter.stripQuotes(product));
+    }
+}
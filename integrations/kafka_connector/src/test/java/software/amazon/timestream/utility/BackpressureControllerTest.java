@@ -0,0 +1,136 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.Test;
+import software.amazon.timestream.TimestreamSinkConstants;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static software.amazon.timestream.utility.ConnectorFixtures.TOPIC;
+import static software.amazon.timestream.utility.ConnectorFixtures.config;
+import static software.amazon.timestream.utility.ConnectorFixtures.sinkRecord;
+
+public class BackpressureControllerTest {
+
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+    private static final TopicPartition P2 = new TopicPartition(TOPIC, 2);
+    private static final TopicPartition P3 = new TopicPartition(TOPIC, 3);
+    private static final List<TopicPartition> PARTITIONS = Arrays.asList(P0, P1, P2, P3);
+
+    private final OffsetTracker offsetTracker = new OffsetTracker();
+    private final Map<TopicPartition, Deque<SinkRecord>> pendingRecords = new HashMap<>();
+    private final Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+
+    private static BackpressureController controller(final OffsetTracker offsetTracker, final long partitionMax, final long taskMax) {
+        return new BackpressureController(config(
+                TimestreamSinkConstants.BACKPRESSURE_PARTITION_RECORDS, String.valueOf(partitionMax),
+                TimestreamSinkConstants.BACKPRESSURE_TASK_RECORDS, String.valueOf(taskMax)), offsetTracker);
+    }
+
+    private void deliver(final TopicPartition partition, final int count) {
+        for (int i = 0; i < count; i++) {
+            final long offset = nextOffsets.merge(partition, 1L, Long::sum) - 1;
+            final SinkRecord sinkRecord = sinkRecord(partition.partition(), offset, "value");
+            offsetTracker.register(sinkRecord);
+            pendingRecords.computeIfAbsent(partition, tp -> new ArrayDeque<>()).add(sinkRecord);
+        }
+    }
+
+    private void acknowledge(final TopicPartition partition, final int count) {
+        for (int i = 0; i < count; i++) {
+            offsetTracker.acknowledge(pendingRecords.get(partition).poll());
+        }
+    }
+
+    private static HashSet<TopicPartition> partitions(final TopicPartition... partitions) {
+        return new HashSet<>(Arrays.asList(partitions));
+    }
+
+    @Test
+    public void testNothingPausedWithinBudget() {
+        final BackpressureController controller = controller(offsetTracker, 10, 30);
+        deliver(P0, 10);
+        deliver(P1, 10);
+        deliver(P2, 10);
+
+        assertTrue(controller.getOverBudgetPartitions(PARTITIONS).isEmpty());
+    }
+
+    @Test
+    public void testPartitionPausedUntilHalfCommittable() {
+        final BackpressureController controller = controller(offsetTracker, 10, 1000);
+        deliver(P0, 11);
+        deliver(P1, 3);
+        assertEquals(partitions(P0), controller.getOverBudgetPartitions(PARTITIONS));
+
+        // back within the budget, but still paused until half of it
+        acknowledge(P0, 2);
+        assertEquals(partitions(P0), controller.getOverBudgetPartitions(PARTITIONS));
+        acknowledge(P0, 3);
+        assertEquals(partitions(P0), controller.getOverBudgetPartitions(PARTITIONS));
+        acknowledge(P0, 1);
+        assertTrue(controller.getOverBudgetPartitions(PARTITIONS).isEmpty());
+
+        // resumed, hence paused again only past the budget
+        deliver(P0, 5);
+        assertTrue(controller.getOverBudgetPartitions(PARTITIONS).isEmpty());
+        deliver(P0, 1);
+        assertEquals(partitions(P0), controller.getOverBudgetPartitions(PARTITIONS));
+    }
+
+    @Test
+    public void testDeepestPartitionsPausedForTask() {
+        final BackpressureController controller = controller(offsetTracker, 100, 30);
+        deliver(P0, 12);
+        deliver(P1, 10);
+        deliver(P2, 6);
+        deliver(P3, 4);
+
+        // the deepest ones until the others hold half of the task budget
+        assertEquals(partitions(P0, P1), controller.getOverBudgetPartitions(PARTITIONS));
+
+        // back within the budget, but still paused until the task holds half of it
+        acknowledge(P2, 6);
+        assertEquals(partitions(P0, P1), controller.getOverBudgetPartitions(PARTITIONS));
+        acknowledge(P0, 12);
+        assertTrue(controller.getOverBudgetPartitions(PARTITIONS).isEmpty());
+    }
+
+    @Test
+    public void testTaskPausesMorePartitionsAsOthersGrow() {
+        final BackpressureController controller = controller(offsetTracker, 100, 30);
+        deliver(P0, 20);
+        deliver(P1, 11);
+        assertEquals(partitions(P0), controller.getOverBudgetPartitions(PARTITIONS));
+
+        deliver(P2, 10);
+        deliver(P3, 9);
+        // P0 is already paused, the task holds 50 records, of which 30 on the partitions consumed
+        assertEquals(partitions(P0, P1, P2), controller.getOverBudgetPartitions(PARTITIONS));
+    }
+
+    @Test
+    public void testRevokedPartitionsForgotten() {
+        final BackpressureController controller = controller(offsetTracker, 10, 1000);
+        deliver(P0, 11);
+        deliver(P1, 11);
+        assertEquals(partitions(P0, P1), controller.getOverBudgetPartitions(PARTITIONS));
+
+        controller.remove(Collections.singletonList(P0));
+        offsetTracker.remove(Collections.singletonList(P0));
+        assertEquals(partitions(P1), controller.getOverBudgetPartitions(Arrays.asList(P1, P2, P3)));
+        // no longer assigned, hence no longer paused
+        assertTrue(controller.getOverBudgetPartitions(Arrays.asList(P2, P3)).isEmpty());
+    }
+}
@@ -0,0 +1,146 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.junit.After;
+import org.junit.Test;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.timestream.TimestreamSinkConstants;
+import software.amazon.timestream.exception.TimestreamSinkConnectorException;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static software.amazon.timestream.utility.ConnectorFixtures.HOST_METRICS_SCHEMA;
+import static software.amazon.timestream.utility.ConnectorFixtures.config;
+import static software.amazon.timestream.utility.ConnectorFixtures.hostMetrics;
+import static software.amazon.timestream.utility.ConnectorFixtures.schema;
+import static software.amazon.timestream.utility.ConnectorFixtures.sinkRecord;
+
+public class CompiledMappingPlanTest {
+
+    private static final long TIME_MILLIS = 1_700_000_123_456L;
+
+    private final TimestreamSinkTaskMetrics metrics = new TimestreamSinkTaskMetrics("test", "compiled-mapping-plan");
+    private final InternCache internCache = new InternCache(1024 * 1024, metrics);
+
+    @After
+    public void tearDown() {
+        metrics.close();
+    }
+
+    private static CompiledMappingPlan plan(final String timeUnit) {
+        return CompiledMappingPlan.compile(schema(HOST_METRICS_SCHEMA.replace("MILLISECONDS", timeUnit)), config());
+    }
+
+    private Record convert(final CompiledMappingPlan plan, final Object value) {
+        final RecordColumns columns = plan.newColumns(1, internCache);
+        plan.addRow(columns, sinkRecord(0, 0, value));
+        return columns.toRecord(0);
+    }
+
+    private static Map<String, Object> hostMetricsAt(final Object time) {
+        final Map<String, Object> value = hostMetrics("host-1", "us-east-1", 0, 0.5, 1);
+        value.put("time", time);
+        return value;
+    }
+
+    private static Schema hostMetricsSchema(final int version) {
+        return SchemaBuilder.struct().name("host_metrics").version(version)
+                .field("host", Schema.STRING_SCHEMA)
+                .field("region", Schema.STRING_SCHEMA)
+                .field("time", Timestamp.SCHEMA)
+                .field("cpu", Schema.FLOAT64_SCHEMA)
+                .field("memory", Schema.INT64_SCHEMA)
+                .build();
+    }
+
+    private static Struct hostMetricsStruct(final Schema schema, final String host) {
+        return new Struct(schema).put("host", host).put("region", "us-east-1")
+                .put("time", new Date(TIME_MILLIS)).put("cpu", 0.5).put("memory", 1L);
+    }
+
+    @Test
+    public void testDateTimeInMilliseconds() {
+        assertEquals(String.valueOf(TIME_MILLIS), convert(plan("MILLISECONDS"), hostMetricsAt(new Date(TIME_MILLIS))).time());
+    }
+
+    @Test
+    public void testDateTimeConvertedToTimeUnit() {
+        assertEquals("1700000123", convert(plan("SECONDS"), hostMetricsAt(new Date(TIME_MILLIS))).time());
+        assertEquals("1700000123456000", convert(plan("MICROSECONDS"), hostMetricsAt(new Date(TIME_MILLIS))).time());
+        assertEquals("1700000123456000000", convert(plan("NANOSECONDS"), hostMetricsAt(new Date(TIME_MILLIS))).time());
+    }
+
+    @Test
+    public void testNumericTimeKeptInTimeUnit() {
+        assertEquals("1700000123", convert(plan("SECONDS"), hostMetricsAt(1_700_000_123L)).time());
+        assertEquals("1700000123", convert(plan("SECONDS"), hostMetricsAt("1700000123")).time());
+    }
+
+    @Test
+    public void testStructConverted() {
+        final Record record = convert(plan("MILLISECONDS"), hostMetricsStruct(hostMetricsSchema(1), "host-1"));
+
+        assertEquals(String.valueOf(TIME_MILLIS), record.time());
+        assertEquals(Arrays.asList(Dimension.builder().name("host").value("host-1").build(),
+                Dimension.builder().name("region").value("us-east-1").build()), record.dimensions());
+        assertEquals("0.5", record.measureValues().get(0).value());
+        assertEquals("1", record.measureValues().get(1).value());
+    }
+
+    @Test
+    public void testStructsOfManySchemas() {
+        final CompiledMappingPlan plan = plan("MILLISECONDS");
+        // more schemas than struct layouts kept, along with equal instances of the schemas seen before
+        for (int version = 1; version <= 200; version++) {
+            assertEquals("host-" + version,
+                    convert(plan, hostMetricsStruct(hostMetricsSchema(version), "host-" + version)).dimensions().get(0).value());
+            assertEquals("host-1",
+                    convert(plan, hostMetricsStruct(hostMetricsSchema(1), "host-1")).dimensions().get(0).value());
+        }
+    }
+
+    private static CompiledMappingPlan offsetVersionedPlan() {
+        return CompiledMappingPlan.compile(schema(HOST_METRICS_SCHEMA), config(
+                TimestreamSinkConstants.AUTO_VERSIONING, "true",
+                TimestreamSinkConstants.VERSIONING_MODE, TimestreamSinkConstants.VERSIONING_MODE_OFFSET));
+    }
+
+    @Test
+    public void testOffsetVersion() {
+        assertEquals(42L, CompiledMappingPlan.getOffsetVersion(sinkRecord(0, 42, "value")));
+        assertEquals((3L << 48) | 42L, CompiledMappingPlan.getOffsetVersion(sinkRecord(3, 42, "value")));
+        // increasing with the offset within a partition, and across the widest partition and offset
+        assertTrue(CompiledMappingPlan.getOffsetVersion(sinkRecord(3, 43, "value"))
+                > CompiledMappingPlan.getOffsetVersion(sinkRecord(3, 42, "value")));
+        assertEquals(Long.MAX_VALUE, CompiledMappingPlan.getOffsetVersion(sinkRecord(32767, (1L << 48) - 1, "value")));
+
+        final RecordColumns columns = offsetVersionedPlan().newColumns(1, internCache);
+        offsetVersionedPlan().addRow(columns, sinkRecord(2, 7, hostMetricsAt(TIME_MILLIS)));
+        assertEquals(Long.valueOf((2L << 48) | 7L), columns.toRecord(0).version());
+    }
+
+    @Test
+    public void testRecordOutOfOffsetVersionRangeRejected() {
+        final CompiledMappingPlan plan = offsetVersionedPlan();
+        final RecordColumns columns = plan.newColumns(2, internCache);
+
+        assertThrows(TimestreamSinkConnectorException.class,
+                () -> plan.addRow(columns, sinkRecord(32768, 0, hostMetricsAt(TIME_MILLIS))));
+        assertThrows(TimestreamSinkConnectorException.class,
+                () -> plan.addRow(columns, sinkRecord(0, 1L << 48, hostMetricsAt(TIME_MILLIS))));
+        assertEquals(0, columns.size());
+        // wall clock versions do not depend on the partition
+        final RecordColumns wallClockColumns = plan("MILLISECONDS").newColumns(1, internCache);
+        plan("MILLISECONDS").addRow(wallClockColumns, sinkRecord(32768, 0, hostMetricsAt(TIME_MILLIS)));
+        assertEquals(1, wallClockColumns.size());
+    }
+}
@@ -0,0 +1,70 @@
+package software.amazon.timestream.utility;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.GsonBuilder;
+import org.apache.kafka.connect.sink.SinkRecord;
+import software.amazon.awssdk.services.timestreamwrite.model.DataModel;
+import software.amazon.timestream.TimestreamSinkConnectorConfig;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connector configs, schema definitions and sink records shared by the unit tests
+ */
+final class ConnectorFixtures {
+
+    static final String TOPIC = "purchase_history";
+    /**
+     * Multi-measure schema definition of hosts in regions, with a constant measure name
+     */
+    static final String HOST_METRICS_SCHEMA = "{"
+            + "\"TimeColumn\":\"time\",\"TimeUnit\":\"MILLISECONDS\","
+            + "\"DimensionMappings\":["
+            + "{\"SourceColumn\":\"host\",\"DestinationColumn\":\"host\"},"
+            + "{\"SourceColumn\":\"region\",\"DestinationColumn\":\"region\"}],"
+            + "\"MultiMeasureMappings\":{\"TargetMultiMeasureName\":\"metrics\",\"MultiMeasureAttributeMappings\":["
+            + "{\"SourceColumn\":\"cpu\",\"TargetMultiMeasureAttributeName\":\"cpu\",\"MeasureValueType\":\"DOUBLE\"},"
+            + "{\"SourceColumn\":\"memory\",\"TargetMultiMeasureAttributeName\":\"memory\",\"MeasureValueType\":\"BIGINT\"}]},"
+            + "\"MeasureNameColumn\":\"metrics\"}";
+
+    private ConnectorFixtures() {
+    }
+
+    /**
+     * @param properties connector properties as key value pairs, on top of the defaults
+     * @return connector config
+     */
+    static TimestreamSinkConnectorConfig config(final String... properties) {
+        final Map<String, String> props = new HashMap<>();
+        for (int i = 0; i < properties.length; i += 2) {
+            props.put(properties[i], properties[i + 1]);
+        }
+        return new TimestreamSinkConnectorConfig(props);
+    }
+
+    /**
+     * @param json schema definition as stored in S3
+     * @return the schema definition, parsed as the schema readers do
+     */
+    static DataModel schema(final String json) {
+        return new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE).create().fromJson(json, DataModel.class);
+    }
+
+    /**
+     * @return value of a sink record of the {@link #HOST_METRICS_SCHEMA}
+     */
+    static Map<String, Object> hostMetrics(final String host, final String region, final long time, final double cpu, final long memory) {
+        final Map<String, Object> value = new HashMap<>();
+        value.put("host", host);
+        value.put("region", region);
+        value.put("time", time);
+        value.put("cpu", cpu);
+        value.put("memory", memory);
+        return value;
+    }
+
+    static SinkRecord sinkRecord(final int partition, final long offset, final Object value) {
+        return new SinkRecord(TOPIC, partition, null, null, null, value, offset);
+    }
+}
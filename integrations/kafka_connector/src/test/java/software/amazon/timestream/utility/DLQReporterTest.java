@@ -0,0 +1,67 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.junit.Test;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.timestream.schema.RejectedRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static software.amazon.timestream.utility.ConnectorFixtures.sinkRecord;
+
+public class DLQReporterTest {
+
+    private static final String DLQ_TOPIC = "purchase_history_dlq";
+
+    private final MockProducer<String, String> producer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+    private final DLQReporter reporter = new DLQReporter(DLQ_TOPIC, null, producer);
+    private final List<RejectedRecord> reported = new ArrayList<>();
+
+    private static RejectedRecord rejectedRecord(final long offset) {
+        final Record record = Record.builder().measureName("metrics").time(String.valueOf(1000 + offset)).build();
+        return new RejectedRecord(record, sinkRecord(0, offset, "value"), "The record timestamp is outside the time range");
+    }
+
+    @Test
+    public void testRecordsReportedOnceAcknowledged() {
+        final List<RejectedRecord> rejectedRecords = Arrays.asList(rejectedRecord(0), rejectedRecord(1));
+        reporter.reportRejectedRecords(rejectedRecords, reported::add);
+        assertTrue(reported.isEmpty());
+
+        producer.completeNext();
+        producer.completeNext();
+        assertEquals(rejectedRecords, reported);
+        assertEquals(2, producer.history().size());
+        assertTrue(producer.history().get(0).value().contains("\"offset\":0"));
+        reporter.checkDelivery();
+    }
+
+    @Test
+    public void testFailedDeliveryFailsTheTask() {
+        reporter.reportRejectedRecords(Arrays.asList(rejectedRecord(0), rejectedRecord(1)), reported::add);
+        producer.errorNext(new TimeoutException("Expiring 1 record(s)"));
+        producer.completeNext();
+
+        assertEquals(1, reported.size());
+        final ConnectException e = assertThrows(ConnectException.class, reporter::checkDelivery);
+        assertTrue(e.getMessage().contains(DLQ_TOPIC));
+    }
+
+    @Test
+    public void testFailedSendFailsTheTask() {
+        producer.close();
+        reporter.reportRejectedRecords(Collections.singletonList(rejectedRecord(0)), reported::add);
+
+        assertTrue(reported.isEmpty());
+        assertThrows(ConnectException.class, reporter::checkDelivery);
+    }
+}
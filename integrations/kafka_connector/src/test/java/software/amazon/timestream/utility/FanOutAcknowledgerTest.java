@@ -0,0 +1,97 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static software.amazon.timestream.utility.ConnectorFixtures.TOPIC;
+import static software.amazon.timestream.utility.ConnectorFixtures.sinkRecord;
+
+public class FanOutAcknowledgerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private final OffsetTracker offsetTracker = new OffsetTracker();
+
+    private SinkRecord register(final long offset) {
+        final SinkRecord sinkRecord = sinkRecord(0, offset, "value");
+        offsetTracker.register(sinkRecord);
+        return sinkRecord;
+    }
+
+    private long committableOffset() {
+        return offsetTracker.getCommittableOffsets(Collections.singleton(PARTITION)).get(PARTITION).offset();
+    }
+
+    @Test
+    public void testSingleTargetAcknowledgesStraightAway() {
+        final FanOutAcknowledger acknowledger = new FanOutAcknowledger(offsetTracker, 1);
+        final SinkRecord sinkRecord = register(0);
+        acknowledger.fanOut(Collections.singletonList(sinkRecord));
+        acknowledger.acknowledge(sinkRecord);
+        assertEquals(1, committableOffset());
+    }
+
+    @Test
+    public void testRecordAcknowledgedOnceEveryTargetIsDone() {
+        final FanOutAcknowledger acknowledger = new FanOutAcknowledger(offsetTracker, 2);
+        final SinkRecord first = register(0);
+        final SinkRecord second = register(1);
+        acknowledger.fanOut(Arrays.asList(first, second));
+
+        acknowledger.acknowledge(first);
+        acknowledger.acknowledge(second);
+        assertEquals(0, committableOffset());
+
+        acknowledger.acknowledge(first);
+        assertEquals(1, committableOffset());
+        acknowledger.acknowledge(second);
+        assertEquals(2, committableOffset());
+    }
+
+    @Test
+    public void testRecordNotFannedOutAcknowledgedStraightAway() {
+        // e.g. rejected by the conversion before being handed to the targets
+        final FanOutAcknowledger acknowledger = new FanOutAcknowledger(offsetTracker, 2);
+        final SinkRecord sinkRecord = register(0);
+        acknowledger.acknowledge(sinkRecord);
+        assertEquals(1, committableOffset());
+    }
+
+    @Test
+    public void testSpilledRecordAcknowledgedByItsCoordinates() {
+        final FanOutAcknowledger acknowledger = new FanOutAcknowledger(offsetTracker, 2);
+        final SinkRecord sinkRecord = register(0);
+        acknowledger.fanOut(Collections.singletonList(sinkRecord));
+        acknowledger.acknowledge(sinkRecord);
+        acknowledger.spill(Collections.singletonList(sinkRecord));
+
+        // read back from the spill store as a new sink record of the same partition and offset
+        acknowledger.acknowledge(sinkRecord(0, 0, null));
+        assertEquals(1, committableOffset());
+    }
+
+    @Test
+    public void testRevokedPartitionsDiscarded() {
+        final FanOutAcknowledger acknowledger = new FanOutAcknowledger(offsetTracker, 2);
+        final SinkRecord first = register(0);
+        final SinkRecord second = register(1);
+        acknowledger.fanOut(Arrays.asList(first, second));
+        acknowledger.spill(Collections.singletonList(second));
+        acknowledger.remove(Collections.singleton(PARTITION));
+        offsetTracker.remove(Collections.singleton(PARTITION));
+
+        // the partition is assigned back and redelivered from the last committed offset
+        final SinkRecord redelivered = register(0);
+        acknowledger.fanOut(Collections.singletonList(redelivered));
+        acknowledger.acknowledge(first);
+        acknowledger.acknowledge(redelivered);
+        assertEquals(0, committableOffset());
+        acknowledger.acknowledge(redelivered);
+        assertEquals(1, committableOffset());
+    }
+}
@@ -0,0 +1,91 @@
+package software.amazon.timestream.utility;
+
+import org.junit.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IngestionRateControllerTest {
+
+    private static final SdkServiceException THROTTLED = SdkServiceException.builder().statusCode(429).message("Rate exceeded").build();
+    private static final SdkServiceException UNAVAILABLE = SdkServiceException.builder().statusCode(503).message("Service unavailable").build();
+    private static final SdkServiceException VALIDATION = SdkServiceException.builder().statusCode(400).message("Invalid table").build();
+
+    private final IngestionRateController controller = new IngestionRateController(8);
+
+    /**
+     * @return time in milliseconds taken by the next acquire
+     */
+    private long timeAcquire() {
+        final long start = System.nanoTime();
+        controller.acquire();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Test
+    public void testRetryableFailures() {
+        assertTrue(IngestionRateController.isRetryable(THROTTLED));
+        assertTrue(IngestionRateController.isRetryable(UNAVAILABLE));
+        assertTrue(IngestionRateController.isRetryable(SdkClientException.create("Unable to execute HTTP request")));
+        assertFalse(IngestionRateController.isRetryable(VALIDATION));
+        assertFalse(IngestionRateController.isRetryable(new IllegalStateException()));
+        assertTrue(IngestionRateController.isThrottling(THROTTLED));
+        assertFalse(IngestionRateController.isThrottling(UNAVAILABLE));
+    }
+
+    @Test
+    public void testInflightRequestsCounted() {
+        controller.acquire();
+        controller.acquire();
+        assertEquals(2, controller.getInflight());
+        controller.release(null);
+        assertEquals(1, controller.getInflight());
+        assertEquals(8, controller.getConcurrencyLimit());
+    }
+
+    @Test
+    public void testThrottlingHalvesLimitAndBacksOff() {
+        controller.acquire();
+        controller.release(THROTTLED);
+        assertEquals(4, controller.getConcurrencyLimit());
+        assertTrue(timeAcquire() >= 50);
+
+        // throttled during the backoff: the limit is cut once per backoff
+        controller.acquire();
+        controller.release(THROTTLED);
+        controller.release(THROTTLED);
+        assertEquals(2, controller.getConcurrencyLimit());
+    }
+
+    @Test
+    public void testRetryableFailureBacksOffWithoutCuttingLimit() {
+        controller.acquire();
+        controller.release(UNAVAILABLE);
+        assertEquals(8, controller.getConcurrencyLimit());
+        assertTrue(timeAcquire() >= 50);
+    }
+
+    @Test
+    public void testNonRetryableFailureDoesNotBackOff() {
+        controller.acquire();
+        controller.release(VALIDATION);
+        assertEquals(8, controller.getConcurrencyLimit());
+        assertTrue(timeAcquire() < 50);
+    }
+
+    @Test
+    public void testLimitRecoversAsRequestsAreWritten() {
+        controller.acquire();
+        controller.release(THROTTLED);
+        assertEquals(4, controller.getConcurrencyLimit());
+        // about one round of requests per step up, capped by the maximum
+        for (int i = 0; i < 40; i++) {
+            controller.acquire();
+            controller.release(null);
+        }
+        assertEquals(8, controller.getConcurrencyLimit());
+    }
+}
@@ -0,0 +1,91 @@
+package software.amazon.timestream.utility;
+
+import org.junit.After;
+import org.junit.Test;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class InternCacheTest {
+
+    /**
+     * Estimated size of a dimension named "host" with a value of 6 characters
+     */
+    private static final int HOST_ENTRY_BYTES = 128 + 2 * ("host".length() + "host-1".length());
+
+    private final TimestreamSinkTaskMetrics metrics = new TimestreamSinkTaskMetrics("test", "intern-cache");
+
+    @After
+    public void tearDown() {
+        metrics.close();
+    }
+
+    @Test
+    public void testDimensionsShared() {
+        final InternCache cache = new InternCache(1024 * 1024, metrics);
+        final Dimension dimension = cache.getDimension("host", "host-1");
+
+        assertEquals(Dimension.builder().name("host").value("host-1").build(), dimension);
+        assertSame(dimension, cache.getDimension("host", new String("host-1")));
+        assertNotSame(dimension, cache.getDimension("hostname", "host-1"));
+        assertEquals(2, cache.size());
+        assertEquals(HOST_ENTRY_BYTES + 128 + 2 * ("hostname".length() + "host-1".length()), cache.getBytes());
+    }
+
+    @Test
+    public void testMeasureNamesShared() {
+        final InternCache cache = new InternCache(1024 * 1024, metrics);
+        final String measureName = cache.getMeasureName(new String("metrics"));
+
+        assertSame(measureName, cache.getMeasureName(new String("metrics")));
+        // measure names and dimension values do not collide
+        final Dimension dimension = cache.getDimension("metrics", "metrics");
+        assertEquals("metrics", dimension.value());
+        assertSame(measureName, cache.getMeasureName("metrics"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final InternCache cache = new InternCache(3 * HOST_ENTRY_BYTES, metrics);
+        final Dimension first = cache.getDimension("host", "host-1");
+        final Dimension second = cache.getDimension("host", "host-2");
+        cache.getDimension("host", "host-3");
+        assertEquals(3, cache.size());
+
+        // host-1 used again, so host-2 is the least recently used
+        assertSame(first, cache.getDimension("host", "host-1"));
+        cache.getDimension("host", "host-4");
+
+        assertEquals(3, cache.size());
+        assertEquals(3 * HOST_ENTRY_BYTES, cache.getBytes());
+        assertSame(first, cache.getDimension("host", "host-1"));
+        assertNotSame(second, cache.getDimension("host", "host-2"));
+    }
+
+    @Test
+    public void testEntryLargerThanMaximumKeptAlone() {
+        final InternCache cache = new InternCache(HOST_ENTRY_BYTES / 2, metrics);
+        final Dimension dimension = cache.getDimension("host", "host-1");
+
+        assertSame(dimension, cache.getDimension("host", "host-1"));
+        assertEquals(1, cache.size());
+        cache.getDimension("host", "host-2");
+        assertEquals(1, cache.size());
+        assertEquals(HOST_ENTRY_BYTES, cache.getBytes());
+    }
+
+    @Test
+    public void testNothingInternedWithoutMaximum() {
+        final InternCache cache = new InternCache(0, metrics);
+
+        assertEquals(cache.getDimension("host", "host-1"), cache.getDimension("host", "host-1"));
+        assertNotSame(cache.getDimension("host", "host-1"), cache.getDimension("host", "host-1"));
+        final String measureName = new String("metrics");
+        assertSame(measureName, cache.getMeasureName(measureName));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+}
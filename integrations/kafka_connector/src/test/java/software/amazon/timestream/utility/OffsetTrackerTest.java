@@ -0,0 +1,168 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OffsetTrackerTest {
+
+    private static final String TOPIC = "purchase_history";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private static SinkRecord sinkRecord(final int partition, final long offset) {
+        return new SinkRecord(TOPIC, partition, null, null, null, "value", offset);
+    }
+
+    private static long committableOffset(final OffsetTracker offsetTracker) {
+        final Map<TopicPartition, OffsetAndMetadata> committable =
+                offsetTracker.getCommittableOffsets(Collections.singleton(PARTITION));
+        return committable.get(PARTITION).offset();
+    }
+
+    @Test
+    public void testNoOffsetsBeforeDelivery() {
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        assertTrue(offsetTracker.getCommittableOffsets(Collections.singleton(PARTITION)).isEmpty());
+        assertEquals(0, offsetTracker.getOffsetLag(PARTITION));
+    }
+
+    @Test
+    public void testWatermarkWithAcknowledgementsInOrder() {
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        for (long offset = 10; offset < 13; offset++) {
+            offsetTracker.register(sinkRecord(0, offset));
+        }
+        assertEquals(10, committableOffset(offsetTracker));
+        assertEquals(3, offsetTracker.getOffsetLag(PARTITION));
+
+        offsetTracker.acknowledge(sinkRecord(0, 10));
+        assertEquals(11, committableOffset(offsetTracker));
+        offsetTracker.acknowledge(sinkRecord(0, 11));
+        offsetTracker.acknowledge(sinkRecord(0, 12));
+        assertEquals(13, committableOffset(offsetTracker));
+        assertEquals(0, offsetTracker.getOffsetLag(PARTITION));
+    }
+
+    @Test
+    public void testWatermarkWithAcknowledgementsOutOfOrder() {
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        for (long offset = 0; offset < 5; offset++) {
+            offsetTracker.register(sinkRecord(0, offset));
+        }
+        offsetTracker.acknowledge(sinkRecord(0, 3));
+        offsetTracker.acknowledge(sinkRecord(0, 1));
+        offsetTracker.acknowledge(sinkRecord(0, 4));
+        assertEquals(0, committableOffset(offsetTracker));
+        assertEquals(5, offsetTracker.getOffsetLag(PARTITION));
+
+        offsetTracker.acknowledge(sinkRecord(0, 0));
+        assertEquals(2, committableOffset(offsetTracker));
+        assertEquals(3, offsetTracker.getOffsetLag(PARTITION));
+
+        offsetTracker.acknowledge(sinkRecord(0, 2));
+        assertEquals(5, committableOffset(offsetTracker));
+    }
+
+    @Test
+    public void testWatermarkWithOffsetGaps() {
+        // compacted topics and transaction markers leave gaps in the delivered offsets
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        offsetTracker.register(sinkRecord(0, 5));
+        offsetTracker.register(sinkRecord(0, 9));
+        offsetTracker.acknowledge(sinkRecord(0, 5));
+        assertEquals(9, committableOffset(offsetTracker));
+        offsetTracker.acknowledge(sinkRecord(0, 9));
+        assertEquals(10, committableOffset(offsetTracker));
+    }
+
+    @Test
+    public void testRedeliveredOffsetsIgnored() {
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        offsetTracker.register(sinkRecord(0, 0));
+        offsetTracker.register(sinkRecord(0, 1));
+        offsetTracker.register(sinkRecord(0, 0));
+        offsetTracker.acknowledge(sinkRecord(0, 0));
+        offsetTracker.acknowledge(sinkRecord(0, 1));
+        assertEquals(2, committableOffset(offsetTracker));
+    }
+
+    @Test
+    public void testUnknownAcknowledgementsIgnored() {
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        offsetTracker.acknowledge(sinkRecord(0, 0));
+        offsetTracker.register(sinkRecord(0, 1));
+        offsetTracker.acknowledge(sinkRecord(0, 7));
+        assertEquals(1, committableOffset(offsetTracker));
+    }
+
+    @Test
+    public void testPendingOffsetsGrow() {
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        for (long offset = 0; offset < 1000; offset++) {
+            offsetTracker.register(sinkRecord(0, offset));
+            if (offset % 2 == 0) {
+                offsetTracker.acknowledge(sinkRecord(0, offset));
+            }
+        }
+        assertEquals(1, committableOffset(offsetTracker));
+        assertEquals(999, offsetTracker.getOffsetLag(PARTITION));
+        for (long offset = 1; offset < 1000; offset += 2) {
+            offsetTracker.acknowledge(sinkRecord(0, offset));
+        }
+        assertEquals(1000, committableOffset(offsetTracker));
+        assertEquals(0, offsetTracker.getOffsetLag(PARTITION));
+    }
+
+    @Test
+    public void testPendingOffsetsCompact() {
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        offsetTracker.register(sinkRecord(0, 0));
+        for (long offset = 1; offset < 1000; offset++) {
+            offsetTracker.register(sinkRecord(0, offset));
+            offsetTracker.acknowledge(sinkRecord(0, offset - 1));
+            assertEquals(offset, committableOffset(offsetTracker));
+            assertEquals(1, offsetTracker.getOffsetLag(PARTITION));
+        }
+        offsetTracker.acknowledge(sinkRecord(0, 999));
+        assertEquals(1000, committableOffset(offsetTracker));
+    }
+
+    @Test
+    public void testPartitionsTrackedIndependently() {
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        final TopicPartition otherPartition = new TopicPartition(TOPIC, 1);
+        offsetTracker.register(sinkRecord(0, 0));
+        offsetTracker.register(sinkRecord(1, 100));
+        offsetTracker.acknowledge(sinkRecord(1, 100));
+
+        final Map<TopicPartition, OffsetAndMetadata> committable =
+                offsetTracker.getCommittableOffsets(Arrays.asList(PARTITION, otherPartition));
+        assertEquals(0, committable.get(PARTITION).offset());
+        assertEquals(101, committable.get(otherPartition).offset());
+    }
+
+    @Test
+    public void testReRegistrationAfterRemove() {
+        final OffsetTracker offsetTracker = new OffsetTracker();
+        offsetTracker.register(sinkRecord(0, 0));
+        offsetTracker.register(sinkRecord(0, 1));
+        offsetTracker.acknowledge(sinkRecord(0, 0));
+        offsetTracker.remove(Collections.singleton(PARTITION));
+        assertTrue(offsetTracker.getCommittableOffsets(Collections.singleton(PARTITION)).isEmpty());
+
+        // the partition is assigned back and redelivered from the last committed offset
+        offsetTracker.acknowledge(sinkRecord(0, 1));
+        offsetTracker.register(sinkRecord(0, 1));
+        assertEquals(1, committableOffset(offsetTracker));
+        offsetTracker.acknowledge(sinkRecord(0, 1));
+        assertEquals(2, committableOffset(offsetTracker));
+    }
+}
@@ -0,0 +1,51 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class PartitionLanesTest {
+
+    private static final String TOPIC = "purchase_history";
+
+    private final PartitionLanes lanes = new PartitionLanes(4);
+
+    private static TopicPartition partition(final int partition) {
+        return new TopicPartition(TOPIC, partition);
+    }
+
+    @Test
+    public void testPartitionsBalancedOverLanes() {
+        final int[] partitionCounts = new int[4];
+        // partitions whose hash codes would all fall on the same lane
+        for (int i = 0; i < 8; i++) {
+            partitionCounts[lanes.getLane(partition(i * 4))]++;
+        }
+        assertEquals(Arrays.toString(new int[]{2, 2, 2, 2}), Arrays.toString(partitionCounts));
+    }
+
+    @Test
+    public void testPartitionKeepsItsLane() {
+        final int lane = lanes.getLane(partition(7));
+        lanes.getLane(partition(1));
+        lanes.getLane(partition(2));
+        assertEquals(lane, lanes.getLane(partition(7)));
+        assertEquals(lane, lanes.getLane(partition(7)));
+    }
+
+    @Test
+    public void testRemovedPartitionReleasesItsLane() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, lanes.getLane(partition(i)));
+        }
+        lanes.remove(Arrays.asList(partition(2), partition(9)));
+        assertEquals(2, lanes.getLane(partition(4)));
+        // removed partition assigned again, to the least loaded lane
+        lanes.remove(Collections.singletonList(partition(0)));
+        assertEquals(0, lanes.getLane(partition(2)));
+    }
+}
@@ -0,0 +1,64 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static software.amazon.timestream.utility.ConnectorFixtures.TOPIC;
+import static software.amazon.timestream.utility.ConnectorFixtures.sinkRecord;
+
+public class RecentWriteFilterTest {
+
+    private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+    private static Map<TopicPartition, OffsetAndMetadata> offsets(final TopicPartition partition, final long offset) {
+        final Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        offsets.put(partition, new OffsetAndMetadata(offset));
+        return offsets;
+    }
+
+    @Test
+    public void testRecordsBelowWrittenOffsetSkipped() {
+        final RecentWriteFilter filter = new RecentWriteFilter("written-offset", 60_000);
+        assertFalse(filter.isWritten(sinkRecord(0, 0, "value")));
+
+        filter.update(offsets(P0, 10));
+        assertTrue(filter.isWritten(sinkRecord(0, 0, "value")));
+        assertTrue(filter.isWritten(sinkRecord(0, 9, "value")));
+        assertFalse(filter.isWritten(sinkRecord(0, 10, "value")));
+        // other partitions are not affected
+        assertFalse(filter.isWritten(sinkRecord(1, 0, "value")));
+    }
+
+    @Test
+    public void testOffsetsSharedByTasksOfConnector() {
+        final RecentWriteFilter filter = new RecentWriteFilter("shared-offsets", 60_000);
+        filter.update(offsets(P1, 5));
+
+        // e.g. the partition moving to another task of the connector on the same worker
+        assertTrue(new RecentWriteFilter("shared-offsets", 60_000).isWritten(sinkRecord(1, 4, "value")));
+        assertFalse(new RecentWriteFilter("other-connector", 60_000).isWritten(sinkRecord(1, 4, "value")));
+    }
+
+    @Test
+    public void testNothingSkippedPastWindow() throws InterruptedException {
+        final RecentWriteFilter filter = new RecentWriteFilter("past-window", 20);
+        filter.update(offsets(P0, 10));
+        assertTrue(filter.isWritten(sinkRecord(0, 5, "value")));
+
+        // e.g. the offsets deliberately reset to ingest the records again
+        Thread.sleep(50);
+        assertFalse(filter.isWritten(sinkRecord(0, 5, "value")));
+        // the window restarts only once the offset moves
+        filter.update(offsets(P0, 10));
+        assertFalse(filter.isWritten(sinkRecord(0, 5, "value")));
+        filter.update(offsets(P0, 11));
+        assertTrue(filter.isWritten(sinkRecord(0, 5, "value")));
+    }
+}
@@ -0,0 +1,155 @@
+package software.amazon.timestream.utility;
+
+import org.junit.After;
+import org.junit.Test;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.timestream.TimestreamSinkConstants;
+import software.amazon.timestream.schema.RecordBatch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static software.amazon.timestream.utility.ConnectorFixtures.HOST_METRICS_SCHEMA;
+import static software.amazon.timestream.utility.ConnectorFixtures.config;
+import static software.amazon.timestream.utility.ConnectorFixtures.hostMetrics;
+import static software.amazon.timestream.utility.ConnectorFixtures.schema;
+import static software.amazon.timestream.utility.ConnectorFixtures.sinkRecord;
+
+public class RecordBatchBuilderTest {
+
+    private final TimestreamSinkTaskMetrics metrics = new TimestreamSinkTaskMetrics("test", "record-batch-builder");
+    private final CompiledMappingPlan plan = CompiledMappingPlan.compile(schema(HOST_METRICS_SCHEMA), config());
+
+    @After
+    public void tearDown() {
+        metrics.close();
+    }
+
+    private RecordColumns columns(final String... hosts) {
+        final RecordColumns columns = plan.newColumns(hosts.length, new InternCache(1024 * 1024, metrics));
+        for (int i = 0; i < hosts.length; i++) {
+            plan.addRow(columns, sinkRecord(0, i, hostMetrics(hosts[i], "us-east-1", 1000L + i, 0.5, i)));
+        }
+        return columns;
+    }
+
+    @Test
+    public void testSharedDimensionsSentAsCommonAttributes() {
+        final RecordColumns columns = columns("host-1", "host-2", "host-1", "host-2", "host-1");
+        final List<RecordBatch> batches = new RecordBatchBuilder(config()).build(columns);
+
+        assertEquals(1, batches.size());
+        final RecordBatch batch = batches.get(0);
+        assertEquals(5, batch.size());
+        assertEquals("metrics", batch.getCommonAttributes().measureName());
+        assertEquals(Collections.singletonList(Dimension.builder().name("region").value("us-east-1").build()),
+                batch.getCommonAttributes().dimensions());
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(i, batch.getSourceRecord(i).kafkaOffset());
+            assertEquals(Collections.singletonList(Dimension.builder().name("host").value(i % 2 == 0 ? "host-1" : "host-2").build()),
+                    batch.getRequestRecords().get(i).dimensions());
+            assertEquals(columns.toRecord(i), batch.getRecord(i));
+        }
+    }
+
+    @Test
+    public void testRecordsOfManySeriesFillUpBatches() {
+        final String[] hosts = new String[1000];
+        for (int i = 0; i < hosts.length; i++) {
+            hosts[i] = "host-" + i;
+        }
+        final List<RecordBatch> batches = new RecordBatchBuilder(config()).build(columns(hosts));
+
+        assertEquals(10, batches.size());
+        for (final RecordBatch batch : batches) {
+            assertEquals(100, batch.size());
+            assertEquals(1, batch.getCommonAttributes().dimensions().size());
+            assertEquals(1, batch.getRequestRecords().get(0).dimensions().size());
+        }
+    }
+
+    @Test
+    public void testRecordsBatchedByMeasureNameAndDimensionNames() {
+        final CompiledMappingPlan measureNamePlan = CompiledMappingPlan.compile(schema(HOST_METRICS_SCHEMA
+                .replace("\"MeasureNameColumn\":\"metrics\"", "\"MeasureNameColumn\":\"$host\"")),
+                config(TimestreamSinkConstants.SKIP_DIMENSION, "true"));
+        final RecordColumns columns = measureNamePlan.newColumns(4, new InternCache(1024 * 1024, metrics));
+        measureNamePlan.addRow(columns, sinkRecord(0, 0, hostMetrics("host-1", "us-east-1", 1000L, 0.5, 0)));
+        measureNamePlan.addRow(columns, sinkRecord(0, 1, hostMetrics("host-2", "us-east-1", 1001L, 0.5, 1)));
+        measureNamePlan.addRow(columns, sinkRecord(0, 2, hostMetrics("host-1", "", 1002L, 0.5, 2)));
+        measureNamePlan.addRow(columns, sinkRecord(0, 3, hostMetrics("host-1", "eu-west-1", 1003L, 0.5, 3)));
+        final List<RecordBatch> batches = new RecordBatchBuilder(config()).build(columns);
+
+        // a skipped dimension keeps the record out of the batch of the records that have it
+        assertEquals(3, batches.size());
+        assertEquals(Arrays.asList(0L, 3L), Arrays.asList(batches.get(0).getSourceRecord(0).kafkaOffset(),
+                batches.get(0).getSourceRecord(1).kafkaOffset()));
+        assertEquals("host-1", batches.get(0).getCommonAttributes().measureName());
+        assertEquals(1, batches.get(1).size());
+        assertEquals("host-2", batches.get(1).getCommonAttributes().measureName());
+        assertEquals(1, batches.get(2).size());
+        assertEquals(2L, batches.get(2).getSourceRecord(0).kafkaOffset());
+        assertEquals(1, batches.get(2).getRecord(0).dimensions().size());
+    }
+
+    @Test
+    public void testRequestRecordsLeaveCommonAttributesOut() {
+        final RecordBatch batch = new RecordBatchBuilder(config()).build(columns("host-1")).get(0);
+        final Record requestRecord = batch.getRequestRecords().get(0);
+        assertNull(requestRecord.measureName());
+        assertTrue(requestRecord.dimensions().isEmpty());
+        assertEquals("1000", requestRecord.time());
+        assertEquals(2, requestRecord.measureValues().size());
+
+        final Record record = batch.getRecord(0);
+        assertEquals("metrics", record.measureName());
+        assertEquals(2, record.dimensions().size());
+        assertEquals("1000", record.time());
+    }
+
+    @Test
+    public void testBatchesCutAtBatchSize() {
+        final String[] hosts = new String[7];
+        Arrays.fill(hosts, "host-1");
+        final List<RecordBatch> batches = new RecordBatchBuilder(config(TimestreamSinkConstants.BATCH_SIZE, "3")).build(columns(hosts));
+
+        assertEquals(3, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertEquals(3, batches.get(1).size());
+        assertEquals(1, batches.get(2).size());
+        assertEquals(batches.get(0).getCommonAttributes(), batches.get(2).getCommonAttributes());
+        assertEquals(6, batches.get(2).getSourceRecord(0).kafkaOffset());
+    }
+
+    @Test
+    public void testBatchesCutAtMaxBytes() {
+        final String[] hosts = new String[10];
+        Arrays.fill(hosts, "host-1");
+        // the request overhead along with about two records
+        final List<RecordBatch> batches = new RecordBatchBuilder(config(TimestreamSinkConstants.BATCH_MAX_BYTES, "600"))
+                .build(columns(hosts));
+
+        assertTrue(batches.size() > 1);
+        int records = 0;
+        for (final RecordBatch batch : batches) {
+            assertTrue(batch.size() < hosts.length);
+            records += batch.size();
+        }
+        assertEquals(hosts.length, records);
+    }
+
+    @Test
+    public void testRecordLargerThanMaxBytesSentAlone() {
+        final List<RecordBatch> batches = new RecordBatchBuilder(config(TimestreamSinkConstants.BATCH_MAX_BYTES, "1"))
+                .build(columns("host-1", "host-1"));
+
+        assertEquals(2, batches.size());
+        assertEquals(1, batches.get(0).size());
+        assertEquals(1, batches.get(1).size());
+    }
+}
@@ -0,0 +1,204 @@
+package software.amazon.timestream.utility;
+
+import org.junit.After;
+import org.junit.Test;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValue;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValueType;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static software.amazon.timestream.utility.ConnectorFixtures.sinkRecord;
+
+public class RecordColumnsTest {
+
+    private static final String[] MEASURE_NAMES = {"cpu", "memory", "status"};
+    private static final String[] MEASURE_TYPES = {"DOUBLE", "BIGINT", "VARCHAR"};
+    private static final MeasureValueType[] MEASURE_VALUE_TYPES = {MeasureValueType.DOUBLE, MeasureValueType.BIGINT, MeasureValueType.VARCHAR};
+
+    private final TimestreamSinkTaskMetrics metrics = new TimestreamSinkTaskMetrics("test", "record-columns");
+    private final InternCache internCache = new InternCache(1024 * 1024, metrics);
+
+    @After
+    public void tearDown() {
+        metrics.close();
+    }
+
+    private RecordColumns columns(final int capacity, final boolean versioned) {
+        return new RecordColumns(capacity, internCache, "MILLISECONDS", 2, MEASURE_NAMES, MEASURE_TYPES, MEASURE_VALUE_TYPES, versioned);
+    }
+
+    private static void setRow(final RecordColumns columns, final int row, final String host, final double cpu) {
+        columns.setTime(row, 1000L + row);
+        columns.setMeasureName(row, "metrics");
+        columns.setDimension(row, 0, "host", host);
+        columns.setDimension(row, 1, "region", "us-east-1");
+        columns.setMeasureValue(row, 0, cpu);
+        columns.setMeasureValue(row, 1, 100L + row);
+        columns.setMeasureValue(row, 2, "healthy");
+        columns.addRow(sinkRecord(0, row, "value-" + row));
+    }
+
+    private static String measureValue(final Record record, final String name) {
+        for (final MeasureValue measureValue : record.measureValues()) {
+            if (measureValue.name().equals(name)) {
+                return measureValue.value();
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testRowConvertedToRecord() {
+        final RecordColumns columns = columns(1, false);
+        setRow(columns, 0, "host-1", 0.5);
+
+        assertEquals(1, columns.size());
+        assertEquals(3, columns.getMeasureCount());
+        assertFalse(columns.isVersioned());
+        final Record record = columns.toRecord(0);
+        assertEquals("metrics", record.measureName());
+        assertEquals(Arrays.asList(Dimension.builder().name("host").value("host-1").build(),
+                Dimension.builder().name("region").value("us-east-1").build()), record.dimensions());
+        assertEquals("1000", record.time());
+        assertEquals("MILLISECONDS", record.timeUnitAsString());
+        assertEquals(MeasureValueType.MULTI, record.measureValueType());
+        assertEquals(Arrays.asList(
+                MeasureValue.builder().name("cpu").value("0.5").type("DOUBLE").build(),
+                MeasureValue.builder().name("memory").value("100").type("BIGINT").build(),
+                MeasureValue.builder().name("status").value("healthy").type("VARCHAR").build()), record.measureValues());
+        assertNull(record.version());
+        assertEquals(0L, columns.getSourceRecord(0).kafkaOffset());
+    }
+
+    @Test
+    public void testCommonAttributesAndRequestRecordMakeUpTheRecord() {
+        final RecordColumns columns = columns(1, true);
+        setRow(columns, 0, "host-1", 0.5);
+        columns.setVersion(0, 7L);
+
+        // the host is not shared within the batch
+        final boolean[] commonDimensions = {false, true};
+        final Record commonAttributes = columns.toCommonAttributes(0, commonDimensions);
+        final Record requestRecord = columns.toRequestRecord(0, commonDimensions);
+        assertNull(requestRecord.measureName());
+        assertEquals(Collections.singletonList(Dimension.builder().name("host").value("host-1").build()), requestRecord.dimensions());
+        assertEquals(Collections.singletonList(Dimension.builder().name("region").value("us-east-1").build()),
+                commonAttributes.dimensions());
+        assertEquals(Long.valueOf(7L), requestRecord.version());
+        assertEquals(columns.toRecord(0), requestRecord.toBuilder()
+                .measureName(commonAttributes.measureName())
+                .dimensions(Arrays.asList(requestRecord.dimensions().get(0), commonAttributes.dimensions().get(0)))
+                .timeUnit(commonAttributes.timeUnitAsString())
+                .measureValueType(commonAttributes.measureValueType())
+                .build());
+    }
+
+    @Test
+    public void testRowsGroupedByMeasureNameAndDimensionNames() {
+        final RecordColumns columns = columns(4, false);
+        setRow(columns, 0, "host-1", 0.5);
+        setRow(columns, 1, "host-2", 0.5);
+        setRow(columns, 2, "host-1", 0.7);
+        setRow(columns, 3, "host-1", 0.7);
+        columns.setDimension(3, 1, "region", null);
+
+        assertTrue(columns.isSameGroup(0, 1));
+        assertEquals(columns.groupHash(0), columns.groupHash(1));
+        assertTrue(columns.isSameDimension(0, 2, 0));
+        assertFalse(columns.isSameDimension(0, 1, 0));
+        assertTrue(columns.isSameDimension(0, 1, 1));
+        assertFalse(columns.isSameGroup(0, 3));
+        assertFalse(columns.isSameDimension(3, 3, 1));
+        // dimensions of the same value are shared by the rows
+        assertSame(columns.toRecord(0).dimensions().get(0), columns.toRecord(2).dimensions().get(0));
+        assertSame(columns.toRecord(0).dimensions().get(1), columns.toRecord(1).dimensions().get(1));
+    }
+
+    @Test
+    public void testSkippedValuesLeftOut() {
+        final RecordColumns columns = columns(2, false);
+        setRow(columns, 0, "host-1", 0.5);
+        columns.setDimension(0, 0, "host", null);
+        columns.skipMeasureValue(0, 1);
+
+        final Record record = columns.toRecord(0);
+        assertEquals(Collections.singletonList(Dimension.builder().name("region").value("us-east-1").build()), record.dimensions());
+        assertEquals(2, record.measureValues().size());
+        assertNull(measureValue(record, "memory"));
+        assertFalse(columns.hasMeasureValue(0, 1));
+        assertTrue(columns.hasMeasureValue(0, 0));
+    }
+
+    @Test
+    public void testTimeAsText() {
+        final RecordColumns columns = columns(1, false);
+        setRow(columns, 0, "host-1", 0.5);
+        columns.setTime(0, "1695127563");
+
+        assertEquals("1695127563", columns.toRecord(0).time());
+        assertEquals(10, columns.getTimeLength(0));
+        columns.setTime(0, 42L);
+        assertEquals("42", columns.toRecord(0).time());
+        assertEquals(2, columns.getTimeLength(0));
+    }
+
+    @Test
+    public void testTextValueOfTypedColumn() {
+        final RecordColumns columns = columns(1, false);
+        setRow(columns, 0, "host-1", 0.5);
+        columns.setMeasureValue(0, 0, "12.50");
+
+        assertEquals("12.50", measureValue(columns.toRecord(0), "cpu"));
+        assertEquals("cpu".length() + "DOUBLE".length() + "12.50".length(), columns.getMeasureValueLength(0, 0));
+        columns.setMeasureValue(0, 0, 0.25);
+        assertEquals("0.25", measureValue(columns.toRecord(0), "cpu"));
+    }
+
+    @Test
+    public void testDoublesInPlainNotation() {
+        final RecordColumns columns = columns(4, false);
+        setRow(columns, 0, "host-1", 1.0E-5);
+        setRow(columns, 1, "host-1", 1.5E7);
+        setRow(columns, 2, "host-1", -2.5E-12);
+        setRow(columns, 3, "host-1", 1.0E300);
+
+        assertEquals("0.00001", measureValue(columns.toRecord(0), "cpu"));
+        assertEquals("15000000", measureValue(columns.toRecord(1), "cpu"));
+        assertEquals("-0.0000000000025", measureValue(columns.toRecord(2), "cpu"));
+        final String large = measureValue(columns.toRecord(3), "cpu");
+        assertEquals(301, large.length());
+        assertEquals("cpu".length() + "DOUBLE".length() + large.length(), columns.getMeasureValueLength(3, 0));
+    }
+
+    @Test
+    public void testLengthsAsSent() {
+        final RecordColumns columns = columns(1, false);
+        setRow(columns, 0, "host-1", 0.5);
+        columns.setMeasureValue(0, 1, -12345L);
+
+        assertEquals("memory".length() + "BIGINT".length() + "-12345".length(), columns.getMeasureValueLength(0, 1));
+        assertEquals("status".length() + "VARCHAR".length() + "healthy".length(), columns.getMeasureValueLength(0, 2));
+        assertEquals(4, columns.getTimeLength(0));
+    }
+
+    @Test
+    public void testLengthsInUtf8Bytes() {
+        final RecordColumns columns = columns(1, false);
+        setRow(columns, 0, "h\u00f6st-\u6771", 0.5);
+        columns.setMeasureValue(0, 2, "\u00fcnhealthy");
+        columns.setTime(0, "\u6771");
+
+        // 2 bytes for each of \u00f6 and \u00fc, 3 for \u6771
+        assertEquals("host".length() + "hst-".length() + 2 + 3, columns.getDimensionLength(0, 0));
+        assertEquals("status".length() + "VARCHAR".length() + "unhealthy".length() + 1, columns.getMeasureValueLength(0, 2));
+        assertEquals(3, columns.getTimeLength(0));
+    }
+}
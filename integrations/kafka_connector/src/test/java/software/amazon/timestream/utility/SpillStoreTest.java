@@ -0,0 +1,194 @@
+package software.amazon.timestream.utility;
+
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.services.timestreamwrite.model.Dimension;
+import software.amazon.awssdk.services.timestreamwrite.model.MeasureValue;
+import software.amazon.awssdk.services.timestreamwrite.model.Record;
+import software.amazon.timestream.exception.TimestreamSinkConnectorException;
+import software.amazon.timestream.schema.RecordBatch;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static software.amazon.timestream.utility.ConnectorFixtures.TOPIC;
+import static software.amazon.timestream.utility.ConnectorFixtures.sinkRecord;
+
+public class SpillStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private SpillStore store;
+
+    @After
+    public void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private static RecordBatch batch(final String host, final long... offsets) {
+        final Record commonAttributes = Record.builder()
+                .measureName("metrics")
+                .timeUnit("MILLISECONDS")
+                .measureValueType("MULTI")
+                .dimensions(Dimension.builder().name("host").value(host).build(),
+                        Dimension.builder().name("region").value("us-east-1").build())
+                .build();
+        final List<Record> records = new ArrayList<>();
+        final List<SinkRecord> sourceRecords = new ArrayList<>();
+        for (final long offset : offsets) {
+            records.add(Record.builder()
+                    .time(String.valueOf(1000 + offset))
+                    .version(offset % 2 == 0 ? offset : null)
+                    .dimensions(Dimension.builder().name("zone").value("zone-" + offset % 2).build())
+                    .measureValues(Arrays.asList(
+                            MeasureValue.builder().name("cpu").value("0.5").type("DOUBLE").build(),
+                            MeasureValue.builder().name("status").value("\u00fcnhealthy").type("VARCHAR").build()))
+                    .build());
+            sourceRecords.add(sinkRecord((int) (offset % 3), offset, "value"));
+        }
+        return new RecordBatch(commonAttributes, records, sourceRecords);
+    }
+
+    private static void assertSameBatch(final RecordBatch expected, final RecordBatch actual) {
+        assertEquals(expected.getCommonAttributes(), actual.getCommonAttributes());
+        assertEquals(expected.getRequestRecords(), actual.getRequestRecords());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final SinkRecord sinkRecord = actual.getSourceRecord(i);
+            assertEquals(TOPIC, sinkRecord.topic());
+            assertEquals(expected.getSourceRecord(i).kafkaPartition(), sinkRecord.kafkaPartition());
+            assertEquals(expected.getSourceRecord(i).kafkaOffset(), sinkRecord.kafkaOffset());
+        }
+    }
+
+    private List<Path> segments(final Path directory) throws IOException {
+        final List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.spill")) {
+            files.forEach(segments::add);
+        }
+        return segments;
+    }
+
+    @Test
+    public void testBatchesReplayedInOrder() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        store = new SpillStore(directory, 1024 * 1024);
+        final RecordBatch first = batch("host-1", 0, 1, 2);
+        final RecordBatch second = batch("host-2", 3);
+        assertTrue(store.isEmpty());
+        assertTrue(store.append(first));
+        assertTrue(store.append(second));
+        assertEquals(2, store.getNextSequence());
+        assertFalse(store.isEmpty());
+
+        final SpillStore.SpilledBatch head = store.peek();
+        assertEquals(0, head.getSequence());
+        assertSameBatch(first, head.getBatch());
+        // kept until removed, e.g. to be replayed again after a failure
+        assertEquals(0, store.peek().getSequence());
+        store.remove();
+
+        assertEquals(1, store.peek().getSequence());
+        assertSameBatch(second, store.peek().getBatch());
+        store.remove();
+
+        assertNull(store.peek());
+        assertTrue(store.isEmpty());
+        assertEquals(0, store.getBytes());
+        assertTrue(segments(directory).isEmpty());
+    }
+
+    @Test
+    public void testStoreFull() {
+        store = new SpillStore(folder.getRoot().toPath(), 1024 * 1024);
+        assertTrue(store.append(batch("host-1", 10)));
+        final long entryBytes = store.getBytes();
+        store.close();
+
+        // batches of the same size
+        store = new SpillStore(folder.getRoot().toPath(), 2 * entryBytes);
+        assertTrue(store.append(batch("host-1", 10)));
+        assertTrue(store.append(batch("host-1", 12)));
+        assertFalse(store.append(batch("host-1", 14)));
+        assertEquals(2 * entryBytes, store.getBytes());
+        assertEquals(2, store.getNextSequence());
+
+        store.remove();
+        assertTrue(store.append(batch("host-1", 14)));
+        assertEquals(1, store.peek().getSequence());
+    }
+
+    @Test
+    public void testSegmentsLeftOverDeletedOnOpen() throws IOException {
+        // segments of a task that stopped before replaying them, e.g. one killed while appending
+        final Path directory = folder.getRoot().toPath();
+        final SpillStore previous = new SpillStore(directory, 1024 * 1024);
+        assertTrue(previous.append(batch("host-1", 0, 1)));
+        final Path segment = segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        store = new SpillStore(directory, 1024 * 1024);
+        assertTrue(segments(directory).isEmpty());
+        assertNull(store.peek());
+        assertTrue(store.append(batch("host-2", 2)));
+        assertSameBatch(batch("host-2", 2), store.peek().getBatch());
+    }
+
+    @Test
+    public void testTruncatedSegmentNotReplayed() throws IOException {
+        final Path directory = folder.getRoot().toPath();
+        store = new SpillStore(directory, 1024 * 1024);
+        assertTrue(store.append(batch("host-1", 0, 1)));
+        try (FileChannel channel = FileChannel.open(segments(directory).get(0), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        // left in the store, its records not being acknowledged
+        assertThrows(TimestreamSinkConnectorException.class, store::peek);
+        assertThrows(TimestreamSinkConnectorException.class, store::peek);
+        assertFalse(store.isEmpty());
+    }
+
+    @Test
+    public void testRecordsOfRevokedPartitionsFiltered() {
+        store = new SpillStore(folder.getRoot().toPath(), 1024 * 1024);
+        assertTrue(store.append(batch("host-1", 0, 1, 2, 3)));
+        // partition 1 revoked after the first batch is spilled, then assigned again
+        final long revokedAt = store.getNextSequence();
+        assertTrue(store.append(batch("host-1", 4, 5, 6, 7)));
+
+        final List<Long> replayedOffsets = new ArrayList<>();
+        for (SpillStore.SpilledBatch spilledBatch = store.peek(); spilledBatch != null; spilledBatch = store.peek()) {
+            final long sequence = spilledBatch.getSequence();
+            final RecordBatch batch = spilledBatch.getBatch()
+                    .retain(sinkRecord -> sinkRecord.kafkaPartition() != 1 || sequence >= revokedAt);
+            for (int i = 0; i < batch.size(); i++) {
+                replayedOffsets.add(batch.getSourceRecord(i).kafkaOffset());
+                assertEquals("host-1", batch.getRecord(i).dimensions().get(0).value());
+            }
+            store.remove();
+        }
+
+        assertEquals(Arrays.asList(0L, 2L, 3L, 4L, 5L, 6L, 7L), replayedOffsets);
+    }
+}
@@ -0,0 +1,98 @@
+package software.amazon.timestream.utility;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+public class ValueFormatterTest {
+
+    @Test
+    public void testStripQuotes() {
+        final String unquoted = "headphones";
+        assertSame(unquoted, ValueFormatter.stripQuotes(unquoted));
+        assertEquals("headphones", ValueFormatter.stripQuotes("\"headphones\""));
+        assertEquals("", ValueFormatter.stripQuotes("\"\""));
+    }
+
+    @Test
+    public void testFormatDoubleKeepsPlainDecimals() {
+        for (final String value : new String[] {"0", "-0.0", "42", "1234.5678", "-0.15", "0.1000000000000000055511151231257827"}) {
+            assertSame(value, ValueFormatter.formatDouble(value));
+        }
+    }
+
+    @Test
+    public void testFormatDoubleWritesOtherFormsAsPlainDecimals() {
+        assertEquals("0.00001", ValueFormatter.formatDouble("1.0E-5"));
+        assertEquals("123456789", ValueFormatter.formatDouble("1.23456789E8"));
+        assertEquals("1500", ValueFormatter.formatDouble("1.5e3"));
+        assertEquals("2", ValueFormatter.formatDouble("2d"));
+        assertEquals("0.5", ValueFormatter.formatDouble(".5"));
+        assertEquals("1", ValueFormatter.formatDouble("1."));
+        assertEquals("3.25", ValueFormatter.formatDouble("+3.25"));
+        assertEquals("0", ValueFormatter.formatDouble("0e10"));
+    }
+
+    @Test
+    public void testFormatNativeDouble() {
+        assertEquals("0.5", ValueFormatter.formatDouble(0.5));
+        assertEquals("-1234.5", ValueFormatter.formatDouble(-1234.5));
+        assertEquals("1500000.0", ValueFormatter.formatDouble(1_500_000d));
+        assertEquals("15000000", ValueFormatter.formatDouble(1.5E7));
+        assertEquals("0.00001", ValueFormatter.formatDouble(1.0E-5));
+        assertEquals("NaN", ValueFormatter.formatDouble(Double.NaN));
+    }
+
+    @Test
+    public void testFormatDoubleRejectsNonFiniteValues() {
+        assertThrows(NumberFormatException.class, () -> ValueFormatter.formatDouble("abc"));
+        assertThrows(NumberFormatException.class, () -> ValueFormatter.formatDouble(""));
+        assertThrows(NumberFormatException.class, () -> ValueFormatter.formatDouble("NaN"));
+        assertThrows(NumberFormatException.class, () -> ValueFormatter.formatDouble("-Infinity"));
+    }
+
+    @Test
+    public void testParseEpochMillisMatchesInstant() {
+        final String[] values = {
+                "1970-01-01T00:00:00Z",
+                "1969-12-31T23:59:59.999Z",
+                "2000-02-29T12:00:00Z",
+                "2023-08-21T10:15:30Z",
+                "2023-08-21T10:15:30.1Z",
+                "2023-08-21T10:15:30.12Z",
+                "2023-08-21T10:15:30.123Z",
+                "2023-08-21T10:15:30.123456789Z",
+                "0001-01-01T00:00:00Z",
+                "9999-12-31T23:59:59.999Z",
+        };
+        for (final String value : values) {
+            assertEquals(value, Instant.parse(value).toEpochMilli(), ValueFormatter.parseEpochMillis(value));
+        }
+    }
+
+    @Test
+    public void testParseEpochMillisFallsBackToInstant() {
+        assertEquals(Instant.parse("+12345-01-01T00:00:00Z").toEpochMilli(),
+                ValueFormatter.parseEpochMillis("+12345-01-01T00:00:00Z"));
+        assertEquals(Instant.parse("2023-08-21T10:15:30.123Z").toEpochMilli(),
+                ValueFormatter.parseEpochMillis("2023-08-21T12:15:30.123+02:00"));
+    }
+
+    @Test
+    public void testParseEpochMillisRejectsInvalidDates() {
+        for (final String value : new String[] {"2023-02-29T00:00:00Z", "2023-13-01T00:00:00Z", "2023-08-21T10:60:00Z",
+                "2023-08-21 10:15:30Z", "not a date"}) {
+            assertThrows(value, DateTimeParseException.class, () -> ValueFormatter.parseEpochMillis(value));
+        }
+    }
+
+    @Test
+    public void testFormatEpochMillis() {
+        assertEquals("1692612930123", ValueFormatter.formatEpochMillis("2023-08-21T10:15:30.123Z"));
+    }
+}
@@ -0,0 +1,107 @@
+package software.amazon.timestream.utility.reader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import software.amazon.awssdk.services.timestreamwrite.model.DataModel;
+import software.amazon.timestream.exception.TimestreamSinkConnectorException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+public class TimestreamSchemaRefresherTest {
+
+    private static final long REFRESH_INTERVAL_MS = 10;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final BlockingQueue<DataModel> appliedSchemas = new LinkedBlockingQueue<>();
+    private Path schemaFile;
+    private long lastModified = 1_000_000L;
+    private TimestreamSchemaRefresher refresher;
+
+    @Before
+    public void setUp() throws IOException {
+        schemaFile = folder.newFile("schema.json").toPath();
+        writeSchema("{\"TimeColumn\":\"time\",\"MeasureNameColumn\":\"metrics\"}");
+    }
+
+    @After
+    public void tearDown() {
+        if (refresher != null) {
+            refresher.close();
+        }
+    }
+
+    /**
+     * Writes the schema definition with a last modified time later than the previous one,
+     * so that the change is seen regardless of the resolution of the file system clock
+     */
+    private void writeSchema(final String json) throws IOException {
+        Files.write(schemaFile, json.getBytes(StandardCharsets.UTF_8));
+        lastModified += 1000;
+        Files.setLastModifiedTime(schemaFile, FileTime.fromMillis(lastModified));
+    }
+
+    @Test
+    public void testChangedSchemaDefinition() throws IOException {
+        final TimestreamFileSchemaReader reader = new TimestreamFileSchemaReader(schemaFile);
+        assertNull(reader.getSchemaVersion());
+        assertEquals("metrics", reader.getSchemaDefinition().measureNameColumn());
+        final String version = reader.getSchemaVersion();
+        assertNotNull(version);
+        assertNull(reader.getChangedSchemaDefinition());
+
+        writeSchema("{\"TimeColumn\":\"time\",\"MeasureNameColumn\":\"readings\"}");
+        assertEquals("readings", reader.getChangedSchemaDefinition().measureNameColumn());
+        assertNull(reader.getChangedSchemaDefinition());
+        assertNotEquals(version, reader.getSchemaVersion());
+    }
+
+    @Test
+    public void testInvalidSchemaDefinition() throws IOException {
+        writeSchema("{\"TimeColumn\":");
+        final TimestreamFileSchemaReader reader = new TimestreamFileSchemaReader(schemaFile);
+        assertThrows(TimestreamSinkConnectorException.class, reader::getSchemaDefinition);
+        assertNull(reader.getSchemaVersion());
+    }
+
+    @Test
+    public void testChangedSchemaApplied() throws Exception {
+        final TimestreamFileSchemaReader reader = new TimestreamFileSchemaReader(schemaFile);
+        reader.getSchemaDefinition();
+        refresher = new TimestreamSchemaRefresher(reader, REFRESH_INTERVAL_MS, appliedSchemas::add);
+        assertNull(appliedSchemas.poll(REFRESH_INTERVAL_MS * 5, TimeUnit.MILLISECONDS));
+
+        writeSchema("{\"TimeColumn\":\"time\",\"MeasureNameColumn\":\"readings\"}");
+        assertEquals("readings", appliedSchemas.poll(5, TimeUnit.SECONDS).measureNameColumn());
+    }
+
+    @Test
+    public void testRefreshContinuesAfterInvalidSchema() throws Exception {
+        final TimestreamFileSchemaReader reader = new TimestreamFileSchemaReader(schemaFile);
+        reader.getSchemaDefinition();
+        refresher = new TimestreamSchemaRefresher(reader, REFRESH_INTERVAL_MS, appliedSchemas::add);
+
+        writeSchema("{\"TimeColumn\":");
+        assertNull(appliedSchemas.poll(REFRESH_INTERVAL_MS * 5, TimeUnit.MILLISECONDS));
+
+        writeSchema("{\"TimeColumn\":\"time\",\"MeasureNameColumn\":\"readings\"}");
+        assertEquals("readings", appliedSchemas.poll(5, TimeUnit.SECONDS).measureNameColumn());
+    }
+}